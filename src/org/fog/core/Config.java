@@ -96,6 +96,24 @@ public class Config {
 	/** Absolute error value in which is considered that two solutions are equal */
 	public static final double CONVERGENCE_ERROR = 0.00001;
 	
+	/** Whether the random routes are drawn from the catalog of the k shortest paths between each two nodes (instead of hop by hop) */
+	public static boolean PATH_CATALOG_ROUTING = false;
+	
+	/** Maximum number of paths kept in the catalog between each two nodes */
+	public static int MAX_PATHS_CATALOG = 8;
+	
+	/** Whether each reconfiguration starts from the previous solution (repaired for the new topology) instead of random solutions */
+	public static boolean WARM_START = false;
+	
+	/** Maximum wall time of each execution of the optimization algorithm in milliseconds (the best solution found so far is used) */
+	public static long MAX_TIME_OPTIMIZATION = Long.MAX_VALUE;
+	
+	/** Whether the algorithms which support warm starts begin from the greedy solution when there is no previous solution to start from */
+	public static boolean GREEDY_SEED = false;
+	
+	/** Whether the greedy solution is used when the optimization algorithm does not find any valid solution within its budget */
+	public static boolean GREEDY_FALLBACK = true;
+	
 	
 	// Genetic algorithm --------------------------------------
 	
@@ -117,6 +135,33 @@ public class Config {
 	/** Maximum number of equal cost solutions of tuple routing through genetic algorithm to stop it */
 	public static final int MAX_ITER_ROUTING_CONVERGENCE_GA = 7;
 	
+	/** Number of threads used to solve the routing of the individuals of the Genetic Algorithm */
+	public static int NR_THREADS_GA = Runtime.getRuntime().availableProcessors();
+	
+	/** Defines whether the Genetic Algorithm uses a fixed seed (its results do not depend neither on the run nor on the number of threads) */
+	public static boolean DETERMINISTIC_GA = false;
+	
+	/** Seed used by the Genetic Algorithm in deterministic mode */
+	public static long SEED_GA = 0;
+	
+	/** Number of sub-populations (islands) of the Genetic Algorithm placement; 1 runs a single population */
+	public static int NR_ISLANDS_GA = 1;
+	
+	/** Number of module placement generations between each exchange of individuals among the islands */
+	public static int MIGRATION_INTERVAL_GA = 5;
+	
+	/** Number of best individuals which each island sends to the next one (ring topology) in each exchange */
+	public static int NR_MIGRANTS_GA = 1;
+	
+	/** Whether the routing of each placement is solved through the shortest path heuristic (the routing genetic algorithm is only run when it fails) */
+	public static boolean HEURISTIC_ROUTING_GA = false;
+	
+	/** Fraction of the Genetic Algorithm placement population which is initialized from the seed solution (warm start) */
+	public static double SEED_FRACTION_GA = 0.5;
+	
+	/** Maximum number of equal cost solutions of module placement through genetic algorithm to stop it (warm start) */
+	public static int MAX_ITER_PLACEMENT_CONVERGENCE_WARM_GA = 8;
+	
 	
 	// Random algorithm ---------------------------------------
 	
@@ -126,6 +171,100 @@ public class Config {
 	/** Maximum number of equal cost solutions of the problem through random algorithm to stop it */
 	public static final int MAX_ITER_CONVERGENCE_RANDOM = 13000;
 	
+	/** Maximum number of equal cost solutions of the problem through random algorithm to stop it (warm start) */
+	public static int MAX_ITER_CONVERGENCE_WARM_RANDOM = 2000;
+	
+	/** Number of threads used to sample the solutions of the random algorithm */
+	public static int NR_THREADS_RANDOM = Runtime.getRuntime().availableProcessors();
+	
+	/** Defines whether the random algorithm only samples nodes and links with enough resources left (see FeasibleSampler) */
+	public static boolean FEASIBLE_SAMPLING_RANDOM = false;
+	
+	
+	// Brute force algorithm ----------------------------------
+	
+	/** Number of threads used to explore the search tree of the brute force algorithm (1 to run it sequentially) */
+	public static int NR_THREADS_BF = Runtime.getRuntime().availableProcessors();
+	
+	/** Number of modules placed at the root of each subtree which is explored in parallel by the brute force algorithm */
+	public static int SPLIT_DEPTH_BF = 2;
+	
+	
+	// Linear programming -------------------------------------
+	
+	/** Defines whether the linear programming is solved by CPLEX (otherwise, by the built-in branch-and-bound solver) */
+	public static boolean CPLEX_LP = false;
+	
+	/** Number of threads used to explore the branch-and-bound tree of the linear programming (built-in solver) */
+	public static int NR_THREADS_LP = Runtime.getRuntime().availableProcessors();
+	
+	
+	// Multi-objective evolutionary algorithm -----------------
+	
+	/** Name of the multi-objective evolutionary algorithm within the MOEA Framework (e.g., NSGAII or NSGAIII) */
+	public static String ALGORITHM_MOEA = "NSGAII";
+	
+	/** Number of individuals running in the multi-objective evolutionary algorithm */
+	public static int POPULATION_SIZE_MOEA = 100;
+	
+	/** Maximum number of evaluations of the multi-objective evolutionary algorithm */
+	public static int MAX_EVALUATIONS_MOEA = 20000;
+	
+	/** Number of threads used to evaluate the individuals of the multi-objective evolutionary algorithm */
+	public static int NR_THREADS_MOEA = Runtime.getRuntime().availableProcessors();
+	
+	
+	// Simulated annealing algorithm --------------------------
+	
+	/** Maximum number of moves (among all threads) of the simulated annealing algorithm */
+	public static int MAX_ITER_SA = 200000;
+	
+	/** Maximum number of moves without improving the best solution of a thread before it restarts (simulated annealing) */
+	public static int MAX_ITER_CONVERGENCE_SA = 5000;
+	
+	/** Maximum number of restarts of each thread of the simulated annealing algorithm without improving its best solution */
+	public static int MAX_RESTARTS_SA = 5;
+	
+	/** Initial temperature of the simulated annealing algorithm (1 accepts an average worsening move with probability 1/e) */
+	public static double INITIAL_TEMPERATURE_SA = 1;
+	
+	/** Factor by which the temperature of the simulated annealing algorithm is multiplied after each move */
+	public static double COOLING_RATE_SA = 0.999;
+	
+	/** Temperature below which each thread of the simulated annealing algorithm restarts */
+	public static double MIN_TEMPERATURE_SA = 1E-3;
+	
+	/** Number of moves during which the reverse of an accepted move is tabu (simulated annealing) */
+	public static int TABU_TENURE_SA = 10;
+	
+	/** Number of threads of the simulated annealing algorithm (each one runs its own chain, with its own restarts) */
+	public static int NR_THREADS_SA = Runtime.getRuntime().availableProcessors();
+	
+	
+	// Decomposition ------------------------------------------
+	
+	/** Whether the problem is split into groups of applications which only share resources, each one solved on its own thread */
+	public static boolean DECOMPOSITION = false;
+	
+	/** Maximum number of groups (and threads) of the decomposition */
+	public static int NR_THREADS_DECOMPOSITION = Runtime.getRuntime().availableProcessors();
+	
+	/** Maximum number of rounds in which the resources reserved for each group are adjusted */
+	public static int MAX_ROUNDS_DECOMPOSITION = 5;
+	
+	
+	// Hierarchical optimization ------------------------------
+	
+	/** Whether the topology is split into regions, each one solved on its own thread (takes precedence over DECOMPOSITION) */
+	public static boolean HIERARCHICAL = false;
+	
+	/** Maximum number of regions of the hierarchical optimization (the fog nodes are clustered by latency) */
+	public static int NR_REGIONS = 4;
+	
+	/** Number of threads used to solve the regions of the hierarchical optimization (1 to solve them sequentially) */
+	public static int NR_THREADS_HIERARCHICAL = Runtime.getRuntime().availableProcessors();
+	
+	
 	// Simulation ---------------------------------------------
 	
 	/** Defines whether the simulation runs in debug mode (i.e., prints the debug logs defined in the original version of iFogSim) */
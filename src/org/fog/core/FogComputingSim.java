@@ -135,6 +135,9 @@ public class FogComputingSim {
 	    System.out.println("|       2. Genetic Algorithm                     |");
 	    System.out.println("|       3. Random Algorithm                      |");
 	    System.out.println("|       4. Brute Force                           |");
+	    System.out.println("|       5. Multi-objective Evolutionary          |");
+	    System.out.println("|       6. Simulated Annealing                   |");
+	    System.out.println("|       7. Greedy Algorithm                      |");
 	    System.out.println("|       0. Exit                                  |");
 	    System.out.println("|                                                |");
 	    System.out.println("——————————————————————————————————————————————————");
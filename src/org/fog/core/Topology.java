@@ -77,6 +77,18 @@ public abstract class Topology {
 		deployApplications();
 	}
 	
+	/**
+	 * Removes all the elements of the previously created topologies (e.g., to create several topologies within the same run).
+	 */
+	public static void clean() {
+		applications.clear();
+		fogDevices.clear();
+		actuators.clear();
+		sensors.clear();
+		appToFogMap.clear();
+		ApplicationsExample.clean();
+	}
+	
 	/**
 	 * Create a new fog device.
 	 * 
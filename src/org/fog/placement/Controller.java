@@ -22,6 +22,7 @@ import org.fog.entities.FogDevice;
 import org.fog.entities.Sensor;
 import org.fog.entities.Tuple;
 import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.RoutingUpdate;
 import org.fog.placement.algorithm.Solution;
 import org.fog.utils.FogEvents;
 import org.fog.utils.NetworkMonitor;
@@ -61,6 +62,18 @@ public class Controller extends SimEntity {
 	/** List containing all actuators which it needs to supervise and manage */
 	private List<Actuator> actuators;
 	
+	/** Map between the id of the fog device and the fog device itself */
+	private Map<Integer, FogDevice> fogDeviceById;
+	
+	/** Map between the name of the fog device and the fog device itself */
+	private Map<String, FogDevice> fogDeviceByName;
+	
+	/** Map between the name of the application module and the application module itself */
+	private Map<String, AppModule> moduleByName;
+	
+	/** Map between the name of the application module and the application which it belongs to */
+	private Map<String, Application> applicationByModuleName;
+	
 	/** Object responsible for running the optimization algorithm and hold it's solution */
 	private ControllerAlgorithm controllerAlgorithm;
 	
@@ -70,6 +83,12 @@ public class Controller extends SimEntity {
 	/** Object which holds the results of the optimization algorithm */
 	private Solution solution;
 	
+	/** Tuple routing matrix which is currently deployed in the fog devices' routing tables */
+	private int[][] deployedTupleRoutingMap;
+	
+	/** Virtual machine routing matrix which is currently deployed in the fog devices' routing tables */
+	private int[][] deployedMigrationRoutingMap;
+	
 	/** Number of migrations performed during the whole simulation */
 	private int nrMigrations;
 	
@@ -94,11 +113,22 @@ public class Controller extends SimEntity {
 		appLaunchDelays = new HashMap<String, Integer>();
 		appModulePlacementPolicy = new HashMap<String, ModulePlacement>();
 		
-		this.fogDevices = fogDevices;
+		setFogDevices(fogDevices);
 		this.appList = applications;
 		this.sensors = sensors;
 		this.actuators = actuators;
 		
+		moduleByName = new HashMap<String, AppModule>();
+		applicationByModuleName = new HashMap<String, Application>();
+		for(Application application : appList) {
+			for(AppModule appModule : application.getModules()) {
+				if(!moduleByName.containsKey(appModule.getName())) {
+					moduleByName.put(appModule.getName(), appModule);
+					applicationByModuleName.put(appModule.getName(), application);
+				}
+			}
+		}
+		
 		controllerAlgorithm = new ControllerAlgorithm(algorithmOp);
 	}
 	
@@ -242,7 +272,7 @@ public class Controller extends SimEntity {
 	 */
 	public void updateTopology() {
 		Map<FogDevice, Map<FogDevice, FogDevice>> handovers;
-		int[][] previousModulePlacement = null;
+		int[] previousModulePlacement = null;
 		boolean first = false;
 		
 		// Updates both the algorithm bandwidth and latency map
@@ -267,15 +297,19 @@ public class Controller extends SimEntity {
 				// Create the connections for the mobile nodes
 				createConnection(mobile, to);
 			}
-			
+
 		// Else, if it's not the first execution check if there were some handovers and if the users selected a dynamic simulation
 		}else if(!handovers.isEmpty() && Config.DYNAMIC_SIMULATION) {
-			previousModulePlacement = solution.getModulePlacementMap();
+			previousModulePlacement = solution.getModulePlacement();
+			
+			// The previous solution is used as the starting point of the optimization algorithm
+			if(Config.WARM_START)
+				algorithm.setSeedSolution(solution);
 			
 			// If the user choose to allow to perform migrations
 			if(!Config.ALLOW_MIGRATION)
-				algorithm.setPossibleDeployment(algorithm.getCurrentPlacement());
-			
+				algorithm.restrictDeploymentToCurrentPlacement();
+		
 		// Otherwise, do nothing
 		}else
 			return;
@@ -287,14 +321,14 @@ public class Controller extends SimEntity {
 		
 		// If it's the first execution, just deploy the applications into the respective nodes and create the tuple routing tables
 		if(first) {
-			deployApplications(algorithm.extractPlacementMap(solution.getModulePlacementMap()));
+			deployApplications(algorithm.extractPlacementMap(solution.getModulePlacement()));
 			updateTupleRoutingTables(algorithm, solution.getTupleRoutingMap());
-			
+
 		// Otherwise, notify the fog nodes to change their connections, update the routing tables and migrate modules if needed
 		}else {
 			updateTupleRoutingTables(algorithm, solution.getTupleRoutingMap());
 			updateMigrationTables(algorithm, solution.getMigrationRoutingMap());
-		
+
 			// Update connections
 			for(FogDevice mobile : handovers.keySet()) {
 				Map<FogDevice, FogDevice> handover = handovers.get(mobile);
@@ -308,7 +342,7 @@ public class Controller extends SimEntity {
 			}
 			
 			// Migrate modules
-			migrateModules(solution.getModulePlacementMap(), previousModulePlacement);
+			migrateModules(solution.getModulePlacement(), previousModulePlacement);
 		}
 	}
 	
@@ -412,7 +446,7 @@ public class Controller extends SimEntity {
 	private void createConnection(FogDevice mobile, FogDevice to) {
 		if(Config.PRINT_DETAILS)
 			FogComputingSim.print("Creating connection between: " + mobile.getName() + " <-> " + to.getName());
-			
+
 		mobile.getLatencyMap().put(to.getId(), Config.CELLULAR_COMMUNICATION_LATENCY);
 		to.getLatencyMap().put(mobile.getId(), Config.CELLULAR_COMMUNICATION_LATENCY);
 		
@@ -447,17 +481,27 @@ public class Controller extends SimEntity {
 	 * @param modulePlacementMap the map between the node names and the application modules names
 	 */
 	private void deployApplications(Map<String, List<String>> modulePlacementMap) {
+		// Invert the placement map so that each module is looked up once
+		Map<String, List<String>> devicesByModule = new HashMap<String, List<String>>();
+		for(String deviceName : modulePlacementMap.keySet()) {
+			for(String moduleName : modulePlacementMap.get(deviceName)) {
+				if(!devicesByModule.containsKey(moduleName))
+					devicesByModule.put(moduleName, new ArrayList<String>());
+				devicesByModule.get(moduleName).add(deviceName);
+			}
+		}
+		
 		for(Application application : appList) {
 			Map<String, List<String>> moduleMapping = new HashMap<String, List<String>>();
 			
 			for(AppModule appModule : application.getModules()) {
-				for(String deviceName : modulePlacementMap.keySet()) {
-					if(modulePlacementMap.get(deviceName).contains(appModule.getName())) {
-						if(!moduleMapping.containsKey(deviceName))
-							moduleMapping.put(deviceName, new ArrayList<String>());
-						if(!moduleMapping.get(deviceName).contains(appModule.getName()))
-							moduleMapping.get(deviceName).add(appModule.getName());
-					}
+				if(!devicesByModule.containsKey(appModule.getName())) continue;
+				
+				for(String deviceName : devicesByModule.get(appModule.getName())) {
+					if(!moduleMapping.containsKey(deviceName))
+						moduleMapping.put(deviceName, new ArrayList<String>());
+					if(!moduleMapping.get(deviceName).contains(appModule.getName()))
+						moduleMapping.get(deviceName).add(appModule.getName());
 				}
 			}
 			
@@ -473,24 +517,14 @@ public class Controller extends SimEntity {
 	 * @param currentModulePlacement the current module placement
 	 * @param previousModulePlacement the module placement obtained from the optimization algorithm
 	 */
-	private void migrateModules(int[][] currentModulePlacement, int[][] previousModulePlacement) {
+	private void migrateModules(int[] currentModulePlacement, int[] previousModulePlacement) {
 		appModulePlacementPolicy.clear();
 		
 		for(int j = 0; j < algorithm.getNumberOfModules(); j++) {
-			int previousPlacement = -1;
-			int currentPlacement = -1;
+			int previousPlacement = previousModulePlacement[j];
+			int currentPlacement = currentModulePlacement[j];
 			
-			for(int i = 0; i < algorithm.getNumberOfNodes(); i++) {
-				if(currentModulePlacement[i][j] == 1) {
-					currentPlacement = i;
-				}
-				
-				if(previousModulePlacement[i][j] == 1) {
-					previousPlacement = i;
-				}
-			}
-			
-			if(previousPlacement == -1 || previousPlacement == -1)
+			if(previousPlacement == -1 || currentPlacement == -1)
 				FogComputingSim.err("Should not happen (Controller)");
 			
 			if(currentPlacement != previousPlacement) {
@@ -524,57 +558,56 @@ public class Controller extends SimEntity {
 	}
 	
 	/**
-	 * Updates the tuple routing tables for all fog devices.
+	 * Updates the tuple routing tables for all fog devices. Only the entries which differ from the currently deployed
+	 * tuple routing matrix are pushed to the fog devices.
 	 * 
 	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
 	 * @param routingMatrix the tuple routing matrix obtained from the optimization algorithm
 	 */
 	private void updateTupleRoutingTables(Algorithm algorithm, int[][] routingMatrix) {
-		// Clear the current routing tables
-		for(FogDevice fogDevice : fogDevices)
-			fogDevice.getTupleRoutingTable().clear();
-		
-		Map<Map<Integer, Map<String, String>>, Integer> routingMap = algorithm.extractRoutingMap(routingMatrix);
-		
+		List<RoutingUpdate> updates = algorithm.extractRoutingUpdates(deployedTupleRoutingMap, routingMatrix);
 		
-		// Update routing tables afterwards
-		for(Map<Integer, Map<String, String>> hop : routingMap.keySet()) {
-			for(Integer node : hop.keySet()) {
-
-				FogDevice fogDevice = getFogDeviceById(algorithm.getfId()[node]);
-				
-				// Sensors and actuators do not need routing map
-				if(fogDevice == null)
-					continue;
-				
-				fogDevice.getTupleRoutingTable().put(hop.get(node), algorithm.getfId()[routingMap.get(hop)]);
-			}
+		for(RoutingUpdate update : updates) {
+			FogDevice fogDevice = getFogDeviceById(algorithm.getfId()[update.getNode()]);
+			
+			// Sensors and actuators do not need routing map
+			if(fogDevice == null)
+				continue;
+			
+			Map<String, String> tupleTransmission = new HashMap<String, String>();
+			tupleTransmission.put(algorithm.getmName()[algorithm.getStartModDependency(update.getEntry())],
+					algorithm.getmName()[algorithm.getFinalModDependency(update.getEntry())]);
+			
+			if(update.isRemoval())
+				fogDevice.getTupleRoutingTable().remove(tupleTransmission);
+			else
+				fogDevice.getTupleRoutingTable().put(tupleTransmission, algorithm.getfId()[update.getNextHop()]);
 		}
+		
+		deployedTupleRoutingMap = Util.copy(routingMatrix);
 	}
 	
 	/**
-	 * Updates the migration of virtual machines routing tables for all fog devices.
+	 * Updates the migration of virtual machines routing tables for all fog devices. Only the entries which differ from the
+	 * currently deployed virtual machine routing matrix are pushed to the fog devices.
 	 * 
 	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
 	 * @param migrationMatrix the virtual machine routing matrix obtained from the optimization algorithm
 	 */
 	private void updateMigrationTables(Algorithm algorithm, int[][] migrationMatrix) {
-		for(FogDevice fogDevice : fogDevices)
-			fogDevice.getVmRoutingTable().clear();
-		
-		for(int i = 0; i < algorithm.getNumberOfModules(); i++) {
-			for(int j = 1; j <  algorithm.getNumberOfNodes(); j++) {				
-				if(migrationMatrix[i][j-1] != migrationMatrix[i][j]) {
-					int fogId = algorithm.getfId()[migrationMatrix[i][j-1]];
-					int nextHopId = algorithm.getfId()[migrationMatrix[i][j]];
-					
-					FogDevice fogDevice = getFogDeviceById(fogId);
-					String vmName = algorithm.getmName()[i];
-					
-					fogDevice.getVmRoutingTable().put(vmName, nextHopId);
-				}
-			}
+		List<RoutingUpdate> updates = algorithm.extractRoutingUpdates(deployedMigrationRoutingMap, migrationMatrix);
+		
+		for(RoutingUpdate update : updates) {
+			FogDevice fogDevice = getFogDeviceById(algorithm.getfId()[update.getNode()]);
+			String vmName = algorithm.getmName()[update.getEntry()];
+			
+			if(update.isRemoval())
+				fogDevice.getVmRoutingTable().remove(vmName);
+			else
+				fogDevice.getVmRoutingTable().put(vmName, algorithm.getfId()[update.getNextHop()]);
 		}
+		
+		deployedMigrationRoutingMap = Util.copy(migrationMatrix);
 	}
 	
 	/**
@@ -584,10 +617,7 @@ public class Controller extends SimEntity {
 	 * @return the fog device itself; can be full if it was not found
 	 */
 	public FogDevice getFogDeviceById(int id){
-		for(FogDevice fogDevice : getFogDevices())
-			if(id==fogDevice.getId())
-				return fogDevice;
-		return null;
+		return fogDeviceById.get(id);
 	}
 	
 	/**
@@ -597,10 +627,7 @@ public class Controller extends SimEntity {
 	 * @return the fog device itself; can be full if it was not found
 	 */
 	private FogDevice getFogDeviceByName(String name){
-		for(FogDevice fogDevice : getFogDevices())
-			if(name.equals(fogDevice.getName()))
-				return fogDevice;
-		return null;
+		return fogDeviceByName.get(name);
 	}
 	
 	/**
@@ -610,11 +637,7 @@ public class Controller extends SimEntity {
 	 * @return the application module itself; can be full if it was not found
 	 */
 	private AppModule getModuleByName(String name){
-		for(Application application : appList)
-			for(AppModule appModule : application.getModules())
-				if(appModule.getName().equals(name))
-					return appModule;
-		return null;
+		return moduleByName.get(name);
 	}
 	
 	/**
@@ -623,13 +646,13 @@ public class Controller extends SimEntity {
 	 * @param name the name of the application module name
 	 * @return the application itself; can be full if it was not found
 	 */
-	private Application getApplicationByModule(AppModule appModule){		
-		for(String appId : applications.keySet()) {
-			Application application = applications.get(appId);
-			if(application.getModules().contains(appModule))
-				return application;
-		}
-		return null;
+	private Application getApplicationByModule(AppModule appModule){
+		Application application = applicationByModuleName.get(appModule.getName());
+		
+		// Only the applications which were already submitted are considered
+		if(application == null || applications.get(application.getAppId()) != application)
+			return null;
+		return application;
 	}
 	
 	/**
@@ -648,6 +671,15 @@ public class Controller extends SimEntity {
 	 */
 	public void setFogDevices(List<FogDevice> fogDevices) {
 		this.fogDevices = fogDevices;
+		
+		fogDeviceById = new HashMap<Integer, FogDevice>();
+		fogDeviceByName = new HashMap<String, FogDevice>();
+		for(FogDevice fogDevice : fogDevices) {
+			if(!fogDeviceById.containsKey(fogDevice.getId()))
+				fogDeviceById.put(fogDevice.getId(), fogDevice);
+			if(!fogDeviceByName.containsKey(fogDevice.getName()))
+				fogDeviceByName.put(fogDevice.getName(), fogDevice);
+		}
 	}
 	
 	/**
@@ -1,6 +1,8 @@
 package org.fog.placement;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.fog.application.Application;
@@ -10,14 +12,21 @@ import org.fog.entities.Actuator;
 import org.fog.entities.FogDevice;
 import org.fog.entities.Sensor;
 import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Budget;
 import org.fog.placement.algorithm.util.AlgorithmUtils;
 import org.fog.utils.output.ExcelUtils;
 import org.fog.utils.output.MatlabChartUtils;
 import org.fog.placement.algorithm.Solution;
 import org.fog.placement.algorithm.bf.BruteForce;
+import org.fog.placement.algorithm.decomposition.DecomposedAlgorithm;
 import org.fog.placement.algorithm.ga.GeneticAlgorithm;
+import org.fog.placement.algorithm.greedy.GreedyAlgorithm;
+import org.fog.placement.algorithm.greedy.GreedyPlacement;
+import org.fog.placement.algorithm.hierarchical.HierarchicalAlgorithm;
 import org.fog.placement.algorithm.lp.LinearProgramming;
+import org.fog.placement.algorithm.moea.MultiObjectiveAlgorithm;
 import org.fog.placement.algorithm.rand.RandomAlgorithm;
+import org.fog.placement.algorithm.sa.SimulatedAnnealing;
 
 /**
  * Class which is responsible for choosing and running the optimization algorithm in order to
@@ -27,17 +36,23 @@ import org.fog.placement.algorithm.rand.RandomAlgorithm;
  * @since  July, 2019
  */
 public class ControllerAlgorithm {
-	public static final int NR_ALGORITHMS = 4;
+	public static final int NR_ALGORITHMS = 7;
 	
 	private static final int LP = 1;
 	private static final int GA = 2;
 	private static final int RAND = 3;
 	private static final int BF = 4;
+	private static final int MOEA = 5;
+	private static final int SA = 6;
+	private static final int GREEDY = 7;
 	
 	
 	/** Object which holds all the information needed to run the optimization algorithm */
 	private Algorithm algorithm;
 	
+	/** Chosen optimization algorithm (if the problem is decomposed, it only creates the ones which solve each part) */
+	private Algorithm engine;
+	
 	/** Object which holds the results of the optimization algorithm */
 	private Solution solution;
 	
@@ -47,6 +62,9 @@ public class ControllerAlgorithm {
 	/** Name of the optimization algorithm chosen to be executed */
 	private String algorithmName = "";
 	
+	/** Greedy solution used as the seed of the last execution; null if it was not used */
+	private Solution greedySolution;
+	
 	/**
 	 * Creates a new instance and receives all the information needed for the optimization algorithm.
 	 * 
@@ -84,21 +102,89 @@ public class ControllerAlgorithm {
 					algorithmName = "Brute Force Algorithm";
 					algorithm = new BruteForce(fogDevices, appList, sensors, actuators);
 					break;
+				case MOEA:
+					algorithmName = "Multi-objective Evolutionary Algorithm";
+					algorithm = new MultiObjectiveAlgorithm(fogDevices, appList, sensors, actuators);
+					break;
+				case SA:
+					algorithmName = "Simulated Annealing";
+					algorithm = new SimulatedAnnealing(fogDevices, appList, sensors, actuators);
+					break;
+				case GREEDY:
+					algorithmName = "Greedy Algorithm";
+					algorithm = new GreedyAlgorithm(fogDevices, appList, sensors, actuators);
+					break;
 				default:
 					FogComputingSim.err("Unknown algorithm");
 			}
+			engine = algorithm;
+			
+			// Each region of the topology is solved on its own thread by the chosen algorithm
+			if(Config.HIERARCHICAL) {
+				algorithm = new HierarchicalAlgorithm(algorithm);
+				algorithmName = "Hierarchical " + algorithmName;
+			
+			// Each group of applications which only share resources is solved on its own thread by the chosen algorithm
+			}else if(Config.DECOMPOSITION) {
+				algorithm = new DecomposedAlgorithm(algorithm);
+				algorithmName = "Decomposed " + algorithmName;
+			}
 		}
 		
 		if(Config.PRINT_DETAILS)
 			System.out.println("\n\nRunning the optimization algorithm: " + algorithmName + ".");
 		
-		solution = algorithm.execute();
+		// Unless there is a previous solution to start from, the algorithm starts from the greedy solution
+		boolean greedy = engine instanceof GreedyAlgorithm;
+		if(Config.GREEDY_SEED && !greedy && (algorithm.getSeedSolution() == null || algorithm.getSeedSolution() == greedySolution)) {
+			greedySolution = new GreedyPlacement(algorithm).build();
+			algorithm.setSeedSolution(greedySolution);
+		}
+		
+		Budget budget = new Budget();
+		budget.setMaxTime(Config.MAX_TIME_OPTIMIZATION);
+		
+		solution = algorithm.execute(budget);
+		
+		// If the algorithm did not find any valid solution (e.g., its budget was exhausted), the greedy solution is used instead
+		if(Config.GREEDY_FALLBACK && !greedy && (solution == null || !solution.isValid())) {
+			Solution fallback = new GreedyPlacement(algorithm).build();
+			
+			if(Solution.isBetterSolution(fallback, solution)) {
+				if(Config.PRINT_DETAILS)
+					System.out.println("\nThe " + algorithmName + " did not find any valid solution. Using the greedy solution instead.");
+				solution = fallback;
+			}
+		}
 		
 		if(solution == null || !solution.isValid())
 			FogComputingSim.err("There is no possible combination to deploy all applications");
 		
-		if(Config.PRINT_ALGORITHM_RESULTS)
+		if(Config.PRINT_ALGORITHM_RESULTS) {
 	    	AlgorithmUtils.printAlgorithmResults(algorithm, solution);
+	    	
+	    	// If the problem is decomposed, the statistics are summed over the algorithms which solved each part
+	    	if(engine instanceof RandomAlgorithm) {
+	    		long nrSamples = 0, nrFeasibleSamples = 0;
+	    		for(Algorithm executed : getExecutedAlgorithms()) {
+	    			RandomAlgorithm randomAlgorithm = (RandomAlgorithm) executed;
+	    			nrSamples += randomAlgorithm.getNrSamples();
+	    			nrFeasibleSamples += randomAlgorithm.getNrFeasibleSamples();
+	    		}
+	    		System.out.format("**Feasible samples: %d/%d (%.2f%%)**\n\n", nrFeasibleSamples, nrSamples,
+	    				nrSamples == 0 ? 0.0 : 100.0*nrFeasibleSamples/nrSamples);
+	    	}
+	    	
+	    	if(engine instanceof LinearProgramming) {
+	    		long modelBuildTime = 0, solveTime = 0;
+	    		for(Algorithm executed : getExecutedAlgorithms()) {
+	    			LinearProgramming linearProgramming = (LinearProgramming) executed;
+	    			modelBuildTime += linearProgramming.getModelBuildTime();
+	    			solveTime += linearProgramming.getSolveTime();
+	    		}
+	    		System.out.format("**Model build time: %d ms | Solve time: %d ms**\n\n", modelBuildTime, solveTime);
+	    	}
+		}
 		
 		if(Config.PLOT_ALGORITHM_RESULTS && !algorithmName.equals("Multi-objective Linear Programming"))
 			new MatlabChartUtils(algorithm, algorithmName);
@@ -112,6 +198,26 @@ public class ControllerAlgorithm {
 		}
 	}
 	
+	/**
+	 * Gets the optimization algorithms which solved the problem in the last execution (i.e., if the problem is decomposed,
+	 * the ones which solved each part).
+	 * 
+	 * @return the list of optimization algorithms
+	 */
+	private List<Algorithm> getExecutedAlgorithms() {
+		List<Algorithm> executed = new ArrayList<Algorithm>();
+		
+		if(algorithm instanceof DecomposedAlgorithm) {
+			executed.addAll(Arrays.asList(((DecomposedAlgorithm) algorithm).getSubproblems()));
+		}else if(algorithm instanceof HierarchicalAlgorithm) {
+			executed.addAll(Arrays.asList(((HierarchicalAlgorithm) algorithm).getSubproblems()));
+		}else {
+			executed.add(algorithm);
+		}
+		
+		return executed;
+	}
+	
 	/**
 	 * Gets the object which holds all the information needed to run the optimization algorithm.
 	 * 
@@ -128,6 +234,7 @@ public class ControllerAlgorithm {
 	 */
 	public void setAlgorithm(Algorithm algorithm) {
 		this.algorithm = algorithm;
+		this.engine = algorithm;
 	}
 	
 	/**
@@ -3,8 +3,7 @@ package org.fog.placement.algorithm;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -26,9 +25,8 @@ import org.fog.entities.FogDeviceCharacteristics;
 import org.fog.entities.Sensor;
 import org.fog.placement.algorithm.util.AlgorithmUtils;
 import org.fog.placement.algorithm.util.routing.DijkstraAlgorithm;
-import org.fog.placement.algorithm.util.routing.Edge;
-import org.fog.placement.algorithm.util.routing.Graph;
-import org.fog.placement.algorithm.util.routing.Vertex;
+import org.fog.placement.algorithm.util.routing.PathCatalog;
+import org.fog.placement.algorithm.util.routing.ShortestPathTable;
 import org.fog.utils.FogLinearPowerModel;
 import org.fog.utils.communication.MobilePathLossModel;
 import org.fog.utils.distribution.DeterministicDistribution;
@@ -46,6 +44,11 @@ public abstract class Algorithm {
 	private static final int START = 0;
 	private static final int FINAL = 1;
 	
+	private static final int PAIR_DEPENDENCY = 0;
+	private static final int PAIR_BANDWIDTH = 1;
+	private static final int PAIR_NW = 2;
+	private static final int PAIR_CPU = 3;
+	
 	/** Number of fog devices within the fog network */
 	private final int NR_NODES;
 	
@@ -106,6 +109,9 @@ public abstract class Algorithm {
 	/** Vector holding the name of each application module */
 	private String mName[];
 	
+	/** Vector holding the structured identifier (application, template module and owner node) of each application module */
+	private ModuleIdentifier mIdentifier[];
+	
 	/** Vector holding the quantity of processing resources needed in each application module */
 	private double mMips[];
 	
@@ -120,34 +126,73 @@ public abstract class Algorithm {
 	
 	// Node to Node -------------------------------------------
 	
-	/** Matrix holding the link latency between each two fog nodes */
+	/** Adjacency lists holding the indexes of the neighbors of each fog node (sorted in ascending order) */
+	private int[][] fNeighbors;
+	
+	/** Adjacency lists holding the link latency between each fog node and each one of its neighbors */
+	private double[][] fNeighborLatency;
+	
+	/** Adjacency lists holding the link bandwidth available between each fog node and each one of its neighbors */
+	private double[][] fNeighborBandwidth;
+	
+	/** Dense matrix holding the link latency between each two fog nodes (only built on demand) */
 	private double[][] fLatencyMap;
 	
-	/** Matrix holding the link bandwidth available between each two fog nodes */
+	/** Dense matrix holding the link bandwidth available between each two fog nodes (only built on demand) */
 	private double[][] fBandwidthMap;
 	
 	// Module to Module ---------------------------------------
 	/** Matrix holding the dependencies index (source and destination) between each pair of modules */
 	private int[][] dependenciesIndex;
 	
-	/** Matrix holding the average dependencies (dependency = probability / periodicity) between each two modules */
+	/** Vector holding the index of the first dependency of each source module (dependencies are sorted by source module) */
+	private int[] dependenciesOffset;
+	
+	/** Vector holding the average dependency (dependency = probability / periodicity) of each dependency */
+	private double[] dDependency;
+	
+	/** Vector holding the average bandwidth (bandwidth  = probability * network size / periodicity) needed by each dependency */
+	private double[] dBandwidth;
+	
+	/** Vector holding the tuple network size of each dependency */
+	private double[] dNW;
+	
+	/** Vector holding the tuple CPU size of each dependency */
+	private double[] dCPU;
+	
+	/** Vector holding the sum of the tuple CPU sizes received by each module */
+	private double[] mCPUIn;
+	
+	/** Dense matrix holding the average dependencies between each two modules (only built on demand) */
 	private double[][] mDependencyMap;
 	
-	/** Matrix holding the average bandwidth (bandwidth  = probability * network size / periodicity) needed between each two modules */
+	/** Dense matrix holding the average bandwidth needed between each two modules (only built on demand) */
 	private double[][] mBandwidthMap;
 	
-	/** Matrix holding the tuple network sizes between each two modules */
+	/** Dense matrix holding the tuple network sizes between each two modules (only built on demand) */
 	private double[][] mNWMap;
 	
-	/** Matrix holding the tuple CPU sizes between each two modules */
+	/** Dense matrix holding the tuple CPU sizes between each two modules (only built on demand) */
 	private double[][] mCPUMap;
 	
 	// Node to Module -----------------------------------------
 	
-	/** Matrix holding the possible position of each module (e.g., if is a GUI, it makes sense to only run inside the client node) */
+	/** Lists holding the indexes of the nodes where each module can be deployed (e.g., if is a GUI, it makes sense to only run inside the client node) */
+	private int[][] possibleNodes;
+	
+	/** Vector holding the index of the node where each module is currently deployed (this is used to reconfigure/migrate modules through the network); -1 if unknown */
+	private int[] currentNode;
+	
+	/** Number of modules whose current node is known */
+	private int nrCurrentlyPlaced;
+	
+	/** Whether each module can only be deployed in the node where it is currently deployed */
+	private boolean deploymentFixed;
+	
+	/** Dense matrix holding the possible position of each module (only built on demand) */
 	private double[][] possibleDeployment;
 	
-	/** Matrix holding the current module placement map (this is used to reconfigure/migrate modules through the network) */
+	/** Dense matrix holding the current module placement map (only built on demand) */
 	private double[][] currentPlacement;
 	
 	// Loops --------------------------------------------------
@@ -166,20 +211,40 @@ public abstract class Algorithm {
 	/** Vector holding the application of each loop */
 	private int[] loopsApplication;
 	
-	/** List with the nodes for the execution of the Dijkstra Algorithm */
-	private List<Vertex> dijkstraNodes;
-	
-	/** Object responsible for running the Dijkstra Algorithm */
+	/** Object responsible for running the Dijkstra Algorithm over the link latencies (built once per topology version) */
 	private DijkstraAlgorithm dijkstra;
 	
+	/** Table holding the shortest paths between each two fog nodes (computed once per topology version) */
+	private ShortestPathTable shortestPaths;
+	
+	/** Catalog holding the k shortest paths between each two fog nodes (computed on demand, once per topology version) */
+	private PathCatalog pathCatalog;
+	
+	// Indexes ------------------------------------------------
+	
+	/** Map holding the index of each application module by its name */
+	private Map<String, Integer> moduleIndexMap;
+	
+	/** Vector holding the index of each fog device by its id (-1 if there is no fog device with that id) */
+	private int[] nodeIndexById;
+	
 	// Algorithm results --------------------------------------
 	
 	/** Map containing the correspondence between iteration and value in the execution of the optimization algorithm */
 	private Map<Map<Integer, Integer>, Double> valueIterMap;
 	
+	/** Map containing the correspondence between elapsed time (in milliseconds) and value in the execution of the optimization algorithm */
+	private Map<Map<Integer, Long>, Double> valueTimeMap;
+	
+	/** Budget of the current (or last) execution of the optimization algorithm */
+	private Budget budget;
+	
 	/** Elapsed time during the execution of the optimization algorithm */
 	private long elapsedTime;
 	
+	/** Solution used to warm start the next execution of the optimization algorithm (e.g., the previous one); can be null */
+	private Solution seedSolution;
+	
 	/**
 	 * Creates a new object, and parses all the information needed to run the optimization algorithm.
 	 * 
@@ -195,29 +260,34 @@ public abstract class Algorithm {
 		if(fogDevices == null || applications == null || sensors == null || actuators == null)
 			throw new IllegalArgumentException("Some of the received arguments are null");
 		
-		LinkedHashSet<String> hashSet = new LinkedHashSet<String>();
+		// Application modules come first, followed by the ones which only exist as edge endpoints (sensors and actuators)
+		Map<String, ModuleIdentifier> identifiers = new LinkedHashMap<String, ModuleIdentifier>();
 		for(Application application : applications) {
 			for(AppModule module : application.getModules()) {
-				hashSet.add(module.getName());
+				if(!identifiers.containsKey(module.getName()))
+					identifiers.put(module.getName(), ModuleIdentifier.fromModule(module));
 			}
-			
+		}
+		
+		for(Application application : applications) {
 			for(AppEdge appEdge : application.getEdges()) {
-				hashSet.add(appEdge.getSource());
-				hashSet.add(appEdge.getDestination());
+				if(!identifiers.containsKey(appEdge.getSource()))
+					identifiers.put(appEdge.getSource(), ModuleIdentifier.fromName(application.getAppId(), appEdge.getSource()));
+				
+				if(!identifiers.containsKey(appEdge.getDestination()))
+					identifiers.put(appEdge.getDestination(), ModuleIdentifier.fromName(application.getAppId(), appEdge.getDestination()));
 			}
 		}
 		
-		
 		NR_NODES = fogDevices.size();
-		NR_MODULES = hashSet.size();
+		NR_MODULES = identifiers.size();
 		
 		int tmp = 0;
 		for(Application application : applications) {
 			int lastId = -1;
 			
-			for(AppLoop loop : application.getLoops()) {				
-				String[] parts = loop.getModules().get(0).split("_");
-				int nodeId = Integer.parseInt(parts[parts.length-1]);
+			for(AppLoop loop : application.getLoops()) {
+				int nodeId = identifiers.get(loop.getModules().get(0)).getOwnerId();
 				
 				if(lastId != nodeId) {
 					tmp++;
@@ -230,21 +300,177 @@ public abstract class Algorithm {
 		
 		init();
 		extractDevicesCharacteristics(fogDevices);
-		extractModulesCharacteristics(applications, hashSet);
-		computeApplicationCharacteristics(applications, sensors);
+		extractModulesCharacteristics(applications, identifiers);
+		TreeMap<Long, double[]> modulePairs = computeApplicationCharacteristics(applications, sensors);
 		computeConnectionMap(fogDevices);
-		extractDependenciesIndex();
+		extractDependenciesIndex(modulePairs);
 		extractApplicationLoops(applications);
 		
 		if(Config.PRINT_DETAILS)
 			AlgorithmUtils.printAlgorithmDetails(this, fogDevices, applications, sensors, actuators);
 	}
 	
+	/**
+	 * Creates a new object holding the sub-problem of another one which only contains a given subset of its modules, as well
+	 * as the dependencies and loops between them (see DecomposedAlgorithm). The nodes and links are the same ones, but their
+	 * resources can be reserved for this sub-problem (see setCapacities). The module indexes of the sub-problem follow the
+	 * order of the given modules.
+	 * 
+	 * @param problem the object which holds the whole problem
+	 * @param modules the indexes of the modules of the sub-problem (in increasing order)
+	 */
+	protected Algorithm(final Algorithm problem, final int[] modules) {
+		NR_NODES = problem.NR_NODES;
+		NR_MODULES = modules.length;
+		
+		valueIterMap = new HashMap<Map<Integer,Integer>, Double>();
+		valueTimeMap = new HashMap<Map<Integer,Long>, Double>();
+		budget = new Budget();
+		
+		// Nodes (their capacities are copied, as they can be reserved)
+		fId = problem.fId;
+		fName = problem.fName;
+		fMips = problem.fMips.clone();
+		fRam = problem.fRam.clone();
+		fStrg = problem.fStrg.clone();
+		fBusyPw = problem.fBusyPw;
+		fIdlePw = problem.fIdlePw;
+		fTxPw = problem.fTxPw;
+		fIsFogDevice = problem.fIsFogDevice;
+		fMipsPrice = problem.fMipsPrice;
+		fRamPrice = problem.fRamPrice;
+		fStrgPrice = problem.fStrgPrice;
+		fBwPrice = problem.fBwPrice;
+		fPwPrice = problem.fPwPrice;
+		nodeIndexById = problem.nodeIndexById;
+		
+		// Links (the shortest paths only depend on the latency, thus they can be shared)
+		fNeighbors = problem.fNeighbors.clone();
+		fNeighborLatency = problem.fNeighborLatency.clone();
+		fNeighborBandwidth = new double[NR_NODES][];
+		for(int i = 0; i < NR_NODES; i++) {
+			fNeighborBandwidth[i] = problem.fNeighborBandwidth[i].clone();
+		}
+		
+		shortestPaths = problem.shortestPaths;
+		pathCatalog = problem.pathCatalog;
+		
+		// Modules
+		int[] moduleIndex = new int[problem.NR_MODULES];
+		Arrays.fill(moduleIndex, -1);
+		
+		mName = new String[NR_MODULES];
+		mIdentifier = new ModuleIdentifier[NR_MODULES];
+		moduleIndexMap = new HashMap<String, Integer>();
+		mMips = new double[NR_MODULES];
+		mRam = new double[NR_MODULES];
+		mStrg = new double[NR_MODULES];
+		mMigD = new double[NR_MODULES];
+		mCPUIn = new double[NR_MODULES];
+		possibleNodes = new int[NR_MODULES][];
+		currentNode = new int[NR_MODULES];
+		deploymentFixed = problem.deploymentFixed;
+		
+		for(int i = 0; i < NR_MODULES; i++) {
+			int module = modules[i];
+			moduleIndex[module] = i;
+			
+			addModule(i, problem.mName[module], problem.mIdentifier[module]);
+			mMips[i] = problem.mMips[module];
+			mRam[i] = problem.mRam[module];
+			mStrg[i] = problem.mStrg[module];
+			mMigD[i] = problem.mMigD[module];
+			mCPUIn[i] = problem.mCPUIn[module];
+			possibleNodes[i] = problem.possibleNodes[module];
+			currentNode[i] = problem.currentNode[module];
+			
+			if(currentNode[i] != -1)
+				nrCurrentlyPlaced++;
+		}
+		
+		// Dependencies (as the modules keep their order, the dependencies remain sorted by their starting module)
+		int nrDependencies = 0;
+		for(int i = 0; i < problem.getNumberOfDependencies(); i++) {
+			if(moduleIndex[problem.dependenciesIndex[START][i]] != -1 && moduleIndex[problem.dependenciesIndex[FINAL][i]] != -1)
+				nrDependencies++;
+		}
+		
+		dependenciesIndex = new int[2][nrDependencies];
+		dependenciesOffset = new int[NR_MODULES + 1];
+		dDependency = new double[nrDependencies];
+		dBandwidth = new double[nrDependencies];
+		dNW = new double[nrDependencies];
+		dCPU = new double[nrDependencies];
+		
+		for(int i = 0, k = 0; i < problem.getNumberOfDependencies(); i++) {
+			int start = moduleIndex[problem.dependenciesIndex[START][i]];
+			int end = moduleIndex[problem.dependenciesIndex[FINAL][i]];
+			if(start == -1 || end == -1) continue;
+			
+			dependenciesIndex[START][k] = start;
+			dependenciesIndex[FINAL][k] = end;
+			dDependency[k] = problem.dDependency[i];
+			dBandwidth[k] = problem.dBandwidth[i];
+			dNW[k] = problem.dNW[i];
+			dCPU[k] = problem.dCPU[i];
+			dependenciesOffset[start + 1]++;
+			k++;
+		}
+		
+		for(int i = 0; i < NR_MODULES; i++) {
+			dependenciesOffset[i + 1] += dependenciesOffset[i];
+		}
+		
+		// Loops (only the ones whose modules all belong to the sub-problem)
+		List<Integer> subLoops = new ArrayList<Integer>();
+		for(int i = 0; i < problem.loops.length; i++) {
+			boolean contained = true;
+			
+			for(int j = 0; j < problem.NR_MODULES && problem.loops[i][j] != -1; j++) {
+				if(moduleIndex[problem.loops[i][j]] == -1) {
+					contained = false;
+					break;
+				}
+			}
+			
+			if(contained)
+				subLoops.add(i);
+		}
+		
+		loops = new int[subLoops.size()][NR_MODULES];
+		loopsDeadline = new double[subLoops.size()];
+		loopsApplication = new int[subLoops.size()];
+		
+		int[] applicationIndex = new int[problem.NR_APPLICATIONS];
+		Arrays.fill(applicationIndex, -1);
+		int nrApplications = 0;
+		
+		for(int i = 0; i < subLoops.size(); i++) {
+			int loop = subLoops.get(i);
+			Arrays.fill(loops[i], -1);
+			
+			for(int j = 0; j < problem.NR_MODULES && problem.loops[loop][j] != -1; j++) {
+				loops[i][j] = moduleIndex[problem.loops[loop][j]];
+			}
+			
+			int application = problem.loopsApplication[loop];
+			if(applicationIndex[application] == -1)
+				applicationIndex[application] = nrApplications++;
+			
+			loopsDeadline[i] = problem.loopsDeadline[loop];
+			loopsApplication[i] = applicationIndex[application];
+		}
+		
+		NR_APPLICATIONS = nrApplications;
+	}
+	
 	/**
 	 * Initializes all variables with the correct lengths.
 	 */
 	private void init() {
 		valueIterMap = new HashMap<Map<Integer,Integer>, Double>();
+		valueTimeMap = new HashMap<Map<Integer,Long>, Double>();
+		budget = new Budget();
 		
 		fId = new int[NR_NODES];
 		fName = new String[NR_NODES];
@@ -263,21 +489,21 @@ public abstract class Algorithm {
 		fPwPrice = new double[NR_NODES];
 		
 		mName = new String[NR_MODULES];
+		mIdentifier = new ModuleIdentifier[NR_MODULES];
+		moduleIndexMap = new HashMap<String, Integer>();
 		mMips = new double[NR_MODULES];
 		mRam = new double[NR_MODULES];
 		mStrg = new double[NR_MODULES];
 		mMigD = new double[NR_MODULES];
+		mCPUIn = new double[NR_MODULES];
 		
-		fLatencyMap = new double[NR_NODES][NR_NODES];
-		fBandwidthMap = new double[NR_NODES][NR_NODES];
-		
-		possibleDeployment = new double[NR_NODES][NR_MODULES];
-		currentPlacement = new double[NR_NODES][NR_MODULES];
+		fNeighbors = new int[NR_NODES][];
+		fNeighborLatency = new double[NR_NODES][];
+		fNeighborBandwidth = new double[NR_NODES][];
 		
-		mDependencyMap = new double[NR_MODULES][NR_MODULES];
-		mBandwidthMap = new double[NR_MODULES][NR_MODULES];
-		mNWMap = new double[NR_MODULES][NR_MODULES];
-		mCPUMap = new double[NR_MODULES][NR_MODULES];
+		possibleNodes = new int[NR_MODULES][];
+		currentNode = new int[NR_MODULES];
+		Arrays.fill(currentNode, -1);
 	}
 	
 	// ------------------------------------------------------ Parse functions start --------------------------------------------------------
@@ -288,8 +514,18 @@ public abstract class Algorithm {
 	 * @param fogDevices the list containing all fog devices within the fog network
 	 */
 	private void extractDevicesCharacteristics(final List<FogDevice> fogDevices) {
+		int maxId = -1;
+		for(FogDevice fogDevice : fogDevices) {
+			maxId = Math.max(maxId, fogDevice.getId());
+		}
+		
+		nodeIndexById = new int[maxId + 1];
+		Arrays.fill(nodeIndexById, -1);
+		
 		int i = 0;
 		for(FogDevice fogDevice : fogDevices) {
+			nodeIndexById[fogDevice.getId()] = i;
+			
 			FogDeviceCharacteristics characteristics = (FogDeviceCharacteristics) fogDevice.getCharacteristics();
 			
 			double totalMips = 0;
@@ -318,11 +554,18 @@ public abstract class Algorithm {
 	 * Extracts the information from the application modules list.
 	 * 
 	 * @param applications the list containing all applications to be deployed into the fog network
-	 * @param hashSet the list containing the names of all application modules
+	 * @param identifiers the map containing the names and the identifiers of all application modules
 	 */
-	private void extractModulesCharacteristics(final List<Application> applications, final LinkedHashSet<String> hashSet) {
-		for(int i  = 0; i < NR_NODES; i++) {
-			Arrays.fill(possibleDeployment[i], 1);
+	private void extractModulesCharacteristics(final List<Application> applications, final Map<String, ModuleIdentifier> identifiers) {
+		int nrFogNodes = 0;
+		for(int j = 0; j < NR_NODES; j++) {
+			nrFogNodes += fIsFogDevice[j];
+		}
+		
+		int[] fogNodes = new int[nrFogNodes];
+		for(int j = 0, k = 0; j < NR_NODES; j++) {
+			if(fIsFogDevice[j] != 0)
+				fogNodes[k++] = j;
 		}
 		
 		int i = 0;
@@ -331,37 +574,30 @@ public abstract class Algorithm {
 				
 				// MIPS and BW will be computed later
 				if(getModuleIndexByModuleName(module.getName()) == -1) {
-					mName[i] = module.getName();
+					addModule(i, module.getName(), identifiers.get(module.getName()));
 					mRam[i] = module.getRam();
 					mStrg[i] = module.getSize();
 					mMigD[i] = module.getMigrationDeadline();
 					
 					// Client modules need to be processed within the corresponding client nodes
 					if(module.isClientModule()) {
-						String[] parts = module.getName().split("_");
-						int nodeId = Integer.parseInt(parts[parts.length-1]);
-						int nodeIndex = getNodeIndexByNodeId(nodeId);
-						
-						for(int j  = 0; j < NR_NODES; j++) {
-							if(j == nodeIndex) continue;
-							possibleDeployment[j][i] = 0;
-						}
+						int nodeIndex = getNodeIndexByNodeId(mIdentifier[i].getOwnerId());
+						possibleNodes[i] = nodeIndex != -1 ? new int[] {nodeIndex} : new int[0];
 					
 					// Global modules cannot be processed within client nodes
 					}else if(module.isGlobalModule()) {
-						for(int j = 0; j < NR_NODES; j++) {
-							possibleDeployment[j][i] = fIsFogDevice[j];
-						}
+						possibleNodes[i] = fogNodes.clone();
+					
 					// Normal modules (not global nor client modules) are processed within the corresponding client nodes or at any fog node
 					}else {
-						String[] parts = module.getName().split("_");
-						int nodeId = Integer.parseInt(parts[parts.length-1]);
-						int nodeIndex = getNodeIndexByNodeId(nodeId);
+						int nodeIndex = getNodeIndexByNodeId(mIdentifier[i].getOwnerId());
 						
-						for(int j  = 0; j < NR_NODES; j++) {
-							if(j == nodeIndex) continue;
-							if(fIsFogDevice[j] != 0) continue;
-							possibleDeployment[j][i] = 0;
+						if(nodeIndex == -1 || fIsFogDevice[nodeIndex] != 0) {
+							possibleNodes[i] = fogNodes.clone();
+						}else {
+							possibleNodes[i] = Arrays.copyOf(fogNodes, nrFogNodes + 1);
+							possibleNodes[i][nrFogNodes] = nodeIndex;
+							Arrays.sort(possibleNodes[i]);
 						}
 					}
 					i++;
@@ -370,20 +606,17 @@ public abstract class Algorithm {
 		}
 		
 		// Add the sensors and actuators modules
-		for(String str : hashSet) {
+		for(String str : identifiers.keySet()) {
 			if(getModuleIndexByModuleName(str) == -1) {
-				mName[i] = str;
+				addModule(i, str, identifiers.get(str));
 				
-				String[] parts = str.split("_");
-				int nodeId = Integer.parseInt(parts[parts.length-1]);
-				int nodeIndex = getNodeIndexByNodeId(nodeId);
+				int nodeIndex = getNodeIndexByNodeId(mIdentifier[i].getOwnerId());
 				
-				for(int j  = 0; j < NR_NODES; j++) {
-					if(j != nodeIndex)
-						possibleDeployment[j][i] = 0;
-					else
-						currentPlacement[j][i] = 1;
-				}
+				if(nodeIndex != -1) {
+					possibleNodes[i] = new int[] {nodeIndex};
+					setCurrentPlacement(i, nodeIndex);
+				}else
+					possibleNodes[i] = new int[0];
 				
 				i++;
 			}
@@ -391,24 +624,43 @@ public abstract class Algorithm {
 	}
 	
 	/**
-	 * Computes the dependencies between modules (i.e., CPU length, network length, bandwidth and dependency)
+	 * Registers a given application module at a given index.
+	 * 
+	 * @param index the index of the module
+	 * @param name the name of the module
+	 * @param identifier the structured identifier of the module
+	 */
+	private void addModule(final int index, final String name, final ModuleIdentifier identifier) {
+		mName[index] = name;
+		mIdentifier[index] = identifier;
+		moduleIndexMap.put(name, index);
+	}
+	
+	/**
+	 * Computes the dependencies between modules (i.e., CPU length, network length, bandwidth and dependency). Only the
+	 * pairs of modules which are connected by some application edge are stored.
 	 * 
 	 * @param applications the list containing all applications to be deployed into the fog network
 	 * @param sensors the list containing all sensors
+	 * @return the map between each pair of modules (source * number of modules + destination) and its values (dependency,
+	 * bandwidth, network size and CPU size), sorted by source and destination module
 	 */
-	private void computeApplicationCharacteristics(final List<Application> applications, final List<Sensor> sensors) {
+	private TreeMap<Long, double[]> computeApplicationCharacteristics(final List<Application> applications, final List<Sensor> sensors) {
 		final int INTERVAL = 0;
 		final int PROBABILITY = 1;
 		
+		TreeMap<Long, double[]> modulePairs = new TreeMap<Long, double[]>();
 		Sensor sensor = null;
 		for(Application application : applications) {
 			
 			TreeMap<String, List<Double>> producers = new TreeMap<String, List<Double>>();
 			List<Double> values;
+			boolean hasSensors = false;
 			
 			for(Sensor s : sensors) {
 				if(s.getAppId().equals(application.getAppId())) {
 					sensor = s;
+					hasSensors = true;
 					
 					Distribution distribution = sensor.getTransmitDistribution();
 					double avg = 0.0;
@@ -423,18 +675,34 @@ public abstract class Algorithm {
 					values.add(avg);
 					values.add(1.0);
 					producers.put(sensor.getTupleType(), values);
-					
-					for(AppEdge appEdge : application.getEdges()) {
-						if(appEdge.isPeriodic()) {
-							values = new ArrayList<Double>();
-							values.add(appEdge.getPeriodicity());
-							values.add(1.0);
-							producers.put(appEdge.getTupleType(), values);
-						}
+				}
+			}
+			
+			// Periodic edges are producers as well (only if the application has some sensor)
+			if(hasSensors) {
+				for(AppEdge appEdge : application.getEdges()) {
+					if(appEdge.isPeriodic()) {
+						values = new ArrayList<Double>();
+						values.add(appEdge.getPeriodicity());
+						values.add(1.0);
+						producers.put(appEdge.getTupleType(), values);
 					}
 				}
 			}
 			
+			// Index both the edges by tuple type and the modules by name
+			Map<String, AppEdge> edgesByTupleType = new HashMap<String, AppEdge>();
+			for(AppEdge appEdge : application.getEdges()) {
+				if(!edgesByTupleType.containsKey(appEdge.getTupleType()))
+					edgesByTupleType.put(appEdge.getTupleType(), appEdge);
+			}
+			
+			Map<String, AppModule> modulesByName = new HashMap<String, AppModule>();
+			for(AppModule appModule : application.getModules()) {
+				if(!modulesByName.containsKey(appModule.getName()))
+					modulesByName.put(appModule.getName(), appModule);
+			}
+			
 			int nrEdges = application.getEdges().size();
 			int processed = 0;
 			double interval = 0;
@@ -449,34 +717,39 @@ public abstract class Algorithm {
 				interval = entry.getValue().get(INTERVAL);
 				probability = entry.getValue().get(PROBABILITY);
 				
-				for(AppEdge appEdge : application.getEdges()) {
-					if(appEdge.getTupleType().equals(toProcess)) {
-						int col = getModuleIndexByModuleName(appEdge.getSource());
-						int row = getModuleIndexByModuleName(appEdge.getDestination());
-						
-						mDependencyMap[col][row] += probability/interval;
+				AppEdge appEdge = edgesByTupleType.get(toProcess);
+				if(appEdge != null) {
+					int edgeSourceIndex = getModuleIndexByModuleName(appEdge.getSource());
+					int edgeDestIndex = getModuleIndexByModuleName(appEdge.getDestination());
+					
+					long key = (long) edgeSourceIndex * NR_MODULES + edgeDestIndex;
+					double[] pairValues = modulePairs.get(key);
+					if(pairValues == null) {
+						pairValues = new double[4];
+						modulePairs.put(key, pairValues);
+					}
+					
+					pairValues[PAIR_DEPENDENCY] += probability/interval;
+					
+					// Tuples sent to actuators are accounted in the first module of the application
+					AppModule appModule = modulesByName.get(appEdge.getDestination());
+					if(appEdge.getEdgeType() == AppEdge.ACTUATOR && !application.getModules().isEmpty())
+						appModule = application.getModules().get(0);
+					
+					if(appModule != null) {
+						appModule.setMips(appModule.getMips() + probability*appEdge.getTupleCpuLength()/interval);
+						mMips[edgeDestIndex] += probability*appEdge.getTupleCpuLength()/interval;
+						mCPUIn[edgeDestIndex] += appEdge.getTupleCpuLength();
+						pairValues[PAIR_CPU] += appEdge.getTupleCpuLength();
 						
-						for(AppModule appModule : application.getModules()) {
-							if(appModule.getName().equals(appEdge.getDestination()) || appEdge.getEdgeType() == AppEdge.ACTUATOR) {								
-								int edgeSourceIndex = getModuleIndexByModuleName(appEdge.getSource());
-								int edgeDestIndex = getModuleIndexByModuleName(appEdge.getDestination());
-								
-								appModule.setMips(appModule.getMips() + probability*appEdge.getTupleCpuLength()/interval);
-								mMips[edgeDestIndex] += probability*appEdge.getTupleCpuLength()/interval;
-								mCPUMap[edgeSourceIndex][edgeDestIndex] += appEdge.getTupleCpuLength();
-								
-								appModule.setBw((long) (appModule.getBw() + probability*appEdge.getTupleNwLength()/interval));
-								mBandwidthMap[edgeSourceIndex][edgeDestIndex] += probability*appEdge.getTupleNwLength()/interval;
-								mNWMap[edgeSourceIndex][edgeDestIndex] += appEdge.getTupleNwLength();
-								
-								module = appModule;
-								break;
-							}
-						}
+						appModule.setBw((long) (appModule.getBw() + probability*appEdge.getTupleNwLength()/interval));
+						pairValues[PAIR_BANDWIDTH] += probability*appEdge.getTupleNwLength()/interval;
+						pairValues[PAIR_NW] += appEdge.getTupleNwLength();
 						
-						processed++;
-						break;
+						module = appModule;
 					}
+					
+					processed++;
 				}
 				
 				for(Pair<String, String> pair : module.getSelectivityMap().keySet()) {
@@ -490,6 +763,8 @@ public abstract class Algorithm {
 				}
 			}
 		}
+		
+		return modulePairs;
 	}
 	
 	/**
@@ -498,58 +773,233 @@ public abstract class Algorithm {
 	 * @param fogDevices the list containing all fog devices within the fog network
 	 */
 	private void computeConnectionMap(final List<FogDevice> fogDevices) {
-		for (int i = 0; i < NR_NODES; i++) {
-			for (int j = 0; j < NR_NODES; j++) {
-				fLatencyMap[i][j] = Constants.INF;
-				fBandwidthMap[i][j] = 0;
-			}
-		}
-		
 		for(FogDevice fogDevice : fogDevices) {
-			int dId = fogDevice.getId();
-			int dIndex = getNodeIndexByNodeId(dId);
+			int dIndex = getNodeIndexByNodeId(fogDevice.getId());
 			
 			if(!fogDevice.isStaticNode()) {
 				fTxPw[dIndex] = MobilePathLossModel.TX_POWER;
 			}
+		}
+		
+		extractLinks(fogDevices);
+	}
+	
+	/**
+	 * Extracts the adjacency lists (neighbors, latency and bandwidth) of each fog node. The tables which depend on the links
+	 * (e.g., the shortest paths and the path catalog) are only discarded if the links which they depend on have changed.
+	 * 
+	 * @param fogDevices the list containing all fog devices within the fog network
+	 */
+	private void extractLinks(final List<FogDevice> fogDevices) {
+		int[][] newNeighbors = new int[NR_NODES][0];
+		double[][] newLatency = new double[NR_NODES][0];
+		double[][] newBandwidth = new double[NR_NODES][0];
+		
+		for(FogDevice fogDevice : fogDevices) {
+			int dIndex = getNodeIndexByNodeId(fogDevice.getId());
 			
+			TreeMap<Integer, Integer> neighbors = new TreeMap<Integer, Integer>();
 			for(int neighborId : fogDevice.getLatencyMap().keySet()) {
-				double lat = fogDevice.getLatencyMap().get(neighborId);
-				double bw = fogDevice.getBandwidthMap().get(neighborId);
 				int neighborIndex = getNodeIndexByNodeId(neighborId);
-								
-				fLatencyMap[dIndex][neighborIndex] = lat;
-				fBandwidthMap[dIndex][neighborIndex] = bw;
+				if(neighborIndex == dIndex) continue;
+				neighbors.put(neighborIndex, neighborId);
+			}
+			
+			int[] row = new int[neighbors.size()];
+			double[] latency = new double[neighbors.size()];
+			double[] bandwidth = new double[neighbors.size()];
+			
+			int j = 0;
+			for(Entry<Integer, Integer> neighbor : neighbors.entrySet()) {
+				row[j] = neighbor.getKey();
+				latency[j] = fogDevice.getLatencyMap().get(neighbor.getValue());
+				bandwidth[j++] = fogDevice.getBandwidthMap().get(neighbor.getValue());
+			}
+			
+			newNeighbors[dIndex] = row;
+			newLatency[dIndex] = latency;
+			newBandwidth[dIndex] = bandwidth;
+		}
+		
+		boolean graphChanged = false;
+		boolean latencyChanged = false;
+		boolean bandwidthChanged = false;
+		
+		for(int i = 0; i < NR_NODES; i++) {
+			if(fNeighbors[i] == null || !Arrays.equals(fNeighbors[i], newNeighbors[i])) {
+				graphChanged = true;
+				continue;
 			}
 			
-			fLatencyMap[dIndex][dIndex] = 0;
-			fBandwidthMap[dIndex][dIndex] = Constants.INF;
+			if(!Arrays.equals(fNeighborLatency[i], newLatency[i])) latencyChanged = true;
+			if(!Arrays.equals(fNeighborBandwidth[i], newBandwidth[i])) bandwidthChanged = true;
+		}
+		
+		for(int i = 0; i < NR_NODES; i++) {
+			fNeighbors[i] = newNeighbors[i];
+			fNeighborLatency[i] = newLatency[i];
+			fNeighborBandwidth[i] = newBandwidth[i];
+		}
+		
+		if(graphChanged || latencyChanged) {
+			fLatencyMap = null;
+			shortestPaths = null;
+			dijkstra = null;
+		}
+		
+		// The paths within the catalog are also ranked by bandwidth
+		if(graphChanged || latencyChanged || bandwidthChanged) {
+			fBandwidthMap = null;
+			pathCatalog = null;
 		}
 	}
 	
 	/**
-	 * Extracts the dependency indexes between each pair of application modules.
+	 * Creates or updates the link between two fog nodes.
+	 * 
+	 * @param from the index of the node where the link starts
+	 * @param to the index of the node where the link ends
+	 * @param latency the link latency
+	 * @param bandwidth the link bandwidth
 	 */
-	private void extractDependenciesIndex() {
+	private void setLink(final int from, final int to, final double latency, final double bandwidth) {
+		int pos = Arrays.binarySearch(fNeighbors[from], to);
+		
+		if(pos < 0) {
+			pos = -pos - 1;
+			fNeighbors[from] = insert(fNeighbors[from], pos, to);
+			fNeighborLatency[from] = insert(fNeighborLatency[from], pos, latency);
+			fNeighborBandwidth[from] = insert(fNeighborBandwidth[from], pos, bandwidth);
+			shortestPaths = null;
+			dijkstra = null;
+			pathCatalog = null;
+		}else {
+			if(fNeighborLatency[from][pos] != latency) {
+				shortestPaths = null;
+				dijkstra = null;
+			}
+			
+			// The paths within the catalog are also ranked by bandwidth
+			if(fNeighborLatency[from][pos] != latency || fNeighborBandwidth[from][pos] != bandwidth)
+				pathCatalog = null;
+			
+			fNeighborLatency[from][pos] = latency;
+			fNeighborBandwidth[from][pos] = bandwidth;
+		}
+		
+		fLatencyMap = null;
+		fBandwidthMap = null;
+	}
+	
+	/**
+	 * Removes the link between two fog nodes (if it exists).
+	 * 
+	 * @param from the index of the node where the link starts
+	 * @param to the index of the node where the link ends
+	 */
+	private void removeLink(final int from, final int to) {
+		int pos = Arrays.binarySearch(fNeighbors[from], to);
+		if(pos < 0) return;
+		
+		int length = fNeighbors[from].length - 1;
+		
+		int[] neighbors = new int[length];
+		double[] latency = new double[length];
+		double[] bandwidth = new double[length];
+		
+		System.arraycopy(fNeighbors[from], 0, neighbors, 0, pos);
+		System.arraycopy(fNeighbors[from], pos + 1, neighbors, pos, length - pos);
+		System.arraycopy(fNeighborLatency[from], 0, latency, 0, pos);
+		System.arraycopy(fNeighborLatency[from], pos + 1, latency, pos, length - pos);
+		System.arraycopy(fNeighborBandwidth[from], 0, bandwidth, 0, pos);
+		System.arraycopy(fNeighborBandwidth[from], pos + 1, bandwidth, pos, length - pos);
+		
+		fNeighbors[from] = neighbors;
+		fNeighborLatency[from] = latency;
+		fNeighborBandwidth[from] = bandwidth;
+		
+		fLatencyMap = null;
+		fBandwidthMap = null;
+		shortestPaths = null;
+		dijkstra = null;
+		pathCatalog = null;
+	}
+	
+	/**
+	 * Inserts a value in a given position of a vector.
+	 * 
+	 * @param vector the original vector
+	 * @param pos the position of the new value
+	 * @param value the value to be inserted
+	 * @return the new vector
+	 */
+	private static int[] insert(final int[] vector, final int pos, final int value) {
+		int[] result = new int[vector.length + 1];
+		System.arraycopy(vector, 0, result, 0, pos);
+		System.arraycopy(vector, pos, result, pos + 1, vector.length - pos);
+		result[pos] = value;
+		return result;
+	}
+	
+	/**
+	 * Inserts a value in a given position of a vector.
+	 * 
+	 * @param vector the original vector
+	 * @param pos the position of the new value
+	 * @param value the value to be inserted
+	 * @return the new vector
+	 */
+	private static double[] insert(final double[] vector, final int pos, final double value) {
+		double[] result = new double[vector.length + 1];
+		System.arraycopy(vector, 0, result, 0, pos);
+		System.arraycopy(vector, pos, result, pos + 1, vector.length - pos);
+		result[pos] = value;
+		return result;
+	}
+	
+	/**
+	 * Extracts the dependency indexes between each pair of application modules and the values of each dependency. As
+	 * dependencies are sorted by their starting module, it also stores the offset of the first dependency of each module,
+	 * so that the dependencies starting in module i are the ones within [dependenciesOffset[i], dependenciesOffset[i+1]).
+	 * 
+	 * @param modulePairs the map between each pair of modules and its values, sorted by source and destination module
+	 */
+	private void extractDependenciesIndex(final TreeMap<Long, double[]> modulePairs) {
 		int tmp = 0;
-		for(int i = 0; i < NR_MODULES; i++) {
-			for (int j = 0; j < NR_MODULES; j++) {
-				if(mDependencyMap[i][j] != 0) {
-					tmp++;
-				}
+		for(double[] pairValues : modulePairs.values()) {
+			if(pairValues[PAIR_DEPENDENCY] != 0) {
+				tmp++;
 			}
 		}
 		
 		dependenciesIndex = new int[2][tmp];
+		dependenciesOffset = new int[NR_MODULES + 1];
+		dDependency = new double[tmp];
+		dBandwidth = new double[tmp];
+		dNW = new double[tmp];
+		dCPU = new double[tmp];
 		
 		tmp = 0;
+		for(Entry<Long, double[]> entry : modulePairs.entrySet()) {
+			double[] pairValues = entry.getValue();
+			if(pairValues[PAIR_DEPENDENCY] == 0) continue;
+			
+			int start = (int) (entry.getKey() / NR_MODULES);
+			
+			dependenciesIndex[START][tmp] = start;
+			dependenciesIndex[FINAL][tmp] = (int) (entry.getKey() % NR_MODULES);
+			dDependency[tmp] = pairValues[PAIR_DEPENDENCY];
+			dBandwidth[tmp] = pairValues[PAIR_BANDWIDTH];
+			dNW[tmp] = pairValues[PAIR_NW];
+			dCPU[tmp] = pairValues[PAIR_CPU];
+			
+			// Dependencies are sorted by source module, so the count is accumulated into the offsets afterwards
+			dependenciesOffset[start + 1]++;
+			tmp++;
+		}
+		
 		for(int i = 0; i < NR_MODULES; i++) {
-			for (int j = 0; j < NR_MODULES; j++) {
-				if(mDependencyMap[i][j] != 0) {
-					dependenciesIndex[START][tmp] = i;
-					dependenciesIndex[FINAL][tmp++] = j;
-				}
-			}
+			dependenciesOffset[i + 1] += dependenciesOffset[i];
 		}
 	}
 	
@@ -584,8 +1034,7 @@ public abstract class Algorithm {
 					loops[tmp][tmp2++] = modIndex;
 				}
 				
-				String[] parts = loop.getModules().get(0).split("_");
-				int nodeId = Integer.parseInt(parts[parts.length-1]);
+				int nodeId = mIdentifier[loops[tmp][0]].getOwnerId();
 				
 				if(lastId != nodeId) {
 					appIndex++;
@@ -612,17 +1061,11 @@ public abstract class Algorithm {
 		int fromIndex = getNodeIndexByNodeId(from.getId());
 		int toIndex = getNodeIndexByNodeId(to.getId());
 		
-		fLatencyMap[mobileIndex][fromIndex] = Constants.INF;
-		fBandwidthMap[mobileIndex][fromIndex] = 0;
-		
-		fLatencyMap[fromIndex][mobileIndex] = Constants.INF;
-		fBandwidthMap[fromIndex][mobileIndex] = 0;
-		
-		fLatencyMap[mobileIndex][toIndex] = Config.CELLULAR_COMMUNICATION_LATENCY;
-		fBandwidthMap[mobileIndex][toIndex] = Config.CELLULAR_COMMUNICATION_BW;
+		removeLink(mobileIndex, fromIndex);
+		removeLink(fromIndex, mobileIndex);
 		
-		fLatencyMap[toIndex][mobileIndex] = Config.CELLULAR_COMMUNICATION_LATENCY;
-		fBandwidthMap[toIndex][mobileIndex] = Config.CELLULAR_COMMUNICATION_BW;
+		setLink(mobileIndex, toIndex, Config.CELLULAR_COMMUNICATION_LATENCY, Config.CELLULAR_COMMUNICATION_BW);
+		setLink(toIndex, mobileIndex, Config.CELLULAR_COMMUNICATION_LATENCY, Config.CELLULAR_COMMUNICATION_BW);
 	}
 	
 	/**
@@ -631,30 +1074,7 @@ public abstract class Algorithm {
 	 * @param fogDevices the list containing all fog devices within the fog network
 	 */
 	public void updateConnectionCharacteristcs(final List<FogDevice> fogDevices) {
-		for(int i = 0; i < NR_NODES; i++) {
-			for(int j = 0; j < NR_NODES; j++) {
-				if(i != j) {
-					fBandwidthMap[i][j] = 0;
-					fLatencyMap[i][j] = Constants.INF;
-				}else {
-					fBandwidthMap[i][j] = Constants.INF;
-					fLatencyMap[i][j] = 0;
-				}
-			}
-		}
-		
-		for(FogDevice fogDevice : fogDevices) {
-			int fogIndex = getNodeIndexByNodeId(fogDevice.getId());
-			
-			for(int neighborId : fogDevice.getBandwidthMap().keySet()) {
-				int neighborIndex = getNodeIndexByNodeId(neighborId);
-				double bandwidth = fogDevice.getBandwidthMap().get(neighborId);
-				double latency = fogDevice.getLatencyMap().get(neighborId);
-				
-				fBandwidthMap[fogIndex][neighborIndex] = bandwidth;
-				fLatencyMap[fogIndex][neighborIndex] = latency;
-			}
-		}
+		extractLinks(fogDevices);
 	}
 	
 	/**
@@ -662,11 +1082,35 @@ public abstract class Algorithm {
 	 * 
 	 * @return the best solution; can be null
 	 */
-	public abstract Solution execute();
+	public Solution execute() {
+		return execute(new Budget());
+	}
+	
+	/**
+	 * Executes a given algorithm in order to find the best solution within a given budget. Once the budget is exhausted,
+	 * the best valid solution found so far is returned.
+	 * 
+	 * @param budget the budget of the execution (wall time, evaluations of the cost function and target cost)
+	 * @return the best solution; can be null
+	 */
+	public abstract Solution execute(Budget budget);
+	
+	/**
+	 * Starts a new execution within a given budget. Both the value/iter and the value/time maps are cleared.
+	 * 
+	 * @param budget the budget of the execution
+	 */
+	protected void startBudget(final Budget budget) {
+		this.budget = budget;
+		valueIterMap.clear();
+		valueTimeMap.clear();
+		budget.start();
+	}
 	
 	/**
 	 * Checks whether the node is valid. It is valid if, and only if, from the current node index towards the final node index
-	 * there is a path which has lower or equal number of hops as the provided maximum distance.
+	 * there is a path which has lower or equal number of hops as the provided maximum distance. The maximum distance counts
+	 * the nodes within the path (i.e., both the current and the final nodes are included).
 	 * 
 	 * @param nodeIndex the current node index
 	 * @param finalNodeIndex the final node index
@@ -674,93 +1118,157 @@ public abstract class Algorithm {
 	 * @return true is it's a valid node. False, otherwise.
 	 */
 	public boolean isValidHop(final int nodeIndex, final int finalNodeIndex, final int maxDistance) {
-			getDijkstra().execute(getDijkstraNodes().get(nodeIndex));
-			LinkedList<Vertex> path = getDijkstra().getPath(getDijkstraNodes().get(finalNodeIndex));
+		// If both start and finish refer to the same node, it can be added
+		if(nodeIndex == finalNodeIndex) return true;
+		
+		// Use the all-pairs table if it is already computed; otherwise only explore up to the maximum distance
+		if(shortestPaths != null) {
+			int hopCount = shortestPaths.getHopCount(nodeIndex, finalNodeIndex);
 			
-			// If path is null, means that both start and finish refer to the same node, thus it can be added
-	        if((path != null && path.size() <= maxDistance) || path == null)
-	        	return true;
-	        
-	        return false;
+			// Nodes without any path towards the final node are not discarded here (there is no path to be measured)
+			return hopCount == ShortestPathTable.UNREACHABLE || hopCount + 1 <= maxDistance;
+		}
+		
+		int hopCount = getDijkstra().getHopCount(nodeIndex, finalNodeIndex, maxDistance - 1);
+		return hopCount == DijkstraAlgorithm.UNREACHABLE || hopCount <= maxDistance - 1;
+	}
+	
+	/**
+	 * Sets the resources of each node and link which are available to this problem (e.g., the ones reserved for a sub-problem,
+	 * see DecomposedAlgorithm).
+	 * 
+	 * @param mips the MIPS of each node
+	 * @param ram the RAM of each node
+	 * @param strg the storage of each node
+	 * @param bandwidth the adjacency lists holding the bandwidth of each link
+	 */
+	public void setCapacities(final double[] mips, final double[] ram, final double[] strg, final double[][] bandwidth) {
+		System.arraycopy(mips, 0, fMips, 0, NR_NODES);
+		System.arraycopy(ram, 0, fRam, 0, NR_NODES);
+		System.arraycopy(strg, 0, fStrg, 0, NR_NODES);
+		
+		for(int i = 0; i < NR_NODES; i++) {
+			System.arraycopy(bandwidth[i], 0, fNeighborBandwidth[i], 0, fNeighborBandwidth[i].length);
+		}
+		
+		fBandwidthMap = null;
 	}
 	
 	/**
-	 * Extracts the placement map based on a given binary matrix.
+	 * Gets the table holding the shortest paths between each two fog nodes. It is only computed again after the topology
+	 * has changed.
 	 * 
-	 * @param placementMap the binary matrix which maps the application modules deployment into the fog nodes
+	 * @return the table holding the shortest paths between each two fog nodes
+	 */
+	public ShortestPathTable getShortestPaths() {
+		if(shortestPaths == null)
+			shortestPaths = new ShortestPathTable(fNeighbors, fNeighborLatency);
+		return shortestPaths;
+	}
+	
+	/**
+	 * Gets the catalog holding the k shortest paths between each two fog nodes. It is only built again after the topology
+	 * has changed. The paths of each pair of nodes are computed when they are first requested.
+	 * 
+	 * @return the catalog holding the k shortest paths between each two fog nodes
+	 */
+	public PathCatalog getPathCatalog() {
+		if(pathCatalog == null)
+			pathCatalog = new PathCatalog(fNeighbors, fNeighborLatency, fNeighborBandwidth, Config.MAX_PATHS_CATALOG);
+		return pathCatalog;
+	}
+	
+	/**
+	 * Extracts the placement map based on a given module placement vector.
+	 * 
+	 * @param modulePlacement the vector holding the index of the fog node where each application module is deployed
 	 * @return the parsed list
 	 */
-	public Map<String, List<String>> extractPlacementMap(final int[][] placementMap) {
+	public Map<String, List<String>> extractPlacementMap(final int[] modulePlacement) {
 		Map<String, List<String>> result = new HashMap<>();
+		List<List<String>> modules = new ArrayList<List<String>>(NR_NODES);
 		
 		for(int i = 0; i < NR_NODES; i++) {
-			List<String> modules = new ArrayList<String>();
-			
-			for(int j = 0; j < NR_MODULES; j++)
-				if(placementMap[i][j] == 1)
-					modules.add(mName[j]);
-			
-			result.put(fName[i], modules);
+			modules.add(new ArrayList<String>());
+			result.put(fName[i], modules.get(i));
 		}
 		
+		for(int j = 0; j < NR_MODULES; j++)
+			modules.get(modulePlacement[j]).add(mName[j]);
+		
 		return result;
 	}
 	
 	/**
-	 *  Extracts the tuple routing map based on a given matrix.
+	 * Extracts the changes between two routing maps (either tuple or migration routing maps). Each row of the maps is a
+	 * routing entry (a dependency or a module) and only the (node, entry, next hop) triples which differ are returned. Rows
+	 * which are equal in both maps are skipped, thus the work is proportional to the number of changed routes.
 	 * 
-	 * @param routingMap the matrix which maps the path followed by each dependency between pair of application modules
-	 * @return parsed list
-	 */
-	public Map<Map<Integer, Map<String, String>>, Integer> extractRoutingMap(final int[][] routingMap) {
-		Map<Map<Integer, Map<String, String>>, Integer> result = new HashMap<Map<Integer,Map<String,String>>, Integer>();
+	 * @param previousRoutingMap the routing map which is currently deployed; can be null if there is none
+	 * @param routingMap the new routing map
+	 * @return the list of routing updates needed to transform the previous routing tables into the new ones
+	 */
+	public List<RoutingUpdate> extractRoutingUpdates(final int[][] previousRoutingMap, final int[][] routingMap) {
+		List<RoutingUpdate> updates = new ArrayList<RoutingUpdate>();
+		int[] previousNextHop = new int[NR_NODES];
+		int[] nextHop = new int[NR_NODES];
 		
-		int iter = 0;
-		for(int i = 0; i < NR_MODULES; i++) {
-			for(int j = 0; j < NR_MODULES; j++) {
-				if(mDependencyMap[i][j] != 0) {					
-					Map<String, String> tupleTransmission = new HashMap<String, String>();
-					tupleTransmission.put(mName[i], mName[j]);
-					
-					for(int z = 0; z < routingMap[0].length-1; z++) {
-						if(routingMap[iter][z] != routingMap[iter][z+1]) {
-							Map<Integer, Map<String, String>> hop = new HashMap<Integer, Map<String,String>>();
-							hop.put(routingMap[iter][z], tupleTransmission);
-							
-							result.put(hop, routingMap[iter][z+1]);
-						}
-					}
-					
-					iter++;
+		Arrays.fill(previousNextHop, RoutingUpdate.REMOVED);
+		Arrays.fill(nextHop, RoutingUpdate.REMOVED);
+		
+		for(int i = 0; i < routingMap.length; i++) {
+			int[] previousRoute = previousRoutingMap != null ? previousRoutingMap[i] : null;
+			int[] route = routingMap[i];
+			
+			if(previousRoute != null && Arrays.equals(previousRoute, route)) continue;
+			
+			fillNextHops(previousRoute, previousNextHop);
+			fillNextHops(route, nextHop);
+			
+			// New or changed entries
+			for(int node : route) {
+				if(nextHop[node] == RoutingUpdate.REMOVED) continue;
+				
+				if(nextHop[node] != previousNextHop[node])
+					updates.add(new RoutingUpdate(node, i, nextHop[node]));
+				
+				// Mark the node as already analyzed
+				nextHop[node] = RoutingUpdate.REMOVED;
+				previousNextHop[node] = Integer.MIN_VALUE;
+			}
+			
+			// Entries which no longer exist
+			if(previousRoute != null) {
+				for(int node : previousRoute) {
+					if(previousNextHop[node] >= 0)
+						updates.add(new RoutingUpdate(node, i, RoutingUpdate.REMOVED));
+					previousNextHop[node] = RoutingUpdate.REMOVED;
 				}
 			}
+			
+			for(int node : route) {
+				previousNextHop[node] = RoutingUpdate.REMOVED;
+			}
 		}
 		
-		return result;
+		return updates;
 	}
 	
 	/**
-	 * Generates the Dijkstra graph based on the current topology.
+	 * Fills the next hop of each node within a given route. If the route passes more than once through the same node,
+	 * the last next hop is the one which is kept.
+	 * 
+	 * @param route the route (vector of node indexes); can be null
+	 * @param nextHop the vector to be filled with the next hop of each node
 	 */
-	protected void generateDijkstraGraph() {
-		// Generate a new Dijkstra graph
-		dijkstraNodes = new ArrayList<Vertex>();
-		List<Edge> edges = new ArrayList<Edge>();
-		
-		for(int i  = 0; i < NR_NODES; i++) {
-			dijkstraNodes.add(new Vertex("Node=" + i));
-		}
+	private static void fillNextHops(final int[] route, int[] nextHop) {
+		if(route == null) return;
 		
-		for(int i  = 0; i < NR_NODES; i++) {
-			for(int j  = 0; j < NR_NODES; j++) {
-				if(fLatencyMap[i][j] < Constants.INF) {
-					 edges.add(new Edge(dijkstraNodes.get(i), dijkstraNodes.get(j), 1.0));
-				}
+		for(int z = 0; z < route.length - 1; z++) {
+			if(route[z] != route[z+1]) {
+				nextHop[route[z]] = route[z+1];
 			}
-        }
-		
-		Graph graph = new Graph(dijkstraNodes, edges);
-		dijkstra = new DijkstraAlgorithm(graph);
+		}
 	}
 	
 	/**
@@ -770,10 +1278,8 @@ public abstract class Algorithm {
 	 * @return the id of the module; -1 if it was not found
 	 */
 	public int getModuleIndexByModuleName(String name) {
-		for(int i = 0; i < NR_MODULES; i++)
-			if(mName[i] != null && mName[i].equals(name))
-				return i;
-		return -1;
+		Integer index = moduleIndexMap.get(name);
+		return index == null ? -1 : index;
 	}
 	
 	/**
@@ -783,10 +1289,9 @@ public abstract class Algorithm {
 	 * @return the index of the module; -1 if it was not found
 	 */
 	public int getNodeIndexByNodeId(int id) {
-		for(int i = 0; i < NR_NODES; i++)
-			if(fId[i] == id)
-				return i;
-		return -1;
+		if(id < 0 || id >= nodeIndexById.length)
+			return -1;
+		return nodeIndexById[id];
 	}
 	
 	/**
@@ -822,14 +1327,21 @@ public abstract class Algorithm {
 	 * @return the number of pair of nodes with dependencies
 	 */
 	public int getNumberOfDependencies() {
-		int nrDependencies = 0;
-		
-		for(int i = 0; i < NR_MODULES; i++)
-			for(int j = 0; j < NR_MODULES; j++)
-				if(mDependencyMap[i][j] != 0)
-					nrDependencies++;
-		
-		return nrDependencies;
+		return dependenciesIndex[START].length;
+	}
+	
+	/**
+	 * Gets the index of the dependency between two given modules.
+	 * 
+	 * @param start the index of the starting module of the dependency
+	 * @param end the index of the final module of the dependency
+	 * @return the index of the dependency; -1 if there is no dependency between both modules
+	 */
+	public int getDependencyIndex(final int start, final int end) {
+		for(int i = dependenciesOffset[start]; i < dependenciesOffset[start + 1]; i++)
+			if(dependenciesIndex[FINAL][i] == end)
+				return i;
+		return -1;
 	}
 	
 	/**
@@ -847,16 +1359,7 @@ public abstract class Algorithm {
 	 * @return true it it is, otherwise false
 	 */
 	public boolean isFirstOptimization() {
-		int cnt = 0;
-		for(int i  = 0; i < NR_NODES; i++) {
-			for(int j  = 0; j < NR_MODULES; j++) {
-				if(currentPlacement[i][j] == 1) {
-					cnt++;
-				}
-			}
-		}
-		
-		return !(cnt == NR_MODULES);
+		return nrCurrentlyPlaced != NR_MODULES;
 	}
 	
 	/**
@@ -994,6 +1497,15 @@ public abstract class Algorithm {
 		return mName;
 	}
 	
+	/**
+	 * Gets the vector holding the structured identifier of each application module.
+	 * 
+	 * @return the vector holding the structured identifier of each application module
+	 */
+	public ModuleIdentifier[] getmIdentifier() {
+		return mIdentifier;
+	}
+	
 	/**
 	 * Gets the vector holding the quantity of processing resources needed in each application module.
 	 * 
@@ -1031,115 +1543,331 @@ public abstract class Algorithm {
 	}
 	
 	/**
-	 * Gets the matrix holding the link latency between each two fog nodes.
+	 * Gets the dense matrix holding the link latency between each two fog nodes. As it needs NR_NODES x NR_NODES memory,
+	 * it is only built when requested (e.g., to print or to build models which are dense by nature).
 	 * 
 	 * @return matrix holding the link latency between each two fog nodes
 	 */
 	public double[][] getfLatencyMap() {
+		if(fLatencyMap == null) {
+			fLatencyMap = new double[NR_NODES][NR_NODES];
+			
+			for(int i = 0; i < NR_NODES; i++) {
+				Arrays.fill(fLatencyMap[i], Constants.INF);
+				fLatencyMap[i][i] = 0;
+				
+				for(int j = 0; j < fNeighbors[i].length; j++) {
+					fLatencyMap[i][fNeighbors[i][j]] = fNeighborLatency[i][j];
+				}
+			}
+		}
+		
 		return fLatencyMap;
 	}
 	
 	/**
-	 * Gets the matrix holding the link bandwidth available between each two fog nodes.
+	 * Gets the dense matrix holding the link bandwidth available between each two fog nodes. As it needs NR_NODES x NR_NODES
+	 * memory, it is only built when requested.
 	 * 
 	 * @return matrix holding the link bandwidth available between each two fog nodes
 	 */
 	public double[][] getfBandwidthMap() {
+		if(fBandwidthMap == null) {
+			fBandwidthMap = new double[NR_NODES][NR_NODES];
+			
+			for(int i = 0; i < NR_NODES; i++) {
+				fBandwidthMap[i][i] = Constants.INF;
+				
+				for(int j = 0; j < fNeighbors[i].length; j++) {
+					fBandwidthMap[i][fNeighbors[i][j]] = fNeighborBandwidth[i][j];
+				}
+			}
+		}
+		
 		return fBandwidthMap;
 	}
 	
 	/**
-	 * Gets the matrix holding the dependencies index (source and destination) between each pair of modules.
+	 * Gets the adjacency lists holding the indexes of the neighbors of each fog node (sorted in ascending order).
+	 * 
+	 * @return the adjacency lists holding the indexes of the neighbors of each fog node
+	 */
+	public int[][] getfNeighbors() {
+		return fNeighbors;
+	}
+	
+	/**
+	 * Gets the adjacency lists holding the link latency between each fog node and each one of its neighbors.
+	 * 
+	 * @return the adjacency lists holding the link latency between each fog node and each one of its neighbors
+	 */
+	public double[][] getfNeighborLatency() {
+		return fNeighborLatency;
+	}
+	
+	/**
+	 * Gets the adjacency lists holding the link bandwidth available between each fog node and each one of its neighbors.
+	 * 
+	 * @return the adjacency lists holding the link bandwidth available between each fog node and each one of its neighbors
+	 */
+	public double[][] getfNeighborBandwidth() {
+		return fNeighborBandwidth;
+	}
+	
+	/**
+	 * Gets the position of a given node within the adjacency list of another node.
+	 * 
+	 * @param from the index of the node where the link starts
+	 * @param to the index of the node where the link ends
+	 * @return the position within the adjacency list of the starting node; -1 if there is no such link
+	 */
+	public int getNeighborPosition(final int from, final int to) {
+		int pos = Arrays.binarySearch(fNeighbors[from], to);
+		return pos < 0 ? -1 : pos;
+	}
+	
+	/**
+	 * Gets the link latency between two fog nodes.
+	 * 
+	 * @param from the index of the node where the link starts
+	 * @param to the index of the node where the link ends
+	 * @return the link latency; 0 if both are the same node and Constants.INF if there is no such link
+	 */
+	public double getLinkLatency(final int from, final int to) {
+		if(from == to) return 0;
+		
+		int pos = getNeighborPosition(from, to);
+		return pos == -1 ? Constants.INF : fNeighborLatency[from][pos];
+	}
+	
+	/**
+	 * Gets the link bandwidth available between two fog nodes.
+	 * 
+	 * @param from the index of the node where the link starts
+	 * @param to the index of the node where the link ends
+	 * @return the link bandwidth; Constants.INF if both are the same node and 0 if there is no such link
+	 */
+	public double getLinkBandwidth(final int from, final int to) {
+		if(from == to) return Constants.INF;
+		
+		int pos = getNeighborPosition(from, to);
+		return pos == -1 ? 0 : fNeighborBandwidth[from][pos];
+	}
+	
+	/**
+	 * Gets the vector holding the average dependency (dependency = probability / periodicity) of each dependency.
+	 * 
+	 * @return the vector holding the average dependency of each dependency
+	 */
+	public double[] getdDependency() {
+		return dDependency;
+	}
+	
+	/**
+	 * Gets the vector holding the average bandwidth needed by each dependency.
+	 * 
+	 * @return the vector holding the average bandwidth needed by each dependency
+	 */
+	public double[] getdBandwidth() {
+		return dBandwidth;
+	}
+	
+	/**
+	 * Gets the vector holding the tuple network size of each dependency.
+	 * 
+	 * @return the vector holding the tuple network size of each dependency
+	 */
+	public double[] getdNW() {
+		return dNW;
+	}
+	
+	/**
+	 * Gets the vector holding the tuple CPU size of each dependency.
+	 * 
+	 * @return the vector holding the tuple CPU size of each dependency
+	 */
+	public double[] getdCPU() {
+		return dCPU;
+	}
+	
+	/**
+	 * Gets the vector holding the sum of the tuple CPU sizes received by each module.
+	 * 
+	 * @return the vector holding the sum of the tuple CPU sizes received by each module
+	 */
+	public double[] getmCPUIn() {
+		return mCPUIn;
+	}
+	
+	/**
+	 * Gets the dense matrix holding the average dependencies between each two modules (only built when requested).
 	 * 
-	 * @return the matrix holding the dependencies index (source and destination) between each pair of modules
+	 * @return the matrix holding the average dependencies between each two modules
 	 */
 	public double[][] getmDependencyMap() {
+		if(mDependencyMap == null)
+			mDependencyMap = toModuleMatrix(dDependency);
 		return mDependencyMap;
 	}
 	
 	/**
-	 * Gets the matrix holding the average bandwidth needed between each two modules.
+	 * Gets the dense matrix holding the average bandwidth needed between each two modules (only built when requested).
 	 * 
 	 * @return the matrix holding the average bandwidth needed between each two modules
 	 */
 	public double[][] getmBandwidthMap(){
+		if(mBandwidthMap == null)
+			mBandwidthMap = toModuleMatrix(dBandwidth);
 		return mBandwidthMap;
 	}
 	
 	/**
-	 * Gets the matrix holding the tuple network sizes between each two modules.
+	 * Gets the dense matrix holding the tuple network sizes between each two modules (only built when requested).
 	 * 
 	 * @return the matrix holding the tuple network sizes between each two modules
 	 */
 	public double[][] getmNWMap(){
+		if(mNWMap == null)
+			mNWMap = toModuleMatrix(dNW);
 		return mNWMap;
 	}
 	
 	/**
-	 * Gets the matrix holding the tuple CPU sizes between each two modules.
+	 * Gets the dense matrix holding the tuple CPU sizes between each two modules (only built when requested).
 	 * 
 	 * @return the matrix holding the tuple CPU sizes between each two modules
 	 */
 	public double[][] getmCPUMap(){
+		if(mCPUMap == null)
+			mCPUMap = toModuleMatrix(dCPU);
 		return mCPUMap;
 	}
 	
 	/**
-	 * Gets the matrix holding the possible position of each module.
+	 * Converts a vector indexed by dependency into a dense matrix indexed by source and destination module.
+	 * 
+	 * @param values the vector indexed by dependency
+	 * @return the dense matrix
+	 */
+	private double[][] toModuleMatrix(final double[] values) {
+		double[][] matrix = new double[NR_MODULES][NR_MODULES];
+		
+		for(int i = 0; i < values.length; i++) {
+			matrix[dependenciesIndex[START][i]][dependenciesIndex[FINAL][i]] = values[i];
+		}
+		
+		return matrix;
+	}
+	
+	/**
+	 * Gets the list holding the indexes of the nodes where a given module can be deployed (sorted in ascending order).
+	 * 
+	 * @param module the module index
+	 * @return the list holding the indexes of the nodes where the module can be deployed
+	 */
+	public int[] getPossibleNodes(final int module) {
+		return possibleNodes[module];
+	}
+	
+	/**
+	 * Verifies whether a given module can be deployed in a given node.
+	 * 
+	 * @param node the node index
+	 * @param module the module index
+	 * @return true if the module can be deployed in the node, otherwise false
+	 */
+	public boolean isPossibleDeployment(final int node, final int module) {
+		return Arrays.binarySearch(possibleNodes[module], node) >= 0;
+	}
+	
+	/**
+	 * Gets the dense matrix holding the possible position of each module (only built when requested).
 	 * 
 	 * @return the matrix holding the possible position of each module
 	 */
 	public double[][] getPossibleDeployment() {
+		if(possibleDeployment == null) {
+			possibleDeployment = new double[NR_NODES][NR_MODULES];
+			
+			for(int j = 0; j < NR_MODULES; j++) {
+				for(int i : possibleNodes[j]) {
+					possibleDeployment[i][j] = 1;
+				}
+			}
+		}
+		
 		return possibleDeployment;
 	}
 	
 	/**
-	 * Sets the matrix holding the possible position of each module.
+	 * Restricts the possible position of each module to the node where it is currently deployed (i.e., no migrations are
+	 * allowed). The restriction is kept up to date as the current placement changes.
+	 */
+	public void restrictDeploymentToCurrentPlacement() {
+		deploymentFixed = true;
+		
+		for(int j = 0; j < NR_MODULES; j++) {
+			possibleNodes[j] = currentNode[j] != -1 ? new int[] {currentNode[j]} : new int[0];
+		}
+		
+		possibleDeployment = null;
+	}
+	
+	/**
+	 * Restricts the possible position of a given module (e.g., to the nodes of a region, see HierarchicalAlgorithm).
 	 * 
-	 * @param possibleDeployment the matrix holding the possible position of each module
+	 * @param module the module index
+	 * @param nodes the indexes of the nodes where the module can be deployed (in increasing order)
 	 */
-	public void setPossibleDeployment(double[][] possibleDeployment) {
-		this.possibleDeployment = possibleDeployment;
+	public void setPossibleNodes(final int module, final int[] nodes) {
+		possibleNodes[module] = nodes;
+		possibleDeployment = null;
 	}
 	
 	/**
-	 * Gets the matrix holding the current module placement map.
+	 * Gets the dense matrix holding the current module placement map (only built when requested).
 	 * 
 	 * @return the matrix holding the current module placement map
 	 */
 	public double[][] getCurrentPlacement() {
+		if(currentPlacement == null) {
+			currentPlacement = new double[NR_NODES][NR_MODULES];
+			
+			for(int j = 0; j < NR_MODULES; j++) {
+				if(currentNode[j] != -1)
+					currentPlacement[currentNode[j]][j] = 1;
+			}
+		}
+		
 		return currentPlacement;
 	}
 	
 	/**
-	 * Gets the integer matrix holding the current module placement map.
+	 * Gets the index of the node where a given module is currently deployed.
 	 * 
-	 * @return the integer matrix holding the current module placement map
+	 * @param module the module index
+	 * @return the node index; -1 if it is unknown
 	 */
-	public int[][] getCurrentPositionInt() {
-		int[][] currentPositionInt = new int[NR_NODES][NR_MODULES];
-	    
-		for(int j = 0; j < NR_NODES; j++) {
-			for (int z = 0; z < NR_MODULES; z++) {
-				currentPositionInt[j][z] = (int) currentPlacement[j][z];
-			}
-		}
-		
-		return currentPositionInt;
+	public int getCurrentPlacement(final int module) {
+		return currentNode[module];
 	}
 	
 	/**
-	 * Changes the matrix holding the current module placement map.
+	 * Changes the current module placement map.
 	 * 
 	 * @param module the module index
 	 * @param node the current position (node index) of that module
 	 */
 	public void setCurrentPlacement(int module, int node) {
-		for(int i  = 0; i < NR_NODES; i++) {
-			if(i != node)
-				currentPlacement[i][module] = 0;
-			else
-				currentPlacement[i][module] = 1;
+		if(currentNode[module] == -1 && node != -1) nrCurrentlyPlaced++;
+		if(currentNode[module] != -1 && node == -1) nrCurrentlyPlaced--;
+		
+		currentNode[module] = node;
+		currentPlacement = null;
+		
+		if(deploymentFixed) {
+			possibleNodes[module] = node != -1 ? new int[] {node} : new int[0];
+			possibleDeployment = null;
 		}
 	}
 	
@@ -1193,20 +1921,14 @@ public abstract class Algorithm {
 	}
 	
 	/**
-	 * Gets the list with the nodes for the execution of the Dijkstra Algorithm.
-	 * 
-	 * @return the list with the nodes for the execution of the Dijkstra Algorithm
-	 */
-	public List<Vertex> getDijkstraNodes() {
-		return dijkstraNodes;
-	}
-	
-	/**
-	 * Gets the object responsible for running the Dijkstra Algorithm.
+	 * Gets the object responsible for running the Dijkstra Algorithm over the link latencies. It is only built again after
+	 * the topology has changed. It keeps the state of its last execution, thus it must not be shared between threads.
 	 * 
 	 * @return the object responsible for running the Dijkstra Algorithm
 	 */
 	public DijkstraAlgorithm getDijkstra() {
+		if(dijkstra == null)
+			dijkstra = new DijkstraAlgorithm(fNeighbors, fNeighborLatency);
 		return dijkstra;
 	}
 	
@@ -1219,6 +1941,25 @@ public abstract class Algorithm {
 		return valueIterMap;
 	}
 	
+	/**
+	 * Gets the map containing the correspondence between elapsed time (in milliseconds) and value in the execution of the
+	 * optimization algorithm.
+	 * 
+	 * @return the value/time map
+	 */
+	public Map<Map<Integer,Long>, Double> getValueTimeMap() {
+		return valueTimeMap;
+	}
+	
+	/**
+	 * Gets the budget of the current (or last) execution of the optimization algorithm.
+	 * 
+	 * @return the budget
+	 */
+	public Budget getBudget() {
+		return budget;
+	}
+	
 	/**
 	 * Gets the elapsed time during the execution of the optimization algorithm.
 	 * 
@@ -1237,4 +1978,24 @@ public abstract class Algorithm {
 		this.elapsedTime = elapsedTime;
 	}
 	
+	/**
+	 * Gets the solution used to warm start the next execution of the optimization algorithm.
+	 * 
+	 * @return the seed solution; null if the algorithm starts from random solutions
+	 */
+	public Solution getSeedSolution() {
+		return seedSolution;
+	}
+	
+	/**
+	 * Sets the solution used to warm start the next execution of the optimization algorithm (usually the solution of
+	 * the previous execution). It does not need to be valid for the current topology, as it is repaired before being
+	 * used (see Solution.generateSeedSolution).
+	 * 
+	 * @param seedSolution the seed solution; null to start from random solutions
+	 */
+	public void setSeedSolution(Solution seedSolution) {
+		this.seedSolution = seedSolution;
+	}
+	
 }
\ No newline at end of file
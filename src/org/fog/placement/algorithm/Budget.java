@@ -0,0 +1,233 @@
+package org.fog.placement.algorithm;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fog.core.Config;
+import org.fog.core.Constants;
+
+/**
+ * Class representing the budget of an execution of the optimization algorithm. The execution stops as soon as the wall
+ * time or the number of evaluations of the cost function is exhausted, or as soon as the best solution reaches the target
+ * cost in all objectives. In any case, the algorithm returns the best valid solution found so far. Optionally, a listener
+ * is notified each time a new best solution is found. By default, the budget is unlimited (i.e., the algorithms only
+ * stop due to their own iteration and convergence limits). The sub-problems solved by an algorithm (e.g., the groups of
+ * DecomposedAlgorithm) use child budgets, which count their evaluations within the budget of the whole execution.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class Budget {
+	/** Maximum wall time of the execution (in milliseconds) */
+	private long maxTime;
+	
+	/** Maximum number of evaluations of the cost function */
+	private long maxEvaluations;
+	
+	/** Vector holding the target cost of each objective */
+	private final double[] targetCost;
+	
+	/** Defines whether the target cost was set for at least one objective */
+	private boolean hasTarget;
+	
+	/** Object which is notified each time a new best solution is found; can be null */
+	private ProgressListener listener;
+	
+	/** Time at the beginning of the execution */
+	private long start;
+	
+	/** Number of evaluations of the cost function performed since the beginning of the execution (shared with the children) */
+	private final AtomicLong evaluations;
+	
+	/** Budget which this budget is part of (see createChild); null if it is the budget of the whole execution */
+	private final Budget parent;
+	
+	/**
+	 * Creates an unlimited budget.
+	 */
+	public Budget() {
+		maxTime = Long.MAX_VALUE;
+		maxEvaluations = Long.MAX_VALUE;
+		targetCost = new double[Config.NR_OBJECTIVES];
+		Arrays.fill(targetCost, Constants.INF);
+		evaluations = new AtomicLong();
+		parent = null;
+	}
+	
+	/**
+	 * Creates a child of a given budget.
+	 * 
+	 * @param parent the budget which the new budget is part of
+	 * @param maxTime the maximum wall time of the child (in milliseconds)
+	 */
+	private Budget(final Budget parent, final long maxTime) {
+		this.maxTime = maxTime;
+		maxEvaluations = parent.maxEvaluations;
+		targetCost = parent.targetCost.clone();
+		hasTarget = parent.hasTarget;
+		listener = parent.listener;
+		evaluations = parent.evaluations;
+		this.parent = parent;
+	}
+	
+	/**
+	 * Creates a budget for a sub-problem of this execution. The child shares the evaluations counter (thus, the maximum
+	 * number of evaluations holds for the whole execution), the target cost and the listener, while its wall time is
+	 * limited to the given one and to the time left in this budget.
+	 * 
+	 * @param maxTime the maximum wall time of the child (in milliseconds); Long.MAX_VALUE if unlimited
+	 * @return the child budget
+	 */
+	public Budget createChild(final long maxTime) {
+		long timeLeft = this.maxTime != Long.MAX_VALUE ? Math.max(0, this.maxTime - getElapsedTime()) : Long.MAX_VALUE;
+		return new Budget(this, Math.min(maxTime, timeLeft));
+	}
+	
+	/**
+	 * Starts counting both the time and the evaluations of a new execution (the evaluations of a child keep being counted
+	 * within its parent).
+	 */
+	void start() {
+		start = System.currentTimeMillis();
+		
+		if(parent == null)
+			evaluations.set(0);
+	}
+	
+	/**
+	 * Counts one evaluation of the cost function (it can be called by several threads). Algorithms which evaluate their
+	 * moves incrementally (see SolutionEvaluator) count each move as one evaluation.
+	 */
+	public void countEvaluation() {
+		evaluations.incrementAndGet();
+	}
+	
+	/**
+	 * Verifies whether either the wall time or the number of evaluations is exhausted.
+	 * 
+	 * @return true if the execution must stop, otherwise false
+	 */
+	public boolean isExpired() {
+		return evaluations.get() >= maxEvaluations || getElapsedTime() >= maxTime;
+	}
+	
+	/**
+	 * Verifies whether the budget is exhausted, either because the wall time or the number of evaluations is exhausted,
+	 * or because the best solution has already reached the target cost.
+	 * 
+	 * @param bestSolution the best solution found so far; can be null
+	 * @return true if the execution must stop, otherwise false
+	 */
+	public boolean isExhausted(final Solution bestSolution) {
+		return isExpired() || isTargetReached(bestSolution);
+	}
+	
+	/**
+	 * Verifies whether a given solution is valid and has reached the target cost in all objectives which have a target.
+	 * 
+	 * @param solution the solution; can be null
+	 * @return true if the solution has reached the target, otherwise false (always false if no target was set)
+	 */
+	public boolean isTargetReached(final Solution solution) {
+		if(!hasTarget || solution == null || !solution.isValid()) return false;
+		
+		for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
+			if(solution.getDetailedCost(i) > targetCost[i])
+				return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Notifies the listener that a new best solution was found.
+	 * 
+	 * @param bestSolution the new best solution
+	 */
+	void notifyNewBestSolution(final Solution bestSolution) {
+		if(listener != null)
+			listener.newBestSolution(bestSolution, getElapsedTime());
+	}
+	
+	/**
+	 * Gets the elapsed time since the beginning of the execution.
+	 * 
+	 * @return the elapsed time (in milliseconds)
+	 */
+	public long getElapsedTime() {
+		return System.currentTimeMillis() - start;
+	}
+	
+	/**
+	 * Gets the number of evaluations of the cost function performed since the beginning of the execution.
+	 * 
+	 * @return the number of evaluations
+	 */
+	public long getEvaluations() {
+		return evaluations.get();
+	}
+	
+	/**
+	 * Gets the maximum wall time of the execution.
+	 * 
+	 * @return the maximum wall time (in milliseconds); Long.MAX_VALUE if unlimited
+	 */
+	public long getMaxTime() {
+		return maxTime;
+	}
+	
+	/**
+	 * Sets the maximum wall time of the execution.
+	 * 
+	 * @param maxTime the maximum wall time (in milliseconds)
+	 */
+	public void setMaxTime(final long maxTime) {
+		this.maxTime = maxTime;
+	}
+	
+	/**
+	 * Sets the maximum number of evaluations of the cost function.
+	 * 
+	 * @param maxEvaluations the maximum number of evaluations
+	 */
+	public void setMaxEvaluations(final long maxEvaluations) {
+		this.maxEvaluations = maxEvaluations;
+	}
+	
+	/**
+	 * Sets the target cost of a given objective. The execution stops once a valid solution reaches the target cost in all
+	 * objectives (the objectives without target are not considered).
+	 * 
+	 * @param objective the index of the objective (see Config)
+	 * @param cost the target cost
+	 */
+	public void setTargetCost(final int objective, final double cost) {
+		targetCost[objective] = cost;
+		hasTarget = true;
+	}
+	
+	/**
+	 * Sets the object which is notified each time a new best solution is found.
+	 * 
+	 * @param listener the listener; can be null
+	 */
+	public void setListener(final ProgressListener listener) {
+		this.listener = listener;
+	}
+	
+	/**
+	 * Interface of the objects which are notified each time the optimization algorithm finds a new best solution.
+	 */
+	public interface ProgressListener {
+		
+		/**
+		 * Receives a new best solution.
+		 * 
+		 * @param bestSolution the new best solution
+		 * @param elapsedTime the elapsed time since the beginning of the execution (in milliseconds)
+		 */
+		void newBestSolution(Solution bestSolution, long elapsedTime);
+		
+	}
+	
+}
@@ -22,19 +22,30 @@ public class Constraints {
 	 * @return the number of violations times a constant
 	 */
 	public static double checkConstraints(final Algorithm algorithm, Solution solution) {
-		int[][] modulePlacementMap = solution.getModulePlacementMap();
+		return checkConstraints(algorithm, solution, new SolutionAggregates(algorithm, solution));
+	}
+	
+	/**
+	 * Verifies if all constraints are met using the already computed totals of the solution.
+	 * 
+	 * @param algorithm object which contains all information about the topology and which algorithm was used
+	 * @param solution the solution found
+	 * @param aggregates the totals of the solution
+	 * @return the number of violations times a constant
+	 */
+	public static double checkConstraints(final Algorithm algorithm, Solution solution, final SolutionAggregates aggregates) {
+		int[] modulePlacement = solution.getModulePlacement();
 		int[][] tupleRoutingMap = solution.getTupleRoutingMap();
 		int[][] migrationRoutingMap = solution.getMigrationRoutingMap();
 		
-		Constraints.checkVariableSizeType(algorithm, modulePlacementMap, tupleRoutingMap, migrationRoutingMap);
-		
-		double constraint = checkResourcesExceeded(algorithm, modulePlacementMap);
-		constraint += checkPossiblePlacement(algorithm, modulePlacementMap);
-		constraint += checkMultiplePlacement(algorithm, modulePlacementMap);
-		constraint += checkDependencies(algorithm, modulePlacementMap, tupleRoutingMap);
-		constraint += checkBandwidth(algorithm, tupleRoutingMap);
-		constraint += checkMigration(algorithm, modulePlacementMap, migrationRoutingMap);
-		constraint += checkMigrationDeadlines(algorithm, solution, modulePlacementMap, migrationRoutingMap);
+		// The size and type of the variables were already checked while computing the totals of the solution (as each module
+		// is deployed in exactly one valid node by construction, there is no need to check for multiple placements)
+		double constraint = checkResourcesExceeded(algorithm, aggregates);
+		constraint += checkPossiblePlacement(algorithm, modulePlacement);
+		constraint += checkDependencies(algorithm, aggregates, tupleRoutingMap);
+		constraint += checkBandwidth(algorithm, aggregates);
+		constraint += checkMigration(algorithm, aggregates, migrationRoutingMap);
+		constraint += checkMigrationDeadlines(algorithm, solution, migrationRoutingMap);
 		
 		return constraint;
 	}
@@ -43,14 +54,14 @@ public class Constraints {
 	 * Check if all variables have the correct size and type.
 	 * 
 	 * @param algorithm object which contains all information about the topology and which algorithm was used
-	 * @param modulePlacementMap matrix which represents the next module placement
+	 * @param modulePlacement vector which represents the next module placement
 	 * @param tupleRoutingMap matrix which contains the routing for each module pair dependency
 	 * @param migrationRoutingMap matrix which contains the routing for each module migration
 	 */
-	private static void checkVariableSizeType(final Algorithm algorithm, final int[][] modulePlacementMap,
+	static void checkVariableSizeType(final Algorithm algorithm, final int[] modulePlacement,
 			final int[][] tupleRoutingMap, final int[][] migrationRoutingMap) {
 		
-		if(modulePlacementMap.length != algorithm.getNumberOfNodes() || modulePlacementMap[0].length != algorithm.getNumberOfModules())
+		if(modulePlacement.length != algorithm.getNumberOfModules())
 			FogComputingSim.err("Module placement variable has the wrong size");
 		
 		if(tupleRoutingMap.length != algorithm.getNumberOfDependencies() || tupleRoutingMap[0].length != algorithm.getNumberOfNodes())
@@ -59,11 +70,9 @@ public class Constraints {
 		if(migrationRoutingMap.length != algorithm.getNumberOfModules() || migrationRoutingMap[0].length != algorithm.getNumberOfNodes())
 			FogComputingSim.err("Migration routing variable has the wrong size");
 		
-		for(int i = 0; i < algorithm.getNumberOfNodes(); i++) {
-			for(int j = 0; j < algorithm.getNumberOfModules(); j++) {
-				if(modulePlacementMap[i][j] != 0 && modulePlacementMap[i][j] != 1)
-					FogComputingSim.err("Module placement variable needs to be binary");
-			}
+		for(int j = 0; j < algorithm.getNumberOfModules(); j++) {
+			if(modulePlacement[j] < 0 || modulePlacement[j] >= algorithm.getNumberOfNodes())
+				FogComputingSim.err("Module placement variable needs to be filled with valid node indexes");
 		}
 		
 		for(int i = 0; i < algorithm.getNumberOfDependencies(); i++) {
@@ -85,27 +94,17 @@ public class Constraints {
 	 * Check whether the solutions placement contains modules which are exceeding the machines' resources.
 	 * 
 	 * @param algorithm object which contains all information about the topology and which algorithm was used
-	 * @param modulePlacementMap matrix which represents the next module placement
+	 * @param aggregates the totals of the solution
 	 * @return the number of violations times a constant (zero if this constraint has been respected)
 	 */
-	private static double checkResourcesExceeded(final Algorithm algorithm, final int[][] modulePlacementMap) {
+	private static double checkResourcesExceeded(final Algorithm algorithm, final SolutionAggregates aggregates) {
 		double violations = 0;
 		
 		for(int i = 0; i < algorithm.getNumberOfNodes(); i++) {
-			double totalMips = 0;
-			double totalRam = 0;
-			double totalStrg = 0;
-			
-			for(int j = 0; j < algorithm.getNumberOfModules(); j++) {
-				totalMips += modulePlacementMap[i][j] * algorithm.getmMips()[j];
-				totalRam += modulePlacementMap[i][j] * algorithm.getmRam()[j];
-				totalStrg += modulePlacementMap[i][j] * algorithm.getmStrg()[j];
-			}
-			
 			boolean exceeded = false;
-			if(totalMips > algorithm.getfMips()[i] * Config.MIPS_PERCENTAGE_UTIL) exceeded = true;
-			if(totalRam > algorithm.getfRam()[i] * Config.MEM_PERCENTAGE_UTIL) exceeded = true;
-			if(totalStrg > algorithm.getfStrg()[i] * Config.STRG_PERCENTAGE_UTIL) exceeded = true;
+			if(aggregates.getNodeMips(i) > algorithm.getfMips()[i] * Config.MIPS_PERCENTAGE_UTIL) exceeded = true;
+			if(aggregates.getNodeRam(i) > algorithm.getfRam()[i] * Config.MEM_PERCENTAGE_UTIL) exceeded = true;
+			if(aggregates.getNodeStrg(i) > algorithm.getfStrg()[i] * Config.STRG_PERCENTAGE_UTIL) exceeded = true;
 			
 			if(!exceeded) continue;
 			violations += Constants.REFERENCE_COST;
@@ -118,41 +117,14 @@ public class Constraints {
 	 * Check whether the solutions placement respects the possible deployment matrix.
 	 * 
 	 * @param algorithm object which contains all information about the topology and which algorithm was used
-	 * @param modulePlacementMap matrix which represents the next module placement
-	 * @return the number of violations times a constant (zero if this constraint has been respected)
-	 */
-	private static double checkPossiblePlacement(final Algorithm algorithm, final int[][] modulePlacementMap) {
-		double violations = 0;
-		
-		for(int i  = 0; i < algorithm.getNumberOfNodes(); i++) {
-			for(int j = 0; j < algorithm.getNumberOfModules(); j++) {
-				if(modulePlacementMap[i][j] <= algorithm.getPossibleDeployment()[i][j]) continue;
-				violations += Constants.REFERENCE_COST;
-			}
-		}
-		
-		return violations;
-	}
-	
-	/**
-	 * Check whether the solutions placement contains modules which have not been deployed or have been placed in multiple machines.
-	 * 
-	 * @param algorithm object which contains all information about the topology and which algorithm was used
-	 * @param modulePlacementMap matrix which represents the next module placement
+	 * @param modulePlacement vector which represents the next module placement
 	 * @return the number of violations times a constant (zero if this constraint has been respected)
 	 */
-	private static double checkMultiplePlacement(final Algorithm algorithm, final int[][] modulePlacementMap) {
+	private static double checkPossiblePlacement(final Algorithm algorithm, final int[] modulePlacement) {
 		double violations = 0;
 		
 		for(int j = 0; j < algorithm.getNumberOfModules(); j++) {
-			int sum = 0;
-			
-			for(int i  = 0; i < algorithm.getNumberOfNodes(); i++) {
-				if(modulePlacementMap[i][j] == 1)
-					sum++;
-			}
-			
-			if(sum == 1) continue;
+			if(algorithm.isPossibleDeployment(modulePlacement[j], j)) continue;
 			violations += Constants.REFERENCE_COST;
 		}
 		
@@ -163,35 +135,28 @@ public class Constraints {
 	 * Check whether all dependencies are accomplished.
 	 * 
 	 * @param algorithm object which contains all information about the topology and which algorithm was used
-	 * @param modulePlacementMap matrix which represents the next module placement
+	 * @param aggregates the totals of the solution
 	 * @param tupleRoutingMap matrix which contains the routing for each module pair dependency
 	 * @return the number of violations times a constant (zero if this constraint has been respected)
 	 */
-	private static double checkDependencies(final Algorithm algorithm, final int[][] modulePlacementMap, final int[][] tupleRoutingMap) {
+	private static double checkDependencies(final Algorithm algorithm, final SolutionAggregates aggregates, final int[][] tupleRoutingMap) {
 		double violations = 0;
-		int tmp = 0;
 		
-		for(int i = 0; i < algorithm.getNumberOfModules(); i++) {
-			for(int j = 0; j < algorithm.getNumberOfModules(); j++) {
-				if(algorithm.getmDependencyMap()[i][j] == 0) continue;
-				
-				int startNodeIndex = Solution.findModulePlacement(modulePlacementMap, i);
-				int destNodeIndex = Solution.findModulePlacement(modulePlacementMap, j);
-				
-				if(tupleRoutingMap[tmp][0] != startNodeIndex) {
-					violations += Constants.REFERENCE_COST;
-				}
-				
-				if(tupleRoutingMap[tmp][algorithm.getNumberOfNodes()-1] != destNodeIndex) {
-					violations += Constants.REFERENCE_COST;
-				}
-				
-				for (int k = 0; k < algorithm.getNumberOfNodes()-1; k++) {
-					if(algorithm.getfLatencyMap()[tupleRoutingMap[tmp][k]][tupleRoutingMap[tmp][k+1]] < Constants.INF) continue;
-					violations += Constants.REFERENCE_COST;
-				}
-				
-				tmp++;
+		for(int i = 0; i < algorithm.getNumberOfDependencies(); i++) {
+			int startNodeIndex = aggregates.getModuleNode(algorithm.getStartModDependency(i));
+			int destNodeIndex = aggregates.getModuleNode(algorithm.getFinalModDependency(i));
+			
+			if(tupleRoutingMap[i][0] != startNodeIndex) {
+				violations += Constants.REFERENCE_COST;
+			}
+			
+			if(tupleRoutingMap[i][algorithm.getNumberOfNodes()-1] != destNodeIndex) {
+				violations += Constants.REFERENCE_COST;
+			}
+			
+			for (int k = 0; k < algorithm.getNumberOfNodes()-1; k++) {
+				if(algorithm.getLinkLatency(tupleRoutingMap[i][k], tupleRoutingMap[i][k+1]) < Constants.INF) continue;
+				violations += Constants.REFERENCE_COST;
 			}
 		}
 		
@@ -202,28 +167,25 @@ public class Constraints {
 	 * Check whether bandwidth usage is exceeded.
 	 * 
 	 * @param algorithm object which contains all information about the topology and which algorithm was used
-	 * @param tupleRoutingMap matrix which contains the routing for each module pair dependency
+	 * @param aggregates the totals of the solution
 	 * @return the number of violations times a constant (zero if this constraint has been respected)
 	 */
-	private static double checkBandwidth(final Algorithm algorithm, final int[][] tupleRoutingMap) {
+	private static double checkBandwidth(final Algorithm algorithm, final SolutionAggregates aggregates) {
 		double violations = 0;
-		double bwUsage[][] = new double[algorithm.getNumberOfNodes()][algorithm.getNumberOfNodes()];
+		int[][] neighbors = algorithm.getfNeighbors();
+		double[][] bwUsage = aggregates.getLinkBandwidth();
 		
-		for(int i = 0; i < algorithm.getNumberOfDependencies(); i++) {
-			double bwNeeded = algorithm.getmBandwidthMap()[algorithm.getStartModDependency(i)][algorithm.getFinalModDependency(i)];
-			
-			for(int j = 0; j < algorithm.getNumberOfNodes() - 1; j++) {
-				if(tupleRoutingMap[i][j] != tupleRoutingMap[i][j+1]) {
-					bwUsage[tupleRoutingMap[i][j]][tupleRoutingMap[i][j+1]] += bwNeeded;
-				}
+		for(int i = 0; i < algorithm.getNumberOfNodes(); i++) {
+			for(int j = 0; j < neighbors[i].length; j++) {
+				if(bwUsage[i][j] <= algorithm.getfNeighborBandwidth()[i][j] * Config.BW_PERCENTAGE_UTIL) continue;
+				violations += Constants.REFERENCE_COST;
 			}
 		}
 		
-		for(int i = 0; i < algorithm.getNumberOfNodes(); i++) {
-			for(int j = 0; j < algorithm.getNumberOfNodes(); j++) {
-				if(bwUsage[i][j] <= algorithm.getfBandwidthMap()[i][j] * Config.BW_PERCENTAGE_UTIL) continue;
+		// Hops between nodes which are not connected have no bandwidth at all
+		for(double bwNeeded : aggregates.getMissingLinkBandwidth().values()) {
+			if(bwNeeded > 0)
 				violations += Constants.REFERENCE_COST;
-			}
 		}
 		
 		return violations;
@@ -233,19 +195,18 @@ public class Constraints {
 	 * Check whether all migrations are accomplished.
 	 * 
 	 * @param algorithm object which contains all information about the topology and which algorithm was used
-	 * @param modulePlacementMap matrix which represents the next module placement
+	 * @param aggregates the totals of the solution
 	 * @param migrationRoutingMap matrix which contains the routing for each module migration
 	 * @return the number of violations times a constant (zero if this constraint has been respected)
 	 */
-	private static double checkMigration(final Algorithm algorithm, final int[][] modulePlacementMap,
+	private static double checkMigration(final Algorithm algorithm, final SolutionAggregates aggregates,
 			final int[][] migrationRoutingMap) {
 		double violations = 0;
-		int[][] currentPlacement = algorithm.getCurrentPositionInt();
 		boolean firstOpt = algorithm.isFirstOptimization();
 		
 		for(int i = 0; i < algorithm.getNumberOfModules(); i++) {
-			int startNodeIndex = Solution.findModulePlacement(firstOpt == false ? currentPlacement : modulePlacementMap, i);
-			int destNodeIndex = Solution.findModulePlacement(modulePlacementMap, i);
+			int startNodeIndex = firstOpt == false ? algorithm.getCurrentPlacement(i) : aggregates.getModuleNode(i);
+			int destNodeIndex = aggregates.getModuleNode(i);
 			
 			if(migrationRoutingMap[i][0] != startNodeIndex) {
 				violations += Constants.REFERENCE_COST;
@@ -256,7 +217,7 @@ public class Constraints {
 			}
 			
 			for (int k = 0; k < algorithm.getNumberOfNodes()-1; k++) {
-				if(algorithm.getfLatencyMap()[migrationRoutingMap[i][k]][migrationRoutingMap[i][k+1]] < Constants.INF) continue;
+				if(algorithm.getLinkLatency(migrationRoutingMap[i][k], migrationRoutingMap[i][k+1]) < Constants.INF) continue;
 				violations += Constants.REFERENCE_COST;
 			}
 		}
@@ -268,13 +229,11 @@ public class Constraints {
 	 * Computes the module migration latency for the worst case scenario.
 	 * 
 	 * @param algorithm object which contains all information about the topology and which algorithm was used
-	 * @param modulePlacementMap matrix which represents the next module placement
 	 * @param migrationRoutingMap  matrix which contains the routing for each module migration
 	 * @param moduleIndex index of the module to be analyzed
 	 * @return the module migration latency for the worst case scenario
 	 */
-	private static double checkMigrationDeadlines(final Algorithm algorithm , Solution solution, final int[][] modulePlacementMap,
-			final int[][] migrationRoutingMap) {
+	static double checkMigrationDeadlines(final Algorithm algorithm , Solution solution, final int[][] migrationRoutingMap) {
 		double violations = 0;
 		
 		for (int i = 0; i < algorithm.getNumberOfModules(); i++) {
@@ -287,8 +246,8 @@ public class Constraints {
 				
 				if(start == end) continue;
 				
-				double lat = algorithm.getfLatencyMap()[start][end];
-				double bw = algorithm.getfBandwidthMap()[start][end]*(1-Config.BW_PERCENTAGE_UTIL) + Constants.EPSILON;
+				double lat = algorithm.getLinkLatency(start, end);
+				double bw = algorithm.getLinkBandwidth(start, end)*(1-Config.BW_PERCENTAGE_UTIL) + Constants.EPSILON;
 				
 				latency += lat + size/bw;
 			}
@@ -1,5 +1,8 @@
 package org.fog.placement.algorithm;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import org.fog.core.Config;
 import org.fog.core.Constants;
 import org.fog.core.FogComputingSim;
@@ -13,17 +16,22 @@ import org.fog.core.FogComputingSim;
 public class CostFunction {
 
 	/**
-	 * Analyzes the both the constraints and the cost function.
+	 * Analyzes the both the constraints and the cost function. The solution totals (module placement, node loads and link
+	 * traffic) are computed once and then shared by all the constraints and cost functions.
 	 * 
 	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
 	 * @param solution the best solution found by the execution of the optimization algorithm
 	 */
 	public static void analyzeSolution(Algorithm algorithm, Solution solution) {
-		double constraint = Constraints.checkConstraints(algorithm, solution);
-		solution.setDetailedCost(Config.QOS_COST, computeQoS(algorithm, solution));
-		solution.setDetailedCost(Config.POWER_COST, computePowerCost(algorithm, solution));
-		solution.setDetailedCost(Config.PROCESSING_COST, computeProcessingCost(algorithm, solution));
-		solution.setDetailedCost(Config.BANDWIDTH_COST, computeBandwidthCost(algorithm, solution));
+		algorithm.getBudget().countEvaluation();
+		
+		SolutionAggregates aggregates = new SolutionAggregates(algorithm, solution);
+		
+		double constraint = Constraints.checkConstraints(algorithm, solution, aggregates);
+		solution.setDetailedCost(Config.QOS_COST, computeQoS(algorithm, solution, aggregates));
+		solution.setDetailedCost(Config.POWER_COST, computePowerCost(algorithm, aggregates));
+		solution.setDetailedCost(Config.PROCESSING_COST, computeProcessingCost(algorithm, aggregates));
+		solution.setDetailedCost(Config.BANDWIDTH_COST, computeBandwidthCost(algorithm, aggregates));
 		solution.setDetailedCost(Config.MIGRATION_COST, computeMigrationCost(algorithm, solution));
 		solution.setConstraint(constraint);
 	}
@@ -32,19 +40,15 @@ public class CostFunction {
 	 * Computes the processing cost function for a given solution.
 	 * 
 	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
-	 * @param solution the best solution found by the execution of the optimization algorithm
+	 * @param aggregates the totals of the solution
 	 * @return the computed cost
 	 */
-	private static double computeProcessingCost(Algorithm algorithm, Solution solution) {
+	private static double computeProcessingCost(Algorithm algorithm, SolutionAggregates aggregates) {
 		double cost = 0;
-		int[][] modulePlacementMap = solution.getModulePlacementMap();
 		
 		for(int i = 0; i < algorithm.getNumberOfNodes(); i++) {
 			if(algorithm.getfIsFogDevice()[i] == 0) continue;
-			
-			for(int j = 0; j < algorithm.getNumberOfModules(); j++) {
-				cost += modulePlacementMap[i][j]*algorithm.getmMips()[j]/(algorithm.getfMips()[i]*Config.MIPS_PERCENTAGE_UTIL);
-			}
+			cost += aggregates.getNodeMips(i)/(algorithm.getfMips()[i]*Config.MIPS_PERCENTAGE_UTIL);
 		}
 		
 		return cost;
@@ -55,18 +59,22 @@ public class CostFunction {
 	 * 
 	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
 	 * @param solution the best solution found by the execution of the optimization algorithm
+	 * @param aggregates the totals of the solution
 	 * @return the computed cost
 	 */
-	private static double computeQoS(Algorithm algorithm, Solution solution) {
+	private static double computeQoS(Algorithm algorithm, Solution solution, SolutionAggregates aggregates) {
 		int nrApplications = algorithm.getNumberOfApplications();
 		int nrLoops = algorithm.getNumberOfLoops();
 		int nrModules = algorithm.getNumberOfModules();
 		double cost = 0;
 		
 		int[][] loops = algorithm.getLoops();
-		int[][] modulePlacementMap = solution.getModulePlacementMap();
 		int[][] tupleRoutingMap = solution.getTupleRoutingMap();
-		int[] loopViolation = new int[nrLoops];
+		boolean[] applicationViolation = new boolean[nrApplications];
+		
+		// The same dependency may belong to several loops, thus its latency is only computed once
+		double[] dependencyLatency = new double[algorithm.getNumberOfDependencies()];
+		Arrays.fill(dependencyLatency, -1);
 		
 		for(int i = 0; i < nrLoops; i++) { // Loop index
 			double latency = 0;
@@ -74,24 +82,25 @@ public class CostFunction {
 			for(int j = 0; j < nrModules - 1; j++) { // Module index
 				if(loops[i][j+1] == -1) break;
 				
-				latency += computeProcessingLatency(algorithm, modulePlacementMap, loops[i][j+1]);
-				latency += computeDependencyLatency(algorithm, tupleRoutingMap, loops[i][j], loops[i][j+1]);
+				int depIndex = algorithm.getDependencyIndex(loops[i][j], loops[i][j+1]);
+				if(depIndex == -1)
+					FogComputingSim.err("Should not happen (Constraints)");
+				
+				if(dependencyLatency[depIndex] < 0)
+					dependencyLatency[depIndex] = computeDependencyLatency(algorithm, tupleRoutingMap, aggregates, depIndex);
+				
+				latency += computeProcessingLatency(algorithm, aggregates, loops[i][j+1]);
+				latency += dependencyLatency[depIndex];
 			}
 			
 			solution.setLoopDeadline(i, latency);
 			if(latency <= algorithm.getLoopsDeadline()[i]) continue;
-			loopViolation[i] = 1;
+			applicationViolation[algorithm.getLoopsApplication()[i]] = true;
 		}
 		
 		for(int i = 0; i < nrApplications; i++) {
-			for(int j = 0; j < nrLoops; j++) {
-				if(algorithm.getLoopsApplication()[j] == i) {
-					if(loopViolation[j] == 1) {
-						cost++;
-						break;
-					}
-				}
-			}
+			if(applicationViolation[i])
+				cost++;
 		}
 		
 		return cost;
@@ -101,52 +110,30 @@ public class CostFunction {
 	 * Computes the processing latency for the worst case scenario.
 	 * 
 	 * @param algorithm object which contains all information about the topology and which algorithm was used
-	 * @param modulePlacementMap matrix which represents the next module placement
+	 * @param aggregates the totals of the solution
 	 * @param moduleIndex index of the module to be analyzed
 	 * @return the processing latency for the worst case scenario
 	 */
-	private static double computeProcessingLatency(final Algorithm algorithm, final int[][] modulePlacementMap, final int moduleIndex) {
+	private static double computeProcessingLatency(final Algorithm algorithm, final SolutionAggregates aggregates, final int moduleIndex) {
 		if(algorithm.getmMips()[moduleIndex] == 0) return 0;
-
-		int nodeIndex = Solution.findModulePlacement(modulePlacementMap, moduleIndex);
-		double totalMis = 0;
-
-		for(int i = 0; i < algorithm.getNumberOfModules(); i++) {
-			if(algorithm.getmMips()[i] == 0) continue; // Sensor and actuator modules does not count
-			if(Solution.findModulePlacement(modulePlacementMap, i) != nodeIndex) continue; // Only matter the ones deployed in the same node
-
-			for(int j = 0; j < algorithm.getNumberOfModules(); j++) {
-				totalMis += algorithm.getmCPUMap()[j][i];
-			}
-		}
 		
-		return totalMis/(algorithm.getfMips()[nodeIndex]*Config.MIPS_PERCENTAGE_UTIL);
+		// Only matter the ones deployed in the same node
+		int nodeIndex = aggregates.getModuleNode(moduleIndex);
+		return aggregates.getNodeCPULoad(nodeIndex)/(algorithm.getfMips()[nodeIndex]*Config.MIPS_PERCENTAGE_UTIL);
 	}
 	
 	/**
-	 * Computes the transmission tuple latency for the worst case scenario between a pair of modules.
+	 * Computes the transmission tuple latency for the worst case scenario of a given dependency.
 	 * 
 	 * @param algorithm object which contains all information about the topology and which algorithm was used
 	 * @param tupleRoutingMap matrix which contains the routing for each module pair dependency
-	 * @param moduleIndex1 index of the starting module to be analyzed
-	 * @param moduleIndex2 index of the destination module to be analyzed
-	 * @return the transmission tuple latency for the worst case scenario between a pair of modules
+	 * @param aggregates the totals of the solution
+	 * @param depIndex index of the dependency to be analyzed
+	 * @return the transmission tuple latency for the worst case scenario of the dependency
 	 */
 	private static double computeDependencyLatency(final Algorithm algorithm, final int[][] tupleRoutingMap,
-			final int moduleIndex1, final int moduleIndex2) {
+			final SolutionAggregates aggregates, final int depIndex) {
 		double latency = 0;
-		int depIndex = -1;
-		
-		// Find dependency index
-		for (int i = 0; i < algorithm.getNumberOfDependencies(); i++) {
-			if(algorithm.getStartModDependency(i) == moduleIndex1 && algorithm.getFinalModDependency(i) == moduleIndex2) {
-				depIndex = i;
-				break;
-			}
-		}
-		
-		if(depIndex == -1)
-			FogComputingSim.err("Should not happen (Constraints)");
 		
 		// For each Link, in the tuple routing map sum the total latency
 		for (int i = 0; i < algorithm.getNumberOfNodes() - 1; i++) {
@@ -155,21 +142,11 @@ public class CostFunction {
 			
 			if(start == end) continue;
 			
-			double bw = algorithm.getfBandwidthMap()[start][end] * Config.BW_PERCENTAGE_UTIL + Constants.EPSILON; // Link bandwidth
-			double lat = algorithm.getfLatencyMap()[start][end]; // Link latency
-			double totalSize = 0;
-
-			// For each different dependency which uses the same link, sum the size of the dependency
-			for (int j = 0; j < algorithm.getNumberOfDependencies(); j++) { // Dependency index
-				for(int k = 0; k < algorithm.getNumberOfNodes() - 1; k++) {
-					if(tupleRoutingMap[j][k] == start && tupleRoutingMap[j][k+1] == end) {
-						totalSize += algorithm.getmNWMap()[algorithm.getStartModDependency(j)][algorithm.getFinalModDependency(j)];
-					}
-				}
-			}
+			double bw = algorithm.getLinkBandwidth(start, end) * Config.BW_PERCENTAGE_UTIL + Constants.EPSILON; // Link bandwidth
+			double lat = algorithm.getLinkLatency(start, end); // Link latency
 			
-			// In the worst case, the dependency in study is the last one to be sent
-			latency += lat + totalSize/bw;
+			// In the worst case, the dependency in study is the last one to be sent (after all the others which use the same link)
+			latency += lat + aggregates.getLinkTraffic(algorithm, start, end)/bw;
 		}
 		
 		return latency;
@@ -179,38 +156,39 @@ public class CostFunction {
 	 * Computes the power cost function for a given solution.
 	 * 
 	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
-	 * @param solution the best solution found by the execution of the optimization algorithm
+	 * @param aggregates the totals of the solution
 	 * @return the computed cost
 	 */
-	private static double computePowerCost(Algorithm algorithm, Solution solution) {
-		int[][] modulePlacementMap = solution.getModulePlacementMap();
-		int[][] tupleRoutingMap = solution.getTupleRoutingMap();
+	private static double computePowerCost(Algorithm algorithm, SolutionAggregates aggregates) {
+		int[][] neighbors = algorithm.getfNeighbors();
+		double[][] linkBandwidth = aggregates.getLinkBandwidth();
 		double cost = 0;
 		
 		for(int i = 0; i < algorithm.getNumberOfNodes(); i++) {
 			if(algorithm.getfIsFogDevice()[i] == 0) continue;
-				
-			for(int j = 0; j < algorithm.getNumberOfModules(); j++) {
-				double pw = algorithm.getfBusyPw()[i]-algorithm.getfIdlePw()[i];
-				cost += modulePlacementMap[i][j]*algorithm.getmMips()[j]/(algorithm.getfMips()[i]*Config.MIPS_PERCENTAGE_UTIL)*pw;
-			}
+			
+			double pw = algorithm.getfBusyPw()[i]-algorithm.getfIdlePw()[i];
+			cost += aggregates.getNodeMips(i)/(algorithm.getfMips()[i]*Config.MIPS_PERCENTAGE_UTIL)*pw;
 		}
 		
-		for(int i = 0; i < algorithm.getNumberOfDependencies(); i++) {			
-			double bandwidth = algorithm.getmBandwidthMap()[algorithm.getStartModDependency(i)][algorithm.getFinalModDependency(i)];
+		for(int i = 0; i < algorithm.getNumberOfNodes(); i++) {
+			if(algorithm.getfIsFogDevice()[i] == 0) continue;
 			
-			for(int j = 0; j < algorithm.getNumberOfNodes()-1; j++) {
-				int start = tupleRoutingMap[i][j];
-				int end = tupleRoutingMap[i][j+1];
+			for(int j = 0; j < neighbors[i].length; j++) {
+				if(linkBandwidth[i][j] == 0) continue;
 				
-				if(algorithm.getfIsFogDevice()[start] == 0) continue;
-				if(start == end) continue;
-						
-				double bw = bandwidth/(algorithm.getfBandwidthMap()[start][end]*Config.BW_PERCENTAGE_UTIL + Constants.EPSILON);
-				cost += bw*algorithm.getfTxPw()[start];
+				double bw = linkBandwidth[i][j]/(algorithm.getfNeighborBandwidth()[i][j]*Config.BW_PERCENTAGE_UTIL + Constants.EPSILON);
+				cost += bw*algorithm.getfTxPw()[i];
 			}
 		}
 		
+		for(Map.Entry<Long, Double> entry : aggregates.getMissingLinkBandwidth().entrySet()) {
+			int start = (int) (entry.getKey() / algorithm.getNumberOfNodes());
+			if(algorithm.getfIsFogDevice()[start] == 0) continue;
+			
+			cost += entry.getValue()/Constants.EPSILON*algorithm.getfTxPw()[start];
+		}
+		
 		return cost;
 	}
 	
@@ -218,27 +196,30 @@ public class CostFunction {
 	 * Computes the bandwidth cost function for a given solution.
 	 * 
 	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
-	 * @param solution the best solution found by the execution of the optimization algorithm
+	 * @param aggregates the totals of the solution
 	 * @return the computed cost
 	 */
-	private static double computeBandwidthCost(Algorithm algorithm, Solution solution) {
-		int[][] tupleRoutingMap = solution.getTupleRoutingMap();
+	private static double computeBandwidthCost(Algorithm algorithm, SolutionAggregates aggregates) {
+		int[][] neighbors = algorithm.getfNeighbors();
+		double[][] linkBandwidth = aggregates.getLinkBandwidth();
 		double cost = 0;
 		
-		for(int i = 0; i < algorithm.getNumberOfDependencies(); i++) {			
-			double bandwidth = algorithm.getmBandwidthMap()[algorithm.getStartModDependency(i)][algorithm.getFinalModDependency(i)];
+		for(int i = 0; i < algorithm.getNumberOfNodes(); i++) {
+			if(algorithm.getfIsFogDevice()[i] == 0) continue;
 			
-			for(int j = 0; j < algorithm.getNumberOfNodes()-1; j++) {
-				int start = tupleRoutingMap[i][j];
-				int end = tupleRoutingMap[i][j+1];
-				
-				if(algorithm.getfIsFogDevice()[start] == 0) continue;
-				if(start == end) continue;
-						
-				cost += bandwidth/(algorithm.getfBandwidthMap()[start][end]*Config.BW_PERCENTAGE_UTIL + Constants.EPSILON);
+			for(int j = 0; j < neighbors[i].length; j++) {
+				if(linkBandwidth[i][j] == 0) continue;
+				cost += linkBandwidth[i][j]/(algorithm.getfNeighborBandwidth()[i][j]*Config.BW_PERCENTAGE_UTIL + Constants.EPSILON);
 			}
 		}
 		
+		for(Map.Entry<Long, Double> entry : aggregates.getMissingLinkBandwidth().entrySet()) {
+			int start = (int) (entry.getKey() / algorithm.getNumberOfNodes());
+			if(algorithm.getfIsFogDevice()[start] == 0) continue;
+			
+			cost += entry.getValue()/Constants.EPSILON;
+		}
+		
 		return cost;
 	}
 	
@@ -249,7 +230,7 @@ public class CostFunction {
 	 * @param solution the best solution found by the execution of the optimization algorithm
 	 * @return the computed cost
 	 */
-	private static double computeMigrationCost(Algorithm algorithm, Solution solution) {
+	static double computeMigrationCost(Algorithm algorithm, Solution solution) {
 		int[][] migrationRoutingMap = solution.getMigrationRoutingMap();
 		double cost = 0;
 		
@@ -262,8 +243,8 @@ public class CostFunction {
 				
 				if(algorithm.getfIsFogDevice()[start] == 0) continue;
 				if(start == end) continue;
-			
-				double linkBw = algorithm.getfBandwidthMap()[start][end]*(1-Config.BW_PERCENTAGE_UTIL) + Constants.EPSILON;
+				
+				double linkBw = algorithm.getLinkBandwidth(start, end)*(1-Config.BW_PERCENTAGE_UTIL) + Constants.EPSILON;
 				cost += size/linkBw;
 			}
 		}
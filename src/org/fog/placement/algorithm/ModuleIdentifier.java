@@ -0,0 +1,116 @@
+package org.fog.placement.algorithm;
+
+import org.fog.application.AppModule;
+
+/**
+ * Class representing the structured identifier of an application module within the optimization problem. Modules which
+ * are instantiated for a given client are named "template_nodeId"; this class keeps the application, the template
+ * module name and the owner node id so that they do not need to be recovered by parsing the module name.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class ModuleIdentifier {
+	/** Owner node id of modules which do not belong to any client (i.e., global modules) */
+	public static final int NO_OWNER = -1;
+	
+	/** Id of the application which the module belongs to */
+	private final String appId;
+	
+	/** Name of the module as defined in the application template (i.e., without the owner node id) */
+	private final String templateName;
+	
+	/** Id of the node which owns the module instance */
+	private final int ownerId;
+	
+	/**
+	 * Creates a new module identifier.
+	 * 
+	 * @param appId the id of the application which the module belongs to
+	 * @param templateName the name of the module as defined in the application template
+	 * @param ownerId the id of the node which owns the module instance; NO_OWNER if it is a global module
+	 */
+	public ModuleIdentifier(final String appId, final String templateName, final int ownerId) {
+		this.appId = appId;
+		this.templateName = templateName;
+		this.ownerId = ownerId;
+	}
+	
+	/**
+	 * Creates the identifier of a given application module.
+	 * 
+	 * @param module the application module
+	 * @return the module identifier
+	 */
+	public static ModuleIdentifier fromModule(final AppModule module) {
+		if(module.isGlobalModule())
+			return new ModuleIdentifier(module.getAppId(), module.getName(), NO_OWNER);
+		
+		String suffix = "_" + module.getUserId();
+		String name = module.getName();
+		
+		// Modules which were not instantiated for a given node keep the owner id within the name
+		if(!name.endsWith(suffix))
+			return fromName(module.getAppId(), name);
+		
+		return new ModuleIdentifier(module.getAppId(), name.substring(0, name.length() - suffix.length()), module.getUserId());
+	}
+	
+	/**
+	 * Creates the identifier of a module which is only known by its name (e.g., sensors and actuators). The name must
+	 * follow the "template_nodeId" format.
+	 * 
+	 * @param appId the id of the application which the module belongs to
+	 * @param name the name of the module
+	 * @return the module identifier
+	 * @throws NumberFormatException if the name does not end with the owner node id
+	 */
+	public static ModuleIdentifier fromName(final String appId, final String name) throws NumberFormatException {
+		int separator = name.lastIndexOf('_');
+		int ownerId = Integer.parseInt(name.substring(separator + 1));
+		
+		return new ModuleIdentifier(appId, name.substring(0, Math.max(separator, 0)), ownerId);
+	}
+	
+	/**
+	 * Gets the id of the application which the module belongs to.
+	 * 
+	 * @return the id of the application which the module belongs to
+	 */
+	public String getAppId() {
+		return appId;
+	}
+	
+	/**
+	 * Gets the name of the module as defined in the application template.
+	 * 
+	 * @return the name of the module as defined in the application template
+	 */
+	public String getTemplateName() {
+		return templateName;
+	}
+	
+	/**
+	 * Gets the id of the node which owns the module instance.
+	 * 
+	 * @return the id of the node which owns the module instance; NO_OWNER if it is a global module
+	 */
+	public int getOwnerId() {
+		return ownerId;
+	}
+	
+	/**
+	 * Verifies whether the module is a global module (i.e., it is not owned by any client).
+	 * 
+	 * @return true if the module does not belong to any client, otherwise false
+	 */
+	public boolean isGlobal() {
+		return ownerId == NO_OWNER;
+	}
+	
+	@Override
+	public String toString() {
+		return isGlobal() ? templateName : templateName + "_" + ownerId;
+	}
+	
+}
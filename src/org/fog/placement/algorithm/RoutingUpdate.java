@@ -0,0 +1,73 @@
+package org.fog.placement.algorithm;
+
+/**
+ * Class representing a single change in the routing tables of the fog network. Each update states that, at a given node,
+ * the traffic of a given routing entry (a dependency in the tuple routing tables or a module in the migration routing
+ * tables) must be forwarded to a new next hop, or that the entry must be removed.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class RoutingUpdate {
+	/** Next hop value which means that the routing entry must be removed from the node's routing table */
+	public static final int REMOVED = -1;
+	
+	/** Index of the node whose routing table changes */
+	private final int node;
+	
+	/** Index of the routing entry (dependency index or module index) */
+	private final int entry;
+	
+	/** Index of the new next hop node; REMOVED if the entry must be removed */
+	private final int nextHop;
+	
+	/**
+	 * Creates a new routing update.
+	 * 
+	 * @param node the index of the node whose routing table changes
+	 * @param entry the index of the routing entry (dependency index or module index)
+	 * @param nextHop the index of the new next hop node; REMOVED if the entry must be removed
+	 */
+	public RoutingUpdate(final int node, final int entry, final int nextHop) {
+		this.node = node;
+		this.entry = entry;
+		this.nextHop = nextHop;
+	}
+	
+	/**
+	 * Gets the index of the node whose routing table changes.
+	 * 
+	 * @return the index of the node whose routing table changes
+	 */
+	public int getNode() {
+		return node;
+	}
+	
+	/**
+	 * Gets the index of the routing entry (dependency index or module index).
+	 * 
+	 * @return the index of the routing entry
+	 */
+	public int getEntry() {
+		return entry;
+	}
+	
+	/**
+	 * Gets the index of the new next hop node.
+	 * 
+	 * @return the index of the new next hop node; REMOVED if the entry must be removed
+	 */
+	public int getNextHop() {
+		return nextHop;
+	}
+	
+	/**
+	 * Verifies whether the routing entry must be removed from the node's routing table.
+	 * 
+	 * @return true if the entry must be removed, otherwise false
+	 */
+	public boolean isRemoval() {
+		return nextHop == REMOVED;
+	}
+	
+}
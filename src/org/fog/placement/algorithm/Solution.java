@@ -1,9 +1,7 @@
 package org.fog.placement.algorithm;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
@@ -21,8 +19,11 @@ import org.fog.utils.Util;
  */
 public class Solution implements Comparable<Solution> {
 	
-	/** Matrix representing the application module placement table (binary) */
-	protected int[][] modulePlacementMap;
+	/** Vector representing the application module placement (index of the node where each module is deployed) */
+	protected int[] modulePlacement;
+	
+	/** Number of fog nodes (used to derive the binary module placement table) */
+	private int nrNodes;
 	
 	/** Matrix representing the tuple routing table (each row is a dependency between different pair of nodes) */
 	protected int[][] tupleRoutingMap;
@@ -48,7 +49,8 @@ public class Solution implements Comparable<Solution> {
 	 * @param anotherSolution the solution to be copied
 	 */
 	public Solution(Algorithm algorithm, Solution anotherSolution) {
-		this.modulePlacementMap = Util.copy(anotherSolution.getModulePlacementMap());
+		this.nrNodes = algorithm.getNumberOfNodes();
+		this.modulePlacement = anotherSolution.getModulePlacement().clone();
 		this.tupleRoutingMap = Util.copy(anotherSolution.getTupleRoutingMap());
 		this.migrationRoutingMap = Util.copy(anotherSolution.getMigrationRoutingMap());
 		this.constraint = anotherSolution.getConstraint();
@@ -66,13 +68,45 @@ public class Solution implements Comparable<Solution> {
 			this.migrationDeadline[i] = anotherSolution.getMigrationDeadline(i);
 	}
 	
+	/**
+	 * Copies the content of another solution into this one without allocating any memory (both solutions must have
+	 * tables with the same dimensions).
+	 * 
+	 * @param anotherSolution the solution to be copied
+	 */
+	public void copyFrom(Solution anotherSolution) {
+		System.arraycopy(anotherSolution.modulePlacement, 0, modulePlacement, 0, modulePlacement.length);
+		copyMap(anotherSolution.getTupleRoutingMap(), tupleRoutingMap);
+		copyMap(anotherSolution.getMigrationRoutingMap(), migrationRoutingMap);
+		
+		System.arraycopy(anotherSolution.cost, 0, cost, 0, cost.length);
+		System.arraycopy(anotherSolution.loopDeadline, 0, loopDeadline, 0, loopDeadline.length);
+		System.arraycopy(anotherSolution.migrationDeadline, 0, migrationDeadline, 0, migrationDeadline.length);
+		constraint = anotherSolution.getConstraint();
+	}
+	
+	/**
+	 * Copies the content of a table into another one with the same dimensions.
+	 * 
+	 * @param from the table to be copied
+	 * @param to the table which receives the copy
+	 */
+	private static void copyMap(int[][] from, int[][] to) {
+		if(from == to) return;
+		
+		for(int i = 0; i < from.length; i++)
+			System.arraycopy(from[i], 0, to[i], 0, from[i].length);
+	}
+	
 	/**
 	 * Creates a new solution only with the module placement defined (by default it's an invalid solution).
 	 * 
-	 * @param modulePlacementMap
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 * @param modulePlacement the module placement vector (index of the node where each module is deployed)
 	 */
-	public Solution(Algorithm algorithm, int[][] modulePlacementMap) {
-		this.modulePlacementMap = modulePlacementMap;
+	public Solution(Algorithm algorithm, int[] modulePlacement) {
+		this.nrNodes = algorithm.getNumberOfNodes();
+		this.modulePlacement = modulePlacement;
 		this.cost = new double[Config.NR_OBJECTIVES];
 		this.loopDeadline = new double[algorithm.getNumberOfLoops()];
 		this.migrationDeadline = new double[algorithm.getNumberOfModules()];
@@ -83,12 +117,13 @@ public class Solution implements Comparable<Solution> {
 	 * routing tables.
 	 * 
 	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
-	 * @param modulePlacementMap the module placement matrix (binary)
+	 * @param modulePlacement the module placement vector (index of the node where each module is deployed)
 	 * @param tupleRoutingMap the tuple routing matrix
 	 * @param migrationRoutingMap the migration routing matrix
 	 */
-	public Solution(Algorithm algorithm, int[][] modulePlacementMap, int[][] tupleRoutingMap, int[][] migrationRoutingMap) {
-		this.modulePlacementMap = modulePlacementMap;
+	public Solution(Algorithm algorithm, int[] modulePlacement, int[][] tupleRoutingMap, int[][] migrationRoutingMap) {
+		this.nrNodes = algorithm.getNumberOfNodes();
+		this.modulePlacement = modulePlacement;
 		this.tupleRoutingMap = tupleRoutingMap;
 		this.migrationRoutingMap = migrationRoutingMap;
 		this.cost = new double[Config.NR_OBJECTIVES];
@@ -111,6 +146,7 @@ public class Solution implements Comparable<Solution> {
 		int nrDependencies = tupleRoutingVectorMap.length;
 		int nrNodes = algorithm.getNumberOfNodes();
 		int nrModules = algorithm.getNumberOfModules();
+		int[] modulePlacement = toModulePlacement(modulePlacementMap);
 		int[][] tupleRoutingMap = new int[nrDependencies][nrNodes];
 		int[][] migrationRoutingMap = new int[nrModules][nrNodes];
 		
@@ -118,7 +154,7 @@ public class Solution implements Comparable<Solution> {
 		
 		// Tuple routing map
 		for(int i = 0; i < nrDependencies; i++) {
-			int from = Solution.findModulePlacement(modulePlacementMap, algorithm.getStartModDependency(i));
+			int from = modulePlacement[algorithm.getStartModDependency(i)];
 			tupleRoutingMap[i][0] = from;
 			iter = 1;
 			
@@ -143,7 +179,7 @@ public class Solution implements Comparable<Solution> {
 		
 		// Migration routing map
 		for(int i = 0; i < nrModules; i++) {
-			int from = Solution.findModulePlacement(algorithm.isFirstOptimization() ? modulePlacementMap : algorithm.getCurrentPositionInt(), i);
+			int from = algorithm.isFirstOptimization() ? modulePlacement[i] : algorithm.getCurrentPlacement(i);
 			migrationRoutingMap[i][0] = from;
 			iter = 1;
 			
@@ -166,7 +202,8 @@ public class Solution implements Comparable<Solution> {
 			}
 		}
 		
-		this.modulePlacementMap = modulePlacementMap;
+		this.nrNodes = nrNodes;
+		this.modulePlacement = modulePlacement;
 		this.tupleRoutingMap = tupleRoutingMap;
 		this.migrationRoutingMap = migrationRoutingMap;
 		this.cost = new double[Config.NR_OBJECTIVES];
@@ -182,124 +219,244 @@ public class Solution implements Comparable<Solution> {
 	 * @return the random algorithm solution 
 	 */
 	public static Solution generateRandomSolution(Algorithm algorithm) {
+		return generateRandomSolution(algorithm, new Random());
+	}
+	
+	/**
+	 * Generates a random algorithm solution using a given random number generator.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 * @param random the random number generator
+	 * @return the random algorithm solution 
+	 */
+	public static Solution generateRandomSolution(Algorithm algorithm, Random random) {
 		int nrFogNodes = algorithm.getNumberOfNodes();
 		int nrModules = algorithm.getNumberOfModules();
 		int nrDependencies = algorithm.getNumberOfDependencies();
 		
-		int[][] modulePlacementMap = generateRandomPlacement(algorithm, nrFogNodes, nrModules);
-		int[][] tupleRoutingMap = generateRandomTupleRouting(algorithm, modulePlacementMap, nrFogNodes, nrDependencies);
-		int[][] migrationRoutingMap = generateRandomMigrationRouting(algorithm, modulePlacementMap, nrFogNodes, nrModules);
-		return new Solution(algorithm, modulePlacementMap, tupleRoutingMap, migrationRoutingMap);
+		int[] modulePlacement = generateRandomPlacement(algorithm, nrModules, random);
+		int[][] tupleRoutingMap = generateRandomTupleRouting(algorithm, modulePlacement, nrFogNodes, nrDependencies, random);
+		int[][] migrationRoutingMap = generateRandomMigrationRouting(algorithm, modulePlacement, nrFogNodes, nrModules, random);
+		return new Solution(algorithm, modulePlacement, tupleRoutingMap, migrationRoutingMap);
 	}
 	
 	/**
-	 * Generates a random application module placement based on the possibles one.
+	 * Generates a solution based on a previous one, repaired for the current state of the fog network. Each module is
+	 * kept in the node where it is currently deployed (or in its previous node, or else in a random node, if that one is
+	 * no longer possible). The previous routes are kept as long as they still start and end in the right nodes and all
+	 * their links still exist; the other ones are generated randomly.
 	 * 
 	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
-	 * @param nrFogNodes the number of fog nodes in the topology
-	 * @param nrModules the number of modules in the topology
-	 * @return the random application module placement
+	 * @param previous the previous solution
+	 * @param random the random number generator
+	 * @return the repaired solution (already evaluated)
 	 */
-	public static int[][] generateRandomPlacement(Algorithm algorithm, int nrFogNodes, int nrModules) {
-		int[][] modulePlacementMap = new int[nrFogNodes][nrModules];
-		double[][] possibleDeployment = algorithm.getPossibleDeployment();
+	public static Solution generateSeedSolution(Algorithm algorithm, Solution previous, Random random) {
+		int nrFogNodes = algorithm.getNumberOfNodes();
+		int nrModules = algorithm.getNumberOfModules();
+		int nrDependencies = algorithm.getNumberOfDependencies();
+		boolean firstOpt = algorithm.isFirstOptimization();
+		
+		int[] candidates = new int[nrFogNodes];
+		int[] modulePlacement = new int[nrModules];
+		int[][] tupleRoutingMap = new int[nrDependencies][nrFogNodes];
+		int[][] migrationRoutingMap = new int[nrModules][nrFogNodes];
 		
 		for(int i = 0; i < nrModules; i++) {
-			List<Integer> validValues = new ArrayList<Integer>();
+			int node = algorithm.getCurrentPlacement(i);
 			
-			for(int j = 0; j < nrFogNodes; j++)
-				if(possibleDeployment[j][i] == 1)
-					validValues.add(j);
+			if(node == -1 || !algorithm.isPossibleDeployment(node, i))
+				node = previous.modulePlacement[i];
 			
-			modulePlacementMap[validValues.get(new Random().nextInt(validValues.size()))][i] = 1;
+			if(!algorithm.isPossibleDeployment(node, i)) {
+				int[] validValues = algorithm.getPossibleNodes(i);
+				node = validValues[random.nextInt(validValues.length)];
+			}
+			
+			modulePlacement[i] = node;
 		}
 		
-		return modulePlacementMap;
+		for(int i = 0; i < nrDependencies; i++) {
+			int from = modulePlacement[algorithm.getStartModDependency(i)];
+			int to = modulePlacement[algorithm.getFinalModDependency(i)];
+			repairRoute(algorithm, previous.tupleRoutingMap[i], tupleRoutingMap[i], from, to, candidates, random);
+		}
+		
+		for(int i = 0; i < nrModules; i++) {
+			int from = firstOpt ? modulePlacement[i] : algorithm.getCurrentPlacement(i);
+			repairRoute(algorithm, previous.migrationRoutingMap[i], migrationRoutingMap[i], from, modulePlacement[i], candidates, random);
+		}
+		
+		return new Solution(algorithm, modulePlacement, tupleRoutingMap, migrationRoutingMap);
+	}
+	
+	/**
+	 * Copies a previous route if it still starts and ends in the given nodes and all its links still exist. Otherwise,
+	 * a random route between both nodes is generated.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 * @param previousRoute the previous route
+	 * @param route the route to be filled
+	 * @param from the index of the node where the route starts
+	 * @param to the index of the node where the route ends
+	 * @param candidates the buffer used to hold the valid next hops
+	 * @param random the random number generator
+	 */
+	private static void repairRoute(Algorithm algorithm, int[] previousRoute, int[] route, int from, int to,
+			int[] candidates, Random random) {
+		int nrFogNodes = route.length;
+		boolean valid = previousRoute[0] == from && previousRoute[nrFogNodes-1] == to;
+		
+		for(int j = 0; valid && j < nrFogNodes - 1; j++) {
+			if(algorithm.getLinkLatency(previousRoute[j], previousRoute[j+1]) >= Constants.INF)
+				valid = false;
+		}
+		
+		if(valid) {
+			System.arraycopy(previousRoute, 0, route, 0, nrFogNodes);
+			return;
+		}
+		
+		route[0] = from;
+		route[nrFogNodes-1] = to;
+		generateRandomRoute(algorithm, route, candidates, random);
+	}
+	
+	/**
+	 * Generates a random application module placement based on the possibles one.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 * @param nrModules the number of modules in the topology
+	 * @param random the random number generator
+	 * @return the random application module placement (index of the node where each module is deployed)
+	 */
+	public static int[] generateRandomPlacement(Algorithm algorithm, int nrModules, Random random) {
+		int[] modulePlacement = new int[nrModules];
+		
+		for(int i = 0; i < nrModules; i++) {
+			int[] validValues = algorithm.getPossibleNodes(i);
+			modulePlacement[i] = validValues[random.nextInt(validValues.length)];
+		}
+		
+		return modulePlacement;
 	}
 	
 	/**
 	 * Generates a random tuple routing table based on a given module placement and the distances computed by the Dijkstra algorithm.
 	 * 
 	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
-	 * @param modulePlacementMap the module placement
+	 * @param modulePlacement the module placement (index of the node where each module is deployed)
 	 * @param nrFogNodes the number of fog nodes in the topology
 	 * @param nrDependencies the number of dependencies between pairs of nodes
+	 * @param random the random number generator
 	 * @return the random tuple routing table
 	 */
-	public static int[][] generateRandomTupleRouting(Algorithm algorithm, int[][] modulePlacementMap, int nrFogNodes, int nrDependencies) {
+	public static int[][] generateRandomTupleRouting(Algorithm algorithm, int[] modulePlacement, int nrFogNodes, int nrDependencies,
+			Random random) {
 		int[][] routingMap = new int[nrDependencies][nrFogNodes];
-		
-		for(int i  = 0; i < nrDependencies; i++) {			
-			routingMap[i][0] = Solution.findModulePlacement(modulePlacementMap, algorithm.getStartModDependency(i));
-			routingMap[i][nrFogNodes-1] = Solution.findModulePlacement(modulePlacementMap, algorithm.getFinalModDependency(i));
-	        
-			for(int j = 1; j < nrFogNodes - 1; j++) {
-				// If its already the final node, then just fill the remain ones
-				if(routingMap[i][j-1] == routingMap[i][nrFogNodes-1]) {
-					for(; j < nrFogNodes - 1; j++) {
-						routingMap[i][j] = routingMap[i][nrFogNodes-1];
-					}
-					break;
-				}
-				
-				List<Integer> validValues = new ArrayList<Integer>();
-				
-				for(int z = 0; z < nrFogNodes; z++) {					
-					if(algorithm.getfLatencyMap()[routingMap[i][j-1]][z] == Constants.INF) continue;
-					if(algorithm.getfLatencyMap()[routingMap[i][j-1]][z] == 0) continue;
-					if(!algorithm.isValidHop(z, routingMap[i][nrFogNodes-1], nrFogNodes - j)) continue;
-					validValues.add(z);
-				}
-						
-				routingMap[i][j] = validValues.get(new Random().nextInt(validValues.size()));
-			}
-		}
-		
+		generateRandomTupleRouting(algorithm, modulePlacement, routingMap, new int[nrFogNodes], random);
 		return routingMap;
 	}
 	
+	/**
+	 * Fills a given tuple routing table with a random routing based on a given module placement and the distances computed
+	 * by the Dijkstra algorithm. It does not allocate any memory.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 * @param modulePlacement the module placement (index of the node where each module is deployed)
+	 * @param routingMap the tuple routing table to be filled
+	 * @param candidates the buffer used to hold the valid next hops (its size must be at least the maximum node degree)
+	 * @param random the random number generator
+	 */
+	public static void generateRandomTupleRouting(Algorithm algorithm, int[] modulePlacement, int[][] routingMap, int[] candidates,
+			Random random) {
+		int nrFogNodes = algorithm.getNumberOfNodes();
+		
+		for(int i  = 0; i < routingMap.length; i++) {
+			routingMap[i][0] = modulePlacement[algorithm.getStartModDependency(i)];
+			routingMap[i][nrFogNodes-1] = modulePlacement[algorithm.getFinalModDependency(i)];
+			generateRandomRoute(algorithm, routingMap[i], candidates, random);
+		}
+	}
 	
 	/**
 	 * Generates a random virtual machine migration routing table based on a given module placement and current position and the distances
 	 * computed by the Dijkstra algorithm.
 	 * 
 	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
-	 * @param modulePlacementMap the module placement
+	 * @param modulePlacement the module placement (index of the node where each module is deployed)
 	 * @param nrFogNodes the number of fog nodes in the topology
 	 * @param nrModules the number of modules in the topology
+	 * @param random the random number generator
 	 * @return the random virtual machine migration routing table
 	 */
-	public static int[][] generateRandomMigrationRouting(Algorithm algorithm, int[][] modulePlacementMap, int nrFogNodes, int nrModules) {
-		int[][] currentPosition = algorithm.getCurrentPositionInt();
+	public static int[][] generateRandomMigrationRouting(Algorithm algorithm, int[] modulePlacement, int nrFogNodes, int nrModules,
+			Random random) {
 		int[][] routingMap = new int[nrModules][nrFogNodes];
+		generateRandomMigrationRouting(algorithm, modulePlacement, routingMap, new int[nrFogNodes], random);
+		return routingMap;
+	}
+	
+	/**
+	 * Fills a given virtual machine migration routing table with a random routing based on a given module placement and
+	 * current position and the distances computed by the Dijkstra algorithm. It does not allocate any memory.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 * @param modulePlacement the module placement (index of the node where each module is deployed)
+	 * @param routingMap the virtual machine migration routing table to be filled
+	 * @param candidates the buffer used to hold the valid next hops (its size must be at least the maximum node degree)
+	 * @param random the random number generator
+	 */
+	public static void generateRandomMigrationRouting(Algorithm algorithm, int[] modulePlacement, int[][] routingMap, int[] candidates,
+			Random random) {
+		int nrFogNodes = algorithm.getNumberOfNodes();
+		boolean firstOpt = algorithm.isFirstOptimization();
 		
-		for(int i = 0; i < nrModules; i++) { // Module index
-			routingMap[i][0] = Solution.findModulePlacement(algorithm.isFirstOptimization() ? modulePlacementMap : currentPosition, i);
-			routingMap[i][nrFogNodes-1] = Solution.findModulePlacement(modulePlacementMap, i);
-			
-			for(int j = 1; j < nrFogNodes - 1; j++) { // Routing hop index
-				// If its already the final node, then just fill the remain ones
-				if(routingMap[i][j-1] == routingMap[i][nrFogNodes-1]) {
-					for(; j < nrFogNodes - 1; j++) {
-						routingMap[i][j] = routingMap[i][nrFogNodes-1];
-					}
-					break;
-				}
-				
-				List<Integer> validValues = new ArrayList<Integer>();
-				
-				for(int z = 0; z < nrFogNodes; z++) { // Node index
-					if(algorithm.getfLatencyMap()[routingMap[i][j-1]][z] == Constants.INF) continue;
-					if(algorithm.getfLatencyMap()[routingMap[i][j-1]][z] == 0) continue;
-					if(!algorithm.isValidHop(z, routingMap[i][nrFogNodes-1], nrFogNodes - j)) continue;
-					validValues.add(z);
+		for(int i = 0; i < routingMap.length; i++) { // Module index
+			routingMap[i][0] = firstOpt ? modulePlacement[i] : algorithm.getCurrentPlacement(i);
+			routingMap[i][nrFogNodes-1] = modulePlacement[i];
+			generateRandomRoute(algorithm, routingMap[i], candidates, random);
+		}
+	}
+	
+	/**
+	 * Fills the intermediate hops of a route whose first and last nodes are already defined. Each hop is a random neighbor
+	 * of the previous one from which the last node can still be reached within the remaining hops. When the routing is
+	 * based on the path catalog, the route is a random path of the catalog instead.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 * @param route the route (both its first and last positions are already filled)
+	 * @param candidates the buffer used to hold the valid next hops
+	 * @param random the random number generator
+	 */
+	private static void generateRandomRoute(Algorithm algorithm, int[] route, int[] candidates, Random random) {
+		int nrFogNodes = route.length;
+		
+		if(Config.PATH_CATALOG_ROUTING && algorithm.getPathCatalog().fillRandomPath(route, random))
+			return;
+		
+		for(int j = 1; j < nrFogNodes - 1; j++) { // Routing hop index
+			// If its already the final node, then just fill the remain ones
+			if(route[j-1] == route[nrFogNodes-1]) {
+				for(; j < nrFogNodes - 1; j++) {
+					route[j] = route[nrFogNodes-1];
 				}
+				break;
+			}
+			
+			int nrCandidates = 0;
+			
+			int previousNode = route[j-1];
+			for(int k = 0; k < algorithm.getfNeighbors()[previousNode].length; k++) { // Neighbor index
+				int z = algorithm.getfNeighbors()[previousNode][k];
 				
-				routingMap[i][j] = validValues.get(new Random().nextInt(validValues.size()));
+				if(algorithm.getfNeighborLatency()[previousNode][k] == 0) continue;
+				if(!algorithm.isValidHop(z, route[nrFogNodes-1], nrFogNodes - j)) continue;
+				candidates[nrCandidates++] = z;
 			}
+			
+			route[j] = candidates[random.nextInt(nrCandidates)];
 		}
-		
-		return routingMap;
 	}
 	
 	/**
@@ -331,33 +488,40 @@ public class Solution implements Comparable<Solution> {
 	 * @return the best solution
 	 */
 	public static Solution checkBestSolution(Algorithm algorithm, Solution newSolution, Solution bestSolution,
-			int iteration) {		
-		if(bestSolution == null && !newSolution.isValid()) return bestSolution;
+			int iteration) {
+		if(!isBetterSolution(newSolution, bestSolution)) return bestSolution;
 		
-		if(bestSolution == null && newSolution.isValid()) {
-			bestSolution = new Solution(algorithm, newSolution);
-			if(iteration >= 0) displayNewBestSolution(algorithm, newSolution, iteration);
-			return bestSolution;
-		}
-		
-		if(!newSolution.isValid()) return bestSolution;
+		bestSolution = new Solution(algorithm, newSolution);
+		if(iteration >= 0) displayNewBestSolution(algorithm, newSolution, iteration);
+		return bestSolution;
+	}
+	
+	/**
+	 * Checks whether the new solution replaces the best one (i.e., it is valid and it is not worse than the best one,
+	 * while having different costs).
+	 * 
+	 * @param newSolution the new found solution
+	 * @param bestSolution the best current found solution; can be null
+	 * @return true if the new solution replaces the best one, otherwise false
+	 */
+	public static boolean isBetterSolution(Solution newSolution, Solution bestSolution) {
+		if(!newSolution.isValid()) return false;
+		if(bestSolution == null) return true;
 		
-		Solution[] tmpPop = new Solution[]{newSolution, bestSolution};
-		Arrays.sort(tmpPop);
+		// The best one is only kept if it is strictly better than the new one (as in a stable sort)
+		if(bestSolution.compareTo(newSolution) < 0) return false;
 		
 		for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
-			if(bestSolution.getDetailedCost(i) != tmpPop[0].getDetailedCost(i)) {				
-				bestSolution = new Solution(algorithm, tmpPop[0]);
-				if(iteration >= 0) displayNewBestSolution(algorithm, tmpPop[0], iteration);
-				return bestSolution;
-			}
+			if(bestSolution.getDetailedCost(i) != newSolution.getDetailedCost(i))
+				return true;
 		}
 		
-		return bestSolution;
+		return false;
 	}
 	
 	/**
-	 * Displays the best solution and adds it to the iteration/value map.
+	 * Displays the best solution, adds it to both the iteration/value and time/value maps, and notifies the listener of
+	 * the budget.
 	 * 
 	 * @param bestSolution the best solution
 	 * @param iteration a negative number if its not to be displayed. Otherwise, the iteration value
@@ -368,8 +532,15 @@ public class Solution implements Comparable<Solution> {
 			map.put(i, iteration);
 			
 			algorithm.getValueIterMap().put(map, bestSolution.getDetailedCost(i));
+			
+			Map<Integer, Long> timeMap = new HashMap<Integer, Long>();
+			timeMap.put(i, algorithm.getBudget().getElapsedTime());
+			
+			algorithm.getValueTimeMap().put(timeMap, bestSolution.getDetailedCost(i));
 		}
 		
+		algorithm.getBudget().notifyNewBestSolution(bestSolution);
+		
 		if(!Config.PRINT_ALGORITHM_BEST_ITER) return;
 		AlgorithmUtils.printSolution(algorithm, bestSolution, iteration);
 	}
@@ -436,11 +607,28 @@ public class Solution implements Comparable<Solution> {
 	}
 	
 	/**
-	 * Gets the matrix representing the application module placement table (binary).
+	 * Gets the vector representing the application module placement (index of the node where each module is deployed).
+	 * 
+	 * @return the vector representing the application module placement
+	 */
+	public int[] getModulePlacement() {
+		return modulePlacement;
+	}
+	
+	/**
+	 * Derives the matrix representing the application module placement table (binary). It is only meant to export the
+	 * solution, since a new matrix is created in each call.
 	 * 
 	 * @return the matrix representing the application module placement table
 	 */
 	public int[][] getModulePlacementMap() {
+		int[][] modulePlacementMap = new int[nrNodes][modulePlacement.length];
+		
+		for(int j = 0; j < modulePlacement.length; j++) {
+			if(modulePlacement[j] >= 0 && modulePlacement[j] < nrNodes)
+				modulePlacementMap[modulePlacement[j]][j] = 1;
+		}
+		
 		return modulePlacementMap;
 	}
 	
@@ -462,6 +650,21 @@ public class Solution implements Comparable<Solution> {
 		return migrationRoutingMap;
 	}
 	
+	/**
+	 * Converts a binary module placement table into a module placement vector.
+	 * 
+	 * @param binary the binary matrix representing the module placement
+	 * @return the vector holding the fog device index where each module was placed (-1 if it was not found)
+	 */
+	public static int[] toModulePlacement(int[][] binary) {
+		int[] modulePlacement = new int[binary[0].length];
+		
+		for(int j = 0; j < modulePlacement.length; j++)
+			modulePlacement[j] = findModulePlacement(binary, j);
+		
+		return modulePlacement;
+	}
+	
 	/**
 	 * Finds the fog device index where a given module was placed.
 	 * 
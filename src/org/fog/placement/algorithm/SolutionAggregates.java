@@ -0,0 +1,213 @@
+package org.fog.placement.algorithm;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class holding the totals of a solution which are needed both by the cost function and by the constraints (i.e., the
+ * node where each module is deployed, the resources used in each node and the traffic within each link). They are
+ * computed in a single pass over the solution tables, so that the costs and constraints can then be obtained without
+ * scanning the tables again.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class SolutionAggregates {
+	/** Vector holding the index of the node where each module is deployed */
+	private final int[] moduleNode;
+	
+	/** Vector holding the sum of the MIPS of the modules deployed in each node */
+	private final double[] nodeMips;
+	
+	/** Vector holding the sum of the RAM of the modules deployed in each node */
+	private final double[] nodeRam;
+	
+	/** Vector holding the sum of the storage of the modules deployed in each node */
+	private final double[] nodeStrg;
+	
+	/** Vector holding the sum of the tuple CPU size received by the modules deployed in each node (sensors and actuators excluded) */
+	private final double[] nodeCPULoad;
+	
+	/** Adjacency lists holding the sum of the tuple network size of the dependencies which use each link */
+	private final double[][] linkTraffic;
+	
+	/** Adjacency lists holding the sum of the bandwidth of the dependencies which use each link */
+	private final double[][] linkBandwidth;
+	
+	/** Tuple network size sent between nodes which are not connected (key is from * number of nodes + to) */
+	private final Map<Long, Double> missingLinkTraffic;
+	
+	/** Bandwidth needed between nodes which are not connected (key is from * number of nodes + to) */
+	private final Map<Long, Double> missingLinkBandwidth;
+	
+	/**
+	 * Computes the totals of a given solution.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 * @param solution the solution to be analyzed
+	 */
+	public SolutionAggregates(final Algorithm algorithm, final Solution solution) {
+		int nrNodes = algorithm.getNumberOfNodes();
+		int nrModules = algorithm.getNumberOfModules();
+		int[] modulePlacement = solution.getModulePlacement();
+		int[][] tupleRoutingMap = solution.getTupleRoutingMap();
+		int[][] neighbors = algorithm.getfNeighbors();
+		
+		Constraints.checkVariableSizeType(algorithm, modulePlacement, tupleRoutingMap, solution.getMigrationRoutingMap());
+		
+		moduleNode = modulePlacement;
+		nodeMips = new double[nrNodes];
+		nodeRam = new double[nrNodes];
+		nodeStrg = new double[nrNodes];
+		nodeCPULoad = new double[nrNodes];
+		linkTraffic = new double[nrNodes][];
+		linkBandwidth = new double[nrNodes][];
+		missingLinkTraffic = new HashMap<Long, Double>();
+		missingLinkBandwidth = new HashMap<Long, Double>();
+		
+		// Resources used in each node (sensor and actuator modules do not count for the processing load)
+		for(int j = 0; j < nrModules; j++) {
+			int node = moduleNode[j];
+			
+			nodeMips[node] += algorithm.getmMips()[j];
+			nodeRam[node] += algorithm.getmRam()[j];
+			nodeStrg[node] += algorithm.getmStrg()[j];
+			
+			if(algorithm.getmMips()[j] != 0)
+				nodeCPULoad[node] += algorithm.getmCPUIn()[j];
+		}
+		
+		// Link traffic
+		for(int i = 0; i < nrNodes; i++) {
+			linkTraffic[i] = new double[neighbors[i].length];
+			linkBandwidth[i] = new double[neighbors[i].length];
+		}
+		
+		for(int i = 0; i < algorithm.getNumberOfDependencies(); i++) {
+			double nw = algorithm.getdNW()[i];
+			double bandwidth = algorithm.getdBandwidth()[i];
+			
+			for(int j = 0; j < nrNodes - 1; j++) {
+				int start = tupleRoutingMap[i][j];
+				int end = tupleRoutingMap[i][j+1];
+				
+				if(start == end) continue;
+				
+				int pos = algorithm.getNeighborPosition(start, end);
+				if(pos != -1) {
+					linkTraffic[start][pos] += nw;
+					linkBandwidth[start][pos] += bandwidth;
+				}else {
+					Long key = (long) start * nrNodes + end;
+					Double value = missingLinkTraffic.get(key);
+					missingLinkTraffic.put(key, value == null ? nw : value + nw);
+					value = missingLinkBandwidth.get(key);
+					missingLinkBandwidth.put(key, value == null ? bandwidth : value + bandwidth);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the index of the node where a given module is deployed.
+	 * 
+	 * @param module the index of the module
+	 * @return the index of the node
+	 */
+	public int getModuleNode(final int module) {
+		return moduleNode[module];
+	}
+	
+	/**
+	 * Gets the sum of the MIPS of the modules deployed in a given node.
+	 * 
+	 * @param node the index of the node
+	 * @return the sum of the MIPS
+	 */
+	public double getNodeMips(final int node) {
+		return nodeMips[node];
+	}
+	
+	/**
+	 * Gets the sum of the RAM of the modules deployed in a given node.
+	 * 
+	 * @param node the index of the node
+	 * @return the sum of the RAM
+	 */
+	public double getNodeRam(final int node) {
+		return nodeRam[node];
+	}
+	
+	/**
+	 * Gets the sum of the storage of the modules deployed in a given node.
+	 * 
+	 * @param node the index of the node
+	 * @return the sum of the storage
+	 */
+	public double getNodeStrg(final int node) {
+		return nodeStrg[node];
+	}
+	
+	/**
+	 * Gets the sum of the tuple CPU size received by the modules deployed in a given node (sensors and actuators excluded).
+	 * 
+	 * @param node the index of the node
+	 * @return the sum of the tuple CPU size
+	 */
+	public double getNodeCPULoad(final int node) {
+		return nodeCPULoad[node];
+	}
+	
+	/**
+	 * Gets the adjacency lists holding the sum of the tuple network size of the dependencies which use each link.
+	 * 
+	 * @return the adjacency lists holding the traffic of each link
+	 */
+	public double[][] getLinkTraffic() {
+		return linkTraffic;
+	}
+	
+	/**
+	 * Gets the adjacency lists holding the sum of the bandwidth of the dependencies which use each link.
+	 * 
+	 * @return the adjacency lists holding the bandwidth used in each link
+	 */
+	public double[][] getLinkBandwidth() {
+		return linkBandwidth;
+	}
+	
+	/**
+	 * Gets the tuple network size sent between nodes which are not connected.
+	 * 
+	 * @return the map holding the traffic of each missing link (key is from * number of nodes + to)
+	 */
+	public Map<Long, Double> getMissingLinkTraffic() {
+		return missingLinkTraffic;
+	}
+	
+	/**
+	 * Gets the bandwidth needed between nodes which are not connected.
+	 * 
+	 * @return the map holding the bandwidth needed in each missing link (key is from * number of nodes + to)
+	 */
+	public Map<Long, Double> getMissingLinkBandwidth() {
+		return missingLinkBandwidth;
+	}
+	
+	/**
+	 * Gets the sum of the tuple network size of the dependencies which are sent from one node to another.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 * @param from the index of the node where the link starts
+	 * @param to the index of the node where the link ends
+	 * @return the sum of the tuple network size
+	 */
+	public double getLinkTraffic(final Algorithm algorithm, final int from, final int to) {
+		int pos = algorithm.getNeighborPosition(from, to);
+		if(pos != -1) return linkTraffic[from][pos];
+		
+		Double value = missingLinkTraffic.get((long) from * algorithm.getNumberOfNodes() + to);
+		return value == null ? 0 : value;
+	}
+	
+}
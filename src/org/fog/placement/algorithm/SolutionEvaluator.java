@@ -0,0 +1,1024 @@
+package org.fog.placement.algorithm;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.fog.core.Config;
+import org.fog.core.Constants;
+import org.fog.core.FogComputingSim;
+
+/**
+ * Class which keeps a solution together with all the totals needed to evaluate it (node loads, link usage, dependency
+ * and loop latencies and the violations of each constraint), so that single moves (deploying a module in another node or
+ * changing the route of a dependency or of a migration) are evaluated by only updating the affected nodes, links, dependencies and loops,
+ * instead of analyzing the whole solution again. Its costs and constraints are the same as the ones computed by
+ * CostFunction.analyzeSolution.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class SolutionEvaluator {
+	/** Index of the constraint value within the vectors returned by the delta methods (the other ones are the cost indexes) */
+	public static final int CONSTRAINT = Config.NR_OBJECTIVES;
+	
+	/** Object which holds all the information needed to run the optimization algorithm */
+	private final Algorithm algorithm;
+	
+	/** Number of fog nodes */
+	private final int NR_NODES;
+	
+	/** Number of application modules */
+	private final int NR_MODULES;
+	
+	/** Number of dependencies */
+	private final int NR_DEPENDENCIES;
+	
+	/** Migration routing table */
+	private final int[][] migrationRoutingMap;
+	
+	/** Tuple routing table */
+	private final int[][] tupleRoutingMap;
+	
+	/** Vector holding the index of the node where each module is deployed */
+	private final int[] moduleNode;
+	
+	// Node totals --------------------------------------------
+	
+	/** Vectors holding the sum of the MIPS, RAM, storage and tuple CPU size of the modules deployed in each node */
+	private final double[] nodeMips, nodeRam, nodeStrg, nodeCPULoad;
+	
+	/** Linked lists holding the modules deployed in each node (first module of each node and next module of each module) */
+	private final int[] nodeFirstModule, moduleNextOnNode, modulePreviousOnNode;
+	
+	/** Vector holding whether the resources of each node are exceeded */
+	private final boolean[] nodeExceeded;
+	
+	// Link totals (existing links are identified by their position in the adjacency lists; missing links are appended)
+	
+	/** Vector holding the position of the first link of each node */
+	private final int[] linkBase;
+	
+	/** Identifiers of the links between nodes which are not connected (key is from * number of nodes + to) */
+	private final Map<Long, Integer> missingLinkIds;
+	
+	/** Number of links (both existing and missing ones) */
+	private int nrLinks;
+	
+	/** Vector holding the node where each link starts */
+	private int[] linkStart;
+	
+	/** Vectors holding the latency and bandwidth of each link (Constants.INF and 0 for missing links) */
+	private double[] linkLatency, linkCapacity;
+	
+	/** Vectors holding the sum of the tuple network size and bandwidth of the dependencies which use each link */
+	private double[] linkTraffic, linkUsage;
+	
+	/** Vector holding whether the bandwidth of each link is exceeded */
+	private boolean[] linkExceeded;
+	
+	/** Dependencies which use each link (repeated once per traversal) and their number */
+	private int[][] linkUsers;
+	private int[] linkUserCount;
+	
+	// Dependencies and loops ---------------------------------
+	
+	/** Vector holding the transmission latency of each dependency */
+	private final double[] dependencyLatency;
+	
+	/** Vector holding the number of hops of each dependency which use links which do not exist */
+	private final int[] dependencyMissingHops;
+	
+	/** Vector holding the number of violations of the dependency constraint of each dependency */
+	private final int[] dependencyViolations;
+	
+	/** Dependencies in which each module is the source or the destination */
+	private final int[][] moduleDependencies;
+	
+	/** Modules (processing) and dependencies (transmission) which are part of each loop */
+	private final int[][] loopModules, loopDependencies;
+	
+	/** Loops in which each module and each dependency are part of */
+	private final int[][] moduleLoops, dependencyLoops;
+	
+	/** Vector holding the worst case latency of each loop */
+	private final double[] loopLatency;
+	
+	/** Vector holding the number of loops of each application which are violating their deadlines */
+	private final int[] applicationViolatedLoops;
+	
+	/** Vector holding the number of violations of the migration constraint of each module */
+	private final int[] migrationViolations;
+	
+	/** Vector holding the number of missing links within the migration route of each module */
+	private final int[] migrationMissingHops;
+	
+	/** Vector holding the worst case migration latency of each module */
+	private final double[] migrationDeadline;
+	
+	/** Vector holding the contribution of the migration of each module to the migration cost */
+	private final double[] migrationCost;
+	
+	// Costs and constraints ----------------------------------
+	
+	/** Vector holding the value of each cost function (except the contribution of the missing links) */
+	private final double[] cost;
+	
+	/** Vector holding the contribution of the missing links to each cost function (kept apart since it is orders of magnitude larger) */
+	private final double[] missingLinkCost;
+	
+	/** Number of missing links which are used by any dependency */
+	private int nrUsedMissingLinks;
+	
+	/** Number of violated constraints (not multiplied by Constants.REFERENCE_COST) */
+	private int violations;
+	
+	/** Auxiliary vectors used to collect the affected dependencies and loops of a move */
+	private final int[] dependencyMark, loopMark;
+	private final int[] affectedDependencies, affectedLoops;
+	private int stamp, stampedDependencies, stampedLoops;
+	
+	/** Auxiliary vectors returned by the delta methods and used to undo a move */
+	private final double[] delta;
+	private final int[] previousRoute;
+	
+	/**
+	 * Creates a new evaluator for a given solution.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 * @param solution the solution to be evaluated (its tables are copied)
+	 */
+	public SolutionEvaluator(final Algorithm algorithm, final Solution solution) {
+		this.algorithm = algorithm;
+		NR_NODES = algorithm.getNumberOfNodes();
+		NR_MODULES = algorithm.getNumberOfModules();
+		NR_DEPENDENCIES = algorithm.getNumberOfDependencies();
+		
+		int nrLoops = algorithm.getNumberOfLoops();
+		
+		Constraints.checkVariableSizeType(algorithm, solution.getModulePlacement(), solution.getTupleRoutingMap(), solution.getMigrationRoutingMap());
+		
+		cost = new double[Config.NR_OBJECTIVES];
+		missingLinkCost = new double[Config.NR_OBJECTIVES];
+		dependencyMark = new int[NR_DEPENDENCIES];
+		loopMark = new int[nrLoops];
+		affectedDependencies = new int[NR_DEPENDENCIES];
+		affectedLoops = new int[nrLoops];
+		delta = new double[Config.NR_OBJECTIVES + 1];
+		previousRoute = new int[NR_NODES];
+		
+		tupleRoutingMap = new int[NR_DEPENDENCIES][];
+		for(int i = 0; i < NR_DEPENDENCIES; i++) {
+			tupleRoutingMap[i] = solution.getTupleRoutingMap()[i].clone();
+		}
+		
+		migrationRoutingMap = new int[NR_MODULES][];
+		for(int i = 0; i < NR_MODULES; i++) {
+			migrationRoutingMap[i] = solution.getMigrationRoutingMap()[i].clone();
+		}
+		
+		moduleNode = solution.getModulePlacement().clone();
+		
+		nodeMips = new double[NR_NODES];
+		nodeRam = new double[NR_NODES];
+		nodeStrg = new double[NR_NODES];
+		nodeCPULoad = new double[NR_NODES];
+		nodeExceeded = new boolean[NR_NODES];
+		nodeFirstModule = new int[NR_NODES];
+		moduleNextOnNode = new int[NR_MODULES];
+		modulePreviousOnNode = new int[NR_MODULES];
+		Arrays.fill(nodeFirstModule, -1);
+		
+		for(int i = NR_MODULES - 1; i >= 0; i--) {
+			addModuleToNode(i, moduleNode[i]);
+		}
+		
+		// Links
+		int[][] neighbors = algorithm.getfNeighbors();
+		linkBase = new int[NR_NODES + 1];
+		for(int i = 0; i < NR_NODES; i++) {
+			linkBase[i + 1] = linkBase[i] + neighbors[i].length;
+		}
+		
+		nrLinks = linkBase[NR_NODES];
+		missingLinkIds = new HashMap<Long, Integer>();
+		allocateLinks(nrLinks + 1);
+		
+		for(int i = 0; i < NR_NODES; i++) {
+			for(int j = 0; j < neighbors[i].length; j++) {
+				int id = linkBase[i] + j;
+				linkStart[id] = i;
+				linkLatency[id] = algorithm.getfNeighborLatency()[i][j];
+				linkCapacity[id] = algorithm.getfNeighborBandwidth()[i][j];
+			}
+		}
+		
+		// Dependencies
+		dependencyLatency = new double[NR_DEPENDENCIES];
+		dependencyMissingHops = new int[NR_DEPENDENCIES];
+		dependencyViolations = new int[NR_DEPENDENCIES];
+		
+		int[] count = new int[NR_MODULES];
+		for(int i = 0; i < NR_DEPENDENCIES; i++) {
+			count[algorithm.getStartModDependency(i)]++;
+			if(algorithm.getFinalModDependency(i) != algorithm.getStartModDependency(i))
+				count[algorithm.getFinalModDependency(i)]++;
+		}
+		
+		moduleDependencies = new int[NR_MODULES][];
+		for(int i = 0; i < NR_MODULES; i++) {
+			moduleDependencies[i] = new int[count[i]];
+			count[i] = 0;
+		}
+		
+		for(int i = 0; i < NR_DEPENDENCIES; i++) {
+			int start = algorithm.getStartModDependency(i);
+			int end = algorithm.getFinalModDependency(i);
+			moduleDependencies[start][count[start]++] = i;
+			if(end != start)
+				moduleDependencies[end][count[end]++] = i;
+			
+			addRoute(i);
+		}
+		
+		// Loops
+		int[][] loops = algorithm.getLoops();
+		loopModules = new int[nrLoops][];
+		loopDependencies = new int[nrLoops][];
+		loopLatency = new double[nrLoops];
+		applicationViolatedLoops = new int[algorithm.getNumberOfApplications()];
+		
+		int[] moduleLoopCount = new int[NR_MODULES];
+		int[] dependencyLoopCount = new int[NR_DEPENDENCIES];
+		
+		for(int i = 0; i < nrLoops; i++) {
+			int length = 0;
+			while(length < NR_MODULES - 1 && loops[i][length+1] != -1) {
+				length++;
+			}
+			
+			loopModules[i] = new int[length];
+			loopDependencies[i] = new int[length];
+			
+			for(int j = 0; j < length; j++) {
+				int depIndex = algorithm.getDependencyIndex(loops[i][j], loops[i][j+1]);
+				if(depIndex == -1)
+					FogComputingSim.err("Should not happen (SolutionEvaluator)");
+				
+				loopModules[i][j] = loops[i][j+1];
+				loopDependencies[i][j] = depIndex;
+				moduleLoopCount[loops[i][j+1]]++;
+				dependencyLoopCount[depIndex]++;
+			}
+		}
+		
+		moduleLoops = new int[NR_MODULES][];
+		for(int i = 0; i < NR_MODULES; i++) {
+			moduleLoops[i] = new int[moduleLoopCount[i]];
+			moduleLoopCount[i] = 0;
+		}
+		
+		dependencyLoops = new int[NR_DEPENDENCIES][];
+		for(int i = 0; i < NR_DEPENDENCIES; i++) {
+			dependencyLoops[i] = new int[dependencyLoopCount[i]];
+			dependencyLoopCount[i] = 0;
+		}
+		
+		for(int i = 0; i < nrLoops; i++) {
+			for(int j = 0; j < loopModules[i].length; j++) {
+				int module = loopModules[i][j];
+				int depIndex = loopDependencies[i][j];
+				moduleLoops[module][moduleLoopCount[module]++] = i;
+				dependencyLoops[depIndex][dependencyLoopCount[depIndex]++] = i;
+			}
+		}
+		
+		// Migrations
+		migrationViolations = new int[NR_MODULES];
+		migrationMissingHops = new int[NR_MODULES];
+		migrationDeadline = new double[NR_MODULES];
+		migrationCost = new double[NR_MODULES];
+		
+		for(int i = 0; i < NR_MODULES; i++) {
+			computeMigration(i);
+			cost[Config.MIGRATION_COST] += migrationCost[i];
+		}
+		
+		// Initial costs and constraints (the link totals were already added while adding the routes)
+		for(int i = 0; i < NR_NODES; i++) {
+			updateNode(i, 1);
+		}
+		
+		for(int i = 0; i < NR_MODULES; i++) {
+			violations += possiblePlacementViolations(i);
+			updateMigration(i, 1);
+		}
+		
+		for(int i = 0; i < NR_DEPENDENCIES; i++) {
+			dependencyLatency[i] = computeDependencyLatency(i);
+			updateDependency(i, 1);
+		}
+		
+		for(int i = 0; i < nrLoops; i++) {
+			loopLatency[i] = computeLoopLatency(i);
+			updateLoop(i, 1);
+		}
+	}
+	
+	/**
+	 * Computes the change in both the costs and the constraint value if a given module is deployed in another node. The
+	 * routes are not changed (i.e., the dependencies and migration of the module need to be rerouted afterwards).
+	 * 
+	 * @param module the index of the module
+	 * @param newNode the index of the new node
+	 * @return the vector holding the change of each cost function and, at index CONSTRAINT, of the constraint value
+	 * (it is reused by the next delta computation)
+	 */
+	public double[] deltaMoveModule(final int module, final int newNode) {
+		int oldNode = moduleNode[module];
+		double[] before = snapshot();
+		
+		moveModule(module, newNode);
+		double[] result = difference(before);
+		moveModule(module, oldNode);
+		
+		return result;
+	}
+	
+	/**
+	 * Computes the change in both the costs and the constraint value if a given dependency uses another route.
+	 * 
+	 * @param dependency the index of the dependency
+	 * @param newRoute the new route (vector of node indexes with the same length as the tuple routing table rows)
+	 * @return the vector holding the change of each cost function and, at index CONSTRAINT, of the constraint value
+	 * (it is reused by the next delta computation)
+	 */
+	public double[] deltaReroute(final int dependency, final int[] newRoute) {
+		System.arraycopy(tupleRoutingMap[dependency], 0, previousRoute, 0, NR_NODES);
+		double[] before = snapshot();
+		
+		reroute(dependency, newRoute);
+		double[] result = difference(before);
+		reroute(dependency, previousRoute);
+		
+		return result;
+	}
+	
+	/**
+	 * Computes the change in both the costs and the constraint value if the migration of a given module uses another route.
+	 * 
+	 * @param module the index of the module
+	 * @param newRoute the new route (vector of node indexes with the same length as the migration routing table rows)
+	 * @return the vector holding the change of each cost function and, at index CONSTRAINT, of the constraint value
+	 * (it is reused by the next delta computation)
+	 */
+	public double[] deltaRerouteMigration(final int module, final int[] newRoute) {
+		System.arraycopy(migrationRoutingMap[module], 0, previousRoute, 0, NR_NODES);
+		double[] before = snapshot();
+		
+		rerouteMigration(module, newRoute);
+		double[] result = difference(before);
+		rerouteMigration(module, previousRoute);
+		
+		return result;
+	}
+	
+	/**
+	 * Deploys a given module in another node, updating all the affected totals.
+	 * 
+	 * @param module the index of the module
+	 * @param newNode the index of the new node
+	 */
+	public void moveModule(final int module, final int newNode) {
+		int oldNode = moduleNode[module];
+		if(oldNode == newNode) return;
+		
+		newStamp();
+		violations -= possiblePlacementViolations(module);
+		updateMigration(module, -1);
+		for(int depIndex : moduleDependencies[module]) {
+			updateDependency(depIndex, -1);
+		}
+		
+		// The processing latency of every module deployed in both nodes changes
+		markNodeLoops(oldNode);
+		markNodeLoops(newNode);
+		
+		updateNode(oldNode, -1);
+		updateNode(newNode, -1);
+		removeModuleFromNode(module, oldNode);
+		addModuleToNode(module, newNode);
+		moduleNode[module] = newNode;
+		updateNode(oldNode, 1);
+		updateNode(newNode, 1);
+		
+		violations += possiblePlacementViolations(module);
+		updateMigration(module, 1);
+		for(int depIndex : moduleDependencies[module]) {
+			updateDependency(depIndex, 1);
+		}
+		
+		updateLoops();
+	}
+	
+	/**
+	 * Changes the route of a given dependency, updating all the affected totals.
+	 * 
+	 * @param dependency the index of the dependency
+	 * @param newRoute the new route (vector of node indexes with the same length as the tuple routing table rows)
+	 */
+	public void reroute(final int dependency, final int[] newRoute) {
+		if(newRoute.length != NR_NODES)
+			FogComputingSim.err("Tuple routing variable has the wrong size");
+		
+		newStamp();
+		markDependency(dependency);
+		updateDependency(dependency, -1);
+		
+		removeRoute(dependency);
+		System.arraycopy(newRoute, 0, tupleRoutingMap[dependency], 0, NR_NODES);
+		addRoute(dependency);
+		
+		// Every dependency which shares a link with the old or the new route has a different transmission latency
+		for(int i = 0; i < stampedDependencies; i++) {
+			int depIndex = affectedDependencies[i];
+			dependencyLatency[depIndex] = computeDependencyLatency(depIndex);
+			for(int loop : dependencyLoops[depIndex]) {
+				markLoop(loop);
+			}
+		}
+		
+		updateDependency(dependency, 1);
+		updateLoops();
+	}
+	
+	/**
+	 * Changes the route of the migration of a given module, updating its cost, deadline and violations.
+	 * 
+	 * @param module the index of the module
+	 * @param newRoute the new route (vector of node indexes with the same length as the migration routing table rows)
+	 */
+	public void rerouteMigration(final int module, final int[] newRoute) {
+		if(newRoute.length != NR_NODES)
+			FogComputingSim.err("Migration routing variable has the wrong size");
+		
+		updateMigration(module, -1);
+		cost[Config.MIGRATION_COST] -= migrationCost[module];
+		
+		System.arraycopy(newRoute, 0, migrationRoutingMap[module], 0, NR_NODES);
+		computeMigration(module);
+		
+		cost[Config.MIGRATION_COST] += migrationCost[module];
+		updateMigration(module, 1);
+	}
+	
+	/**
+	 * Creates a new solution holding a copy of the current tables, costs and constraint value.
+	 * 
+	 * @return the new solution
+	 */
+	public Solution toSolution() {
+		int[][] routing = new int[NR_DEPENDENCIES][];
+		for(int i = 0; i < NR_DEPENDENCIES; i++) {
+			routing[i] = tupleRoutingMap[i].clone();
+		}
+		
+		Solution solution = new Solution(algorithm, moduleNode.clone());
+		solution.tupleRoutingMap = routing;
+		solution.migrationRoutingMap = new int[NR_MODULES][];
+		for(int i = 0; i < NR_MODULES; i++) {
+			solution.migrationRoutingMap[i] = migrationRoutingMap[i].clone();
+		}
+		
+		for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
+			solution.setDetailedCost(i, getDetailedCost(i));
+		}
+		
+		for(int i = 0; i < loopLatency.length; i++) {
+			solution.setLoopDeadline(i, loopLatency[i]);
+		}
+		
+		for(int i = 0; i < NR_MODULES; i++) {
+			solution.setMigrationDeadline(i, migrationDeadline[i]);
+		}
+		
+		solution.setConstraint(getConstraint());
+		return solution;
+	}
+	
+	/**
+	 * Gets the current value of a given cost function.
+	 * 
+	 * @param index the index of the cost function
+	 * @return the value of the cost function
+	 */
+	public double getDetailedCost(final int index) {
+		return cost[index] + missingLinkCost[index];
+	}
+	
+	/**
+	 * Gets the current constraint value (number of violations times Constants.REFERENCE_COST).
+	 * 
+	 * @return the constraint value
+	 */
+	public double getConstraint() {
+		return violations * Constants.REFERENCE_COST;
+	}
+	
+	/**
+	 * Gets the index of the node where a given module is currently deployed.
+	 * 
+	 * @param module the index of the module
+	 * @return the index of the node
+	 */
+	public int getModuleNode(final int module) {
+		return moduleNode[module];
+	}
+	
+	/**
+	 * Gets the current route of a given dependency. It must not be changed.
+	 * 
+	 * @param dependency the index of the dependency
+	 * @return the route (vector of node indexes)
+	 */
+	public int[] getRoute(final int dependency) {
+		return tupleRoutingMap[dependency];
+	}
+	
+	/**
+	 * Gets the current route of the migration of a given module. It must not be changed.
+	 * 
+	 * @param module the index of the module
+	 * @return the route (vector of node indexes)
+	 */
+	public int[] getMigrationRoute(final int module) {
+		return migrationRoutingMap[module];
+	}
+	
+	// Nodes --------------------------------------------------
+	
+	/**
+	 * Adds (sign = 1) or removes (sign = -1) the contribution of a given node to the costs and constraints.
+	 * 
+	 * @param node the index of the node
+	 * @param sign 1 to add or -1 to remove
+	 */
+	private void updateNode(final int node, final int sign) {
+		if(sign > 0) {
+			nodeExceeded[node] = nodeMips[node] > algorithm.getfMips()[node] * Config.MIPS_PERCENTAGE_UTIL ||
+					nodeRam[node] > algorithm.getfRam()[node] * Config.MEM_PERCENTAGE_UTIL ||
+					nodeStrg[node] > algorithm.getfStrg()[node] * Config.STRG_PERCENTAGE_UTIL;
+		}
+		
+		if(nodeExceeded[node]) violations += sign;
+		if(algorithm.getfIsFogDevice()[node] == 0) return;
+		
+		double processing = nodeMips[node]/(algorithm.getfMips()[node]*Config.MIPS_PERCENTAGE_UTIL);
+		cost[Config.PROCESSING_COST] += sign*processing;
+		cost[Config.POWER_COST] += sign*processing*(algorithm.getfBusyPw()[node]-algorithm.getfIdlePw()[node]);
+	}
+	
+	/**
+	 * Adds a module to the totals of a given node.
+	 * 
+	 * @param module the index of the module
+	 * @param node the index of the node
+	 */
+	private void addModuleToNode(final int module, final int node) {
+		nodeMips[node] += algorithm.getmMips()[module];
+		nodeRam[node] += algorithm.getmRam()[module];
+		nodeStrg[node] += algorithm.getmStrg()[module];
+		if(algorithm.getmMips()[module] != 0)
+			nodeCPULoad[node] += algorithm.getmCPUIn()[module];
+		
+		int first = nodeFirstModule[node];
+		moduleNextOnNode[module] = first;
+		modulePreviousOnNode[module] = -1;
+		if(first != -1) modulePreviousOnNode[first] = module;
+		nodeFirstModule[node] = module;
+	}
+	
+	/**
+	 * Removes a module from the totals of a given node.
+	 * 
+	 * @param module the index of the module
+	 * @param node the index of the node
+	 */
+	private void removeModuleFromNode(final int module, final int node) {
+		nodeMips[node] -= algorithm.getmMips()[module];
+		nodeRam[node] -= algorithm.getmRam()[module];
+		nodeStrg[node] -= algorithm.getmStrg()[module];
+		if(algorithm.getmMips()[module] != 0)
+			nodeCPULoad[node] -= algorithm.getmCPUIn()[module];
+		
+		int next = moduleNextOnNode[module];
+		int previous = modulePreviousOnNode[module];
+		if(previous != -1) moduleNextOnNode[previous] = next;
+		else nodeFirstModule[node] = next;
+		if(next != -1) modulePreviousOnNode[next] = previous;
+		
+		// Avoid accumulated rounding errors in empty nodes
+		if(nodeFirstModule[node] == -1) {
+			nodeMips[node] = 0;
+			nodeRam[node] = 0;
+			nodeStrg[node] = 0;
+			nodeCPULoad[node] = 0;
+		}
+	}
+	
+	/**
+	 * Marks the loops of all modules deployed in a given node as affected.
+	 * 
+	 * @param node the index of the node
+	 */
+	private void markNodeLoops(final int node) {
+		for(int module = nodeFirstModule[node]; module != -1; module = moduleNextOnNode[module]) {
+			for(int loop : moduleLoops[module]) {
+				markLoop(loop);
+			}
+		}
+	}
+	
+	/**
+	 * Computes the number of violations of the possible deployment constraint for a given module.
+	 * 
+	 * @param module the index of the module
+	 * @return 1 if the module is deployed in a node where it cannot be deployed, otherwise 0
+	 */
+	private int possiblePlacementViolations(final int module) {
+		return algorithm.isPossibleDeployment(moduleNode[module], module) ? 0 : 1;
+	}
+	
+	// Links --------------------------------------------------
+	
+	/**
+	 * Gets the identifier of the link between two nodes, creating a new one if there is no such link.
+	 * 
+	 * @param from the index of the node where the link starts
+	 * @param to the index of the node where the link ends
+	 * @return the identifier of the link
+	 */
+	private int getLinkId(final int from, final int to) {
+		int pos = algorithm.getNeighborPosition(from, to);
+		if(pos != -1) return linkBase[from] + pos;
+		
+		Long key = (long) from * NR_NODES + to;
+		Integer id = missingLinkIds.get(key);
+		if(id != null) return id;
+		
+		if(nrLinks == linkStart.length)
+			allocateLinks(2 * nrLinks);
+		
+		id = nrLinks++;
+		linkStart[id] = from;
+		linkLatency[id] = Constants.INF;
+		linkCapacity[id] = 0;
+		missingLinkIds.put(key, id);
+		return id;
+	}
+	
+	/**
+	 * Allocates (or enlarges) the vectors holding the link totals.
+	 * 
+	 * @param size the new size of the vectors
+	 */
+	private void allocateLinks(final int size) {
+		if(linkStart == null) {
+			linkStart = new int[size];
+			linkLatency = new double[size];
+			linkCapacity = new double[size];
+			linkTraffic = new double[size];
+			linkUsage = new double[size];
+			linkExceeded = new boolean[size];
+			linkUsers = new int[size][];
+			linkUserCount = new int[size];
+			return;
+		}
+		
+		linkStart = Arrays.copyOf(linkStart, size);
+		linkLatency = Arrays.copyOf(linkLatency, size);
+		linkCapacity = Arrays.copyOf(linkCapacity, size);
+		linkTraffic = Arrays.copyOf(linkTraffic, size);
+		linkUsage = Arrays.copyOf(linkUsage, size);
+		linkExceeded = Arrays.copyOf(linkExceeded, size);
+		linkUsers = Arrays.copyOf(linkUsers, size);
+		linkUserCount = Arrays.copyOf(linkUserCount, size);
+	}
+	
+	/**
+	 * Adds (sign = 1) or removes (sign = -1) the contribution of a given link to the costs and constraints.
+	 * 
+	 * @param link the identifier of the link
+	 * @param sign 1 to add or -1 to remove
+	 */
+	private void updateLink(final int link, final int sign) {
+		if(sign > 0)
+			linkExceeded[link] = linkUsage[link] > linkCapacity[link] * Config.BW_PERCENTAGE_UTIL;
+		
+		if(linkExceeded[link]) violations += sign;
+		
+		int start = linkStart[link];
+		if(algorithm.getfIsFogDevice()[start] == 0 || linkUsage[link] == 0) return;
+		
+		double bw = linkUsage[link]/(linkCapacity[link]*Config.BW_PERCENTAGE_UTIL + Constants.EPSILON);
+		
+		if(linkLatency[link] < Constants.INF) {
+			cost[Config.BANDWIDTH_COST] += sign*bw;
+			cost[Config.POWER_COST] += sign*bw*algorithm.getfTxPw()[start];
+			return;
+		}
+		
+		missingLinkCost[Config.BANDWIDTH_COST] += sign*bw;
+		missingLinkCost[Config.POWER_COST] += sign*bw*algorithm.getfTxPw()[start];
+		
+		// Avoid accumulated rounding errors once no missing link is used
+		nrUsedMissingLinks += sign;
+		if(nrUsedMissingLinks == 0)
+			Arrays.fill(missingLinkCost, 0);
+	}
+	
+	/**
+	 * Adds the route of a given dependency to the totals of the links it uses.
+	 * 
+	 * @param dependency the index of the dependency
+	 */
+	private void addRoute(final int dependency) {
+		int[] route = tupleRoutingMap[dependency];
+		int missingHops = 0;
+		
+		for(int i = 0; i < NR_NODES - 1; i++) {
+			if(route[i] == route[i+1]) continue;
+			
+			int link = getLinkId(route[i], route[i+1]);
+			if(linkLatency[link] >= Constants.INF) missingHops++;
+			
+			changeLinkUsage(link, dependency, 1);
+			
+			if(linkUsers[link] == null)
+				linkUsers[link] = new int[4];
+			else if(linkUserCount[link] == linkUsers[link].length)
+				linkUsers[link] = Arrays.copyOf(linkUsers[link], 2 * linkUserCount[link]);
+			
+			linkUsers[link][linkUserCount[link]++] = dependency;
+		}
+		
+		dependencyMissingHops[dependency] = missingHops;
+	}
+	
+	/**
+	 * Removes the route of a given dependency from the totals of the links it uses.
+	 * 
+	 * @param dependency the index of the dependency
+	 */
+	private void removeRoute(final int dependency) {
+		int[] route = tupleRoutingMap[dependency];
+		
+		for(int i = 0; i < NR_NODES - 1; i++) {
+			if(route[i] == route[i+1]) continue;
+			
+			int link = getLinkId(route[i], route[i+1]);
+			changeLinkUsage(link, dependency, -1);
+			
+			int[] users = linkUsers[link];
+			for(int j = 0; j < linkUserCount[link]; j++) {
+				if(users[j] != dependency) continue;
+				users[j] = users[--linkUserCount[link]];
+				break;
+			}
+			
+			// Avoid accumulated rounding errors in links which are no longer used
+			if(linkUserCount[link] == 0) {
+				updateLink(link, -1);
+				linkTraffic[link] = 0;
+				linkUsage[link] = 0;
+				updateLink(link, 1);
+			}
+		}
+	}
+	
+	/**
+	 * Adds (sign = 1) or removes (sign = -1) the traffic of a dependency to a given link and marks the dependencies which
+	 * use it as affected.
+	 * 
+	 * @param link the identifier of the link
+	 * @param dependency the index of the dependency
+	 * @param sign 1 to add or -1 to remove
+	 */
+	private void changeLinkUsage(final int link, final int dependency, final int sign) {
+		updateLink(link, -1);
+		linkTraffic[link] += sign*algorithm.getdNW()[dependency];
+		linkUsage[link] += sign*algorithm.getdBandwidth()[dependency];
+		updateLink(link, 1);
+		
+		for(int j = 0; j < linkUserCount[link]; j++) {
+			markDependency(linkUsers[link][j]);
+		}
+	}
+	
+	// Dependencies and loops ---------------------------------
+	
+	/**
+	 * Adds (sign = 1) or removes (sign = -1) the violations of the dependency constraint of a given dependency.
+	 * 
+	 * @param dependency the index of the dependency
+	 * @param sign 1 to add or -1 to remove
+	 */
+	private void updateDependency(final int dependency, final int sign) {
+		if(sign > 0) {
+			int[] route = tupleRoutingMap[dependency];
+			int count = dependencyMissingHops[dependency];
+			if(route[0] != moduleNode[algorithm.getStartModDependency(dependency)]) count++;
+			if(route[NR_NODES-1] != moduleNode[algorithm.getFinalModDependency(dependency)]) count++;
+			dependencyViolations[dependency] = count;
+		}
+		
+		violations += sign*dependencyViolations[dependency];
+	}
+	
+	/**
+	 * Computes the transmission tuple latency for the worst case scenario of a given dependency.
+	 * 
+	 * @param dependency the index of the dependency
+	 * @return the transmission tuple latency
+	 */
+	private double computeDependencyLatency(final int dependency) {
+		int[] route = tupleRoutingMap[dependency];
+		double latency = 0;
+		
+		for(int i = 0; i < NR_NODES - 1; i++) {
+			if(route[i] == route[i+1]) continue;
+			
+			int link = getLinkId(route[i], route[i+1]);
+			latency += linkLatency[link] + linkTraffic[link]/(linkCapacity[link]*Config.BW_PERCENTAGE_UTIL + Constants.EPSILON);
+		}
+		
+		return latency;
+	}
+	
+	/**
+	 * Computes the worst case latency of a given loop.
+	 * 
+	 * @param loop the index of the loop
+	 * @return the worst case latency
+	 */
+	private double computeLoopLatency(final int loop) {
+		double latency = 0;
+		
+		for(int j = 0; j < loopModules[loop].length; j++) {
+			int module = loopModules[loop][j];
+			
+			if(algorithm.getmMips()[module] != 0) {
+				int node = moduleNode[module];
+				latency += nodeCPULoad[node]/(algorithm.getfMips()[node]*Config.MIPS_PERCENTAGE_UTIL);
+			}
+			
+			latency += dependencyLatency[loopDependencies[loop][j]];
+		}
+		
+		return latency;
+	}
+	
+	/**
+	 * Adds (sign = 1) or removes (sign = -1) the contribution of a given loop to the quality of service cost.
+	 * 
+	 * @param loop the index of the loop
+	 * @param sign 1 to add or -1 to remove
+	 */
+	private void updateLoop(final int loop, final int sign) {
+		if(loopLatency[loop] <= algorithm.getLoopsDeadline()[loop]) return;
+		
+		int application = algorithm.getLoopsApplication()[loop];
+		if(sign > 0 && applicationViolatedLoops[application]++ == 0) cost[Config.QOS_COST]++;
+		if(sign < 0 && --applicationViolatedLoops[application] == 0) cost[Config.QOS_COST]--;
+	}
+	
+	/**
+	 * Recomputes the latency of all loops marked as affected.
+	 */
+	private void updateLoops() {
+		for(int i = 0; i < stampedLoops; i++) {
+			int loop = affectedLoops[i];
+			updateLoop(loop, -1);
+			loopLatency[loop] = computeLoopLatency(loop);
+			updateLoop(loop, 1);
+		}
+	}
+	
+	/**
+	 * Computes the cost, the worst case latency and the number of missing links of the migration of a given module (as
+	 * CostFunction.computeMigrationCost and Constraints.checkMigrationDeadlines do).
+	 * 
+	 * @param module the index of the module
+	 */
+	private void computeMigration(final int module) {
+		int[] route = migrationRoutingMap[module];
+		double size = algorithm.getmStrg()[module] + algorithm.getmRam()[module];
+		double latency = 0;
+		double migration = 0;
+		int missingHops = 0;
+		
+		for (int k = 0; k < NR_NODES - 1; k++) {
+			int start = route[k];
+			int end = route[k+1];
+			
+			double lat = algorithm.getLinkLatency(start, end);
+			if(lat >= Constants.INF) missingHops++;
+			if(start == end) continue;
+			
+			double bw = algorithm.getLinkBandwidth(start, end)*(1-Config.BW_PERCENTAGE_UTIL) + Constants.EPSILON;
+			latency += lat + size/bw;
+			
+			if(algorithm.getfIsFogDevice()[start] != 0)
+				migration += size/bw;
+		}
+		
+		if(latency != 0) latency += Config.SETUP_VM_TIME;
+		
+		migrationDeadline[module] = latency;
+		migrationCost[module] = migration;
+		migrationMissingHops[module] = missingHops;
+	}
+	
+	/**
+	 * Adds (sign = 1) or removes (sign = -1) the violations of the migration constraint of a given module.
+	 * 
+	 * @param module the index of the module
+	 * @param sign 1 to add or -1 to remove
+	 */
+	private void updateMigration(final int module, final int sign) {
+		if(sign > 0) {
+			int node = moduleNode[module];
+			int start = algorithm.isFirstOptimization() ? node : algorithm.getCurrentPlacement(module);
+			int count = migrationMissingHops[module];
+			if(migrationRoutingMap[module][0] != start) count++;
+			if(migrationRoutingMap[module][NR_NODES-1] != node) count++;
+			if(migrationDeadline[module] > algorithm.getmMigD()[module]) count++;
+			migrationViolations[module] = count;
+		}
+		
+		violations += sign*migrationViolations[module];
+	}
+	
+	// Auxiliary ----------------------------------------------
+	
+	/**
+	 * Starts a new move (clears the affected dependencies and loops).
+	 */
+	private void newStamp() {
+		stamp++;
+		stampedDependencies = 0;
+		stampedLoops = 0;
+	}
+	
+	/**
+	 * Marks a dependency as affected by the current move.
+	 * 
+	 * @param dependency the index of the dependency
+	 */
+	private void markDependency(final int dependency) {
+		if(dependencyMark[dependency] == stamp) return;
+		dependencyMark[dependency] = stamp;
+		affectedDependencies[stampedDependencies++] = dependency;
+	}
+	
+	/**
+	 * Marks a loop as affected by the current move.
+	 * 
+	 * @param loop the index of the loop
+	 */
+	private void markLoop(final int loop) {
+		if(loopMark[loop] == stamp) return;
+		loopMark[loop] = stamp;
+		affectedLoops[stampedLoops++] = loop;
+	}
+	
+	/**
+	 * Gets a copy of the current costs and constraint value.
+	 * 
+	 * @return the vector holding the costs and, at index CONSTRAINT, the constraint value
+	 */
+	private double[] snapshot() {
+		for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
+			delta[i] = getDetailedCost(i);
+		}
+		
+		delta[CONSTRAINT] = getConstraint();
+		return delta;
+	}
+	
+	/**
+	 * Computes the difference between the current costs and constraint value and a previous snapshot.
+	 * 
+	 * @param before the previous snapshot (it is overwritten)
+	 * @return the vector holding the change of each cost and, at index CONSTRAINT, of the constraint value
+	 */
+	private double[] difference(final double[] before) {
+		for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
+			before[i] = getDetailedCost(i) - before[i];
+		}
+		
+		before[CONSTRAINT] = getConstraint() - before[CONSTRAINT];
+		return before;
+	}
+	
+}
@@ -1,33 +1,55 @@
 package org.fog.placement.algorithm.bf;
 
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.fog.application.Application;
 import org.fog.core.Config;
-import org.fog.core.Constants;
 import org.fog.entities.Actuator;
 import org.fog.entities.FogDevice;
 import org.fog.entities.Sensor;
 import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Budget;
 import org.fog.placement.algorithm.Solution;
-import org.fog.placement.algorithm.util.routing.Vertex;
-import org.fog.utils.Util;
+import org.fog.placement.algorithm.util.routing.ShortestPathTable;
 
 /**
- * Class in which defines and executes the brute force algorithm.
+ * Class in which defines and executes the brute force algorithm. It is implemented as a branch-and-bound search: the
+ * modules are placed one at a time, then the tuple routes and finally the migration routes are built hop by hop. At each
+ * step, an admissible lower bound of each cost is computed for the partial solution (see LowerBounds) and the branch
+ * is discarded if all of its solutions are worse than the best one found so far (comparing the costs by decreasing
+ * priority). The branches which can only lead to solutions which violate some constraint (resources, bandwidth,
+ * migration deadlines or unreachable nodes) are discarded as well, and the symmetric solutions are only explored once
+ * (see Symmetry). Thus, once the search is over, the best solution is proven optimal.
+ * 
+ * The search tree is split into independent subtrees (one for each placement of the first modules) which are explored
+ * in parallel by a work-stealing pool. Each subtree has its own partial solution, while the best solution found so far
+ * is shared by all of them in order to discard branches. Once all subtrees are explored, the best solution of each one
+ * is analyzed in the order of the sequential search, thus the result is the same as running it in a single thread.
  * 
  * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST)
  * @since  July, 2019
  */
 public class BruteForce extends Algorithm {
+	/** Relative slack applied to the lower bounds so that rounding errors never discard a solution which ties with the best one */
+	private static final double BOUND_SLACK = 1E-9;
+	
+	/** Number of branches explored between two verifications of the budget */
+	private static final int BUDGET_CHECK_INTERVAL = 1024;
+	
 	/** Best solution found by the algorithm */
 	private Solution bestSolution;
 	
-	/** Current iteration of the algorithm */
-	private int iteration;
+	/** Best solution found so far by any subtree (used to discard branches) */
+	private final AtomicReference<Solution> incumbent;
+	
+	/** Current iteration of the algorithm (number of complete solutions analyzed) */
+	private final AtomicInteger iteration;
 	
 	/** Time at the beginning of the execution of the algorithm */
 	private long start;
@@ -35,36 +57,64 @@ public class BruteForce extends Algorithm {
 	/** Time at the end of the execution of the algorithm */
 	private long finish;
 	
-	/** Map containing the hop count between any two nodes */
-	private Map<Map<Integer, Integer>, Integer> hopCountMap;
+	/** Defines whether the budget of the execution is exhausted (in which case the search stops) */
+	private volatile boolean stopped;
+	
+	/** Tables used to compute the lower bounds of each cost */
+	private LowerBounds bounds;
+	
+	/** Symmetries of the problem */
+	private Symmetry symmetry;
+	
+	/** Vector holding the indexes of the objectives sorted by decreasing priority */
+	private int[] objectiveOrder;
 	
 	public BruteForce(final List<FogDevice> fogDevices, final List<Application> applications,
 			final List<Sensor> sensors, final List<Actuator> actuators) {
 		super(fogDevices, applications, sensors, actuators);
+		incumbent = new AtomicReference<Solution>();
+		iteration = new AtomicInteger();
+	}
+	
+	public BruteForce(final Algorithm problem, final int[] modules) {
+		super(problem, modules);
+		incumbent = new AtomicReference<Solution>();
+		iteration = new AtomicInteger();
 	}
 	
 	/**
 	 * Executes the brute force algorithm in order to find the best solution (the solution with the lower cost which respects all constraints).
 	 * 
+	 * @param budget the budget of the execution
 	 * @return the best solution; can be null
 	 */
 	@Override
-	public Solution execute() {
-		iteration = 0;
+	public Solution execute(Budget budget) {
+		iteration.set(0);
+		incumbent.set(null);
 		bestSolution = null;
-		getValueIterMap().clear();
+		stopped = false;
+		startBudget(budget);
 		
 		// Time at the beginning of the execution of the algorithm
 		start = System.currentTimeMillis();
 		
-		// Generate the Dijkstra graph
-		generateDijkstraGraph();
+		// Compute the shortest paths between any two nodes (only if the topology has changed)
+		getShortestPaths();
 		
-		// Compute the hop count between any two nodes
-		createHopCountMap();
+		// Build the tables of the lower bounds and find the symmetries of the problem
+		bounds = new LowerBounds(this);
+		symmetry = new Symmetry(this);
+		objectiveOrder = getObjectiveOrder();
 		
 		// Solve the problem
-		solveModulePlacement(new int[getNumberOfNodes()][getNumberOfModules()], 0);
+		if(Config.NR_THREADS_BF > 1)
+			solveInParallel();
+		else {
+			Search search = new Search();
+			search.solveModulePlacement(0, 0, 0, 0, 0, 0);
+			bestSolution = search.bestSolution;
+		}
 		
 		// Time at the end of the execution of the algorithm
 		finish = System.currentTimeMillis();
@@ -75,227 +125,694 @@ public class BruteForce extends Algorithm {
 	}
 	
 	/**
-	 * Solves the module placement map.
+	 * Splits the search tree into subtrees and explores them in parallel. The best solution of each subtree is then
+	 * analyzed in the order of the sequential search, so that ties are broken in the same way.
+	 */
+	private void solveInParallel() {
+		// Enumerate the placements of the first modules (the roots of the subtrees)
+		Search search = new Search();
+		search.subtrees = new ArrayList<Subtree>();
+		search.splitDepth = Math.min(Math.max(0, Config.SPLIT_DEPTH_BF), getNumberOfModules());
+		search.solveModulePlacement(0, 0, 0, 0, 0, 0);
+		
+		ForkJoinPool pool = new ForkJoinPool(Config.NR_THREADS_BF);
+		
+		try {
+			pool.invoke(new SubtreeBatch(search.subtrees, 0, search.subtrees.size()));
+		}finally {
+			pool.shutdown();
+		}
+		
+		for(Subtree subtree : search.subtrees) {
+			if(subtree.bestSolution != null && Solution.isBetterSolution(subtree.bestSolution, bestSolution))
+				bestSolution = subtree.bestSolution;
+		}
+	}
+	
+	/**
+	 * Gets the indexes of the objectives sorted by decreasing priority (the order in which the solutions are compared).
 	 * 
-	 * @param modulePlacementMap the current binary module placement map
-	 * @param index the index of the module to be filled up
+	 * @return the indexes of the objectives
 	 */
-	private void solveModulePlacement(int[][] modulePlacementMap, final int index) {
-		int[][] currentPositionInt = getCurrentPositionInt();
+	private static int[] getObjectiveOrder() {
+		Integer[] order = new Integer[Config.NR_OBJECTIVES];
+		for(int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		
+		Arrays.sort(order, new java.util.Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Integer.compare(Config.priorities[o2], Config.priorities[o1]);
+			}
+		});
+		
+		int[] result = new int[order.length];
+		for(int i = 0; i < order.length; i++) {
+			result[i] = order[i];
+		}
 		
-		for(int i = 0; i < getNumberOfNodes(); i++) {
-			// If its not a valid placement continue
-			if(getPossibleDeployment()[i][index] == 0) continue;
+		return result;
+	}
+	
+	/**
+	 * Verifies whether all the solutions whose costs are above a given lower bound are worse than the best solution found
+	 * so far (i.e., none of them would replace it).
+	 * 
+	 * @param bound the lower bound of each cost
+	 * @return true if the branch can be discarded, otherwise false
+	 */
+	private boolean isDominated(final double[] bound) {
+		Solution bestSolution = incumbent.get();
+		if(bestSolution == null) return false;
+		
+		for(int index : objectiveOrder) {
+			double lower = bound[index]*(1 - BOUND_SLACK);
+			double best = bestSolution.getDetailedCost(index);
+			double tolerance = Config.relTols[index];
 			
-			// Clear other placements of the module and place it in the correct node index
-			for(int j = 0; j < getNumberOfNodes(); j++) {
-				modulePlacementMap[j][index] = j == i ? 1 : 0;
+			// All the solutions are worse in this objective
+			if(best*(1 + tolerance) < lower) return true;
+			
+			// Some solution may be better in this objective
+			if(best*(1 - tolerance) > lower) return false;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Updates the best solution found so far by any subtree.
+	 * 
+	 * @param solution the new solution
+	 * @param iteration the iteration in which the solution was found
+	 */
+	private synchronized void updateIncumbent(final Solution solution, final int iteration) {
+		incumbent.set(Solution.checkBestSolution(this, solution, incumbent.get(), iteration));
+	}
+	
+	/**
+	 * Class holding the state of the search (the partial solution and its totals), which is changed in place while
+	 * exploring each branch and restored when going back.
+	 */
+	private class Search {
+		/** Vector holding the index of the node where each module is deployed */
+		private final int[] modulePlacement;
+		
+		/** Matrix holding the route of each dependency */
+		private final int[][] tupleRoutingMap;
+		
+		/** Matrix holding the route of each module migration */
+		private final int[][] migrationRoutingMap;
+		
+		/** Vector holding the sum of the MIPS of the modules deployed in each node */
+		private final double[] nodeMips;
+		
+		/** Vector holding the sum of the RAM of the modules deployed in each node */
+		private final double[] nodeRam;
+		
+		/** Vector holding the sum of the storage of the modules deployed in each node */
+		private final double[] nodeStrg;
+		
+		/** Vector holding the sum of the tuple CPU size received by the modules deployed in each node */
+		private final double[] nodeCPULoad;
+		
+		/** Vector holding the number of modules deployed in each node */
+		private final int[] nodeModules;
+		
+		/** Adjacency lists holding the sum of the bandwidth of the dependencies which use each link */
+		private final double[][] linkBandwidth;
+		
+		/** Vector defining the nodes which are already used by the current route */
+		private final boolean[] onRoute;
+		
+		/** Vector holding the lower bound of the tuple routing costs of the dependencies from each index onwards (power, bandwidth) */
+		private final double[][] tupleBound;
+		
+		/** Vector holding the lower bound of the migration cost of the modules from each index onwards */
+		private final double[] migrationBound;
+		
+		/** Vector defining the applications with some loop which certainly misses its deadline */
+		private final boolean[] violatedApplication;
+		
+		/** Lower bound of each cost of the current branch */
+		private final double[] bound;
+		
+		/** Number of branches explored so far */
+		private int branches;
+		
+		/** Best solution found by this search */
+		private Solution bestSolution;
+		
+		/** Number of modules placed at the root of each subtree (-1 if the tree is not split) */
+		private int splitDepth = -1;
+		
+		/** List of the subtrees found while splitting the tree */
+		private List<Subtree> subtrees;
+		
+		/** Lower bound of the quality of service cost of the current module placement */
+		private double qosBound;
+		
+		/** Exact processing cost of the current module placement */
+		private double processing;
+		
+		/** Exact power cost (processing part) of the current module placement */
+		private double processingPower;
+		
+		Search() {
+			int nrNodes = getNumberOfNodes();
+			int nrModules = getNumberOfModules();
+			int nrDependencies = getNumberOfDependencies();
+			
+			modulePlacement = new int[nrModules];
+			tupleRoutingMap = new int[nrDependencies][nrNodes];
+			migrationRoutingMap = new int[nrModules][nrNodes];
+			nodeMips = new double[nrNodes];
+			nodeRam = new double[nrNodes];
+			nodeStrg = new double[nrNodes];
+			nodeCPULoad = new double[nrNodes];
+			nodeModules = new int[nrNodes];
+			linkBandwidth = new double[nrNodes][];
+			onRoute = new boolean[nrNodes];
+			tupleBound = new double[2][nrDependencies + 1];
+			migrationBound = new double[nrModules + 1];
+			violatedApplication = new boolean[getNumberOfApplications()];
+			bound = new double[Config.NR_OBJECTIVES];
+			
+			for(int i = 0; i < nrNodes; i++) {
+				linkBandwidth[i] = new double[getfNeighbors()[i].length];
+			}
+		}
+		
+		/**
+		 * Verifies whether the search must stop (the budget is only verified once in a while).
+		 * 
+		 * @return true if the search must stop, otherwise false
+		 */
+		private boolean isStopped() {
+			if(!stopped && ++branches % BUDGET_CHECK_INTERVAL == 0)
+				stopped = getBudget().isExpired();
+			return stopped;
+		}
+		
+		/**
+		 * Solves the module placement map.
+		 * 
+		 * @param index the index of the module to be placed
+		 * @param processing the processing cost of the modules already placed
+		 * @param processingPower the power cost (processing part) of the modules already placed
+		 * @param power the lower bound of the power cost (transmission part) of the dependencies already placed
+		 * @param bandwidth the lower bound of the bandwidth cost of the dependencies already placed
+		 * @param migration the lower bound of the migration cost of the modules already placed
+		 */
+		void solveModulePlacement(final int index, final double processing, final double processingPower,
+				final double power, final double bandwidth, final double migration) {
+			if(index == splitDepth) {
+				subtrees.add(new Subtree(Arrays.copyOf(modulePlacement, index), processing, processingPower, power,
+						bandwidth, migration, Arrays.copyOf(bound, bound.length)));
+				return;
 			}
 			
-			// If its not the final module, solve the next one
-			if(index != getNumberOfModules() - 1) {
-				solveModulePlacement(modulePlacementMap, index + 1);
+			if(index == getNumberOfModules()) {
+				this.processing = processing;
+				this.processingPower = processingPower;
+				solveRouting();
+				return;
 			}
 			
-			// Tries the current module placement map
-			else {
-				if(checkResourcesExceeded(modulePlacementMap)) continue;
+			for(int node : bounds.getPlacementOrder(index)) {
+				if(isStopped()) return;
+				if(breaksSymmetry(index, node)) continue;
+				if(!place(index, node)) continue;
 				
-				int[][] tupleRoutingMap = new int[getNumberOfDependencies()][getNumberOfNodes()];
+				double newPower = power;
+				double newBandwidth = bandwidth;
+				boolean reachable = true;
 				
-				int tmp = 0;
-				for(int j = 0; j < getNumberOfModules(); j++) {
-					for(int z = 0; z < getNumberOfModules(); z++) {
-						if(getmDependencyMap()[j][z] != 0) {
-							tupleRoutingMap[tmp][0] = Solution.findModulePlacement(modulePlacementMap, j);
-							tupleRoutingMap[tmp++][getNumberOfNodes()-1] = Solution.findModulePlacement(modulePlacementMap, z);
-						}
+				// Dependencies whose both modules are now placed
+				for(int dependency : bounds.getCompletedDependencies(index)) {
+					int from = modulePlacement[getStartModDependency(dependency)];
+					int to = modulePlacement[getFinalModDependency(dependency)];
+					
+					if(from != to && bounds.getHopCount(from, to) == ShortestPathTable.UNREACHABLE) {
+						reachable = false;
+						break;
 					}
+					
+					newPower += getdBandwidth()[dependency]*bounds.getPathPowerCost(from, to);
+					newBandwidth += getdBandwidth()[dependency]*bounds.getPathBandwidthCost(from, to);
 				}
-		        
-		        int[][] migrationRoutingMap = new int[getNumberOfModules()][getNumberOfNodes()];
-		        
-				for(int j = 0; j < getNumberOfModules(); j++) {
-					migrationRoutingMap[j][0] = Solution.findModulePlacement(isFirstOptimization() ? modulePlacementMap : currentPositionInt, j);
-					migrationRoutingMap[j][getNumberOfNodes()-1] = Solution.findModulePlacement(modulePlacementMap, j);
+				
+				if(reachable) {
+					double newProcessing = processing + bounds.getProcessingCost(index, node);
+					double newProcessingPower = processingPower + bounds.getProcessingPowerCost(index, node);
+					double newMigration = migration + bounds.getMigrationCost(index, node);
+					
+					bound[Config.QOS_COST] = computeQoSBound(index + 1);
+					bound[Config.POWER_COST] = newProcessingPower + bounds.getProcessingPowerBound(index + 1) + newPower;
+					bound[Config.PROCESSING_COST] = newProcessing + bounds.getProcessingBound(index + 1);
+					bound[Config.BANDWIDTH_COST] = newBandwidth;
+					bound[Config.MIGRATION_COST] = newMigration + bounds.getMigrationBound(index + 1);
+					
+					if(!isDominated(bound))
+						solveModulePlacement(index + 1, newProcessing, newProcessingPower, newPower, newBandwidth, newMigration);
 				}
 				
-				solveVmRouting(modulePlacementMap, tupleRoutingMap, migrationRoutingMap, 0, 1);
+				unplace(index, node);
 			}
 		}
-	}
-	
-	/**
-	 * Solves the virtual machine routing map.
-	 * 
-	 * @param modulePlacementMap the current binary module placement map
-	 * @param tupleRoutingMap the current tuple routing map
-	 * @param migrationRoutingMap the current virtual machine migration map
-	 * @param row the index of the module to be filled up
-	 * @param col the index of the node to be filled up
-	 */
-	private void solveVmRouting(final int[][] modulePlacementMap, final int[][] tupleRoutingMap,
-			int[][] migrationRoutingMap, final int row, final int col) {
-		int max_r = migrationRoutingMap.length - 1;
-		int max_c = migrationRoutingMap[0].length - 1;
 		
-		// If VM routing matrix is already filled solve the tuple routing matrix
-		if(row == max_r + 1 && col == 1) {
-			solveTupleRouting(modulePlacementMap, tupleRoutingMap, migrationRoutingMap, 0, 1);
+		/**
+		 * Verifies whether deploying a given module in a given node leads to a solution which is symmetric to another one
+		 * which is explored instead.
+		 * 
+		 * @param module the module index
+		 * @param node the node index
+		 * @return true if the node is discarded, otherwise false
+		 */
+		private boolean breaksSymmetry(final int module, final int node) {
+			// Twins are deployed in nodes with non-decreasing indexes
+			int twin = symmetry.getPreviousTwin(module);
+			if(twin != -1 && node < modulePlacement[twin]) return true;
 			
-		// Otherwise, keep filling the VM routing matrix
-		}else {
-			int previousNode = migrationRoutingMap[row][col-1];
+			// An unused node can only be used if all the interchangeable nodes with a lower index are already used
+			if(nodeModules[node] != 0) return false;
 			
-			// If it already find out the destination just fill the next hops with the destination index
-			if(previousNode == migrationRoutingMap[row][getNumberOfNodes()-1]) {
-				migrationRoutingMap[row][col] = previousNode;
-				
-				// If its not the final hop, fill the next hop for the current module/VM
-				if(col < max_c-1)
-					solveVmRouting(modulePlacementMap, tupleRoutingMap, migrationRoutingMap, row, col + 1);
-				
-				// Otherwise, fill the next module/VM path
-				else
-					solveVmRouting(modulePlacementMap, tupleRoutingMap, migrationRoutingMap, row + 1, 1);
+			for(int other : symmetry.getInterchangeableNodes(node)) {
+				if(nodeModules[other] == 0) return true;
+			}
+			
+			return false;
+		}
+		
+		/**
+		 * Deploys a given module in a given node, if its resources are not exceeded.
+		 * 
+		 * @param module the module index
+		 * @param node the node index
+		 * @return true if the module was deployed, otherwise false
+		 */
+		private boolean place(final int module, final int node) {
+			double mips = nodeMips[node] + getmMips()[module];
+			double ram = nodeRam[node] + getmRam()[module];
+			double strg = nodeStrg[node] + getmStrg()[module];
+			
+			if(mips > getfMips()[node] * Config.MIPS_PERCENTAGE_UTIL) return false;
+			if(ram > getfRam()[node] * Config.MEM_PERCENTAGE_UTIL) return false;
+			if(strg > getfStrg()[node] * Config.STRG_PERCENTAGE_UTIL) return false;
+			
+			modulePlacement[module] = node;
+			nodeMips[node] = mips;
+			nodeRam[node] = ram;
+			nodeStrg[node] = strg;
+			nodeModules[node]++;
+			
+			if(getmMips()[module] != 0)
+				nodeCPULoad[node] += getmCPUIn()[module];
+			
+			return true;
+		}
+		
+		/**
+		 * Removes a given module from a given node.
+		 * 
+		 * @param module the module index
+		 * @param node the node index
+		 */
+		private void unplace(final int module, final int node) {
+			nodeMips[node] -= getmMips()[module];
+			nodeRam[node] -= getmRam()[module];
+			nodeStrg[node] -= getmStrg()[module];
+			nodeModules[node]--;
+			
+			if(getmMips()[module] != 0)
+				nodeCPULoad[node] -= getmCPUIn()[module];
+			
+			// Rounding errors are removed once the node is empty
+			if(nodeModules[node] == 0) {
+				nodeMips[node] = 0;
+				nodeRam[node] = 0;
+				nodeStrg[node] = 0;
+				nodeCPULoad[node] = 0;
+			}
+		}
+		
+		/**
+		 * Computes the lower bound of the quality of service cost, i.e., the number of applications with some loop whose
+		 * latency certainly exceeds its deadline. The latency of each loop is bounded by the processing latency of the
+		 * modules already placed (their nodes can only get more load) plus the minimum latency between the nodes of each
+		 * dependency whose both modules are already placed.
+		 * 
+		 * @param nrPlaced the number of modules already placed (modules are placed by ascending index)
+		 * @return the lower bound of the quality of service cost
+		 */
+		private double computeQoSBound(final int nrPlaced) {
+			int[][] loops = getLoops();
+			double cost = 0;
+			
+			Arrays.fill(violatedApplication, false);
+			
+			for(int i = 0; i < getNumberOfLoops(); i++) {
+				int application = getLoopsApplication()[i];
+				if(violatedApplication[application]) continue;
 				
-			// Otherwise, keep filling the VM routing matrix
-			}else {
-				for(int i = 0; i < getNumberOfNodes(); i++) {
-					if(i == previousNode) continue;
-					if(getfLatencyMap()[previousNode][i] == Constants.INF) continue;
-					if(getfLatencyMap()[previousNode][i] == 0) continue;
-					if(Util.contains(migrationRoutingMap[row], col, i)) continue;
+				double latency = 0;
+				for(int j = 0; j < getNumberOfModules() - 1; j++) {
+					if(loops[i][j+1] == -1) break;
 					
-					Map<Integer,Integer> map = new HashMap<Integer, Integer>();
-					map.put(i, migrationRoutingMap[row][getNumberOfNodes()-1]);
+					int from = loops[i][j];
+					int to = loops[i][j+1];
+					if(to >= nrPlaced) continue;
 					
-					if(hopCountMap.get(map) > getNumberOfNodes() - col) continue;
+					int node = modulePlacement[to];
+					if(getmMips()[to] != 0)
+						latency += nodeCPULoad[node]/(getfMips()[node]*Config.MIPS_PERCENTAGE_UTIL);
 					
-					migrationRoutingMap[row][col] = i;
+					if(from < nrPlaced)
+						latency += bounds.getLatency(modulePlacement[from], node);
+				}
 				
-					// If its not the final hop, fill the next hop for the current module/VM
-					if(col < max_c-1)
-						solveVmRouting(modulePlacementMap, tupleRoutingMap, migrationRoutingMap, row, col + 1);
-					
-					// Otherwise, fill the next module/VM path
-					else
-						solveVmRouting(modulePlacementMap, tupleRoutingMap, migrationRoutingMap, row + 1, 1);
+				if(latency*(1 - BOUND_SLACK) > getLoopsDeadline()[i]) {
+					violatedApplication[application] = true;
+					cost++;
 				}
 			}
+			
+			return cost;
 		}
-	}
-	
-	/**
-	 *  Solves the tuple routing map.
-	 * 
-	 * @param modulePlacementMap the current binary module placement map
-	 * @param tupleRoutingMap the current tuple routing map
-	 * @param migrationRoutingMap the current virtual machine migration map
-	 * @param row the index of the dependency to be filled up
-	 * @param col the index of the node to be filled up
-	 */
-	private void solveTupleRouting(final int[][] modulePlacementMap, int[][] tupleRoutingMap,
-			final int[][] migrationRoutingMap, final int row, final int col) {
-		int max_r = tupleRoutingMap.length - 1;
-		int max_c = tupleRoutingMap[0].length - 1;
 		
-		// If tuple routing matrix is already filled analyze the following solution
-		if(row == max_r + 1 && col == 1) {			
-			Solution solution = new Solution(this, modulePlacementMap, tupleRoutingMap, migrationRoutingMap);
+		/**
+		 * Solves both the tuple and virtual machine migration routing maps of the current module placement. The tuple
+		 * routes are built first, as they have a higher impact on the costs with higher priority.
+		 */
+		private void solveRouting() {
+			qosBound = computeQoSBound(getNumberOfModules());
 			
-			// Check whether the new individual is the new best solution
-    		bestSolution = Solution.checkBestSolution(this, solution, bestSolution, iteration);
+			for(int i = getNumberOfDependencies() - 1; i >= 0; i--) {
+				int from = modulePlacement[getStartModDependency(i)];
+				int to = modulePlacement[getFinalModDependency(i)];
+				
+				tupleBound[0][i] = tupleBound[0][i+1] + getdBandwidth()[i]*bounds.getPathPowerCost(from, to);
+				tupleBound[1][i] = tupleBound[1][i+1] + getdBandwidth()[i]*bounds.getPathBandwidthCost(from, to);
+			}
 			
-			iteration++;
+			for(int i = getNumberOfModules() - 1; i >= 0; i--) {
+				migrationBound[i] = migrationBound[i+1] + bounds.getMigrationCost(i, modulePlacement[i]);
+			}
 			
-		// Otherwise, keep filling the tuple routing matrix
-		}else {
-			int previousNode = tupleRoutingMap[row][col-1];
+			solveTupleRouting(0, 0, 0);
+		}
+		
+		/**
+		 * Computes the lower bound of each cost of the current branch of the routing maps.
+		 * 
+		 * @param power the lower bound of the power cost (transmission part)
+		 * @param bandwidth the lower bound of the bandwidth cost
+		 * @param migration the lower bound of the migration cost
+		 * @return true if the branch can be discarded, otherwise false
+		 */
+		private boolean isRoutingDominated(final double power, final double bandwidth, final double migration) {
+			bound[Config.QOS_COST] = qosBound;
+			bound[Config.POWER_COST] = processingPower + power;
+			bound[Config.PROCESSING_COST] = processing;
+			bound[Config.BANDWIDTH_COST] = bandwidth;
+			bound[Config.MIGRATION_COST] = migration;
+			
+			return isDominated(bound);
+		}
+		
+		/**
+		 * Starts the route of a given dependency.
+		 * 
+		 * @param row the index of the dependency
+		 * @param power the power cost (transmission part) of the dependencies already routed
+		 * @param bandwidth the bandwidth cost of the dependencies already routed
+		 */
+		private void solveTupleRouting(final int row, final double power, final double bandwidth) {
+			if(row == getNumberOfDependencies()) {
+				solveMigrationRouting(0, power, bandwidth, 0);
+				return;
+			}
+			
+			int from = modulePlacement[getStartModDependency(row)];
+			tupleRoutingMap[row][0] = from;
+			onRoute[from] = true;
+			
+			solveTupleRouting(row, 1, power, bandwidth);
+			
+			onRoute[from] = false;
+		}
+		
+		/**
+		 * Solves the tuple routing map.
+		 * 
+		 * @param row the index of the dependency to be filled up
+		 * @param col the index of the node to be filled up
+		 * @param power the power cost (transmission part) of the hops already routed
+		 * @param bandwidth the bandwidth cost of the hops already routed
+		 */
+		private void solveTupleRouting(final int row, final int col, final double power, final double bandwidth) {
+			int[] route = tupleRoutingMap[row];
+			int previousNode = route[col-1];
+			int finalNode = modulePlacement[getFinalModDependency(row)];
+			double dBandwidth = getdBandwidth()[row];
 			
 			// If it already find out the destination just fill the next hops with the destination index
-			if(previousNode == tupleRoutingMap[row][getNumberOfNodes()-1]) {
-				tupleRoutingMap[row][col] = previousNode;
+			if(previousNode == finalNode) {
+				Arrays.fill(route, col, route.length, finalNode);
 				
-				// If its not the final hop, fill the next hop for the current tuple
-				if(col < max_c-1)
-					solveTupleRouting(modulePlacementMap, tupleRoutingMap, migrationRoutingMap, row, col + 1);
+				// The nodes of this route can be used by the next one
+				for(int i = 0; i < col; i++) onRoute[route[i]] = false;
+				solveTupleRouting(row + 1, power, bandwidth);
+				for(int i = 0; i < col; i++) onRoute[route[i]] = true;
+				return;
+			}
+			
+			// Otherwise, keep filling the tuple routing matrix
+			for(int k : bounds.getTupleHops(previousNode, finalNode)) {
+				if(isStopped()) return;
 				
-				// Otherwise, fill the next tuple path
-				else
-					solveTupleRouting(modulePlacementMap, tupleRoutingMap, migrationRoutingMap, row + 1, 1);
+				int i = getfNeighbors()[previousNode][k];
+				if(onRoute[i] || !isValidHop(i, finalNode, col)) continue;
 				
-				// Otherwise, keep filling the tuple routing matrix
-			}else {
-				for(int i = 0; i < getNumberOfNodes(); i++) {
-					if(i == previousNode) continue;
-					if(getfLatencyMap()[previousNode][i] == Constants.INF) continue;
-					if(Util.contains(tupleRoutingMap[row], col, i)) continue;
-					
-					Map<Integer,Integer> map = new HashMap<Integer, Integer>();
-					map.put(i, tupleRoutingMap[row][getNumberOfNodes()-1]);
-					
-					if(hopCountMap.get(map) > getNumberOfNodes() - col) continue;
-					
-					tupleRoutingMap[row][col] = i;
+				// Bandwidth used by the dependencies only grows
+				double used = linkBandwidth[previousNode][k];
+				if(used + dBandwidth > getfNeighborBandwidth()[previousNode][k] * Config.BW_PERCENTAGE_UTIL) continue;
 				
-					// If its not the final hop, fill the next hop for the current tuple
-					if(col < max_c-1)
-						solveTupleRouting(modulePlacementMap, tupleRoutingMap, migrationRoutingMap, row, col + 1);
-					
-					// Otherwise, fill the next tuple path
-					else
-						solveTupleRouting(modulePlacementMap, tupleRoutingMap, migrationRoutingMap, row + 1, 1);
-				}
+				double newPower = power + dBandwidth*bounds.getHopPowerCost(previousNode, k);
+				double newBandwidth = bandwidth + dBandwidth*bounds.getHopBandwidthCost(previousNode, k);
+				
+				if(isRoutingDominated(newPower + dBandwidth*bounds.getPathPowerCost(i, finalNode) + tupleBound[0][row+1],
+						newBandwidth + dBandwidth*bounds.getPathBandwidthCost(i, finalNode) + tupleBound[1][row+1],
+						migrationBound[0])) continue;
+				
+				route[col] = i;
+				onRoute[i] = true;
+				linkBandwidth[previousNode][k] = used + dBandwidth;
+				
+				solveTupleRouting(row, col + 1, newPower, newBandwidth);
+				
+				linkBandwidth[previousNode][k] = used;
+				onRoute[i] = false;
 			}
 		}
+		
+		/**
+		 * Starts the migration route of a given module.
+		 * 
+		 * @param row the index of the module
+		 * @param power the power cost (transmission part) of the tuple routing map
+		 * @param bandwidth the bandwidth cost of the tuple routing map
+		 * @param migration the migration cost of the modules already routed
+		 */
+		private void solveMigrationRouting(final int row, final double power, final double bandwidth, final double migration) {
+			if(row == getNumberOfModules()) {
+				analyzeSolution();
+				return;
+			}
+			
+			int from = isFirstOptimization() ? modulePlacement[row] : getCurrentPlacement(row);
+			migrationRoutingMap[row][0] = from;
+			onRoute[from] = true;
+			
+			solveMigrationRouting(row, 1, power, bandwidth, migration, 0);
+			
+			onRoute[from] = false;
+		}
+		
+		/**
+		 * Solves the virtual machine routing map.
+		 * 
+		 * @param row the index of the module to be filled up
+		 * @param col the index of the node to be filled up
+		 * @param power the power cost (transmission part) of the tuple routing map
+		 * @param bandwidth the bandwidth cost of the tuple routing map
+		 * @param migration the migration cost of the hops already routed
+		 * @param latency the migration latency of the hops already routed
+		 */
+		private void solveMigrationRouting(final int row, final int col, final double power, final double bandwidth,
+				final double migration, final double latency) {
+			int[] route = migrationRoutingMap[row];
+			int previousNode = route[col-1];
+			int finalNode = modulePlacement[row];
+			double size = bounds.getModuleSize(row);
+			
+			// If it already find out the destination just fill the next hops with the destination index
+			if(previousNode == finalNode) {
+				Arrays.fill(route, col, route.length, finalNode);
+				
+				// The nodes of this route can be used by the next one
+				for(int i = 0; i < col; i++) onRoute[route[i]] = false;
+				solveMigrationRouting(row + 1, power, bandwidth, migration);
+				for(int i = 0; i < col; i++) onRoute[route[i]] = true;
+				return;
+			}
+			
+			// Otherwise, keep filling the VM routing matrix
+			for(int k : bounds.getMigrationHops(previousNode, finalNode)) {
+				if(isStopped()) return;
+				
+				int i = getfNeighbors()[previousNode][k];
+				if(onRoute[i] || !isValidHop(i, finalNode, col)) continue;
+				
+				// The migration deadline can only be met if the cheapest remaining path meets it
+				double newLatency = latency + getfNeighborLatency()[previousNode][k] + size*bounds.getHopMigrationTime(previousNode, k);
+				if(bounds.getMigrationLatency(row, i, finalNode, newLatency)*(1 - BOUND_SLACK) > getmMigD()[row]) continue;
+				
+				double newMigration = migration + size*bounds.getHopMigrationCost(previousNode, k);
+				
+				if(isRoutingDominated(power, bandwidth,
+						newMigration + size*bounds.getPathMigrationCost(i, finalNode) + migrationBound[row+1])) continue;
+				
+				route[col] = i;
+				onRoute[i] = true;
+				
+				solveMigrationRouting(row, col + 1, power, bandwidth, newMigration, newLatency);
+				
+				onRoute[i] = false;
+			}
+		}
+		
+		/**
+		 * Analyzes the current solution (which is complete).
+		 */
+		private void analyzeSolution() {
+			Solution solution = new Solution(BruteForce.this, modulePlacement, tupleRoutingMap, migrationRoutingMap);
+			int iteration = BruteForce.this.iteration.getAndIncrement();
+			
+			// Check whether the new individual is the new best solution of this search (the vectors are reused, thus it is copied)
+			if(Solution.isBetterSolution(solution, bestSolution))
+				bestSolution = new Solution(BruteForce.this, solution);
+			
+			// Check whether the new individual is the new best solution of all searches
+			if(Solution.isBetterSolution(solution, incumbent.get()))
+				updateIncumbent(solution, iteration);
+			
+			// Check whether the budget is exhausted
+			if(getBudget().isExhausted(incumbent.get()))
+				stopped = true;
+		}
+		
+		/**
+		 * Verifies whether a given node can be the next hop of a route, i.e., whether the destination can still be reached
+		 * within the remaining columns of the route.
+		 * 
+		 * @param node the index of the candidate node
+		 * @param finalNode the index of the destination node
+		 * @param col the index of the column to be filled up
+		 * @return true if the node can be the next hop, otherwise false
+		 */
+		private boolean isValidHop(final int node, final int finalNode, final int col) {
+			int hopCount = bounds.getHopCount(node, finalNode);
+			return hopCount != ShortestPathTable.UNREACHABLE && hopCount + 1 <= getNumberOfNodes() - col;
+		}
 	}
 	
 	/**
-	 * Verifies whether resources are exceeded in a given node for a given placement matrix.
-	 * 
-	 * @param modulePlacementMap the current binary module placement map
-	 * @param node the node to verify
-	 * @return true if its resources are being exceeded. 0, otherwise
+	 * Class representing a subtree of the search, i.e., all the solutions which share the placement of the first modules.
 	 */
-	private boolean checkResourcesExceeded(final int[][] modulePlacementMap) {
-		for(int i = 0; i < getNumberOfNodes(); i++) {
-			double totalMips = 0;
-			double totalRam = 0;
-			double totalStrg = 0;
-			
-			for(int j = 0; j < getNumberOfModules(); j++) {
-				totalMips += modulePlacementMap[i][j] * getmMips()[j];
-				totalRam += modulePlacementMap[i][j] * getmRam()[j];
-				totalStrg += modulePlacementMap[i][j] * getmStrg()[j];
-			}
-			
-			if(totalMips > getfMips()[i] * Config.MIPS_PERCENTAGE_UTIL) return true;
-			if(totalRam > getfRam()[i] * Config.MEM_PERCENTAGE_UTIL) return true;
-			if(totalStrg > getfStrg()[i] * Config.STRG_PERCENTAGE_UTIL) return true;
+	private class Subtree {
+		/** Vector holding the index of the node where each of the first modules is deployed */
+		private final int[] modulePlacement;
+		
+		/** Processing cost of the first modules */
+		private final double processing;
+		
+		/** Power cost (processing part) of the first modules */
+		private final double processingPower;
+		
+		/** Lower bound of the power cost (transmission part) of the dependencies between the first modules */
+		private final double power;
+		
+		/** Lower bound of the bandwidth cost of the dependencies between the first modules */
+		private final double bandwidth;
+		
+		/** Lower bound of the migration cost of the first modules */
+		private final double migration;
+		
+		/** Lower bound of each cost of the subtree */
+		private final double[] bound;
+		
+		/** Best solution found in the subtree */
+		private Solution bestSolution;
+		
+		Subtree(final int[] modulePlacement, final double processing, final double processingPower, final double power,
+				final double bandwidth, final double migration, final double[] bound) {
+			this.modulePlacement = modulePlacement;
+			this.processing = processing;
+			this.processingPower = processingPower;
+			this.power = power;
+			this.bandwidth = bandwidth;
+			this.migration = migration;
+			this.bound = bound;
 		}
 		
-		return false;
+		/**
+		 * Explores the subtree.
+		 */
+		void compute() {
+			// The best solution found meanwhile may already discard the whole subtree
+			if(stopped || isDominated(bound)) return;
+			
+			Search search = new Search();
+			for(int i = 0; i < modulePlacement.length; i++)
+				search.place(i, modulePlacement[i]);
+			
+			search.solveModulePlacement(modulePlacement.length, processing, processingPower, power, bandwidth, migration);
+			bestSolution = search.bestSolution;
+		}
 	}
 	
 	/**
-	 * Computes and stores the hop count between any two nodes.
+	 * Class representing a range of subtrees which are explored in parallel. The range is recursively split in halves: the
+	 * current thread explores the first half (so that the subtrees are explored roughly in the order of the sequential
+	 * search) while the second one can be stolen by an idle thread.
 	 */
-	private void createHopCountMap() {
-		hopCountMap = new HashMap<Map<Integer,Integer>, Integer>();
+	private static class SubtreeBatch extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
 		
-		for(int i = 0; i < getNumberOfNodes(); i++) {
-			for(int j = 0; j < getNumberOfNodes(); j++) {
-				Map<Integer,Integer> map = new HashMap<Integer, Integer>();
-				map.put(i, j);
-				
-				if(i != j) {
-					getDijkstra().execute(getDijkstraNodes().get(i));
-					LinkedList<Vertex> path = getDijkstra().getPath(getDijkstraNodes().get(j));
-					hopCountMap.put(map, path.size());
-				}else {
-					hopCountMap.put(map, 0);
-				}
+		/** Subtrees of the search */
+		private final List<Subtree> subtrees;
+		
+		/** Index of the first subtree of the range */
+		private final int from;
+		
+		/** Index after the last subtree of the range */
+		private final int to;
+		
+		SubtreeBatch(final List<Subtree> subtrees, final int from, final int to) {
+			this.subtrees = subtrees;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if(to - from == 1) {
+				subtrees.get(from).compute();
+			}else if(to - from > 1) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new SubtreeBatch(subtrees, from, middle), new SubtreeBatch(subtrees, middle, to));
 			}
 		}
 	}
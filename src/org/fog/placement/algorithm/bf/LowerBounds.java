@@ -0,0 +1,574 @@
+package org.fog.placement.algorithm.bf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.fog.core.Config;
+import org.fog.core.Constants;
+import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.util.routing.DijkstraAlgorithm;
+import org.fog.placement.algorithm.util.routing.ShortestPathTable;
+
+/**
+ * Class holding the tables used by the branch-and-bound search to compute admissible lower bounds of each cost. As the
+ * power (transmission part), bandwidth and migration costs are sums over the links used by each route, the cost of the
+ * cheapest path between each two nodes is a lower bound of the cost of any route between them. Likewise, the processing
+ * and power (processing part) costs are sums over the modules, thus the cheapest node of each module which is not placed
+ * yet bounds its share. The tables also hold the order in which the nodes and the hops are tried (cheapest first), so
+ * that good solutions are found early. All tables are read-only after being built, thus they can be shared by threads.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+final class LowerBounds {
+	/** Object which holds all the information needed to run the optimization algorithm */
+	private final Algorithm algorithm;
+	
+	/** Matrix holding the minimum number of hops between each two nodes (ShortestPathTable.UNREACHABLE if there is no path) */
+	private final int[][] hopCount;
+	
+	/** Matrix holding the minimum latency between each two nodes */
+	private final double[][] latency;
+	
+	/** Matrix holding the minimum transmission power cost between each two nodes (per unit of bandwidth) */
+	private final double[][] powerCost;
+	
+	/** Matrix holding the minimum bandwidth cost between each two nodes (per unit of bandwidth) */
+	private final double[][] bandwidthCost;
+	
+	/** Matrix holding the minimum migration cost between each two nodes (per unit of module size) */
+	private final double[][] migrationCost;
+	
+	/** Matrix holding the minimum migration transfer time between each two nodes (per unit of module size) */
+	private final double[][] migrationTime;
+	
+	/** Adjacency lists holding the transmission power cost of each link (per unit of bandwidth) */
+	private final double[][] hopPowerCost;
+	
+	/** Adjacency lists holding the bandwidth cost of each link (per unit of bandwidth) */
+	private final double[][] hopBandwidthCost;
+	
+	/** Adjacency lists holding the migration cost of each link (per unit of module size) */
+	private final double[][] hopMigrationCost;
+	
+	/** Adjacency lists holding the migration transfer time of each link (per unit of module size) */
+	private final double[][] hopMigrationTime;
+	
+	/** Nodes where each module can be deployed (sorted by cost), without the ones which cannot meet its migration deadline */
+	private final int[][] placementOrder;
+	
+	/** Vector holding the sum of the minimum processing cost of the modules from each index onwards */
+	private final double[] processingBound;
+	
+	/** Vector holding the sum of the minimum power cost (processing part) of the modules from each index onwards */
+	private final double[] processingPowerBound;
+	
+	/** Vector holding the sum of the minimum migration cost of the modules from each index onwards */
+	private final double[] migrationBound;
+	
+	/** Dependencies whose both modules are placed once each module is placed (modules are placed by ascending index) */
+	private final int[][] completedDependencies;
+	
+	/** Positions within the adjacency list of each node of the hops used by the tuple routes towards each destination */
+	private final int[][][] tupleHops;
+	
+	/** Positions within the adjacency list of each node of the hops used by the migration routes towards each destination */
+	private final int[][][] migrationHops;
+	
+	/**
+	 * Builds all tables for the current topology. The shortest paths of the algorithm must already be computed.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 */
+	LowerBounds(final Algorithm algorithm) {
+		this.algorithm = algorithm;
+		
+		int nrNodes = algorithm.getNumberOfNodes();
+		int nrModules = algorithm.getNumberOfModules();
+		int[][] neighbors = algorithm.getfNeighbors();
+		ShortestPathTable shortestPaths = algorithm.getShortestPaths();
+		
+		hopCount = new int[nrNodes][nrNodes];
+		latency = new double[nrNodes][nrNodes];
+		
+		for(int i = 0; i < nrNodes; i++) {
+			for(int j = 0; j < nrNodes; j++) {
+				hopCount[i][j] = shortestPaths.getHopCount(i, j);
+				latency[i][j] = shortestPaths.getLatency(i, j);
+			}
+		}
+		
+		hopPowerCost = new double[nrNodes][];
+		hopBandwidthCost = new double[nrNodes][];
+		hopMigrationCost = new double[nrNodes][];
+		hopMigrationTime = new double[nrNodes][];
+		
+		for(int i = 0; i < nrNodes; i++) {
+			int degree = neighbors[i].length;
+			hopPowerCost[i] = new double[degree];
+			hopBandwidthCost[i] = new double[degree];
+			hopMigrationCost[i] = new double[degree];
+			hopMigrationTime[i] = new double[degree];
+			
+			for(int k = 0; k < degree; k++) {
+				double bandwidth = algorithm.getfNeighborBandwidth()[i][k];
+				double time = 1/(bandwidth*(1-Config.BW_PERCENTAGE_UTIL) + Constants.EPSILON);
+				
+				hopMigrationTime[i][k] = time;
+				
+				// Only the links which start in fog devices are accounted by the cost function
+				if(algorithm.getfIsFogDevice()[i] == 0) continue;
+				
+				hopBandwidthCost[i][k] = 1/(bandwidth*Config.BW_PERCENTAGE_UTIL + Constants.EPSILON);
+				hopPowerCost[i][k] = hopBandwidthCost[i][k]*algorithm.getfTxPw()[i];
+				hopMigrationCost[i][k] = time;
+			}
+		}
+		
+		powerCost = computeDistances(neighbors, hopPowerCost);
+		bandwidthCost = computeDistances(neighbors, hopBandwidthCost);
+		migrationCost = computeDistances(neighbors, hopMigrationCost);
+		migrationTime = computeDistances(neighbors, hopMigrationTime);
+		
+		placementOrder = new int[nrModules][];
+		processingBound = new double[nrModules + 1];
+		processingPowerBound = new double[nrModules + 1];
+		migrationBound = new double[nrModules + 1];
+		
+		for(int j = nrModules - 1; j >= 0; j--) {
+			placementOrder[j] = computePlacementOrder(j);
+			
+			double minProcessing = Constants.INF;
+			double minProcessingPower = Constants.INF;
+			double minMigration = Constants.INF;
+			
+			for(int node : placementOrder[j]) {
+				minProcessing = Math.min(minProcessing, getProcessingCost(j, node));
+				minProcessingPower = Math.min(minProcessingPower, getProcessingPowerCost(j, node));
+				minMigration = Math.min(minMigration, getMigrationCost(j, node));
+			}
+			
+			processingBound[j] = processingBound[j + 1] + minProcessing;
+			processingPowerBound[j] = processingPowerBound[j + 1] + minProcessingPower;
+			migrationBound[j] = migrationBound[j + 1] + minMigration;
+		}
+		
+		completedDependencies = computeCompletedDependencies();
+		
+		// The routes can only end in nodes where some module can be deployed
+		tupleHops = new int[nrNodes][][];
+		migrationHops = new int[nrNodes][][];
+		
+		for(int j = 0; j < nrModules; j++) {
+			for(int node : placementOrder[j]) {
+				if(tupleHops[node] != null) continue;
+				
+				tupleHops[node] = new int[nrNodes][];
+				migrationHops[node] = new int[nrNodes][];
+				
+				for(int i = 0; i < nrNodes; i++) {
+					tupleHops[node][i] = computeHopOrder(i, node, false);
+					migrationHops[node][i] = computeHopOrder(i, node, true);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Computes the cost of the cheapest path between each two nodes (Dijkstra from each node).
+	 * 
+	 * @param neighbors the adjacency lists holding the indexes of the neighbors of each node
+	 * @param weights the adjacency lists holding the cost of each link
+	 * @return the matrix holding the cost of the cheapest path; Constants.INF if there is no path
+	 */
+	private static double[][] computeDistances(final int[][] neighbors, final double[][] weights) {
+		int nrNodes = neighbors.length;
+		double[][] distances = new double[nrNodes][nrNodes];
+		DijkstraAlgorithm dijkstra = new DijkstraAlgorithm(neighbors, weights);
+		
+		for(int i = 0; i < nrNodes; i++) {
+			dijkstra.execute(i);
+			
+			for(int j = 0; j < nrNodes; j++) {
+				distances[i][j] = dijkstra.getDistance(j);
+			}
+		}
+		
+		return distances;
+	}
+	
+	/**
+	 * Computes the nodes where a given module can be deployed, sorted by ascending power and processing cost. The nodes
+	 * from which the module could never be migrated within its deadline are discarded.
+	 * 
+	 * @param module the module index
+	 * @return the nodes where the module can be deployed
+	 */
+	private int[] computePlacementOrder(final int module) {
+		List<Integer> nodes = new ArrayList<Integer>();
+		
+		for(int node : algorithm.getPossibleNodes(module)) {
+			if(getMigrationLatency(module, node) > algorithm.getmMigD()[module]) continue;
+			nodes.add(node);
+		}
+		
+		Integer[] order = nodes.toArray(new Integer[nodes.size()]);
+		
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer n1, Integer n2) {
+				int value = Double.compare(getProcessingPowerCost(module, n1), getProcessingPowerCost(module, n2));
+				if(value != 0) return value;
+				
+				value = Double.compare(getProcessingCost(module, n1), getProcessingCost(module, n2));
+				if(value != 0) return value;
+				
+				value = Double.compare(getMigrationCost(module, n1), getMigrationCost(module, n2));
+				if(value != 0) return value;
+				
+				return Integer.compare(n1, n2);
+			}
+		});
+		
+		int[] result = new int[order.length];
+		for(int i = 0; i < order.length; i++) {
+			result[i] = order[i];
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Computes, for each module, the dependencies whose last module to be placed is that module.
+	 * 
+	 * @return the lists holding the dependencies completed by each module
+	 */
+	private int[][] computeCompletedDependencies() {
+		int nrModules = algorithm.getNumberOfModules();
+		List<List<Integer>> dependencies = new ArrayList<List<Integer>>();
+		
+		for(int j = 0; j < nrModules; j++) {
+			dependencies.add(new ArrayList<Integer>());
+		}
+		
+		for(int i = 0; i < algorithm.getNumberOfDependencies(); i++) {
+			int last = Math.max(algorithm.getStartModDependency(i), algorithm.getFinalModDependency(i));
+			dependencies.get(last).add(i);
+		}
+		
+		int[][] result = new int[nrModules][];
+		for(int j = 0; j < nrModules; j++) {
+			result[j] = new int[dependencies.get(j).size()];
+			
+			for(int i = 0; i < result[j].length; i++) {
+				result[j][i] = dependencies.get(j).get(i);
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Computes the order in which the hops leaving a given node are tried by the routes towards a given destination
+	 * (cheapest remaining path first). The tuple routes are sorted by the power cost and then by the bandwidth cost, while
+	 * the migration routes are sorted by the migration cost. The migration routes do not use links without latency.
+	 * 
+	 * @param node the index of the node where the hop starts
+	 * @param destination the index of the destination node of the route
+	 * @param migration whether the hops are used by migration routes
+	 * @return the positions of the hops within the adjacency list of the node
+	 */
+	private int[] computeHopOrder(final int node, final int destination, final boolean migration) {
+		final int[] neighbors = algorithm.getfNeighbors()[node];
+		List<Integer> positions = new ArrayList<Integer>();
+		
+		for(int k = 0; k < neighbors.length; k++) {
+			if(migration && algorithm.getfNeighborLatency()[node][k] == 0) continue;
+			positions.add(k);
+		}
+		
+		Integer[] order = positions.toArray(new Integer[positions.size()]);
+		
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer k1, Integer k2) {
+				int n1 = neighbors[k1];
+				int n2 = neighbors[k2];
+				int value;
+				
+				if(migration) {
+					value = Double.compare(hopMigrationCost[node][k1] + migrationCost[n1][destination],
+							hopMigrationCost[node][k2] + migrationCost[n2][destination]);
+				}else {
+					value = Double.compare(hopPowerCost[node][k1] + powerCost[n1][destination],
+							hopPowerCost[node][k2] + powerCost[n2][destination]);
+					if(value != 0) return value;
+					
+					value = Double.compare(hopBandwidthCost[node][k1] + bandwidthCost[n1][destination],
+							hopBandwidthCost[node][k2] + bandwidthCost[n2][destination]);
+				}
+				if(value != 0) return value;
+				
+				value = Integer.compare(hopCount[n1][destination] == ShortestPathTable.UNREACHABLE ? Integer.MAX_VALUE : hopCount[n1][destination],
+						hopCount[n2][destination] == ShortestPathTable.UNREACHABLE ? Integer.MAX_VALUE : hopCount[n2][destination]);
+				if(value != 0) return value;
+				
+				return Integer.compare(n1, n2);
+			}
+		});
+		
+		int[] result = new int[order.length];
+		for(int i = 0; i < order.length; i++) {
+			result[i] = order[i];
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Gets the processing cost of a given module when deployed in a given node.
+	 * 
+	 * @param module the module index
+	 * @param node the node index
+	 * @return the processing cost
+	 */
+	double getProcessingCost(final int module, final int node) {
+		if(algorithm.getfIsFogDevice()[node] == 0 || algorithm.getmMips()[module] == 0) return 0;
+		return algorithm.getmMips()[module]/(algorithm.getfMips()[node]*Config.MIPS_PERCENTAGE_UTIL);
+	}
+	
+	/**
+	 * Gets the power cost (processing part) of a given module when deployed in a given node.
+	 * 
+	 * @param module the module index
+	 * @param node the node index
+	 * @return the power cost
+	 */
+	double getProcessingPowerCost(final int module, final int node) {
+		return getProcessingCost(module, node)*(algorithm.getfBusyPw()[node] - algorithm.getfIdlePw()[node]);
+	}
+	
+	/**
+	 * Gets the lower bound of the migration cost of a given module when deployed in a given node.
+	 * 
+	 * @param module the module index
+	 * @param node the node index
+	 * @return the lower bound of the migration cost (zero in the first optimization)
+	 */
+	double getMigrationCost(final int module, final int node) {
+		if(algorithm.isFirstOptimization()) return 0;
+		return getModuleSize(module)*migrationCost[algorithm.getCurrentPlacement(module)][node];
+	}
+	
+	/**
+	 * Gets the lower bound of the migration latency of a given module when deployed in a given node.
+	 * 
+	 * @param module the module index
+	 * @param node the node index
+	 * @return the lower bound of the migration latency (setup time included); zero if there is no migration
+	 */
+	private double getMigrationLatency(final int module, final int node) {
+		if(algorithm.isFirstOptimization()) return 0;
+		
+		int from = algorithm.getCurrentPlacement(module);
+		return getMigrationLatency(module, from, node, 0);
+	}
+	
+	/**
+	 * Gets the lower bound of the migration latency of a given module whose route has already reached a given node.
+	 * 
+	 * @param module the module index
+	 * @param node the index of the node already reached by the route
+	 * @param destination the index of the destination node
+	 * @param latency the latency of the route until the node already reached
+	 * @return the lower bound of the migration latency (setup time included); zero if there is no migration
+	 */
+	double getMigrationLatency(final int module, final int node, final int destination, final double latency) {
+		double bound = latency + this.latency[node][destination] + getModuleSize(module)*migrationTime[node][destination];
+		return bound > 0 ? bound + Config.SETUP_VM_TIME : 0;
+	}
+	
+	/**
+	 * Gets the size of a given module (i.e., the amount of data sent when it is migrated).
+	 * 
+	 * @param module the module index
+	 * @return the size of the module
+	 */
+	double getModuleSize(final int module) {
+		return algorithm.getmStrg()[module] + algorithm.getmRam()[module];
+	}
+	
+	/**
+	 * Gets the minimum number of hops between two nodes.
+	 * 
+	 * @param from the index of the source node
+	 * @param to the index of the destination node
+	 * @return the minimum number of hops; ShortestPathTable.UNREACHABLE if there is no path
+	 */
+	int getHopCount(final int from, final int to) {
+		return hopCount[from][to];
+	}
+	
+	/**
+	 * Gets the minimum latency between two nodes.
+	 * 
+	 * @param from the index of the source node
+	 * @param to the index of the destination node
+	 * @return the minimum latency; Constants.INF if there is no path
+	 */
+	double getLatency(final int from, final int to) {
+		return latency[from][to];
+	}
+	
+	/**
+	 * Gets the minimum transmission power cost between two nodes (per unit of bandwidth).
+	 * 
+	 * @param from the index of the source node
+	 * @param to the index of the destination node
+	 * @return the minimum transmission power cost
+	 */
+	double getPathPowerCost(final int from, final int to) {
+		return powerCost[from][to];
+	}
+	
+	/**
+	 * Gets the minimum bandwidth cost between two nodes (per unit of bandwidth).
+	 * 
+	 * @param from the index of the source node
+	 * @param to the index of the destination node
+	 * @return the minimum bandwidth cost
+	 */
+	double getPathBandwidthCost(final int from, final int to) {
+		return bandwidthCost[from][to];
+	}
+	
+	/**
+	 * Gets the minimum migration cost between two nodes (per unit of module size).
+	 * 
+	 * @param from the index of the source node
+	 * @param to the index of the destination node
+	 * @return the minimum migration cost
+	 */
+	double getPathMigrationCost(final int from, final int to) {
+		return migrationCost[from][to];
+	}
+	
+	/**
+	 * Gets the transmission power cost of a given link (per unit of bandwidth).
+	 * 
+	 * @param node the index of the node where the link starts
+	 * @param position the position of the link within the adjacency list of the node
+	 * @return the transmission power cost
+	 */
+	double getHopPowerCost(final int node, final int position) {
+		return hopPowerCost[node][position];
+	}
+	
+	/**
+	 * Gets the bandwidth cost of a given link (per unit of bandwidth).
+	 * 
+	 * @param node the index of the node where the link starts
+	 * @param position the position of the link within the adjacency list of the node
+	 * @return the bandwidth cost
+	 */
+	double getHopBandwidthCost(final int node, final int position) {
+		return hopBandwidthCost[node][position];
+	}
+	
+	/**
+	 * Gets the migration cost of a given link (per unit of module size).
+	 * 
+	 * @param node the index of the node where the link starts
+	 * @param position the position of the link within the adjacency list of the node
+	 * @return the migration cost
+	 */
+	double getHopMigrationCost(final int node, final int position) {
+		return hopMigrationCost[node][position];
+	}
+	
+	/**
+	 * Gets the migration transfer time of a given link (per unit of module size).
+	 * 
+	 * @param node the index of the node where the link starts
+	 * @param position the position of the link within the adjacency list of the node
+	 * @return the migration transfer time
+	 */
+	double getHopMigrationTime(final int node, final int position) {
+		return hopMigrationTime[node][position];
+	}
+	
+	/**
+	 * Gets the nodes where a given module can be deployed, in the order in which they are tried.
+	 * 
+	 * @param module the module index
+	 * @return the nodes where the module can be deployed
+	 */
+	int[] getPlacementOrder(final int module) {
+		return placementOrder[module];
+	}
+	
+	/**
+	 * Gets the sum of the minimum processing cost of the modules from a given index onwards.
+	 * 
+	 * @param module the index of the first module which is not placed yet
+	 * @return the lower bound of the processing cost of the modules which are not placed yet
+	 */
+	double getProcessingBound(final int module) {
+		return processingBound[module];
+	}
+	
+	/**
+	 * Gets the sum of the minimum power cost (processing part) of the modules from a given index onwards.
+	 * 
+	 * @param module the index of the first module which is not placed yet
+	 * @return the lower bound of the power cost of the modules which are not placed yet
+	 */
+	double getProcessingPowerBound(final int module) {
+		return processingPowerBound[module];
+	}
+	
+	/**
+	 * Gets the sum of the minimum migration cost of the modules from a given index onwards.
+	 * 
+	 * @param module the index of the first module which is not placed yet
+	 * @return the lower bound of the migration cost of the modules which are not placed yet
+	 */
+	double getMigrationBound(final int module) {
+		return migrationBound[module];
+	}
+	
+	/**
+	 * Gets the dependencies whose both modules are placed once a given module is placed.
+	 * 
+	 * @param module the module index
+	 * @return the dependencies completed by the module
+	 */
+	int[] getCompletedDependencies(final int module) {
+		return completedDependencies[module];
+	}
+	
+	/**
+	 * Gets the hops leaving a given node which are tried by the tuple routes towards a given destination.
+	 * 
+	 * @param node the index of the node where the hop starts
+	 * @param destination the index of the destination node
+	 * @return the positions of the hops within the adjacency list of the node
+	 */
+	int[] getTupleHops(final int node, final int destination) {
+		return tupleHops[destination][node];
+	}
+	
+	/**
+	 * Gets the hops leaving a given node which are tried by the migration routes towards a given destination.
+	 * 
+	 * @param node the index of the node where the hop starts
+	 * @param destination the index of the destination node
+	 * @return the positions of the hops within the adjacency list of the node
+	 */
+	int[] getMigrationHops(final int node, final int destination) {
+		return migrationHops[destination][node];
+	}
+	
+}
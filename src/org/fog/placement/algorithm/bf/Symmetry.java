@@ -0,0 +1,377 @@
+package org.fog.placement.algorithm.bf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.fog.placement.algorithm.Algorithm;
+
+/**
+ * Class which finds the symmetries of the problem used by the branch-and-bound search to avoid exploring equivalent
+ * solutions. Two nodes are interchangeable if swapping them leaves the problem unchanged (same characteristics, same
+ * links towards all other nodes, same modules which can be deployed in them, and no module is currently deployed in
+ * them). Within each class of interchangeable nodes, a module can only be deployed in a node which is not used yet if
+ * all the nodes of the class with a lower index are already used. Two modules are interchangeable (twins) if swapping
+ * them leaves the problem unchanged (same characteristics, same dependencies and same loops). The twins must be
+ * deployed in nodes with non-decreasing indexes; this is only applied when none of their nodes has interchangeable
+ * nodes, so that both rules never discard all the solutions which are equivalent to each other.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+final class Symmetry {
+	/** Object which holds all the information needed to run the optimization algorithm */
+	private final Algorithm algorithm;
+	
+	/** Lists holding the modules which can be deployed in each node (sorted in ascending order) */
+	private final int[][] possibleModules;
+	
+	/** Lists holding the nodes which have a link towards each node (sorted in ascending order) */
+	private final int[][] incoming;
+	
+	/** Vector defining the nodes where some module is currently deployed (only after the first optimization) */
+	private final boolean[] currentNode;
+	
+	/** Vector holding the number of nodes within the class of interchangeable nodes of each node */
+	private final int[] classSize;
+	
+	/** Lists holding the interchangeable nodes of each node which have a lower index */
+	private final int[][] interchangeableNodes;
+	
+	/** Vector holding the index of the previous twin of each module; -1 if it has none */
+	private final int[] previousTwin;
+	
+	/**
+	 * Finds the symmetries of the current problem.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 */
+	Symmetry(final Algorithm algorithm) {
+		this.algorithm = algorithm;
+		
+		int nrNodes = algorithm.getNumberOfNodes();
+		int nrModules = algorithm.getNumberOfModules();
+		
+		List<List<Integer>> modules = new ArrayList<List<Integer>>();
+		List<List<Integer>> sources = new ArrayList<List<Integer>>();
+		for(int i = 0; i < nrNodes; i++) {
+			modules.add(new ArrayList<Integer>());
+			sources.add(new ArrayList<Integer>());
+		}
+		
+		for(int j = 0; j < nrModules; j++) {
+			for(int node : algorithm.getPossibleNodes(j)) {
+				modules.get(node).add(j);
+			}
+		}
+		
+		for(int i = 0; i < nrNodes; i++) {
+			for(int neighbor : algorithm.getfNeighbors()[i]) {
+				sources.get(neighbor).add(i);
+			}
+		}
+		
+		possibleModules = toArrays(modules);
+		incoming = toArrays(sources);
+		
+		currentNode = new boolean[nrNodes];
+		if(!algorithm.isFirstOptimization()) {
+			for(int j = 0; j < nrModules; j++) {
+				currentNode[algorithm.getCurrentPlacement(j)] = true;
+			}
+		}
+		
+		classSize = new int[nrNodes];
+		interchangeableNodes = findInterchangeableNodes();
+		previousTwin = findTwins();
+	}
+	
+	/**
+	 * Finds the classes of interchangeable nodes. Each node is only compared with the first node of each class whose
+	 * characteristics are the same (as swapping the first node with each one of the others leaves the problem unchanged,
+	 * so does swapping any two nodes of the class).
+	 * 
+	 * @return the lists holding the interchangeable nodes of each node which have a lower index
+	 */
+	private int[][] findInterchangeableNodes() {
+		int nrNodes = algorithm.getNumberOfNodes();
+		Map<String, List<List<Integer>>> buckets = new HashMap<String, List<List<Integer>>>();
+		List<List<Integer>> classes = new ArrayList<List<Integer>>();
+		int[] nodeClass = new int[nrNodes];
+		
+		for(int i = 0; i < nrNodes; i++) {
+			String key = getNodeKey(i);
+			List<List<Integer>> candidates = buckets.get(key);
+			
+			if(candidates == null) {
+				candidates = new ArrayList<List<Integer>>();
+				buckets.put(key, candidates);
+			}
+			
+			List<Integer> found = null;
+			if(!currentNode[i]) {
+				for(List<Integer> candidate : candidates) {
+					if(isInterchangeable(candidate.get(0), i)) {
+						found = candidate;
+						break;
+					}
+				}
+			}
+			
+			if(found == null) {
+				found = new ArrayList<Integer>();
+				candidates.add(found);
+				classes.add(found);
+			}
+			
+			nodeClass[i] = classes.indexOf(found);
+			found.add(i);
+		}
+		
+		int[][] result = new int[nrNodes][];
+		for(int i = 0; i < nrNodes; i++) {
+			List<Integer> members = classes.get(nodeClass[i]);
+			classSize[i] = members.size();
+			result[i] = new int[members.indexOf(i)];
+			
+			for(int k = 0; k < result[i].length; k++) {
+				result[i][k] = members.get(k);
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Gets the key which groups the nodes whose characteristics are the same (only those can be interchangeable).
+	 * 
+	 * @param node the node index
+	 * @return the key of the node
+	 */
+	private String getNodeKey(final int node) {
+		return algorithm.getfMips()[node] + "/" + algorithm.getfRam()[node] + "/" + algorithm.getfStrg()[node] + "/" +
+				algorithm.getfBusyPw()[node] + "/" + algorithm.getfIdlePw()[node] + "/" + algorithm.getfTxPw()[node] + "/" +
+				algorithm.getfIsFogDevice()[node] + "/" + algorithm.getfNeighbors()[node].length + "/" +
+				incoming[node].length + "/" + Arrays.toString(possibleModules[node]);
+	}
+	
+	/**
+	 * Verifies whether swapping two nodes (with the same characteristics) leaves the problem unchanged.
+	 * 
+	 * @param u the index of the first node
+	 * @param v the index of the second node
+	 * @return true if both nodes are interchangeable, otherwise false
+	 */
+	private boolean isInterchangeable(final int u, final int v) {
+		if(currentNode[u] || currentNode[v]) return false;
+		
+		// The link between both nodes (if any) must be the same in both directions
+		if(!isSameLink(u, v, v, u)) return false;
+		
+		// The links towards all the other nodes must be the same
+		for(int w : algorithm.getfNeighbors()[u]) {
+			if(w != v && !isSameLink(u, w, v, w)) return false;
+		}
+		
+		for(int w : algorithm.getfNeighbors()[v]) {
+			if(w != u && !isSameLink(u, w, v, w)) return false;
+		}
+		
+		// The links from all the other nodes must be the same
+		for(int w : incoming[u]) {
+			if(w != v && !isSameLink(w, u, w, v)) return false;
+		}
+		
+		for(int w : incoming[v]) {
+			if(w != u && !isSameLink(w, u, w, v)) return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Verifies whether two links have the same latency and bandwidth (or whether both do not exist).
+	 * 
+	 * @param from1 the index of the node where the first link starts
+	 * @param to1 the index of the node where the first link ends
+	 * @param from2 the index of the node where the second link starts
+	 * @param to2 the index of the node where the second link ends
+	 * @return true if both links are the same, otherwise false
+	 */
+	private boolean isSameLink(final int from1, final int to1, final int from2, final int to2) {
+		return algorithm.getLinkLatency(from1, to1) == algorithm.getLinkLatency(from2, to2) &&
+				algorithm.getLinkBandwidth(from1, to1) == algorithm.getLinkBandwidth(from2, to2);
+	}
+	
+	/**
+	 * Finds the twins of each module. Each module is only compared with the first module of each group of twins.
+	 * 
+	 * @return the vector holding the index of the previous twin of each module; -1 if it has none
+	 */
+	private int[] findTwins() {
+		int nrModules = algorithm.getNumberOfModules();
+		Set<String> loops = new HashSet<String>();
+		List<List<Integer>> groups = new ArrayList<List<Integer>>();
+		int[] result = new int[nrModules];
+		
+		for(int i = 0; i < algorithm.getNumberOfLoops(); i++) {
+			loops.add(getLoopKey(i, -1, -1));
+		}
+		
+		for(int j = 0; j < nrModules; j++) {
+			result[j] = -1;
+			
+			if(!hasOnlySingleNodes(j)) continue;
+			
+			List<Integer> found = null;
+			for(List<Integer> group : groups) {
+				if(isTwin(group.get(0), j, loops)) {
+					found = group;
+					break;
+				}
+			}
+			
+			if(found == null) {
+				found = new ArrayList<Integer>();
+				groups.add(found);
+			}else {
+				result[j] = found.get(found.size() - 1);
+			}
+			
+			found.add(j);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Verifies whether none of the nodes where a given module can be deployed has interchangeable nodes.
+	 * 
+	 * @param module the module index
+	 * @return true if all of its nodes are unique, otherwise false
+	 */
+	private boolean hasOnlySingleNodes(final int module) {
+		for(int node : algorithm.getPossibleNodes(module)) {
+			if(classSize[node] != 1) return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Verifies whether swapping two modules leaves the problem unchanged.
+	 * 
+	 * @param m1 the index of the first module
+	 * @param m2 the index of the second module
+	 * @param loops the set holding the keys of all loops
+	 * @return true if both modules are twins, otherwise false
+	 */
+	private boolean isTwin(final int m1, final int m2, final Set<String> loops) {
+		if(algorithm.getmMips()[m1] != algorithm.getmMips()[m2]) return false;
+		if(algorithm.getmRam()[m1] != algorithm.getmRam()[m2]) return false;
+		if(algorithm.getmStrg()[m1] != algorithm.getmStrg()[m2]) return false;
+		if(algorithm.getmMigD()[m1] != algorithm.getmMigD()[m2]) return false;
+		if(algorithm.getmCPUIn()[m1] != algorithm.getmCPUIn()[m2]) return false;
+		if(!Arrays.equals(algorithm.getPossibleNodes(m1), algorithm.getPossibleNodes(m2))) return false;
+		
+		if(!algorithm.isFirstOptimization() && algorithm.getCurrentPlacement(m1) != algorithm.getCurrentPlacement(m2))
+			return false;
+		
+		// Both modules must have the same dependencies towards all the other modules (and none between them)
+		if(algorithm.getDependencyIndex(m1, m2) != -1 || algorithm.getDependencyIndex(m2, m1) != -1) return false;
+		
+		for(int x = 0; x < algorithm.getNumberOfModules(); x++) {
+			if(x == m1 || x == m2) continue;
+			if(!isSameDependency(algorithm.getDependencyIndex(m1, x), algorithm.getDependencyIndex(m2, x))) return false;
+			if(!isSameDependency(algorithm.getDependencyIndex(x, m1), algorithm.getDependencyIndex(x, m2))) return false;
+		}
+		
+		// Swapping both modules in any loop must result in another loop (with the same deadline and application)
+		for(int i = 0; i < algorithm.getNumberOfLoops(); i++) {
+			if(!loops.contains(getLoopKey(i, m1, m2))) return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Verifies whether two dependencies are the same (or whether both do not exist).
+	 * 
+	 * @param d1 the index of the first dependency; -1 if it does not exist
+	 * @param d2 the index of the second dependency; -1 if it does not exist
+	 * @return true if both dependencies are the same, otherwise false
+	 */
+	private boolean isSameDependency(final int d1, final int d2) {
+		if(d1 == -1 || d2 == -1) return d1 == d2;
+		
+		return algorithm.getdDependency()[d1] == algorithm.getdDependency()[d2] &&
+				algorithm.getdBandwidth()[d1] == algorithm.getdBandwidth()[d2] &&
+				algorithm.getdNW()[d1] == algorithm.getdNW()[d2] &&
+				algorithm.getdCPU()[d1] == algorithm.getdCPU()[d2];
+	}
+	
+	/**
+	 * Gets the key of a given loop after swapping two modules.
+	 * 
+	 * @param loop the loop index
+	 * @param m1 the index of the first module; -1 if there is no swap
+	 * @param m2 the index of the second module; -1 if there is no swap
+	 * @return the key of the loop
+	 */
+	private String getLoopKey(final int loop, final int m1, final int m2) {
+		StringBuilder key = new StringBuilder();
+		key.append(algorithm.getLoopsApplication()[loop]).append('/').append(algorithm.getLoopsDeadline()[loop]);
+		
+		for(int module : algorithm.getLoops()[loop]) {
+			if(module == -1) break;
+			key.append('/').append(module == m1 ? m2 : module == m2 ? m1 : module);
+		}
+		
+		return key.toString();
+	}
+	
+	/**
+	 * Converts lists of integers into arrays.
+	 * 
+	 * @param lists the lists of integers
+	 * @return the arrays
+	 */
+	private static int[][] toArrays(final List<List<Integer>> lists) {
+		int[][] result = new int[lists.size()][];
+		
+		for(int i = 0; i < result.length; i++) {
+			result[i] = new int[lists.get(i).size()];
+			
+			for(int k = 0; k < result[i].length; k++) {
+				result[i][k] = lists.get(i).get(k);
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Gets the interchangeable nodes of a given node which have a lower index.
+	 * 
+	 * @param node the node index
+	 * @return the interchangeable nodes with a lower index (sorted in ascending order)
+	 */
+	int[] getInterchangeableNodes(final int node) {
+		return interchangeableNodes[node];
+	}
+	
+	/**
+	 * Gets the previous twin of a given module (which must be deployed in a node with a lower or equal index).
+	 * 
+	 * @param module the module index
+	 * @return the index of the previous twin; -1 if it has none
+	 */
+	int getPreviousTwin(final int module) {
+		return previousTwin[module];
+	}
+	
+}
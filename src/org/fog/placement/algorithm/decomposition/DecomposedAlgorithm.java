@@ -0,0 +1,634 @@
+package org.fog.placement.algorithm.decomposition;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.fog.core.Config;
+import org.fog.core.FogComputingSim;
+import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Budget;
+import org.fog.placement.algorithm.Solution;
+import org.fog.placement.algorithm.SolutionAggregates;
+import org.fog.placement.algorithm.greedy.GreedyPlacement;
+
+/**
+ * Class which decomposes the problem into groups of applications which only share the resources of the nodes and links
+ * (i.e., there are no dependencies between them) and solves each group on its own thread, using the chosen optimization
+ * algorithm. Each group can only use the resources reserved for it. The reservations start proportional to the demand of
+ * each group and are adjusted in rounds: the resources which were not used by a group are given to the groups which did
+ * not find a valid solution or which used all their reservation. The solutions of all groups are merged into a single
+ * solution of the whole problem in each round, and the best one is returned.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class DecomposedAlgorithm extends Algorithm {
+	/** Fraction of its reservation above which a group is considered to need more resources */
+	private static final double FULL_RESERVATION = 0.99;
+	
+	/** Relative change of the reservations below which the rounds stop */
+	private static final double MIN_RESERVATION_CHANGE = 0.01;
+	
+	/** Constructor of the chosen optimization algorithm which creates a sub-problem */
+	private final Constructor<? extends Algorithm> constructor;
+	
+	/** Name of the chosen optimization algorithm */
+	private final String algorithmName;
+	
+	/** Modules of each group (in increasing order) */
+	private int[][] groups;
+	
+	/** Index of each dependency of each group within the whole problem */
+	private int[][] groupDependencies;
+	
+	/** Sub-problem of each group */
+	private Algorithm[] subproblems;
+	
+	/** Last solution of each group; null if it did not find any valid solution */
+	private Solution[] subsolutions;
+	
+	/** Whether some loop of each group violates its deadline in the last merged solution */
+	private boolean[] violated;
+	
+	/** Resources of each node reserved for each group */
+	private double[][] mipsReservation, ramReservation, strgReservation;
+	
+	/** Bandwidth of each link reserved for each group (adjacency lists) */
+	private double[][][] bandwidthReservation;
+	
+	/** Number of rounds of the last execution */
+	private int nrRounds;
+	
+	/**
+	 * Creates a new decomposed algorithm for the problem held by a given optimization algorithm. The chosen optimization
+	 * algorithm must be able to create sub-problems (i.e., it must have a constructor which receives the whole problem and
+	 * the modules of the sub-problem).
+	 * 
+	 * @param algorithm the chosen optimization algorithm (it holds the whole problem)
+	 */
+	public DecomposedAlgorithm(final Algorithm algorithm) {
+		super(algorithm, allModules(algorithm));
+		
+		Constructor<? extends Algorithm> subConstructor = null;
+		try {
+			subConstructor = algorithm.getClass().getConstructor(Algorithm.class, int[].class);
+		}catch (NoSuchMethodException e) {
+			FogComputingSim.err("The " + algorithm.getClass().getSimpleName() + " cannot be decomposed");
+		}
+		
+		constructor = subConstructor;
+		algorithmName = algorithm.getClass().getSimpleName();
+	}
+	
+	/**
+	 * Executes the chosen optimization algorithm over each group until the reservations converge (or the maximum number
+	 * of rounds is reached or the budget is exhausted).
+	 * 
+	 * @param budget the budget of the execution (its wall time is split among the rounds)
+	 * @return the best merged solution; can be null
+	 */
+	@Override
+	public Solution execute(Budget budget) {
+		startBudget(budget);
+		
+		// Time at the beginning of the execution of the algorithm
+		long start = System.currentTimeMillis();
+		
+		// Both the shortest paths and the path catalog are shared by all sub-problems
+		getShortestPaths();
+		getPathCatalog();
+		
+		computeGroups();
+		createSubproblems();
+		computeInitialReservations();
+		
+		Solution bestSolution = null;
+		for(nrRounds = 0; nrRounds < Config.MAX_ROUNDS_DECOMPOSITION && !budget.isExhausted(bestSolution);) {
+			long roundTime = Long.MAX_VALUE;
+			if(budget.getMaxTime() != Long.MAX_VALUE)
+				roundTime = (budget.getMaxTime() - budget.getElapsedTime())/(Config.MAX_ROUNDS_DECOMPOSITION - nrRounds);
+			
+			solveGroups(roundTime);
+			
+			Solution solution = merge();
+			checkDeadlines(solution);
+			bestSolution = Solution.checkBestSolution(this, solution, bestSolution, nrRounds++);
+			
+			if(!updateReservations()) break;
+		}
+		
+		// Time at the end of the execution of the algorithm
+		long finish = System.currentTimeMillis();
+		
+		setElapsedTime(finish - start);
+		
+		return bestSolution;
+	}
+	
+	/**
+	 * Computes the groups of modules. The connected components of the dependency graph are packed into at most one group
+	 * per thread, balancing their number of modules (the largest components are assigned first to the smallest group).
+	 */
+	private void computeGroups() {
+		int nrModules = getNumberOfModules();
+		
+		// Union-find over the dependencies
+		int[] parent = new int[nrModules];
+		for(int i = 0; i < nrModules; i++) {
+			parent[i] = i;
+		}
+		
+		for(int i = 0; i < getNumberOfDependencies(); i++) {
+			int root1 = find(parent, getStartModDependency(i));
+			int root2 = find(parent, getFinalModDependency(i));
+			if(root1 != root2) parent[root1] = root2;
+		}
+		
+		final int[] componentSize = new int[nrModules];
+		int nrComponents = 0;
+		for(int i = 0; i < nrModules; i++) {
+			if(componentSize[find(parent, i)]++ == 0)
+				nrComponents++;
+		}
+		
+		Integer[] components = new Integer[nrComponents];
+		for(int i = 0, k = 0; i < nrModules; i++) {
+			if(parent[i] == i)
+				components[k++] = i;
+		}
+		
+		Arrays.sort(components, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer c1, Integer c2) {
+				return Integer.compare(componentSize[c2], componentSize[c1]);
+			}
+		});
+		
+		int nrGroups = Math.max(1, Math.min(Config.NR_THREADS_DECOMPOSITION, nrComponents));
+		int[] groupSize = new int[nrGroups];
+		int[] componentGroup = new int[nrModules];
+		
+		for(int component : components) {
+			int group = 0;
+			for(int g = 1; g < nrGroups; g++) {
+				if(groupSize[g] < groupSize[group])
+					group = g;
+			}
+			
+			componentGroup[component] = group;
+			groupSize[group] += componentSize[component];
+		}
+		
+		groups = new int[nrGroups][];
+		for(int g = 0; g < nrGroups; g++) {
+			groups[g] = new int[groupSize[g]];
+			groupSize[g] = 0;
+		}
+		
+		for(int i = 0; i < nrModules; i++) {
+			int group = componentGroup[find(parent, i)];
+			groups[group][groupSize[group]++] = i;
+		}
+	}
+	
+	/**
+	 * Finds the root of the component of a given module (with path halving).
+	 * 
+	 * @param parent the parent of each module
+	 * @param module the index of the module
+	 * @return the index of the root module
+	 */
+	private static int find(final int[] parent, int module) {
+		while(parent[module] != module) {
+			parent[module] = parent[parent[module]];
+			module = parent[module];
+		}
+		
+		return module;
+	}
+	
+	/**
+	 * Creates the sub-problem of each group (with the same current placement and the same seed solution).
+	 */
+	private void createSubproblems() {
+		subproblems = new Algorithm[groups.length];
+		subsolutions = new Solution[groups.length];
+		violated = new boolean[groups.length];
+		groupDependencies = new int[groups.length][];
+		
+		for(int g = 0; g < groups.length; g++) {
+			try {
+				subproblems[g] = constructor.newInstance(this, groups[g]);
+			}catch (Exception e) {
+				throw new IllegalStateException("Could not create the sub-problems of the " + algorithmName, e);
+			}
+			
+			Algorithm subproblem = subproblems[g];
+			groupDependencies[g] = new int[subproblem.getNumberOfDependencies()];
+			
+			for(int i = 0; i < subproblem.getNumberOfDependencies(); i++) {
+				int start = groups[g][subproblem.getStartModDependency(i)];
+				int end = groups[g][subproblem.getFinalModDependency(i)];
+				groupDependencies[g][i] = getDependencyIndex(start, end);
+			}
+			
+			if(getSeedSolution() != null)
+				subproblem.setSeedSolution(split(getSeedSolution(), g));
+		}
+	}
+	
+	/**
+	 * Computes the initial reservations. The resources of each node are split among the groups which can use it, in
+	 * proportion to their demand (the bandwidth of each link is split among the groups which can use both of its nodes).
+	 */
+	private void computeInitialReservations() {
+		int nrGroups = groups.length;
+		int nrNodes = getNumberOfNodes();
+		
+		mipsReservation = new double[nrGroups][nrNodes];
+		ramReservation = new double[nrGroups][nrNodes];
+		strgReservation = new double[nrGroups][nrNodes];
+		bandwidthReservation = new double[nrGroups][nrNodes][];
+		
+		double[][] mipsDemand = new double[nrGroups][nrNodes];
+		double[][] ramDemand = new double[nrGroups][nrNodes];
+		double[][] strgDemand = new double[nrGroups][nrNodes];
+		double[] bandwidthDemand = new double[nrGroups];
+		boolean[][] usable = new boolean[nrGroups][nrNodes];
+		
+		for(int g = 0; g < nrGroups; g++) {
+			for(int module : groups[g]) {
+				for(int node : getPossibleNodes(module)) {
+					mipsDemand[g][node] += getmMips()[module] + Double.MIN_NORMAL;
+					ramDemand[g][node] += getmRam()[module] + Double.MIN_NORMAL;
+					strgDemand[g][node] += getmStrg()[module] + Double.MIN_NORMAL;
+					usable[g][node] = true;
+				}
+			}
+			
+			bandwidthDemand[g] = Double.MIN_NORMAL;
+			for(int dependency : groupDependencies[g]) {
+				bandwidthDemand[g] += getdBandwidth()[dependency];
+			}
+		}
+		
+		for(int i = 0; i < nrNodes; i++) {
+			split(getfMips()[i], mipsDemand, i, mipsReservation);
+			split(getfRam()[i], ramDemand, i, ramReservation);
+			split(getfStrg()[i], strgDemand, i, strgReservation);
+			
+			for(int g = 0; g < nrGroups; g++) {
+				bandwidthReservation[g][i] = new double[getfNeighbors()[i].length];
+			}
+			
+			for(int j = 0; j < getfNeighbors()[i].length; j++) {
+				int neighbor = getfNeighbors()[i][j];
+				
+				// Links which no group can use at both ends (e.g., the ones of routers) are split among all groups
+				double[] linkDemand = new double[nrGroups];
+				for(int g = 0; g < nrGroups; g++) {
+					linkDemand[g] = usable[g][i] && usable[g][neighbor] ? bandwidthDemand[g] : 0;
+				}
+				
+				if(sum(linkDemand) == 0)
+					linkDemand = bandwidthDemand;
+				
+				double totalDemand = sum(linkDemand);
+				for(int g = 0; g < nrGroups; g++) {
+					bandwidthReservation[g][i][j] = getfNeighborBandwidth()[i][j]*linkDemand[g]/totalDemand;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Computes the sum of the given values.
+	 * 
+	 * @param values the values
+	 * @return the sum of the values
+	 */
+	private static double sum(final double[] values) {
+		double sum = 0;
+		for(double value : values) {
+			sum += value;
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Splits the capacity of a node among the groups in proportion to their demand for that node.
+	 * 
+	 * @param capacity the capacity of the node
+	 * @param demand the demand of each group for each node
+	 * @param node the index of the node
+	 * @param reservation the reservation of each group for each node
+	 */
+	private static void split(final double capacity, final double[][] demand, final int node, final double[][] reservation) {
+		double totalDemand = 0;
+		for(double[] groupDemand : demand) {
+			totalDemand += groupDemand[node];
+		}
+		
+		for(int g = 0; g < demand.length; g++) {
+			reservation[g][node] = totalDemand != 0 ? capacity*demand[g][node]/totalDemand : 0;
+		}
+	}
+	
+	/**
+	 * Solves each group within its reservation, using up to NR_THREADS_DECOMPOSITION threads. Each group starts from its
+	 * last solution (if any). The evaluations of all groups are counted within the budget of the whole execution.
+	 * 
+	 * @param roundTime the maximum wall time of the round (in milliseconds); Long.MAX_VALUE if unlimited
+	 */
+	private void solveGroups(final long roundTime) {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(groups.length, Config.NR_THREADS_DECOMPOSITION)));
+		List<Future<Solution>> futures = new ArrayList<Future<Solution>>();
+		
+		try {
+			for(int g = 0; g < groups.length; g++) {
+				final Algorithm subproblem = subproblems[g];
+				subproblem.setCapacities(mipsReservation[g], ramReservation[g], strgReservation[g], bandwidthReservation[g]);
+				
+				if(subsolutions[g] != null)
+					subproblem.setSeedSolution(subsolutions[g]);
+				
+				// The solutions of a group only cover its modules, thus the listener is only notified of the merged ones
+				final Budget budget = getBudget().createChild(roundTime);
+				budget.setListener(null);
+				
+				futures.add(executor.submit(new Callable<Solution>() {
+					@Override
+					public Solution call() {
+						return subproblem.execute(budget);
+					}
+				}));
+			}
+			
+			for(int g = 0; g < groups.length; g++) {
+				Solution solution = futures.get(g).get();
+				subsolutions[g] = solution != null && solution.isValid() ? solution : null;
+			}
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Decomposed " + algorithmName + " was interrupted", e);
+		}catch (ExecutionException e) {
+			throw new IllegalStateException("Decomposed " + algorithmName + " has failed", e.getCause());
+		}finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Merges the last solution of each group into a solution of the whole problem. The groups which did not find any valid
+	 * solution use the greedy one (see GreedyPlacement).
+	 * 
+	 * @return the merged solution (already evaluated)
+	 */
+	private Solution merge() {
+		int nrNodes = getNumberOfNodes();
+		int[] modulePlacement = new int[getNumberOfModules()];
+		int[][] tupleRoutingMap = new int[getNumberOfDependencies()][];
+		int[][] migrationRoutingMap = new int[getNumberOfModules()][];
+		
+		for(int g = 0; g < groups.length; g++) {
+			Solution solution = subsolutions[g] != null ? subsolutions[g] : new GreedyPlacement(subproblems[g]).build();
+			
+			for(int i = 0; i < groups[g].length; i++) {
+				modulePlacement[groups[g][i]] = solution.getModulePlacement()[i];
+				migrationRoutingMap[groups[g][i]] = solution.getMigrationRoutingMap()[i];
+			}
+			
+			for(int i = 0; i < groupDependencies[g].length; i++) {
+				tupleRoutingMap[groupDependencies[g][i]] = solution.getTupleRoutingMap()[i];
+			}
+		}
+		
+		// Dependencies between groups do not exist by construction, but the routing map must be complete
+		for(int i = 0; i < tupleRoutingMap.length; i++) {
+			if(tupleRoutingMap[i] == null)
+				tupleRoutingMap[i] = new int[nrNodes];
+		}
+		
+		return new Solution(this, modulePlacement, tupleRoutingMap, migrationRoutingMap);
+	}
+	
+	/**
+	 * Verifies which groups have some loop which violates its deadline in the merged solution. The groups share the nodes
+	 * and links, thus a loop can violate its deadline only after merging (e.g., due to the processing load of other groups).
+	 * 
+	 * @param solution the merged solution
+	 */
+	private void checkDeadlines(final Solution solution) {
+		Arrays.fill(violated, false);
+		
+		for(int i = 0; i < getNumberOfLoops(); i++) {
+			if(solution.getLoopDeadline(i) <= getLoopsDeadline()[i]) continue;
+			
+			// All modules of a loop belong to the same group
+			int module = getLoops()[i][0];
+			for(int g = 0; g < groups.length; g++) {
+				if(Arrays.binarySearch(groups[g], module) >= 0)
+					violated[g] = true;
+			}
+		}
+	}
+	
+	/**
+	 * Splits a solution of the whole problem into the solution of the sub-problem of a given group.
+	 * 
+	 * @param solution the solution of the whole problem
+	 * @param group the index of the group
+	 * @return the solution of the sub-problem (already evaluated)
+	 */
+	private Solution split(final Solution solution, final int group) {
+		int[] modules = groups[group];
+		int[] modulePlacement = new int[modules.length];
+		int[][] tupleRoutingMap = new int[groupDependencies[group].length][];
+		int[][] migrationRoutingMap = new int[modules.length][];
+		
+		for(int i = 0; i < modules.length; i++) {
+			modulePlacement[i] = solution.getModulePlacement()[modules[i]];
+			migrationRoutingMap[i] = solution.getMigrationRoutingMap()[modules[i]];
+		}
+		
+		for(int i = 0; i < tupleRoutingMap.length; i++) {
+			tupleRoutingMap[i] = solution.getTupleRoutingMap()[groupDependencies[group][i]];
+		}
+		
+		return new Solution(subproblems[group], modulePlacement, tupleRoutingMap, migrationRoutingMap);
+	}
+	
+	/**
+	 * Adjusts the reservations of each group. Each group keeps the resources it used (and half of the ones it did not use,
+	 * to avoid oscillations); the remaining ones are given to the groups which need more (i.e., which did not find any valid
+	 * solution, whose solution violates some deadline or which used almost all their reservation).
+	 * 
+	 * @return true if some group needs more resources and the reservations have changed, otherwise false
+	 */
+	private boolean updateReservations() {
+		int nrGroups = groups.length;
+		int nrNodes = getNumberOfNodes();
+		
+		SolutionAggregates[] aggregates = new SolutionAggregates[nrGroups];
+		for(int g = 0; g < nrGroups; g++) {
+			if(isSatisfied(g))
+				aggregates[g] = new SolutionAggregates(subproblems[g], subsolutions[g]);
+		}
+		
+		double change = 0;
+		double[] used = new double[nrGroups];
+		
+		for(int i = 0; i < nrNodes; i++) {
+			for(int g = 0; g < nrGroups; g++) {
+				used[g] = aggregates[g] != null ? aggregates[g].getNodeMips(i) : mipsReservation[g][i];
+			}
+			change = Math.max(change, reassign(getfMips()[i], used, mipsReservation, i));
+			
+			for(int g = 0; g < nrGroups; g++) {
+				used[g] = aggregates[g] != null ? aggregates[g].getNodeRam(i) : ramReservation[g][i];
+			}
+			change = Math.max(change, reassign(getfRam()[i], used, ramReservation, i));
+			
+			for(int g = 0; g < nrGroups; g++) {
+				used[g] = aggregates[g] != null ? aggregates[g].getNodeStrg(i) : strgReservation[g][i];
+			}
+			change = Math.max(change, reassign(getfStrg()[i], used, strgReservation, i));
+			
+			for(int j = 0; j < getfNeighbors()[i].length; j++) {
+				double[][] reservation = new double[nrGroups][];
+				
+				for(int g = 0; g < nrGroups; g++) {
+					used[g] = aggregates[g] != null ? aggregates[g].getLinkBandwidth()[i][j] : bandwidthReservation[g][i][j];
+					reservation[g] = bandwidthReservation[g][i];
+				}
+				
+				change = Math.max(change, reassign(getfNeighborBandwidth()[i][j], used, reservation, j));
+			}
+		}
+		
+		return change > MIN_RESERVATION_CHANGE;
+	}
+	
+	/**
+	 * Reassigns the capacity of a given resource among the groups (see updateReservations).
+	 * 
+	 * @param capacity the capacity of the resource
+	 * @param used the amount used by each group (its reservation if it is not satisfied)
+	 * @param reservation the reservations of each group
+	 * @param index the index of the resource within the reservations of each group
+	 * @return the largest change of the reservations relative to the capacity; 0 if no group needs more of the resource
+	 */
+	private double reassign(final double capacity, final double[] used, final double[][] reservation, final int index) {
+		int nrGroups = used.length;
+		double free = capacity;
+		double needed = 0;
+		
+		for(int g = 0; g < nrGroups; g++) {
+			free -= kept(used[g], reservation[g][index]);
+			
+			if(needsMore(g, used[g], reservation[g][index]))
+				needed += reservation[g][index];
+		}
+		
+		if(needed == 0 || capacity == 0) return 0;
+		
+		double change = 0;
+		for(int g = 0; g < nrGroups; g++) {
+			double previous = reservation[g][index];
+			double share = needsMore(g, used[g], previous) ? previous/needed : 0;
+			
+			reservation[g][index] = kept(used[g], previous) + Math.max(0, free)*share;
+			change = Math.max(change, Math.abs(reservation[g][index] - previous)/capacity);
+		}
+		
+		return change;
+	}
+	
+	/**
+	 * Gets the amount of a resource which a group keeps for the next round (the amount it used and half of the remaining
+	 * reservation).
+	 * 
+	 * @param used the amount used by the group
+	 * @param reservation the reservation of the group
+	 * @return the amount kept
+	 */
+	private static double kept(final double used, final double reservation) {
+		double kept = Math.min(used, reservation);
+		return kept + (reservation - kept)/2;
+	}
+	
+	/**
+	 * Verifies whether a given group needs more of a given resource.
+	 * 
+	 * @param group the index of the group
+	 * @param used the amount used by the group
+	 * @param reservation the reservation of the group
+	 * @return true if it needs, otherwise false
+	 */
+	private boolean needsMore(final int group, final double used, final double reservation) {
+		return reservation > 0 && (!isSatisfied(group) || used >= FULL_RESERVATION*reservation);
+	}
+	
+	/**
+	 * Verifies whether a given group is satisfied with its reservation (i.e., its last solution is valid and respects all
+	 * deadlines, both alone and within the merged solution).
+	 * 
+	 * @param group the index of the group
+	 * @return true if it is satisfied, otherwise false
+	 */
+	private boolean isSatisfied(final int group) {
+		return subsolutions[group] != null && subsolutions[group].getDetailedCost(Config.QOS_COST) == 0 && !violated[group];
+	}
+	
+	/**
+	 * Gets the indexes of all modules of a given problem.
+	 * 
+	 * @param algorithm the object which holds the problem
+	 * @return the indexes of all modules
+	 */
+	private static int[] allModules(final Algorithm algorithm) {
+		int[] modules = new int[algorithm.getNumberOfModules()];
+		for(int i = 0; i < modules.length; i++) {
+			modules[i] = i;
+		}
+		
+		return modules;
+	}
+	
+	/**
+	 * Gets the number of groups of the last execution.
+	 * 
+	 * @return the number of groups
+	 */
+	public int getNumberOfGroups() {
+		return groups != null ? groups.length : 0;
+	}
+	
+	/**
+	 * Gets the sub-problem of each group of the last execution (i.e., the chosen optimization algorithm which solved it).
+	 * 
+	 * @return the sub-problems; empty if it was not executed yet
+	 */
+	public Algorithm[] getSubproblems() {
+		return subproblems != null ? subproblems : new Algorithm[0];
+	}
+	
+	/**
+	 * Gets the number of rounds of the last execution.
+	 * 
+	 * @return the number of rounds
+	 */
+	public int getNrRounds() {
+		return nrRounds;
+	}
+	
+}
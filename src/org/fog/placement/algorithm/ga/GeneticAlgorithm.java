@@ -1,8 +1,11 @@
 package org.fog.placement.algorithm.ga;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.fog.application.Application;
 import org.fog.core.Config;
@@ -10,10 +13,15 @@ import org.fog.entities.Actuator;
 import org.fog.entities.FogDevice;
 import org.fog.entities.Sensor;
 import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Budget;
+import org.fog.placement.algorithm.CostFunction;
 import org.fog.placement.algorithm.Solution;
+import org.fog.placement.algorithm.util.routing.RoutingHeuristic;
 
 /**
- * Class in which defines and executes the multiple objective genetic algorithm.
+ * Class in which defines and executes the multiple objective genetic algorithm. All populations are preallocated and
+ * double-buffered (each generation is written into the buffers of the previous one), thus, in steady state, a generation
+ * does not allocate new individuals nor tables.
  * 
  * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST)
  * @since  July, 2019
@@ -35,25 +43,56 @@ public class GeneticAlgorithm extends Algorithm {
 	/** Time at the end of the execution of the algorithm */
 	private long finish;
 	
+	/** Random number generator of the main thread (the islands and routing tasks use their own generators seeded by this one) */
+	private Random random;
+	
+	/** Pool of threads which solves the routing of the individuals and evolves the islands */
+	private ForkJoinPool pool;
+	
+	/** Seed solution repaired for the current topology (warm start); null if the populations are fully random */
+	private Solution seed;
+	
 	public GeneticAlgorithm(final List<FogDevice> fogDevices, final List<Application> applications,
 			final List<Sensor> sensors, final List<Actuator> actuators) {
 		super(fogDevices, applications, sensors, actuators);
 	}
 	
+	public GeneticAlgorithm(final Algorithm problem, final int[] modules) {
+		super(problem, modules);
+	}
+	
 	@Override
-	public Solution execute() {
+	public Solution execute(Budget budget) {
 		iteration = 0;
 		bestSolution = null;
-		getValueIterMap().clear();
+		startBudget(budget);
 		
 		// Time at the beginning of the execution of the algorithm
 		start = System.currentTimeMillis();
 		
-		// Generate the Dijkstra graph
-		generateDijkstraGraph();
+		// Compute the shortest paths between any two nodes (only if the topology has changed)
+		getShortestPaths();
+		
+		// Build the catalog of the k shortest paths between any two nodes (only if the topology has changed) (the catalog itself can then be shared by the routing tasks)
+		if(Config.PATH_CATALOG_ROUTING)
+			getPathCatalog();
+		
+		// In deterministic mode the results only depend on the seed (each task seed is drawn in the main thread)
+		random = Config.DETERMINISTIC_GA ? new Random(Config.SEED_GA) : new Random();
+		pool = new ForkJoinPool(Math.max(1, Config.NR_THREADS_GA));
+		
+		// Part of the population starts from the previous solution (repaired for the current topology)
+		seed = getSeedSolution() != null ? Solution.generateSeedSolution(this, getSeedSolution(), random) : null;
 		
 		// Solve the problem
-		solveModulePlacement();
+		try {
+			if(Config.NR_ISLANDS_GA > 1)
+				solveModulePlacementIslands();
+			else
+				solveModulePlacement();
+		}finally {
+			pool.shutdown();
+		}
 	    
 	    // Time at the end of the execution of the algorithm
  		finish = System.currentTimeMillis();
@@ -62,63 +101,45 @@ public class GeneticAlgorithm extends Algorithm {
  		
  		return bestSolution;
 	}
-			
+
 	/**
 	 * Solves the module placement map.
 	 */
 	private void solveModulePlacement() {
+		int maxConvergenceIter = getMaxConvergenceIter();
 		int convergenceIter = 0;
 		int generation = 0;
-		Individual[] population = new Individual[Config.POPULATION_SIZE_GA_PLACEMENT];
 		
-		// Generate an initial population with random module placements
-	    for(int i = 0; i < Config.POPULATION_SIZE_GA_PLACEMENT; i++){
-	    	population[i] = new Individual(this, new Solution(this, Solution.generateRandomPlacement(this, getNumberOfNodes(), getNumberOfModules())));
-	    }
+		// The single population uses the generator of the main thread and solves the routing in parallel
+		Island island = new Island(random);
 	    
 	    while (generation <= Config.MAX_ITER_PLACEMENT_GA) {
 	    	// Solve both tuple and virtual machine migration routing tables
-	    	population = GARouting(population);
+	    	iteration += island.solveRouting(true);
 	    	
 	    	// Sort the array based on its value (ascending order)
-	    	Arrays.sort(population);
+	    	Arrays.sort(island.population);
 	    	
-	    	Solution prevBestSolution = null;
-			if(bestSolution != null) prevBestSolution = new Solution(this, bestSolution);
+	    	// The best solution is never changed in place (a new copy is created when it is replaced)
+	    	Solution prevBestSolution = bestSolution;
 			
 			// Check whether the new individual is the new best solution
-    		bestSolution = Solution.checkBestSolution(this, population[0].getChromosome(), bestSolution, iteration);
-			
+    		bestSolution = Solution.checkBestSolution(this, island.population[0].getChromosome(), bestSolution, iteration);
+	    	
 	    	// Check the convergence error
     		if(Solution.checkConvergence(prevBestSolution, bestSolution)) {
     			convergenceIter++;
     			
     			// If it found the same (or similar) solution a given number of times in a row break the loop
-				if(convergenceIter == Config.MAX_ITER_PLACEMENT_CONVERGENCE_GA) break;
+				if(convergenceIter == maxConvergenceIter) break;
 			}else
     			convergenceIter = 0;
-	  
-	        // Otherwise generate new offsprings for new generation
-	        Individual[] newGeneration = new Individual[Config.POPULATION_SIZE_GA_PLACEMENT];
-	        
-	        // Copy 10% of the fittest individuals to the next generation
-	        for(int i = 0; i < FITTEST_PLACEMENT; i++) {
-	        	newGeneration[i] = new Individual(this, new Solution(this, population[i].getChromosome().getModulePlacementMap()));
-	        }
-	        
-	        // From 50% of fittest population, individuals will mate to produce offspring
-	        for(int i = FITTEST_PLACEMENT; i < Config.POPULATION_SIZE_GA_PLACEMENT; i++) {
-	        	int r1 = new Random().nextInt((int) (Config.POPULATION_SIZE_GA_PLACEMENT*0.5));
-	        	int r2 = new Random().nextInt((int) (Config.POPULATION_SIZE_GA_PLACEMENT*0.5));
-	        	
-	        	// Create the new individual
-	        	newGeneration[i] = new Individual(this, new Solution(this, population[r1].matePlacement(population[r2])));
-	        }
+    		
+    		// If the budget is exhausted break the loop (the best solution found so far is returned)
+    		if(getBudget().isExhausted(bestSolution)) break;
 	        
-	        // Set the current generation's population
-	        for(int i = 0; i < Config.POPULATION_SIZE_GA_PLACEMENT; i++) {
-	        	population[i] = newGeneration[i];
-	        }
+	        // Otherwise generate new offsprings for new generation
+	        island.breed();
 	        
 	        // Increments the generation for the module placement map
 	        generation++;
@@ -126,125 +147,523 @@ public class GeneticAlgorithm extends Algorithm {
 	}
 	
 	/**
-	 * Solves both the tuple and virtual machine migration routing maps.
+	 * Solves the module placement map through the island model. Each island evolves its own population (in parallel and
+	 * with its own random number generator) and, after a given number of generations, sends its best individuals to the
+	 * next island (ring topology). The convergence is verified over the best solution of all islands.
+	 */
+	private void solveModulePlacementIslands() {
+		int maxConvergenceIter = getMaxConvergenceIter();
+		int convergenceIter = 0;
+		int generation = 0;
+		List<Island> islands = new ArrayList<Island>();
+		
+		// Seeds are drawn in order, thus the results do not depend on the number of threads
+		for(int i = 0; i < Config.NR_ISLANDS_GA; i++) {
+			islands.add(new Island(new Random(random.nextLong())));
+		}
+		
+		Batch batch = new Batch(islands);
+		
+		while (generation <= Config.MAX_ITER_PLACEMENT_GA) {
+			int epochLength = Math.min(Math.max(1, Config.MIGRATION_INTERVAL_GA), Config.MAX_ITER_PLACEMENT_GA - generation + 1);
+			
+			// Evolve all islands for a given number of generations
+			for(Island island : islands) {
+				island.epochLength = epochLength;
+			}
+			
+			runBatch(batch);
+			
+			for(Island island : islands) {
+				iteration += island.generations;
+			}
+			
+			// The best solution is never changed in place (a new copy is created when it is replaced)
+			Solution prevBestSolution = bestSolution;
+			
+			// Check whether the best individual of any island is the new best solution
+			for(Island island : islands) {
+				bestSolution = Solution.checkBestSolution(this, island.population[0].getChromosome(), bestSolution, iteration);
+			}
+			
+			// Check the convergence error
+			if(Solution.checkConvergence(prevBestSolution, bestSolution)) {
+				convergenceIter += epochLength;
+				
+				// If it found the same (or similar) solution a given number of times in a row break the loop
+				if(convergenceIter >= maxConvergenceIter) break;
+			}else
+				convergenceIter = 0;
+			
+			// If the budget is exhausted break the loop (the best solution found so far is returned)
+			if(getBudget().isExhausted(bestSolution)) break;
+			
+			// Otherwise exchange the best individuals among the islands
+			migrate(islands);
+			
+			// Increments the generation for the module placement map
+			generation += epochLength;
+		}
+	}
+	
+	/**
+	 * Gets the number of generations in a row without improvement after which the algorithm stops. When it starts from
+	 * a seed solution, the best solution is expected to be close from the beginning, thus it stops earlier.
+	 * 
+	 * @return the maximum number of generations without improvement
+	 */
+	private int getMaxConvergenceIter() {
+		return seed != null ? Config.MAX_ITER_PLACEMENT_CONVERGENCE_WARM_GA : Config.MAX_ITER_PLACEMENT_CONVERGENCE_GA;
+	}
+	
+	/**
+	 * Sends the best individuals of each island to the next one (ring topology). The received individuals are copied into
+	 * the worst ones of the receiving island.
+	 * 
+	 * @param islands the list of islands
+	 */
+	private void migrate(final List<Island> islands) {
+		int nrMigrants = Math.min(Config.NR_MIGRANTS_GA, Config.POPULATION_SIZE_GA_PLACEMENT/2);
+		if(nrMigrants <= 0) return;
+		
+		// The best and the worst individuals never overlap, thus all islands are sorted only after all exchanges
+		for(int i = 0; i < islands.size(); i++) {
+			Individual[] from = islands.get(i).population;
+			Individual[] to = islands.get((i + 1) % islands.size()).population;
+			
+			for(int j = 0; j < nrMigrants; j++) {
+				to[Config.POPULATION_SIZE_GA_PLACEMENT - 1 - j].getChromosome().copyFrom(from[j].getChromosome());
+			}
+		}
+		
+		for(Island island : islands) {
+			Arrays.sort(island.population);
+		}
+	}
+	
+	/**
+	 * Runs all the tasks of a given batch within the pool of threads and waits for them to finish.
 	 * 
-	 * @param population the population containing only the module placement map
-	 * @return the population containing the whole solution (module placement map, and tuple and virtual machine migration routing maps)
+	 * @param batch the batch of tasks
+	 */
+	private void runBatch(final Batch batch) {
+		batch.reinitialize();
+		pool.invoke(batch);
+	}
+	
+	/**
+	 * Verifies whether resources are exceeded in any node for a given module placement.
+	 * 
+	 * @param modulePlacement the current module placement vector
+	 * @param nodeMips the buffer used to sum the MIPS used in each node
+	 * @param nodeRam the buffer used to sum the RAM used in each node
+	 * @param nodeStrg the buffer used to sum the storage used in each node
+	 * @return true if its resources are being exceeded. 0, otherwise
+	 */
+	private boolean checkResourcesExceeded(final int[] modulePlacement, final double[] nodeMips, final double[] nodeRam,
+			final double[] nodeStrg) {
+		Arrays.fill(nodeMips, 0);
+		Arrays.fill(nodeRam, 0);
+		Arrays.fill(nodeStrg, 0);
+		
+		for(int j = 0; j < getNumberOfModules(); j++) {
+			nodeMips[modulePlacement[j]] += getmMips()[j];
+			nodeRam[modulePlacement[j]] += getmRam()[j];
+			nodeStrg[modulePlacement[j]] += getmStrg()[j];
+		}
+		
+		for(int i = 0; i < getNumberOfNodes(); i++) {
+			if(nodeMips[i] > getfMips()[i] * Config.MIPS_PERCENTAGE_UTIL) return true;
+			if(nodeRam[i] > getfRam()[i] * Config.MEM_PERCENTAGE_UTIL) return true;
+			if(nodeStrg[i] > getfStrg()[i] * Config.STRG_PERCENTAGE_UTIL) return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Class representing a population of module placement maps (the whole population in the single population model
+	 * or an island in the island model).
+	 */
+	private class Island extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		/** Random number generator of the population */
+		private final Random random;
+		
+		/** Current population (sorted by its value after its routing is solved) */
+		private Individual[] population;
+		
+		/** Buffer which receives the next generation */
+		private Individual[] offspring;
+		
+		/** Tasks which solve the routing of each individual (one per position within the population) */
+		private final List<RoutingTask> routingTasks;
+		
+		/** Batch used to solve the routing of all individuals in parallel */
+		private final Batch routingBatch;
+		
+		/** Defines whether the population has already been evaluated (routing solved and sorted) */
+		private boolean evaluated;
+		
+		/** Number of module placement generations to be performed in the next epoch */
+		private int epochLength;
+		
+		/** Number of routing generations performed in the last epoch */
+		private int generations;
+		
+		/** Defines whether the first individual still holds the routing of the seed solution (which is kept) */
+		private boolean seedRouting;
+		
+		/**
+		 * Creates a population with random module placements and allocates all its buffers. In a warm start, part of the
+		 * population holds the seed solution: the first individual is an exact copy and the others are mutated copies of
+		 * its module placement.
+		 * 
+		 * @param random the random number generator of the population
+		 */
+		Island(final Random random) {
+			this.random = random;
+			
+			population = new Individual[Config.POPULATION_SIZE_GA_PLACEMENT];
+			offspring = new Individual[Config.POPULATION_SIZE_GA_PLACEMENT];
+			routingTasks = new ArrayList<RoutingTask>(Config.POPULATION_SIZE_GA_PLACEMENT);
+			
+			int nrSeeded = seed != null ? Math.max(1, (int) (Config.POPULATION_SIZE_GA_PLACEMENT*Config.SEED_FRACTION_GA)) : 0;
+			seedRouting = nrSeeded > 0;
+			
+			for(int i = 0; i < Config.POPULATION_SIZE_GA_PLACEMENT; i++) {
+				if(i == 0 && seedRouting) {
+					population[i] = new Individual(GeneticAlgorithm.this, new Solution(GeneticAlgorithm.this, seed));
+				}else {
+					int[] modulePlacement;
+					
+					if(i < nrSeeded)
+						modulePlacement = mutatePlacement(seed.getModulePlacement(), 0.1f);
+					else
+						modulePlacement = Solution.generateRandomPlacement(GeneticAlgorithm.this, getNumberOfModules(), random);
+					
+					int[][] tupleRoutingMap = new int[getNumberOfDependencies()][getNumberOfNodes()];
+					int[][] migrationRoutingMap = new int[getNumberOfModules()][getNumberOfNodes()];
+					
+					population[i] = new Individual(GeneticAlgorithm.this, new Solution(GeneticAlgorithm.this, modulePlacement, tupleRoutingMap, migrationRoutingMap));
+				}
+				
+				offspring[i] = new Individual(GeneticAlgorithm.this, new Solution(GeneticAlgorithm.this, population[i].getChromosome()));
+				routingTasks.add(new RoutingTask(population[i]));
+			}
+			
+			routingBatch = new Batch(routingTasks);
+		}
+		
+		/**
+		 * Creates a copy of a module placement where each module is moved to a random possible node with a given probability.
+		 * 
+		 * @param modulePlacement the module placement to be copied
+		 * @param probability the probability of moving each module
+		 * @return the mutated module placement
+		 */
+		private int[] mutatePlacement(final int[] modulePlacement, final float probability) {
+			int[] mutated = modulePlacement.clone();
+			
+			for(int i = 0; i < mutated.length; i++) {
+				if(random.nextFloat() >= probability) continue;
+				
+				int[] validValues = getPossibleNodes(i);
+				mutated[i] = validValues[random.nextInt(validValues.length)];
+			}
+			
+			return mutated;
+		}
+		
+		/**
+		 * Evolves the population for a given number of generations (used by the island model).
+		 */
+		@Override
+		protected void compute() {
+			generations = 0;
+			
+			for(int i = 0; i < epochLength; i++) {
+				if(evaluated)
+					breed();
+				
+				// Solve both tuple and virtual machine migration routing tables
+				generations += solveRouting(false);
+				
+				// Sort the array based on its value (ascending order)
+				Arrays.sort(population);
+				evaluated = true;
+				
+				// The epoch ends earlier if the budget is exhausted
+				if(getBudget().isExpired()) break;
+			}
+		}
+		
+		/**
+		 * Solves both the tuple and virtual machine migration routing maps of all individuals.
+		 * 
+		 * @param parallel whether the routing of each individual is solved by a different thread
+		 * @return the number of routing generations performed
+		 */
+		int solveRouting(final boolean parallel) {
+			// Seeds are drawn in order, thus the results do not depend on the number of threads
+			for(int i = 0; i < Config.POPULATION_SIZE_GA_PLACEMENT; i++) {
+				routingTasks.get(i).prepare(population[i], random.nextLong(), i == 0 && seedRouting);
+			}
+			
+			seedRouting = false;
+			
+			if(parallel) {
+				runBatch(routingBatch);
+			}else {
+				for(RoutingTask task : routingTasks)
+					task.solve();
+			}
+			
+			int generations = 0;
+			for(RoutingTask task : routingTasks)
+				generations += task.generations;
+			
+			return generations;
+		}
+		
+		/**
+		 * Generates the next generation of module placement maps from the sorted population.
+		 */
+		void breed() {
+			// Copy 10% of the fittest individuals to the next generation
+			for(int i = 0; i < FITTEST_PLACEMENT; i++) {
+				offspring[i].getChromosome().copyFrom(population[i].getChromosome());
+			}
+			
+			// From 50% of fittest population, individuals will mate to produce offspring
+			for(int i = FITTEST_PLACEMENT; i < Config.POPULATION_SIZE_GA_PLACEMENT; i++) {
+				int r1 = random.nextInt((int) (Config.POPULATION_SIZE_GA_PLACEMENT*0.5));
+				int r2 = random.nextInt((int) (Config.POPULATION_SIZE_GA_PLACEMENT*0.5));
+				
+				population[r1].matePlacement(population[r2], offspring[i].getChromosome().getModulePlacement(), random);
+			}
+			
+			// Set the current generation's population
+			Individual[] tmp = population;
+			population = offspring;
+			offspring = tmp;
+		}
+	}
+	
+	/**
+	 * Class representing the task which solves the routing of a single individual. Each task owns its buffers and its
+	 * random number generator, which are reused in all generations.
 	 */
-	public Individual[] GARouting(Individual[] population) {
-		// For each individual with a given module placement map
-		for (int i = 0; i < Config.POPULATION_SIZE_GA_PLACEMENT; i++) {
+	private class RoutingTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		/** Random number generator of the task (reseeded before each execution) */
+		private final Random random;
+		
+		/** Buffer used to hold the valid next hops of a route */
+		private final int[] candidates;
+		
+		/** Buffers used to sum the resources used in each node */
+		private final double[] nodeMips, nodeRam, nodeStrg;
+		
+		/** Current routing population */
+		private Individual[] populationR;
+		
+		/** Buffer which receives the next routing generation */
+		private Individual[] newGenerationR;
+		
+		/** Best routing solution found in the current execution */
+		private Solution bestSolutionR;
+		
+		/** Buffer holding the previous best routing solution */
+		private Solution prevBestSolutionR;
+		
+		/** Heuristic used to solve the routing before running the routing genetic algorithm; null if it is not used */
+		private final RoutingHeuristic heuristic;
+		
+		/** Individual whose routing is being solved */
+		private Individual individual;
+		
+		/** Defines whether the current routing of the individual is kept (i.e., it is not solved again) */
+		private boolean keepRouting;
+		
+		/** Number of routing generations performed in the last execution */
+		private int generations;
+		
+		/**
+		 * Allocates all the buffers of the task.
+		 * 
+		 * @param template an individual with all tables allocated (used to create the buffers with the same dimensions)
+		 */
+		RoutingTask(final Individual template) {
+			random = new Random();
+			candidates = new int[getNumberOfNodes()];
+			nodeMips = new double[getNumberOfNodes()];
+			nodeRam = new double[getNumberOfNodes()];
+			nodeStrg = new double[getNumberOfNodes()];
+			heuristic = Config.HEURISTIC_ROUTING_GA ? new RoutingHeuristic(GeneticAlgorithm.this) : null;
+			populationR = new Individual[Config.POPULATION_SIZE_GA_ROUTING];
+			newGenerationR = new Individual[Config.POPULATION_SIZE_GA_ROUTING];
+			
+			for(int i = 0; i < Config.POPULATION_SIZE_GA_ROUTING; i++) {
+				populationR[i] = new Individual(GeneticAlgorithm.this, new Solution(GeneticAlgorithm.this, template.getChromosome()));
+				newGenerationR[i] = new Individual(GeneticAlgorithm.this, new Solution(GeneticAlgorithm.this, template.getChromosome()));
+			}
+			
+			bestSolutionR = new Solution(GeneticAlgorithm.this, template.getChromosome());
+			prevBestSolutionR = new Solution(GeneticAlgorithm.this, template.getChromosome());
+		}
+		
+		/**
+		 * Defines the individual to be solved in the next execution.
+		 * 
+		 * @param individual the individual containing the module placement map
+		 * @param seed the seed of the random number generator
+		 * @param keepRouting whether the current routing of the individual is kept
+		 */
+		void prepare(final Individual individual, final long seed, final boolean keepRouting) {
+			this.individual = individual;
+			this.keepRouting = keepRouting;
+			random.setSeed(seed);
+		}
+		
+		@Override
+		protected void compute() {
+			solve();
+		}
+		
+		/**
+		 * Solves both the tuple and virtual machine migration routing maps of the individual. The best routing found is
+		 * copied into the individual. When the routing heuristic is used, the routing genetic algorithm is only run if the
+		 * heuristic could not route all dependencies within the available bandwidth.
+		 */
+		void solve() {
+			generations = 0;
 			
 			// Get it's module placement map
-			int[][] modulePlacementMap = population[i].getChromosome().getModulePlacementMap();
+			Solution chromosome = individual.getChromosome();
+			int[] modulePlacement = chromosome.getModulePlacement();
 			
-			if(checkResourcesExceeded(modulePlacementMap)) {
-				int[][]tupleRouting = new int[getNumberOfDependencies()][getNumberOfNodes()];
-				int[][]migrationRouting = new int[getNumberOfModules()][getNumberOfNodes()];
-						
-				population[i] = new Individual(this, new Solution(this, modulePlacementMap, tupleRouting, migrationRouting));
-				continue;
+			if(checkResourcesExceeded(modulePlacement, nodeMips, nodeRam, nodeStrg)) {
+				for(int[] row : chromosome.getTupleRoutingMap())
+					Arrays.fill(row, 0);
+				for(int[] row : chromosome.getMigrationRoutingMap())
+					Arrays.fill(row, 0);
+				
+				CostFunction.analyzeSolution(GeneticAlgorithm.this, chromosome);
+				return;
 			}
 			
-			// Create a new population
-			Individual[] populationR = new Individual[Config.POPULATION_SIZE_GA_ROUTING];
+			if(keepRouting) {
+				CostFunction.analyzeSolution(GeneticAlgorithm.this, chromosome);
+				return;
+			}
+			
+			if(heuristic != null && heuristic.solve(modulePlacement, chromosome.getTupleRoutingMap(), chromosome.getMigrationRoutingMap())) {
+				CostFunction.analyzeSolution(GeneticAlgorithm.this, chromosome);
+				return;
+			}
 			
 			// Generate the new population with that module placement map and random tuple and virtual machine routing maps
 			for (int j = 0; j < Config.POPULATION_SIZE_GA_ROUTING; j++) {
-				int[][] tupleRoutingMap = Solution.generateRandomTupleRouting(this, modulePlacementMap, getNumberOfNodes(), getNumberOfDependencies());
-				int[][] migrationRoutingMap = Solution.generateRandomMigrationRouting(this, modulePlacementMap, getNumberOfNodes(), getNumberOfModules());
-				populationR[j] = new Individual(this, new Solution(this, modulePlacementMap, tupleRoutingMap, migrationRoutingMap));
+				Solution solution = populationR[j].getChromosome();
+				
+				System.arraycopy(modulePlacement, 0, solution.getModulePlacement(), 0, modulePlacement.length);
+				System.arraycopy(modulePlacement, 0, newGenerationR[j].getChromosome().getModulePlacement(), 0, modulePlacement.length);
+				Solution.generateRandomTupleRouting(GeneticAlgorithm.this, modulePlacement, solution.getTupleRoutingMap(), candidates, random);
+				Solution.generateRandomMigrationRouting(GeneticAlgorithm.this, modulePlacement, solution.getMigrationRoutingMap(), candidates, random);
+				CostFunction.analyzeSolution(GeneticAlgorithm.this, solution);
 			}
 			
 			int convergenceIter = 0;
 			int generation = 0;
-			Solution bestSolutionR = null;
-		
+			boolean hasBest = false;
+			
 			while (generation <= Config.MAX_ITER_ROUTING_GA) {
 				// Sort the array based on its value (ascending order)
-	    		Arrays.sort(populationR);
-	    		
-	    		Solution prevBestSolution = null;
-				if(bestSolutionR != null) prevBestSolution = new Solution(this, bestSolutionR);
-				
-				// Save the best value for that module placement
-	    		bestSolutionR = Solution.checkBestSolution(this, populationR[0].getChromosome(), bestSolutionR, -1);
-	    		
-	    		// Check the convergence error
-	    		if(Solution.checkConvergence(prevBestSolution, bestSolutionR)) {
-	    			convergenceIter++;
-	    			
-	    			// If it found the same (or similar) solution a given number of times in a row break the loop
+				Arrays.sort(populationR);
+				
+				// Save the best value for that module placement (the previous best one is kept in the other buffer)
+				boolean hadBest = hasBest;
+				boolean replaced = Solution.isBetterSolution(populationR[0].getChromosome(), hasBest ? bestSolutionR : null);
+				
+				if(replaced) {
+					Solution tmp = prevBestSolutionR;
+					prevBestSolutionR = bestSolutionR;
+					bestSolutionR = tmp;
+					bestSolutionR.copyFrom(populationR[0].getChromosome());
+					hasBest = true;
+				}
+				
+				// Check the convergence error
+				if(hadBest && Solution.checkConvergence(replaced ? prevBestSolutionR : bestSolutionR, bestSolutionR)) {
+					convergenceIter++;
+					
+					// If it found the same (or similar) solution a given number of times in a row break the loop
 					if(convergenceIter == Config.MAX_ITER_ROUTING_CONVERGENCE_GA) break;
 				}else
-	    			convergenceIter = 0;
-	    		
-	    		// If the generation counter is above the defined maximum break the loop
-	    		if(generation > Config.MAX_ITER_PLACEMENT_GA) break;
-	    		
-	    		// Otherwise generate new offsprings for new generation
-		        Individual[] newGeneration = new Individual[Config.POPULATION_SIZE_GA_ROUTING];
-		        
-		        // Copy 10% of the fittest individuals to the next generation
-		        for(int z = 0; z < FITTEST_ROUTING; z++)
-		        	newGeneration[z] = populationR[z];
-		        
-		        // From 50% of fittest population, individuals will mate to produce offspring
-		        for(int z = FITTEST_ROUTING; z < Config.POPULATION_SIZE_GA_ROUTING; z++) {
-		        	int r1 = new Random().nextInt((int) (Config.POPULATION_SIZE_GA_ROUTING*0.5));
-		        	int r2 = new Random().nextInt((int) (Config.POPULATION_SIZE_GA_ROUTING*0.5));
-		        	
-		        	int[][] childTupleRoutingMap = populationR[r1].mateTupleRouting(populationR[r2]);
-		        	int[][] childMigrationRoutingMap = populationR[r1].mateMigrationRouting(populationR[r2]);
-		        	
-		        	// Create the new individual
-		        	newGeneration[z] = new Individual(this, new Solution(this, modulePlacementMap, childTupleRoutingMap, childMigrationRoutingMap));
-		        }
-		        
-		        // Set the current generation's population
-		        for(int z = 0; z < Config.POPULATION_SIZE_GA_ROUTING; z++)
-		        	populationR[z] = newGeneration[z];
-		        
-		        // Increments the number of iterations for the whole genetic algorithm
-		        iteration++;
-		        
-		        // Increments the generation for the tuple and virtual machine routing maps
-		        generation++;
+					convergenceIter = 0;
+				
+				// If the budget is exhausted break the loop (the population is already sorted)
+				if(getBudget().isExpired()) break;
+				
+				// If the generation counter is above the defined maximum break the loop
+				if(generation > Config.MAX_ITER_PLACEMENT_GA) break;
+				
+				// Copy 10% of the fittest individuals to the next generation
+				for(int z = 0; z < FITTEST_ROUTING; z++)
+					newGenerationR[z].getChromosome().copyFrom(populationR[z].getChromosome());
+				
+				// From 50% of fittest population, individuals will mate to produce offspring
+				for(int z = FITTEST_ROUTING; z < Config.POPULATION_SIZE_GA_ROUTING; z++) {
+					int r1 = random.nextInt((int) (Config.POPULATION_SIZE_GA_ROUTING*0.5));
+					int r2 = random.nextInt((int) (Config.POPULATION_SIZE_GA_ROUTING*0.5));
+					
+					Solution child = newGenerationR[z].getChromosome();
+					populationR[r1].mateTupleRouting(populationR[r2], child.getTupleRoutingMap(), candidates, random);
+					populationR[r1].mateMigrationRouting(populationR[r2], child.getMigrationRoutingMap(), candidates, random);
+					CostFunction.analyzeSolution(GeneticAlgorithm.this, child);
+				}
+				
+				// Set the current generation's population
+				Individual[] tmp = populationR;
+				populationR = newGenerationR;
+				newGenerationR = tmp;
+				
+				// Increments the number of iterations for the whole genetic algorithm
+				generations++;
+				
+				// Increments the generation for the tuple and virtual machine routing maps
+				generation++;
 			}
 			
 			// After running the genetic algorithm for the tuple and virtual machine routing maps (that module placement),
-			// copy the best one to the final population
-			population[i] = populationR[0];
+			// the best one is copied to the individual
+			chromosome.copyFrom(populationR[0].getChromosome());
 		}
-		
-		return population;
 	}
 	
 	/**
-	 * Verifies whether resources are exceeded in a given node for a given placement matrix.
-	 * 
-	 * @param modulePlacementMap the current binary module placement map
-	 * @param node the node to verify
-	 * @return true if its resources are being exceeded. 0, otherwise
+	 * Class representing a batch of tasks which are run in parallel.
 	 */
-	private boolean checkResourcesExceeded(final int[][] modulePlacementMap) {
-		for(int i = 0; i < getNumberOfNodes(); i++) {
-			double totalMips = 0;
-			double totalRam = 0;
-			double totalStrg = 0;
-			
-			for(int j = 0; j < getNumberOfModules(); j++) {
-				totalMips += modulePlacementMap[i][j] * getmMips()[j];
-				totalRam += modulePlacementMap[i][j] * getmRam()[j];
-				totalStrg += modulePlacementMap[i][j] * getmStrg()[j];
-			}
-			
-			if(totalMips > getfMips()[i] * Config.MIPS_PERCENTAGE_UTIL) return true;
-			if(totalRam > getfRam()[i] * Config.MEM_PERCENTAGE_UTIL) return true;
-			if(totalStrg > getfStrg()[i] * Config.STRG_PERCENTAGE_UTIL) return true;
+	private static class Batch extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		/** Tasks of the batch */
+		private final List<? extends RecursiveAction> tasks;
+		
+		Batch(final List<? extends RecursiveAction> tasks) {
+			this.tasks = tasks;
 		}
 		
-		return false;
+		@Override
+		protected void compute() {
+			for(RecursiveAction task : tasks)
+				task.reinitialize();
+			
+			invokeAll(tasks);
+		}
 	}
 	
 }
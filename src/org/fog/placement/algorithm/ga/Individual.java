@@ -1,11 +1,8 @@
 package org.fog.placement.algorithm.ga;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Random;
 
-import org.fog.core.Constants;
+import org.fog.core.Config;
 import org.fog.placement.algorithm.Solution;
 
 /**
@@ -33,149 +30,140 @@ public class Individual implements Comparable<Individual> {
 	}
 	
 	/**
-	 * Performs mating and produce new offspring.
+	 * Performs mating and produce new offspring. The offspring is written into a given vector, thus no memory is allocated.
 	 * 
 	 * @param par the individual which the mate will occur
-	 * @return the module placement offspring
+	 * @param childModulePlacement the vector which receives the module placement offspring
+	 * @param random the random number generator (owned by the calling thread)
 	 */
-	public int[][] matePlacement(Individual par) {
-		int[][] modulePlacementMap = chromosome.getModulePlacementMap();
-		int[][] parModulePlacementMap = par.getChromosome().getModulePlacementMap();
-		int[][] childModulePlacementMap = new int[modulePlacementMap.length][modulePlacementMap[0].length];
+	void matePlacement(Individual par, int[] childModulePlacement, Random random) {
+		int[] modulePlacement = chromosome.getModulePlacement();
+		int[] parModulePlacement = par.getChromosome().getModulePlacement();
 		
-		for(int i = 0; i < modulePlacementMap[0].length; i++) {
-        	float prob = new Random().nextFloat();
+		for(int i = 0; i < modulePlacement.length; i++) {
+        	float prob = random.nextFloat();
         	
         	// If probability is less than 0.45, insert gene from one of the parents
             if (prob < 0.45)
-            	childModulePlacementMap[Solution.findModulePlacement(modulePlacementMap, i)][i] = 1;
+            	childModulePlacement[i] = modulePlacement[i];
             // If probability is between 0.45 and 0.90, insert gene from the other parent
             else if (prob < 0.90)
-            	childModulePlacementMap[Solution.findModulePlacement(parModulePlacementMap, i)][i] = 1;
+            	childModulePlacement[i] = parModulePlacement[i];
             // Otherwise insert random gene(mutate), for maintaining diversity
             else {
-            	double[][] possibleDeployment = ga.getPossibleDeployment();
-        		
-    			List<Integer> validValues = new ArrayList<Integer>();
-    			
-    			for(int j = 0; j < possibleDeployment.length; j++) {
-    				if(possibleDeployment[j][i] == 1) {
-    					validValues.add(j);
-    				}
-    			}
-    			
-    			childModulePlacementMap[validValues.get(new Random().nextInt(validValues.size()))][i] = 1;
+            	int[] validValues = ga.getPossibleNodes(i);
+            	childModulePlacement[i] = validValues[random.nextInt(validValues.length)];
             }
 		}
-		
-		return childModulePlacementMap;
 	}
 	
 	/**
-	 * Performs mating of tuple routing map and produce new offspring.
+	 * Performs mating of tuple routing map and produce new offspring. The offspring is written into a given table, thus no
+	 * memory is allocated.
 	 * 
 	 * @param par the individual which the mate will occur
-	 * @return the tuple routing map offspring
+	 * @param childTupleRoutingMap the table which receives the tuple routing map offspring
+	 * @param candidates the buffer used to hold the valid next hops (its size must be at least the maximum node degree plus one)
+	 * @param random the random number generator (owned by the calling thread)
 	 */
-	public int[][] mateTupleRouting(Individual par) {
+	void mateTupleRouting(Individual par, int[][] childTupleRoutingMap, int[] candidates, Random random) {
 		int nrFogNodes = ga.getNumberOfNodes();
 		int nrDependencies = ga.getNumberOfDependencies();
-		int[][] modulePlacementMap = chromosome.getModulePlacementMap();
+		int[] modulePlacement = chromosome.getModulePlacement();
 		int[][] tupleRoutingMap = chromosome.getTupleRoutingMap();
 		int[][] parTupleRoutingMap = par.getChromosome().getTupleRoutingMap();
-		int[][] childTupleRoutingMap = new int[nrDependencies][nrFogNodes];
 		
 		for(int i = 0; i < nrDependencies; i++) {
-			float prob = new Random().nextFloat();
+			float prob = random.nextFloat();
 			
 			// If probability is less than 0.45, insert gene from one of the parents
 			if (prob < 0.45)
-				childTupleRoutingMap[i] = Arrays.copyOf(tupleRoutingMap[i], nrFogNodes);
+				System.arraycopy(tupleRoutingMap[i], 0, childTupleRoutingMap[i], 0, nrFogNodes);
 			// If probability is between 0.45 and 0.90, insert gene from the other parent
 			else if (prob < 0.9)
-				childTupleRoutingMap[i] = Arrays.copyOf(parTupleRoutingMap[i], nrFogNodes);
+				System.arraycopy(parTupleRoutingMap[i], 0, childTupleRoutingMap[i], 0, nrFogNodes);
 			// Otherwise insert random gene(mutate), for maintaining diversity
 			else {
-				childTupleRoutingMap[i][0] = Solution.findModulePlacement(modulePlacementMap, ga.getStartModDependency(i));
-				childTupleRoutingMap[i][nrFogNodes-1] = Solution.findModulePlacement(modulePlacementMap, ga.getFinalModDependency(i));
-		        
-				for(int j = 1; j < nrFogNodes - 1; j++) {
-					// If its already the final node, then just fill the remain ones
-					if(childTupleRoutingMap[i][j-1] == childTupleRoutingMap[i][nrFogNodes-1]) {
-						for(; j < nrFogNodes - 1; j++) {
-							childTupleRoutingMap[i][j] = childTupleRoutingMap[i][nrFogNodes-1];
-						}
-						break;
-					}
-					
-					List<Integer> validValues = new ArrayList<Integer>();
-					
-					for(int z = 0; z < nrFogNodes; z++) {					
-						if(ga.getfLatencyMap()[childTupleRoutingMap[i][j-1]][z] == Constants.INF) continue;
-						if(!ga.isValidHop(z, childTupleRoutingMap[i][nrFogNodes-1], nrFogNodes - j)) continue;
-						validValues.add(z);
-					}
-							
-					childTupleRoutingMap[i][j] = validValues.get(new Random().nextInt(validValues.size()));
-				}
+				childTupleRoutingMap[i][0] = modulePlacement[ga.getStartModDependency(i)];
+				childTupleRoutingMap[i][nrFogNodes-1] = modulePlacement[ga.getFinalModDependency(i)];
+				mutateRoute(childTupleRoutingMap[i], candidates, random);
 			}
 		}
-		
-		return childTupleRoutingMap;
 	}
 	
 	/**
-	 * Performs mating of virtual machine migration routing map and produce new offspring.
+	 * Performs mating of virtual machine migration routing map and produce new offspring. The offspring is written into a
+	 * given table, thus no memory is allocated.
 	 * 
 	 * @param par the individual which the mate will occur
-	 * @return the virtual machine migration routing map offspring
+	 * @param childMigrationRoutingMap the table which receives the virtual machine migration routing map offspring
+	 * @param candidates the buffer used to hold the valid next hops (its size must be at least the maximum node degree plus one)
+	 * @param random the random number generator (owned by the calling thread)
 	 */
-	public int[][] mateMigrationRouting(Individual par) {
+	void mateMigrationRouting(Individual par, int[][] childMigrationRoutingMap, int[] candidates, Random random) {
 		int nrFogNodes = ga.getNumberOfNodes();
 		int nrModules = ga.getNumberOfModules();
-		int[][] modulePlacementMap = chromosome.getModulePlacementMap();
-		int[][] currentPositionInt = ga.getCurrentPositionInt();
+		int[] modulePlacement = chromosome.getModulePlacement();
 		int[][] migrationRoutingMap = chromosome.getMigrationRoutingMap();
 		int[][] parMigrationRoutingMap = par.getChromosome().getMigrationRoutingMap();
-		int[][] childMigrationRoutingMap = new int[nrModules][nrFogNodes];
 		
 		for (int i = 0; i < nrModules; i++) {
-			float prob = new Random().nextFloat();
+			float prob = random.nextFloat();
 			
 			// If probability is less than 0.45, insert gene from one of the parents
 			if (prob < 0.45)
-				childMigrationRoutingMap[i] = Arrays.copyOf(migrationRoutingMap[i], nrFogNodes);
+				System.arraycopy(migrationRoutingMap[i], 0, childMigrationRoutingMap[i], 0, nrFogNodes);
 			// If probability is between 0.45 and 0.90, insert gene from the other parent
 			else if (prob < 0.9)
-				childMigrationRoutingMap[i] = Arrays.copyOf(parMigrationRoutingMap[i], nrFogNodes);
+				System.arraycopy(parMigrationRoutingMap[i], 0, childMigrationRoutingMap[i], 0, nrFogNodes);
 			// Otherwise insert random gene(mutate), for maintaining diversity
 			else {
-				childMigrationRoutingMap[i][0] = Solution.findModulePlacement(ga.isFirstOptimization() ? modulePlacementMap : currentPositionInt, i);
-				childMigrationRoutingMap[i][nrFogNodes-1] = Solution.findModulePlacement(modulePlacementMap, i);
-					
-				for(int j = 1; j < nrFogNodes - 1; j++) { // Routing hop index
-					// If its already the final node, then just fill the remain ones
-					if(childMigrationRoutingMap[i][j-1] == childMigrationRoutingMap[i][nrFogNodes-1]) {
-						for(; j < nrFogNodes - 1; j++) {
-							childMigrationRoutingMap[i][j] = childMigrationRoutingMap[i][nrFogNodes-1];
-						}
-						break;
-					}
-						
-					List<Integer> validValues = new ArrayList<Integer>();
-						
-					for(int z = 0; z < nrFogNodes; z++) { // Node index
-						if(ga.getfLatencyMap()[childMigrationRoutingMap[i][j-1]][z] == Constants.INF) continue;
-						if(!ga.isValidHop(z, childMigrationRoutingMap[i][nrFogNodes-1], nrFogNodes - j)) continue;
-						validValues.add(z);
-					}
-						
-					childMigrationRoutingMap[i][j] = validValues.get(new Random().nextInt(validValues.size()));
-				}
+				childMigrationRoutingMap[i][0] = ga.isFirstOptimization() ? modulePlacement[i] : ga.getCurrentPlacement(i);
+				childMigrationRoutingMap[i][nrFogNodes-1] = modulePlacement[i];
+				mutateRoute(childMigrationRoutingMap[i], candidates, random);
 			}
 		}
+	}
+	
+	/**
+	 * Fills the intermediate hops of a route whose first and last nodes are already defined. Each hop is either the
+	 * previous node or a random neighbor of it from which the last node can still be reached within the remaining hops.
+	 * When the routing is based on the path catalog, the route is a random path of the catalog instead.
+	 * 
+	 * @param route the route (both its first and last positions are already filled)
+	 * @param candidates the buffer used to hold the valid next hops
+	 * @param random the random number generator (owned by the calling thread)
+	 */
+	private void mutateRoute(int[] route, int[] candidates, Random random) {
+		int nrFogNodes = route.length;
 		
-		return childMigrationRoutingMap;
+		// The route gene is replaced by another path of the catalog
+		if(Config.PATH_CATALOG_ROUTING && ga.getPathCatalog().fillRandomPath(route, random))
+			return;
+		
+		for(int j = 1; j < nrFogNodes - 1; j++) { // Routing hop index
+			// If its already the final node, then just fill the remain ones
+			if(route[j-1] == route[nrFogNodes-1]) {
+				for(; j < nrFogNodes - 1; j++) {
+					route[j] = route[nrFogNodes-1];
+				}
+				break;
+			}
+			
+			int nrCandidates = 0;
+			int previousNode = route[j-1];
+			
+			// The next hop is either the same node or one of its neighbors
+			if(ga.isValidHop(previousNode, route[nrFogNodes-1], nrFogNodes - j))
+				candidates[nrCandidates++] = previousNode;
+			
+			for(int z : ga.getfNeighbors()[previousNode]) { // Node index
+				if(!ga.isValidHop(z, route[nrFogNodes-1], nrFogNodes - j)) continue;
+				candidates[nrCandidates++] = z;
+			}
+			
+			route[j] = candidates[random.nextInt(nrCandidates)];
+		}
 	}
 	
 	@Override
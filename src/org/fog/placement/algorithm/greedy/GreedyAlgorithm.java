@@ -0,0 +1,55 @@
+package org.fog.placement.algorithm.greedy;
+
+import java.util.List;
+
+import org.fog.application.Application;
+import org.fog.entities.Actuator;
+import org.fog.entities.FogDevice;
+import org.fog.entities.Sensor;
+import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Budget;
+import org.fog.placement.algorithm.Solution;
+
+/**
+ * Class in which defines and executes the greedy algorithm. It builds a single solution (see GreedyPlacement), thus it is
+ * meant for large topologies or online decisions, where the other algorithms take too long.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class GreedyAlgorithm extends Algorithm {
+	
+	public GreedyAlgorithm(final List<FogDevice> fogDevices, final List<Application> applications,
+			final List<Sensor> sensors, final List<Actuator> actuators) {
+		super(fogDevices, applications, sensors, actuators);
+	}
+	
+	public GreedyAlgorithm(final Algorithm problem, final int[] modules) {
+		super(problem, modules);
+	}
+	
+	/**
+	 * Executes the greedy algorithm in order to find a solution in near-linear time.
+	 * 
+	 * @param budget the budget of the execution (it is not used, as a single solution is built)
+	 * @return the greedy solution; it may not be valid
+	 */
+	@Override
+	public Solution execute(Budget budget) {
+		startBudget(budget);
+		
+		// Time at the beginning of the execution of the algorithm
+		long start = System.currentTimeMillis();
+		
+		Solution solution = new GreedyPlacement(this).build();
+		Solution.checkBestSolution(this, solution, null, 0);
+		
+		// Time at the end of the execution of the algorithm
+		long finish = System.currentTimeMillis();
+		
+		setElapsedTime(finish - start);
+		
+		return solution;
+	}
+	
+}
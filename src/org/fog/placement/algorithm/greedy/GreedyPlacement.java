@@ -0,0 +1,442 @@
+package org.fog.placement.algorithm.greedy;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.fog.core.Config;
+import org.fog.core.Constants;
+import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Solution;
+import org.fog.placement.algorithm.util.routing.DijkstraAlgorithm;
+
+/**
+ * Class which deterministically builds a single solution in near-linear time. The applications are deployed by
+ * increasing order of their tightest loop deadline. Within each application, the modules with a single possible node
+ * (e.g., sensors and actuators) are deployed first and then the remaining ones by decreasing order of MIPS
+ * (first-fit-decreasing). Each module is deployed in the possible node, with enough resources left, which is the
+ * closest (in latency, including the processing one) to the module it exchanges more bandwidth with among the ones
+ * already deployed (or to the first node of its application). Then, the dependencies are routed through the shortest
+ * paths whose links still have enough bandwidth for them, and migrations through the shortest paths. If there is no
+ * such node (or path), the constraints are relaxed (thus, the solution is not valid). It can be used with any algorithm
+ * (e.g., to seed it or as a fallback), but only by a single thread.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class GreedyPlacement {
+	/** Object which holds all the information needed to run the optimization algorithm */
+	private final Algorithm algorithm;
+	
+	/** Dijkstra algorithm used to find the closest nodes (its last source node is kept between modules) */
+	private final DijkstraAlgorithm placementDijkstra;
+	
+	/** Dijkstra algorithm used to route the dependencies and migrations */
+	private final DijkstraAlgorithm routingDijkstra;
+	
+	/** Source node of the last execution of placementDijkstra; -1 if it was not executed yet */
+	private int lastSource;
+	
+	/** Vector holding the tightest loop deadline of the application of each module; Constants.INF if it has no loops */
+	private final double[] moduleDeadline;
+	
+	/** Vector holding the application index of each module; Integer.MAX_VALUE if it does not belong to any loop */
+	private final int[] moduleApplication;
+	
+	/** Dependencies in which each module is the source or the destination */
+	private final int[][] moduleDependencies;
+	
+	/** Vector holding the sum of the MIPS of the modules deployed in each node */
+	private final double[] nodeMips;
+	
+	/** Vector holding the sum of the RAM of the modules deployed in each node */
+	private final double[] nodeRam;
+	
+	/** Vector holding the sum of the storage of the modules deployed in each node */
+	private final double[] nodeStrg;
+	
+	/** Vector holding the sum of the CPU load of the modules deployed in each node */
+	private final double[] nodeCPULoad;
+	
+	/** Vector holding the bandwidth used by the dependencies in each edge (see DijkstraAlgorithm.getEdgeIndex) */
+	private final double[] edgeBandwidth;
+	
+	/** Vector holding the bandwidth which can be used by the dependencies in each edge */
+	private final double[] edgeCapacity;
+	
+	/** Vector defining the edges which have not enough bandwidth left for the dependency being routed */
+	private final boolean[] saturated;
+	
+	/**
+	 * Creates a new greedy placement for a given algorithm.
+	 * 
+	 * @param algorithm object which holds all the information needed to run the optimization algorithm
+	 */
+	public GreedyPlacement(final Algorithm algorithm) {
+		int nrNodes = algorithm.getNumberOfNodes();
+		int nrModules = algorithm.getNumberOfModules();
+		
+		this.algorithm = algorithm;
+		placementDijkstra = new DijkstraAlgorithm(algorithm.getfNeighbors(), algorithm.getfNeighborLatency());
+		routingDijkstra = new DijkstraAlgorithm(algorithm.getfNeighbors(), algorithm.getfNeighborLatency());
+		moduleDeadline = new double[nrModules];
+		moduleApplication = new int[nrModules];
+		moduleDependencies = computeModuleDependencies(algorithm);
+		nodeMips = new double[nrNodes];
+		nodeRam = new double[nrNodes];
+		nodeStrg = new double[nrNodes];
+		nodeCPULoad = new double[nrNodes];
+		edgeBandwidth = new double[routingDijkstra.getNumberOfEdges()];
+		edgeCapacity = new double[routingDijkstra.getNumberOfEdges()];
+		saturated = new boolean[routingDijkstra.getNumberOfEdges()];
+		
+		for(int i = 0; i < nrNodes; i++) {
+			double[] bandwidth = algorithm.getfNeighborBandwidth()[i];
+			
+			for(int j = 0; j < bandwidth.length; j++) {
+				edgeCapacity[routingDijkstra.getFirstEdge(i) + j] = bandwidth[j] * Config.BW_PERCENTAGE_UTIL;
+			}
+		}
+		
+		computeModuleDeadlines();
+	}
+	
+	/**
+	 * Builds the greedy solution.
+	 * 
+	 * @return the greedy solution (already evaluated)
+	 */
+	public Solution build() {
+		int nrFogNodes = algorithm.getNumberOfNodes();
+		int nrModules = algorithm.getNumberOfModules();
+		int nrDependencies = algorithm.getNumberOfDependencies();
+		
+		int[] modulePlacement = new int[nrModules];
+		int[][] tupleRoutingMap = new int[nrDependencies][nrFogNodes];
+		int[][] migrationRoutingMap = new int[nrModules][nrFogNodes];
+		
+		Arrays.fill(nodeMips, 0);
+		Arrays.fill(nodeRam, 0);
+		Arrays.fill(nodeStrg, 0);
+		Arrays.fill(nodeCPULoad, 0);
+		Arrays.fill(edgeBandwidth, 0);
+		Arrays.fill(modulePlacement, -1);
+		lastSource = -1;
+		
+		// Deploy the modules
+		Integer[] modules = sortModules();
+		int homeApplication = -1;
+		int homeNode = -1;
+		
+		for(int module : modules) {
+			if(moduleApplication[module] != homeApplication) {
+				homeApplication = moduleApplication[module];
+				homeNode = -1;
+			}
+			
+			int anchor = findAnchor(module, modulePlacement);
+			modulePlacement[module] = placeModule(module, anchor != -1 ? anchor : homeNode);
+			
+			if(homeNode == -1 && homeApplication != Integer.MAX_VALUE)
+				homeNode = modulePlacement[module];
+		}
+		
+		// Route the dependencies (the ones of the applications with tighter deadlines first)
+		for(int dependency : sortDependencies()) {
+			int from = modulePlacement[algorithm.getStartModDependency(dependency)];
+			int to = modulePlacement[algorithm.getFinalModDependency(dependency)];
+			routeTuple(tupleRoutingMap[dependency], from, to, algorithm.getdBandwidth()[dependency]);
+		}
+		
+		// Route the migrations
+		for(int i = 0; i < nrModules; i++) {
+			int from = algorithm.isFirstOptimization() ? modulePlacement[i] : algorithm.getCurrentPlacement(i);
+			fillRoute(migrationRoutingMap[i], from, modulePlacement[i], null);
+		}
+		
+		return new Solution(algorithm, modulePlacement, tupleRoutingMap, migrationRoutingMap);
+	}
+	
+	/**
+	 * Computes the tightest loop deadline and the application index of each module.
+	 */
+	private void computeModuleDeadlines() {
+		int[][] loops = algorithm.getLoops();
+		double[] loopsDeadline = algorithm.getLoopsDeadline();
+		int[] loopsApplication = algorithm.getLoopsApplication();
+		
+		double[] applicationDeadline = new double[loops.length];
+		Arrays.fill(applicationDeadline, Constants.INF);
+		
+		for(int i = 0; i < loops.length; i++) {
+			int application = loopsApplication[i];
+			applicationDeadline[application] = Math.min(applicationDeadline[application], loopsDeadline[i]);
+		}
+		
+		Arrays.fill(moduleApplication, Integer.MAX_VALUE);
+		for(int i = 0; i < loops.length; i++) {
+			for(int module : loops[i]) {
+				if(module == -1) break;
+				moduleApplication[module] = Math.min(moduleApplication[module], loopsApplication[i]);
+			}
+		}
+		
+		for(int i = 0; i < moduleDeadline.length; i++) {
+			int application = moduleApplication[i];
+			moduleDeadline[i] = application != Integer.MAX_VALUE ? applicationDeadline[application] : Constants.INF;
+		}
+	}
+	
+	/**
+	 * Sorts the modules by the order in which they are deployed: by increasing tightest loop deadline of their application,
+	 * then the ones which have a single possible node and then by decreasing MIPS, RAM and storage.
+	 * 
+	 * @return the sorted module indexes
+	 */
+	private Integer[] sortModules() {
+		Integer[] modules = new Integer[algorithm.getNumberOfModules()];
+		for(int i = 0; i < modules.length; i++) {
+			modules[i] = i;
+		}
+		
+		Arrays.sort(modules, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer m1, Integer m2) {
+				int result = Double.compare(moduleDeadline[m1], moduleDeadline[m2]);
+				if(result == 0) result = Integer.compare(moduleApplication[m1], moduleApplication[m2]);
+				if(result == 0) result = Boolean.compare(!isFixed(m1), !isFixed(m2));
+				if(result == 0) result = Double.compare(algorithm.getmMips()[m2], algorithm.getmMips()[m1]);
+				if(result == 0) result = Double.compare(algorithm.getmRam()[m2], algorithm.getmRam()[m1]);
+				if(result == 0) result = Double.compare(algorithm.getmStrg()[m2], algorithm.getmStrg()[m1]);
+				return result;
+			}
+		});
+		
+		return modules;
+	}
+	
+	/**
+	 * Sorts the dependencies by the order in which they are routed: by increasing tightest loop deadline of the application
+	 * of their source module and then by decreasing bandwidth.
+	 * 
+	 * @return the sorted dependency indexes
+	 */
+	private Integer[] sortDependencies() {
+		Integer[] dependencies = new Integer[algorithm.getNumberOfDependencies()];
+		for(int i = 0; i < dependencies.length; i++) {
+			dependencies[i] = i;
+		}
+		
+		Arrays.sort(dependencies, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer d1, Integer d2) {
+				int m1 = algorithm.getStartModDependency(d1);
+				int m2 = algorithm.getStartModDependency(d2);
+				
+				int result = Double.compare(moduleDeadline[m1], moduleDeadline[m2]);
+				if(result == 0) result = Double.compare(algorithm.getdBandwidth()[d2], algorithm.getdBandwidth()[d1]);
+				return result;
+			}
+		});
+		
+		return dependencies;
+	}
+	
+	/**
+	 * Verifies whether a given module can only be deployed in a single node.
+	 * 
+	 * @param module the module index
+	 * @return true if it can, otherwise false
+	 */
+	private boolean isFixed(final int module) {
+		return algorithm.getPossibleNodes(module).length == 1;
+	}
+	
+	/**
+	 * Finds the node of the already deployed module which exchanges more bandwidth with a given module.
+	 * 
+	 * @param module the module index
+	 * @param modulePlacement the current placement (-1 for the modules which were not deployed yet)
+	 * @return the index of the node; -1 if none of its modules was deployed yet
+	 */
+	private int findAnchor(final int module, final int[] modulePlacement) {
+		int anchor = -1;
+		double bandwidth = -1;
+		
+		for(int dependency : moduleDependencies[module]) {
+			int other = algorithm.getStartModDependency(dependency);
+			if(other == module)
+				other = algorithm.getFinalModDependency(dependency);
+			
+			if(modulePlacement[other] == -1 || algorithm.getdBandwidth()[dependency] <= bandwidth) continue;
+			
+			anchor = modulePlacement[other];
+			bandwidth = algorithm.getdBandwidth()[dependency];
+		}
+		
+		return anchor;
+	}
+	
+	/**
+	 * Deploys a given module in the possible node, with enough resources left, which is the closest one to a given node. The
+	 * distance is the latency of the shortest path plus the processing latency of the module in the node (as in the QoS cost
+	 * function). The ties are broken by the current node of the module (to avoid migrations) and then by the order of the
+	 * possible nodes (first-fit).
+	 * 
+	 * @param module the module index
+	 * @param anchor the index of the node; -1 if any node is as good as the others (first-fit)
+	 * @return the index of the node
+	 */
+	private int placeModule(final int module, final int anchor) {
+		int[] validValues = algorithm.getPossibleNodes(module);
+		double mips = algorithm.getmMips()[module];
+		double ram = algorithm.getmRam()[module];
+		double strg = algorithm.getmStrg()[module];
+		double cpuLoad = mips != 0 ? algorithm.getmCPUIn()[module] : 0;
+		int current = algorithm.isFirstOptimization() ? -1 : algorithm.getCurrentPlacement(module);
+		
+		if(anchor != -1 && validValues.length > 1 && anchor != lastSource) {
+			placementDijkstra.execute(anchor);
+			lastSource = anchor;
+		}
+		
+		int node = -1;
+		double nodeDistance = Constants.INF;
+		boolean nodeFits = false;
+		
+		for(int candidate : validValues) {
+			boolean fits = nodeMips[candidate] + mips <= algorithm.getfMips()[candidate] * Config.MIPS_PERCENTAGE_UTIL &&
+					nodeRam[candidate] + ram <= algorithm.getfRam()[candidate] * Config.MEM_PERCENTAGE_UTIL &&
+					nodeStrg[candidate] + strg <= algorithm.getfStrg()[candidate] * Config.STRG_PERCENTAGE_UTIL;
+			
+			// If no node has enough resources left, the closest one is used
+			if(nodeFits && !fits) continue;
+			
+			double distance = anchor != -1 && validValues.length > 1 ? placementDijkstra.getDistance(candidate) : 0;
+			if(mips != 0)
+				distance += (nodeCPULoad[candidate] + cpuLoad)/(algorithm.getfMips()[candidate]*Config.MIPS_PERCENTAGE_UTIL);
+			
+			if(node == -1 || (fits && !nodeFits) || distance < nodeDistance || (distance == nodeDistance && candidate == current)) {
+				node = candidate;
+				nodeDistance = distance;
+				nodeFits = fits;
+			}
+		}
+		
+		nodeMips[node] += mips;
+		nodeRam[node] += ram;
+		nodeStrg[node] += strg;
+		nodeCPULoad[node] += cpuLoad;
+		return node;
+	}
+	
+	/**
+	 * Routes a dependency through the shortest path whose links still have enough bandwidth for it (or through the
+	 * shortest one if there is no such path).
+	 * 
+	 * @param route the route to be filled
+	 * @param from the index of the node where the route starts
+	 * @param to the index of the node where the route ends
+	 * @param bandwidth the bandwidth needed by the dependency
+	 */
+	private void routeTuple(final int[] route, final int from, final int to, final double bandwidth) {
+		if(!fillRoute(route, from, to, null) || hasEnoughBandwidth(route, bandwidth)) {
+			addBandwidth(route, bandwidth);
+			return;
+		}
+		
+		for(int e = 0; e < saturated.length; e++) {
+			saturated[e] = edgeBandwidth[e] + bandwidth > edgeCapacity[e];
+		}
+		
+		int[] shortest = route.clone();
+		if(!fillRoute(route, from, to, saturated))
+			System.arraycopy(shortest, 0, route, 0, route.length);
+		
+		addBandwidth(route, bandwidth);
+	}
+	
+	/**
+	 * Fills a route with the shortest path between two nodes. The positions after the end of the path are filled with the
+	 * last node.
+	 * 
+	 * @param route the route to be filled
+	 * @param from the index of the node where the route starts
+	 * @param to the index of the node where the route ends
+	 * @param removedEdges the vector defining the edges which cannot be used; can be null
+	 * @return true if there is a path, otherwise false (in which case the route only holds both nodes)
+	 */
+	private boolean fillRoute(final int[] route, final int from, final int to, final boolean[] removedEdges) {
+		Arrays.fill(route, to);
+		route[0] = from;
+		
+		if(from == to) return true;
+		
+		routingDijkstra.execute(from, new int[] {to}, null, removedEdges);
+		int[] path = routingDijkstra.getPath(to);
+		if(path == null) return false;
+		
+		System.arraycopy(path, 0, route, 0, path.length);
+		return true;
+	}
+	
+	/**
+	 * Verifies whether all links of a given route still have enough bandwidth for a dependency.
+	 * 
+	 * @param route the route
+	 * @param bandwidth the bandwidth needed by the dependency
+	 * @return true if they have, otherwise false
+	 */
+	private boolean hasEnoughBandwidth(final int[] route, final double bandwidth) {
+		for(int j = 0; j < route.length - 1 && route[j] != route[j+1]; j++) {
+			int e = routingDijkstra.getEdgeIndex(route[j], route[j+1]);
+			if(edgeBandwidth[e] + bandwidth > edgeCapacity[e]) return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Adds the bandwidth of a dependency to the links of a given route.
+	 * 
+	 * @param route the route
+	 * @param bandwidth the bandwidth needed by the dependency
+	 */
+	private void addBandwidth(final int[] route, final double bandwidth) {
+		for(int j = 0; j < route.length - 1 && route[j] != route[j+1]; j++) {
+			int e = routingDijkstra.getEdgeIndex(route[j], route[j+1]);
+			if(e != -1) edgeBandwidth[e] += bandwidth;
+		}
+	}
+	
+	/**
+	 * Computes the dependencies in which each module is the source or the destination.
+	 * 
+	 * @param algorithm object which holds all the information needed to run the optimization algorithm
+	 * @return the dependencies of each module
+	 */
+	private static int[][] computeModuleDependencies(final Algorithm algorithm) {
+		int nrModules = algorithm.getNumberOfModules();
+		int[] count = new int[nrModules];
+		
+		for(int i = 0; i < algorithm.getNumberOfDependencies(); i++) {
+			count[algorithm.getStartModDependency(i)]++;
+			count[algorithm.getFinalModDependency(i)]++;
+		}
+		
+		int[][] result = new int[nrModules][];
+		for(int i = 0; i < nrModules; i++) {
+			result[i] = new int[count[i]];
+			count[i] = 0;
+		}
+		
+		for(int i = 0; i < algorithm.getNumberOfDependencies(); i++) {
+			int start = algorithm.getStartModDependency(i);
+			int end = algorithm.getFinalModDependency(i);
+			result[start][count[start]++] = i;
+			result[end][count[end]++] = i;
+		}
+		
+		return result;
+	}
+	
+}
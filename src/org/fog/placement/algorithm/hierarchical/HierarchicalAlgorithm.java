@@ -0,0 +1,585 @@
+package org.fog.placement.algorithm.hierarchical;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.fog.core.Config;
+import org.fog.core.Constants;
+import org.fog.core.FogComputingSim;
+import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Budget;
+import org.fog.placement.algorithm.Solution;
+import org.fog.placement.algorithm.greedy.GreedyPlacement;
+import org.fog.placement.algorithm.util.routing.ShortestPathTable;
+
+/**
+ * Class which splits large topologies into regions and solves the problem hierarchically, using the chosen optimization
+ * algorithm. The fog nodes are clustered by latency into regions (farthest-point clustering) and each client node joins
+ * the region of its closest center. The modules of each client are placed within the region of the client, each region
+ * being solved on its own thread. The global modules, and the modules of regions which do not find a valid solution or
+ * whose loops violate their deadlines, are escalated to a coarse problem over the whole topology, in which the modules
+ * already placed are fixed and the escalated ones can only be placed in the centers and in the largest node of each
+ * region. The result is assembled into a single solution of the whole problem.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class HierarchicalAlgorithm extends Algorithm {
+	/** Region of nodes which cannot reach any center */
+	private static final int NO_REGION = -1;
+	
+	/** Constructor of the chosen optimization algorithm which creates a sub-problem */
+	private final Constructor<? extends Algorithm> constructor;
+	
+	/** Name of the chosen optimization algorithm */
+	private final String algorithmName;
+	
+	/** Region of each node; NO_REGION if it cannot reach any center */
+	private int[] nodeRegion;
+	
+	/** Center node of each region */
+	private int[] centers;
+	
+	/** Nodes of each region (in increasing order) */
+	private int[][] regionNodes;
+	
+	/** Modules of each region (in increasing order) */
+	private int[][] regionModules;
+	
+	/** Sub-problem of each region; null if the region has no modules */
+	private Algorithm[] subproblems;
+	
+	/** Coarse problem of the last execution; null if it was not needed */
+	private Algorithm coarseProblem;
+	
+	/** Solution of each region; null if it did not find any valid solution */
+	private Solution[] subsolutions;
+	
+	/** Whether each module was escalated to the coarse problem */
+	private boolean[] escalated;
+	
+	/** Number of modules escalated to the coarse problem in the last execution */
+	private int nrEscalated;
+	
+	/**
+	 * Creates a new hierarchical algorithm for the problem held by a given optimization algorithm. The chosen optimization
+	 * algorithm must be able to create sub-problems (i.e., it must have a constructor which receives the whole problem and
+	 * the modules of the sub-problem).
+	 * 
+	 * @param algorithm the chosen optimization algorithm (it holds the whole problem)
+	 */
+	public HierarchicalAlgorithm(final Algorithm algorithm) {
+		super(algorithm, allModules(algorithm));
+		
+		Constructor<? extends Algorithm> subConstructor = null;
+		try {
+			subConstructor = algorithm.getClass().getConstructor(Algorithm.class, int[].class);
+		}catch (NoSuchMethodException e) {
+			FogComputingSim.err("The " + algorithm.getClass().getSimpleName() + " cannot be split into regions");
+		}
+		
+		constructor = subConstructor;
+		algorithmName = algorithm.getClass().getSimpleName();
+	}
+	
+	/**
+	 * Executes the hierarchical algorithm. Half of the wall time of the budget is given to the regions and the remaining
+	 * to the coarse problem.
+	 * 
+	 * @param budget the budget of the execution
+	 * @return the assembled solution; can be null
+	 */
+	@Override
+	public Solution execute(Budget budget) {
+		startBudget(budget);
+		
+		// Time at the beginning of the execution of the algorithm
+		long start = System.currentTimeMillis();
+		
+		// Both the shortest paths and the path catalog are shared by all sub-problems
+		getShortestPaths();
+		getPathCatalog();
+		
+		computeRegions();
+		computeRegionModules();
+		coarseProblem = null;
+		
+		long regionTime = Long.MAX_VALUE;
+		if(budget.getMaxTime() != Long.MAX_VALUE)
+			regionTime = (budget.getMaxTime() - budget.getElapsedTime())/2;
+		
+		solveRegions(regionTime);
+		escalate();
+		
+		Solution solution;
+		if(needsCoarseProblem())
+			solution = solveCoarseProblem();
+		else
+			solution = merge();
+		
+		solution = Solution.checkBestSolution(this, solution, null, 0);
+		
+		// Time at the end of the execution of the algorithm
+		long finish = System.currentTimeMillis();
+		
+		setElapsedTime(finish - start);
+		
+		return solution;
+	}
+	
+	/**
+	 * Clusters the nodes into regions. The centers are chosen among the fog nodes by the farthest-point heuristic, starting
+	 * from the one with the most MIPS (i.e., each new center is the fog node with the largest latency towards the closest
+	 * center), and each node joins the region of its closest center.
+	 */
+	private void computeRegions() {
+		int nrNodes = getNumberOfNodes();
+		ShortestPathTable shortestPaths = getShortestPaths();
+		
+		List<Integer> fogNodes = new ArrayList<Integer>();
+		int first = -1;
+		for(int i = 0; i < nrNodes; i++) {
+			if(getfIsFogDevice()[i] == 0) continue;
+			
+			fogNodes.add(i);
+			if(first == -1 || getfMips()[i] > getfMips()[first])
+				first = i;
+		}
+		
+		int nrRegions = Math.max(1, Math.min(Config.NR_REGIONS, fogNodes.size()));
+		centers = new int[fogNodes.isEmpty() ? 0 : nrRegions];
+		nodeRegion = new int[nrNodes];
+		Arrays.fill(nodeRegion, NO_REGION);
+		
+		double[] distance = new double[nrNodes];
+		Arrays.fill(distance, Constants.INF);
+		
+		for(int r = 0; r < centers.length; r++) {
+			int center = first;
+			
+			if(r > 0) {
+				center = -1;
+				
+				for(int node : fogNodes) {
+					if(distance[node] == 0 && centers[nodeRegion[node]] == node) continue;
+					
+					if(center == -1 || distance[node] > distance[center])
+						center = node;
+				}
+			}
+			
+			centers[r] = center;
+			
+			for(int i = 0; i < nrNodes; i++) {
+				double latency = shortestPaths.getLatency(center, i);
+				if(latency >= distance[i]) continue;
+				
+				distance[i] = latency;
+				nodeRegion[i] = latency < Constants.INF ? r : NO_REGION;
+			}
+		}
+		
+		int[] regionSize = new int[centers.length];
+		for(int i = 0; i < nrNodes; i++) {
+			if(nodeRegion[i] != NO_REGION)
+				regionSize[nodeRegion[i]]++;
+		}
+		
+		regionNodes = new int[centers.length][];
+		for(int r = 0; r < centers.length; r++) {
+			regionNodes[r] = new int[regionSize[r]];
+			regionSize[r] = 0;
+		}
+		
+		for(int i = 0; i < nrNodes; i++) {
+			if(nodeRegion[i] != NO_REGION)
+				regionNodes[nodeRegion[i]][regionSize[nodeRegion[i]]++] = i;
+		}
+	}
+	
+	/**
+	 * Assigns each module to the region of its owner node. The global modules, and the modules whose owner node does not
+	 * belong to any region, are escalated right away.
+	 */
+	private void computeRegionModules() {
+		int nrModules = getNumberOfModules();
+		int[] moduleRegion = new int[nrModules];
+		int[] regionSize = new int[centers.length];
+		
+		escalated = new boolean[nrModules];
+		
+		for(int i = 0; i < nrModules; i++) {
+			moduleRegion[i] = NO_REGION;
+			
+			if(!getmIdentifier()[i].isGlobal()) {
+				int owner = getNodeIndexByNodeId(getmIdentifier()[i].getOwnerId());
+				if(owner != -1)
+					moduleRegion[i] = nodeRegion[owner];
+			}
+			
+			if(moduleRegion[i] == NO_REGION)
+				escalated[i] = true;
+			else
+				regionSize[moduleRegion[i]]++;
+		}
+		
+		regionModules = new int[centers.length][];
+		for(int r = 0; r < centers.length; r++) {
+			regionModules[r] = new int[regionSize[r]];
+			regionSize[r] = 0;
+		}
+		
+		for(int i = 0; i < nrModules; i++) {
+			if(moduleRegion[i] != NO_REGION)
+				regionModules[moduleRegion[i]][regionSize[moduleRegion[i]]++] = i;
+		}
+	}
+	
+	/**
+	 * Solves each region, using up to NR_THREADS_HIERARCHICAL threads. The modules of each region can only be placed within
+	 * the nodes of the region, thus the nodes are used by a single region; the links between regions are split evenly among
+	 * all regions.
+	 * 
+	 * @param regionTime the maximum wall time of each region (in milliseconds); Long.MAX_VALUE if unlimited
+	 */
+	private void solveRegions(final long regionTime) {
+		int nrRegions = centers.length;
+		subproblems = new Algorithm[nrRegions];
+		subsolutions = new Solution[nrRegions];
+		
+		if(nrRegions == 0) return;
+		
+		double[][] bandwidth = new double[getNumberOfNodes()][];
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(nrRegions, Config.NR_THREADS_HIERARCHICAL)));
+		List<Future<Solution>> futures = new ArrayList<Future<Solution>>();
+		
+		try {
+			for(int r = 0; r < nrRegions; r++) {
+				if(regionModules[r].length == 0) {
+					futures.add(null);
+					continue;
+				}
+				
+				final Algorithm subproblem = createSubproblem(regionModules[r]);
+				
+				for(int i = 0; i < subproblem.getNumberOfModules(); i++) {
+					subproblem.setPossibleNodes(i, intersect(subproblem.getPossibleNodes(i), regionNodes[r]));
+				}
+				
+				for(int i = 0; i < getNumberOfNodes(); i++) {
+					bandwidth[i] = new double[getfNeighbors()[i].length];
+					
+					for(int j = 0; j < getfNeighbors()[i].length; j++) {
+						boolean inner = nodeRegion[i] == r && nodeRegion[getfNeighbors()[i][j]] == r;
+						bandwidth[i][j] = inner ? getfNeighborBandwidth()[i][j] : getfNeighborBandwidth()[i][j]/nrRegions;
+					}
+				}
+				
+				subproblem.setCapacities(getfMips(), getfRam(), getfStrg(), bandwidth);
+				subproblems[r] = subproblem;
+				
+				// The solutions of a region only cover its modules, thus the listener is only notified of the whole ones
+				final Budget budget = getBudget().createChild(regionTime);
+				budget.setListener(null);
+				
+				futures.add(executor.submit(new Callable<Solution>() {
+					@Override
+					public Solution call() {
+						return subproblem.execute(budget);
+					}
+				}));
+			}
+			
+			for(int r = 0; r < nrRegions; r++) {
+				if(futures.get(r) == null) continue;
+				
+				Solution solution = futures.get(r).get();
+				subsolutions[r] = solution != null && solution.isValid() ? solution : null;
+			}
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Hierarchical " + algorithmName + " was interrupted", e);
+		}catch (ExecutionException e) {
+			throw new IllegalStateException("Hierarchical " + algorithmName + " has failed", e.getCause());
+		}finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Escalates the modules which do not fit within their region: all modules of the regions which did not find any valid
+	 * solution and the modules of the loops which violate their deadlines.
+	 */
+	private void escalate() {
+		for(int r = 0; r < centers.length; r++) {
+			if(subproblems[r] == null) continue;
+			
+			if(subsolutions[r] == null) {
+				for(int module : regionModules[r]) {
+					escalated[module] = true;
+				}
+				continue;
+			}
+			
+			Algorithm subproblem = subproblems[r];
+			for(int i = 0; i < subproblem.getNumberOfLoops(); i++) {
+				if(subsolutions[r].getLoopDeadline(i) <= subproblem.getLoopsDeadline()[i]) continue;
+				
+				for(int j = 0; j < subproblem.getNumberOfModules() && subproblem.getLoops()[i][j] != -1; j++) {
+					escalated[regionModules[r][subproblem.getLoops()[i][j]]] = true;
+				}
+			}
+		}
+		
+		nrEscalated = 0;
+		for(boolean module : escalated) {
+			if(module) nrEscalated++;
+		}
+	}
+	
+	/**
+	 * Verifies whether the coarse problem needs to be solved (i.e., some module was escalated or some dependency connects
+	 * modules of different regions).
+	 * 
+	 * @return true if it needs, otherwise false
+	 */
+	private boolean needsCoarseProblem() {
+		if(nrEscalated > 0) return true;
+		
+		int[] moduleRegion = new int[getNumberOfModules()];
+		for(int r = 0; r < centers.length; r++) {
+			for(int module : regionModules[r]) {
+				moduleRegion[module] = r;
+			}
+		}
+		
+		for(int i = 0; i < getNumberOfDependencies(); i++) {
+			if(moduleRegion[getStartModDependency(i)] != moduleRegion[getFinalModDependency(i)])
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Solves the coarse problem. The modules which were placed by their region are fixed in that node, while the escalated
+	 * ones can be placed in the centers, in the node with the most MIPS of each region or in their current node. The
+	 * greedy solution of the coarse problem is used as seed (and as fallback).
+	 * 
+	 * @return the solution of the whole problem (already evaluated)
+	 */
+	private Solution solveCoarseProblem() {
+		Algorithm coarse = createSubproblem(allModules(this));
+		coarseProblem = coarse;
+		
+		int[] candidates = getCoarseNodes();
+		int[] placement = getRegionPlacement();
+		
+		for(int i = 0; i < coarse.getNumberOfModules(); i++) {
+			if(!escalated[i]) {
+				coarse.setPossibleNodes(i, new int[] {placement[i]});
+				continue;
+			}
+			
+			int[] nodes = candidates;
+			if(getCurrentPlacement(i) != -1 && Arrays.binarySearch(candidates, getCurrentPlacement(i)) < 0) {
+				nodes = Arrays.copyOf(candidates, candidates.length + 1);
+				nodes[candidates.length] = getCurrentPlacement(i);
+				Arrays.sort(nodes);
+			}
+			
+			// The escalated modules keep all their nodes if none of the coarse ones is possible
+			int[] possibleNodes = intersect(coarse.getPossibleNodes(i), nodes);
+			if(possibleNodes.length > 0)
+				coarse.setPossibleNodes(i, possibleNodes);
+		}
+		
+		Solution seed = new GreedyPlacement(coarse).build();
+		coarse.setSeedSolution(seed);
+		
+		// The coarse problem holds all modules, thus its solutions are reported to the listener (it takes the time left)
+		Solution solution = coarse.execute(getBudget().createChild(Long.MAX_VALUE));
+		if(solution == null || !solution.isValid())
+			solution = seed;
+		
+		return new Solution(this, solution.getModulePlacement(), solution.getTupleRoutingMap(), solution.getMigrationRoutingMap());
+	}
+	
+	/**
+	 * Gets the nodes of the coarse problem: the centers and the node with the most MIPS of each region.
+	 * 
+	 * @return the indexes of the nodes of the coarse problem (in increasing order)
+	 */
+	private int[] getCoarseNodes() {
+		int[] nodes = new int[2*centers.length];
+		int nrNodes = 0;
+		
+		for(int r = 0; r < centers.length; r++) {
+			int largest = centers[r];
+			for(int node : regionNodes[r]) {
+				if(getfIsFogDevice()[node] != 0 && getfMips()[node] > getfMips()[largest])
+					largest = node;
+			}
+			
+			nodes[nrNodes++] = centers[r];
+			if(largest != centers[r])
+				nodes[nrNodes++] = largest;
+		}
+		
+		nodes = Arrays.copyOf(nodes, nrNodes);
+		Arrays.sort(nodes);
+		
+		return nodes;
+	}
+	
+	/**
+	 * Gets the node of each module which was placed by its region.
+	 * 
+	 * @return the node of each module; -1 for the escalated modules
+	 */
+	private int[] getRegionPlacement() {
+		int[] placement = new int[getNumberOfModules()];
+		Arrays.fill(placement, -1);
+		
+		for(int r = 0; r < centers.length; r++) {
+			if(subsolutions[r] == null) continue;
+			
+			for(int i = 0; i < regionModules[r].length; i++) {
+				placement[regionModules[r][i]] = subsolutions[r].getModulePlacement()[i];
+			}
+		}
+		
+		return placement;
+	}
+	
+	/**
+	 * Merges the solutions of all regions into a solution of the whole problem (only used when there are neither escalated
+	 * modules nor dependencies between regions, thus all regions have found a valid solution).
+	 * 
+	 * @return the merged solution (already evaluated)
+	 */
+	private Solution merge() {
+		int[] modulePlacement = new int[getNumberOfModules()];
+		int[][] tupleRoutingMap = new int[getNumberOfDependencies()][];
+		int[][] migrationRoutingMap = new int[getNumberOfModules()][];
+		
+		for(int r = 0; r < centers.length; r++) {
+			if(subsolutions[r] == null) continue;
+			
+			Algorithm subproblem = subproblems[r];
+			for(int i = 0; i < regionModules[r].length; i++) {
+				modulePlacement[regionModules[r][i]] = subsolutions[r].getModulePlacement()[i];
+				migrationRoutingMap[regionModules[r][i]] = subsolutions[r].getMigrationRoutingMap()[i];
+			}
+			
+			for(int i = 0; i < subproblem.getNumberOfDependencies(); i++) {
+				int start = regionModules[r][subproblem.getStartModDependency(i)];
+				int end = regionModules[r][subproblem.getFinalModDependency(i)];
+				tupleRoutingMap[getDependencyIndex(start, end)] = subsolutions[r].getTupleRoutingMap()[i];
+			}
+		}
+		
+		return new Solution(this, modulePlacement, tupleRoutingMap, migrationRoutingMap);
+	}
+	
+	/**
+	 * Creates the sub-problem of a given set of modules using the chosen optimization algorithm.
+	 * 
+	 * @param modules the indexes of the modules (in increasing order)
+	 * @return the sub-problem
+	 */
+	private Algorithm createSubproblem(final int[] modules) {
+		try {
+			return constructor.newInstance(this, modules);
+		}catch (Exception e) {
+			throw new IllegalStateException("Could not create the sub-problems of the " + algorithmName, e);
+		}
+	}
+	
+	/**
+	 * Computes the intersection of two sorted sets of nodes.
+	 * 
+	 * @param nodes1 the first set of nodes (in increasing order)
+	 * @param nodes2 the second set of nodes (in increasing order)
+	 * @return the nodes which belong to both sets (in increasing order)
+	 */
+	private static int[] intersect(final int[] nodes1, final int[] nodes2) {
+		int[] intersection = new int[Math.min(nodes1.length, nodes2.length)];
+		int size = 0;
+		
+		for(int i = 0, j = 0; i < nodes1.length && j < nodes2.length;) {
+			if(nodes1[i] < nodes2[j]) i++;
+			else if(nodes1[i] > nodes2[j]) j++;
+			else {
+				intersection[size++] = nodes1[i];
+				i++;
+				j++;
+			}
+		}
+		
+		return Arrays.copyOf(intersection, size);
+	}
+	
+	/**
+	 * Gets the indexes of all modules of a given problem.
+	 * 
+	 * @param algorithm the object which holds the problem
+	 * @return the indexes of all modules
+	 */
+	private static int[] allModules(final Algorithm algorithm) {
+		int[] modules = new int[algorithm.getNumberOfModules()];
+		for(int i = 0; i < modules.length; i++) {
+			modules[i] = i;
+		}
+		
+		return modules;
+	}
+	
+	/**
+	 * Gets the number of regions of the last execution.
+	 * 
+	 * @return the number of regions
+	 */
+	public int getNumberOfRegions() {
+		return centers != null ? centers.length : 0;
+	}
+	
+	/**
+	 * Gets the sub-problems of the last execution (i.e., the chosen optimization algorithm which solved each region and,
+	 * if it was needed, the coarse problem).
+	 * 
+	 * @return the sub-problems
+	 */
+	public Algorithm[] getSubproblems() {
+		List<Algorithm> solved = new ArrayList<Algorithm>();
+		
+		if(subproblems != null) {
+			for(Algorithm subproblem : subproblems) {
+				if(subproblem != null) solved.add(subproblem);
+			}
+		}
+		
+		if(coarseProblem != null)
+			solved.add(coarseProblem);
+		
+		return solved.toArray(new Algorithm[solved.size()]);
+	}
+	
+	/**
+	 * Gets the number of modules escalated to the coarse problem in the last execution.
+	 * 
+	 * @return the number of escalated modules
+	 */
+	public int getNrEscalated() {
+		return nrEscalated;
+	}
+	
+}
@@ -0,0 +1,523 @@
+package org.fog.placement.algorithm.lp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.math3.exception.TooManyIterationsException;
+import org.apache.commons.math3.optim.MaxIter;
+import org.apache.commons.math3.optim.PointValuePair;
+import org.apache.commons.math3.optim.linear.LinearConstraint;
+import org.apache.commons.math3.optim.linear.LinearConstraintSet;
+import org.apache.commons.math3.optim.linear.LinearObjectiveFunction;
+import org.apache.commons.math3.optim.linear.NoFeasibleSolutionException;
+import org.apache.commons.math3.optim.linear.NonNegativeConstraint;
+import org.apache.commons.math3.optim.linear.Relationship;
+import org.apache.commons.math3.optim.linear.SimplexSolver;
+import org.apache.commons.math3.optim.linear.UnboundedSolutionException;
+import org.apache.commons.math3.optim.nonlinear.scalar.GoalType;
+
+/**
+ * Class which solves mixed integer linear programming models in pure Java, through a branch-and-bound over the linear
+ * relaxations solved by the simplex solver of Apache Commons Math. The objectives are minimized one at a time (by
+ * decreasing priority): once an objective is optimal, it is bounded by its optimal value (plus the allowed degradation)
+ * while the next ones are minimized. The optimal solution of each objective is the initial best solution (incumbent)
+ * of the next one, so that the search of the next objective starts with a bound. The open nodes are kept in a single
+ * pool (sorted by the bound of their parent) which is shared by several threads.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class BranchAndBoundSolver implements LinearSolver {
+	/** Maximum distance to the nearest integer for a value to be considered integer */
+	private static final double INTEGRALITY_TOLERANCE = 1E-6;
+	
+	/** Relative slack added to the bound of each optimized objective (so that its optimal solution remains feasible) */
+	private static final double FEASIBILITY_TOLERANCE = 1E-7;
+	
+	/** Relative gap below which a node is not expected to improve the best solution */
+	private static final double GAP_TOLERANCE = 1E-9;
+	
+	/** Maximum number of iterations of the simplex solver for each relaxation */
+	private static final int MAX_ITER_SIMPLEX = 1000000;
+	
+	/** Number of threads exploring the nodes */
+	private final int nrThreads;
+	
+	public BranchAndBoundSolver(final int nrThreads) {
+		this.nrThreads = Math.max(1, nrThreads);
+	}
+	
+	/**
+	 * Solves a given model, minimizing its objectives in lexicographic order.
+	 * 
+	 * @param model the model
+	 * @param timeLimit the maximum wall time (in milliseconds); Long.MAX_VALUE if unlimited
+	 * @return the value of each variable in the best solution found; null if no solution was found
+	 */
+	@Override
+	public double[] solve(final LinearModel model, final long timeLimit) {
+		long deadline = timeLimit == Long.MAX_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() + timeLimit;
+		List<LinearModel.Constraint> bounds = new ArrayList<LinearModel.Constraint>();
+		List<LinearModel.Objective> objectives = model.getLexicographicObjectives();
+		double[] incumbent = null;
+		
+		// A model without objectives only needs a feasible solution
+		if(objectives.isEmpty())
+			return new Search(model, new LinearExpression(), bounds, null, deadline).run();
+		
+		for(LinearModel.Objective objective : objectives) {
+			Search search = new Search(model, objective.getExpression(), bounds, incumbent, deadline);
+			double[] solution = search.run();
+			
+			// Either the model is infeasible or the time is over (in which case the best solution found so far is kept)
+			if(solution == null) return incumbent;
+			incumbent = solution;
+			if(search.isStopped()) return incumbent;
+			
+			// The next objectives cannot degrade this one more than allowed
+			double optimum = objective.getExpression().evaluate(incumbent);
+			double slack = FEASIBILITY_TOLERANCE*Math.max(1, Math.abs(optimum));
+			bounds.add(new LinearModel.Constraint(objective.getExpression(), LinearModel.LESS_EQUAL,
+					objective.getDegradedValue(optimum) + slack));
+		}
+		
+		return incumbent;
+	}
+	
+	/**
+	 * Class representing a node of the search, i.e., a linear relaxation in which the bounds of some integer variables are
+	 * tighter than in the original model.
+	 */
+	private static class Node {
+		/** Vector holding the lower bound of each variable */
+		private final double[] lowerBounds;
+		
+		/** Vector holding the upper bound of each variable */
+		private final double[] upperBounds;
+		
+		/** Lower bound of the objective in this node (the value of the relaxation of its parent) */
+		private final double bound;
+		
+		/** Depth of the node */
+		private final int depth;
+		
+		Node(final double[] lowerBounds, final double[] upperBounds, final double bound, final int depth) {
+			this.lowerBounds = lowerBounds;
+			this.upperBounds = upperBounds;
+			this.bound = bound;
+			this.depth = depth;
+		}
+	}
+	
+	/**
+	 * Class representing the branch-and-bound search of a single objective.
+	 */
+	private class Search {
+		/** Model being solved */
+		private final LinearModel model;
+		
+		/** Objective being minimized */
+		private final LinearExpression objective;
+		
+		/** Constraints which bound the objectives already optimized */
+		private final List<LinearModel.Constraint> bounds;
+		
+		/** Time at which the search stops (in milliseconds) */
+		private final long deadline;
+		
+		/** Open nodes sorted by bound (and then by depth, so that the search dives while the bounds are equal) */
+		private final PriorityQueue<Node> pool;
+		
+		/** Best solution found so far; can be null */
+		private double[] incumbent;
+		
+		/** Objective value of the best solution found so far */
+		private volatile double incumbentValue;
+		
+		/** Number of nodes being explored */
+		private int active;
+		
+		/** Defines whether the search was stopped before being complete */
+		private volatile boolean stopped;
+		
+		Search(final LinearModel model, final LinearExpression objective, final List<LinearModel.Constraint> bounds,
+				final double[] incumbent, final long deadline) {
+			int nrVariables = model.getNumberOfVariables();
+			
+			this.model = model;
+			this.objective = objective;
+			this.bounds = bounds;
+			this.deadline = deadline;
+			this.incumbent = incumbent;
+			incumbentValue = incumbent != null ? objective.evaluate(incumbent) : Double.POSITIVE_INFINITY;
+			
+			pool = new PriorityQueue<Node>(64, new Comparator<Node>() {
+				@Override
+				public int compare(Node o1, Node o2) {
+					int result = Double.compare(o1.bound, o2.bound);
+					return result != 0 ? result : Integer.compare(o2.depth, o1.depth);
+				}
+			});
+			
+			double[] lowerBounds = new double[nrVariables];
+			double[] upperBounds = new double[nrVariables];
+			for(int i = 0; i < nrVariables; i++) {
+				lowerBounds[i] = model.getLowerBound(i);
+				upperBounds[i] = model.getUpperBound(i);
+			}
+			
+			pool.add(new Node(lowerBounds, upperBounds, Double.NEGATIVE_INFINITY, 0));
+		}
+		
+		/**
+		 * Runs the search.
+		 * 
+		 * @return the best solution found; null if none was found
+		 */
+		double[] run() {
+			if(nrThreads == 1) {
+				explore();
+				return incumbent;
+			}
+			
+			ExecutorService executor = Executors.newFixedThreadPool(nrThreads);
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			
+			try {
+				for(int i = 0; i < nrThreads; i++) {
+					futures.add(executor.submit(new Runnable() {
+						@Override
+						public void run() {
+							explore();
+						}
+					}));
+				}
+				
+				for(Future<?> future : futures) {
+					future.get();
+				}
+			}catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Branch-and-bound was interrupted", e);
+			}catch (ExecutionException e) {
+				throw new IllegalStateException("Branch-and-bound has failed", e.getCause());
+			}finally {
+				executor.shutdown();
+			}
+			
+			return incumbent;
+		}
+		
+		/**
+		 * Verifies whether the search was stopped before being complete.
+		 * 
+		 * @return true if the best solution is not proven optimal, otherwise false
+		 */
+		boolean isStopped() {
+			return stopped;
+		}
+		
+		/**
+		 * Explores the nodes of the pool until it is empty (and no other thread can add new nodes) or the time is over.
+		 */
+		private void explore() {
+			Node node;
+			
+			while((node = take()) != null) {
+				try {
+					if(System.currentTimeMillis() >= deadline)
+						stopped = true;
+					else if(!isPruned(node.bound))
+						branch(node);
+				}finally {
+					release();
+				}
+			}
+		}
+		
+		/**
+		 * Takes the node with the lowest bound out of the pool, waiting while the pool is empty and some other thread may
+		 * still add new nodes to it.
+		 * 
+		 * @return the node; null if the search is over
+		 */
+		private synchronized Node take() {
+			while(pool.isEmpty() && active > 0 && !stopped) {
+				try {
+					wait();
+				}catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					stopped = true;
+				}
+			}
+			
+			if(pool.isEmpty() || stopped) {
+				notifyAll();
+				return null;
+			}
+			
+			active++;
+			return pool.poll();
+		}
+		
+		/**
+		 * Marks a node as explored.
+		 */
+		private synchronized void release() {
+			active--;
+			notifyAll();
+		}
+		
+		/**
+		 * Adds new nodes to the pool.
+		 * 
+		 * @param nodes the nodes
+		 */
+		private synchronized void offer(final Node... nodes) {
+			for(Node node : nodes)
+				pool.add(node);
+			notifyAll();
+		}
+		
+		/**
+		 * Updates the best solution found so far.
+		 * 
+		 * @param solution the new solution
+		 * @param value the objective value of the solution
+		 */
+		private synchronized void update(final double[] solution, final double value) {
+			if(value >= incumbentValue) return;
+			incumbent = solution;
+			incumbentValue = value;
+		}
+		
+		/**
+		 * Verifies whether a node with a given bound cannot improve the best solution.
+		 * 
+		 * @param bound the bound of the node
+		 * @return true if it can be discarded, otherwise false
+		 */
+		private boolean isPruned(final double bound) {
+			double value = incumbentValue;
+			return bound >= value - GAP_TOLERANCE*Math.max(1, Math.abs(value));
+		}
+		
+		/**
+		 * Solves the relaxation of a given node and either updates the best solution (if all integer variables are integer)
+		 * or splits the node in two by the most fractional integer variable.
+		 * 
+		 * @param node the node
+		 */
+		private void branch(final Node node) {
+			double[] solution = solveRelaxation(node);
+			if(solution == null) return;
+			
+			double value = objective.evaluate(solution);
+			if(isPruned(value)) return;
+			
+			int branchVariable = -1;
+			double maxFraction = INTEGRALITY_TOLERANCE;
+			
+			for(int i = 0; i < solution.length; i++) {
+				if(!model.isInteger(i)) continue;
+				
+				double fraction = Math.abs(solution[i] - Math.rint(solution[i]));
+				if(fraction > maxFraction) {
+					maxFraction = fraction;
+					branchVariable = i;
+				}
+			}
+			
+			if(branchVariable == -1) {
+				for(int i = 0; i < solution.length; i++) {
+					if(model.isInteger(i))
+						solution[i] = Math.rint(solution[i]);
+				}
+				
+				update(solution, objective.evaluate(solution));
+				return;
+			}
+			
+			double[] upperBounds = Arrays.copyOf(node.upperBounds, node.upperBounds.length);
+			upperBounds[branchVariable] = Math.floor(solution[branchVariable]);
+			
+			double[] lowerBounds = Arrays.copyOf(node.lowerBounds, node.lowerBounds.length);
+			lowerBounds[branchVariable] = Math.ceil(solution[branchVariable]);
+			
+			offer(new Node(node.lowerBounds, upperBounds, value, node.depth + 1),
+					new Node(lowerBounds, node.upperBounds, value, node.depth + 1));
+		}
+		
+		/**
+		 * Solves the linear relaxation of a given node. The variables whose lower and upper bounds are equal are replaced
+		 * by their value, and the other ones are shifted by their lower bound (so that all of them are non-negative).
+		 * 
+		 * @param node the node
+		 * @return the value of each variable; null if the relaxation is infeasible
+		 */
+		private double[] solveRelaxation(final Node node) {
+			int nrVariables = model.getNumberOfVariables();
+			double[] lower = node.lowerBounds;
+			double[] upper = node.upperBounds;
+			
+			// Index of each variable within the relaxation (-1 if it is fixed)
+			int[] column = new int[nrVariables];
+			int nrColumns = 0;
+			
+			for(int i = 0; i < nrVariables; i++) {
+				if(lower[i] > upper[i]) return null;
+				column[i] = upper[i] - lower[i] > INTEGRALITY_TOLERANCE ? nrColumns++ : -1;
+			}
+			
+			double[] solution = Arrays.copyOf(lower, nrVariables);
+			if(nrColumns == 0)
+				return isFeasible(solution) ? solution : null;
+			
+			List<LinearConstraint> constraints = new ArrayList<LinearConstraint>();
+			
+			for(LinearModel.Constraint constraint : model.getConstraints()) {
+				if(!addConstraint(constraints, constraint, column, nrColumns, lower)) return null;
+			}
+			
+			for(LinearModel.Constraint constraint : bounds) {
+				if(!addConstraint(constraints, constraint, column, nrColumns, lower)) return null;
+			}
+			
+			for(int i = 0; i < nrVariables; i++) {
+				if(column[i] == -1 || Double.isInfinite(upper[i])) continue;
+				
+				double[] coefficients = new double[nrColumns];
+				coefficients[column[i]] = 1;
+				constraints.add(new LinearConstraint(coefficients, Relationship.LEQ, upper[i] - lower[i]));
+			}
+			
+			double[] coefficients = new double[nrColumns];
+			for(int i = 0; i < objective.size(); i++) {
+				int variable = objective.getVariable(i);
+				if(column[variable] != -1)
+					coefficients[column[variable]] += objective.getCoefficient(i);
+			}
+			
+			PointValuePair result;
+			try {
+				result = new SimplexSolver().optimize(new MaxIter(MAX_ITER_SIMPLEX), new LinearObjectiveFunction(coefficients, 0),
+						new LinearConstraintSet(constraints), GoalType.MINIMIZE, new NonNegativeConstraint(true));
+			}catch (NoFeasibleSolutionException e) {
+				return null;
+			}catch (UnboundedSolutionException e) {
+				return null;
+			}catch (TooManyIterationsException e) {
+				return null;
+			}
+			
+			double[] point = result.getPoint();
+			for(int i = 0; i < nrVariables; i++) {
+				if(column[i] != -1)
+					solution[i] += point[column[i]];
+			}
+			
+			return solution;
+		}
+		
+		/**
+		 * Adds a given constraint of the model to the relaxation of a node, replacing the fixed variables by their value.
+		 * 
+		 * @param constraints the list of constraints of the relaxation
+		 * @param constraint the constraint of the model
+		 * @param column the index of each variable within the relaxation (-1 if it is fixed)
+		 * @param nrColumns the number of variables of the relaxation
+		 * @param lower the lower bound of each variable (the value of the fixed ones)
+		 * @return false if the constraint is violated by the fixed variables (and has no other variables), otherwise true
+		 */
+		private boolean addConstraint(final List<LinearConstraint> constraints, final LinearModel.Constraint constraint,
+				final int[] column, final int nrColumns, final double[] lower) {
+			LinearExpression expression = constraint.getExpression();
+			double[] coefficients = new double[nrColumns];
+			double value = constraint.getValue() - expression.getConstant();
+			boolean empty = true;
+			
+			for(int i = 0; i < expression.size(); i++) {
+				int variable = expression.getVariable(i);
+				double coefficient = expression.getCoefficient(i);
+				
+				value -= coefficient*lower[variable];
+				if(column[variable] == -1) continue;
+				
+				coefficients[column[variable]] += coefficient;
+				empty = false;
+			}
+			
+			if(empty)
+				return isSatisfied(0, constraint.getType(), value);
+			
+			constraints.add(new LinearConstraint(coefficients, getRelationship(constraint.getType()), value));
+			return true;
+		}
+		
+		/**
+		 * Verifies whether a solution (in which all variables are fixed) respects all the constraints.
+		 * 
+		 * @param solution the value of each variable
+		 * @return true if it respects all constraints, otherwise false
+		 */
+		private boolean isFeasible(final double[] solution) {
+			for(LinearModel.Constraint constraint : model.getConstraints()) {
+				if(!isSatisfied(constraint.getExpression().evaluate(solution), constraint.getType(), constraint.getValue()))
+					return false;
+			}
+			
+			for(LinearModel.Constraint constraint : bounds) {
+				if(!isSatisfied(constraint.getExpression().evaluate(solution), constraint.getType(), constraint.getValue()))
+					return false;
+			}
+			
+			return true;
+		}
+	}
+	
+	/**
+	 * Verifies whether a given relation holds (within the feasibility tolerance).
+	 * 
+	 * @param left the left hand side
+	 * @param type the type of the relation (see LinearModel)
+	 * @param right the right hand side
+	 * @return true if it holds, otherwise false
+	 */
+	private static boolean isSatisfied(final double left, final int type, final double right) {
+		double tolerance = FEASIBILITY_TOLERANCE*Math.max(1, Math.abs(right));
+		
+		switch (type) {
+			case LinearModel.LESS_EQUAL:
+				return left <= right + tolerance;
+			case LinearModel.GREATER_EQUAL:
+				return left >= right - tolerance;
+			default:
+				return Math.abs(left - right) <= tolerance;
+		}
+	}
+	
+	/**
+	 * Converts the type of a constraint into the relationship used by the simplex solver.
+	 * 
+	 * @param type the type of the constraint (see LinearModel)
+	 * @return the relationship
+	 */
+	private static Relationship getRelationship(final int type) {
+		switch (type) {
+			case LinearModel.LESS_EQUAL:
+				return Relationship.LEQ;
+			case LinearModel.GREATER_EQUAL:
+				return Relationship.GEQ;
+			default:
+				return Relationship.EQ;
+		}
+	}
+	
+}
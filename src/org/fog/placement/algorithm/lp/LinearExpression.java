@@ -0,0 +1,142 @@
+package org.fog.placement.algorithm.lp;
+
+import java.util.Arrays;
+
+/**
+ * Class representing a linear expression (a sum of terms, each one being a variable of the model times a coefficient,
+ * plus a constant). The same variable can appear in several terms, in which case their coefficients are summed.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class LinearExpression {
+	/** Vector holding the index of the variable of each term */
+	private int[] variables;
+	
+	/** Vector holding the coefficient of each term */
+	private double[] coefficients;
+	
+	/** Number of terms of the expression */
+	private int size;
+	
+	/** Constant of the expression */
+	private double constant;
+	
+	public LinearExpression() {
+		variables = new int[4];
+		coefficients = new double[4];
+	}
+	
+	/**
+	 * Adds a new term to the expression.
+	 * 
+	 * @param variable the index of the variable
+	 * @param coefficient the coefficient of the variable
+	 * @return the expression itself
+	 */
+	public LinearExpression addTerm(final int variable, final double coefficient) {
+		if(coefficient == 0) return this;
+		
+		if(size == variables.length) {
+			variables = Arrays.copyOf(variables, 2*size);
+			coefficients = Arrays.copyOf(coefficients, 2*size);
+		}
+		
+		variables[size] = variable;
+		coefficients[size++] = coefficient;
+		return this;
+	}
+	
+	/**
+	 * Adds a constant to the expression.
+	 * 
+	 * @param value the constant
+	 * @return the expression itself
+	 */
+	public LinearExpression addConstant(final double value) {
+		constant += value;
+		return this;
+	}
+	
+	/**
+	 * Adds another expression times a given factor to the expression.
+	 * 
+	 * @param expression the other expression
+	 * @param factor the factor
+	 * @return the expression itself
+	 */
+	public LinearExpression add(final LinearExpression expression, final double factor) {
+		for(int i = 0; i < expression.size; i++) {
+			addTerm(expression.variables[i], expression.coefficients[i]*factor);
+		}
+		
+		constant += expression.constant*factor;
+		return this;
+	}
+	
+	/**
+	 * Removes all terms and the constant of the expression, thus it can be filled again (e.g., once its coefficients change).
+	 * 
+	 * @return the expression itself
+	 */
+	public LinearExpression clear() {
+		size = 0;
+		constant = 0;
+		return this;
+	}
+	
+	/**
+	 * Computes the value of the expression for given values of the variables.
+	 * 
+	 * @param values the value of each variable of the model
+	 * @return the value of the expression
+	 */
+	public double evaluate(final double[] values) {
+		double value = constant;
+		
+		for(int i = 0; i < size; i++) {
+			value += coefficients[i]*values[variables[i]];
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Gets the number of terms of the expression.
+	 * 
+	 * @return the number of terms
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Gets the index of the variable of a given term.
+	 * 
+	 * @param term the index of the term
+	 * @return the index of the variable
+	 */
+	public int getVariable(final int term) {
+		return variables[term];
+	}
+	
+	/**
+	 * Gets the coefficient of a given term.
+	 * 
+	 * @param term the index of the term
+	 * @return the coefficient
+	 */
+	public double getCoefficient(final int term) {
+		return coefficients[term];
+	}
+	
+	/**
+	 * Gets the constant of the expression.
+	 * 
+	 * @return the constant
+	 */
+	public double getConstant() {
+		return constant;
+	}
+	
+}
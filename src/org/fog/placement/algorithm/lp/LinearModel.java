@@ -0,0 +1,367 @@
+package org.fog.placement.algorithm.lp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Class representing a mixed integer linear programming model, independent of the solver: the variables (with their
+ * bounds and whether they are integer), the linear constraints and the objectives, which are minimized in lexicographic
+ * order. As in CPLEX, the objectives are sorted by decreasing priority, those with the same priority are blended in a
+ * single objective using their weights, and each one may be degraded within its tolerances while optimizing the next ones.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class LinearModel {
+	/** Type of the constraints in which the expression is lower or equal than the right hand side */
+	public static final int LESS_EQUAL = 0;
+	
+	/** Type of the constraints in which the expression is greater or equal than the right hand side */
+	public static final int GREATER_EQUAL = 1;
+	
+	/** Type of the constraints in which the expression is equal to the right hand side */
+	public static final int EQUAL = 2;
+	
+	/** List holding the lower bound of each variable */
+	private final List<Double> lowerBounds;
+	
+	/** List holding the upper bound of each variable */
+	private final List<Double> upperBounds;
+	
+	/** List defining whether each variable is integer */
+	private final List<Boolean> integers;
+	
+	/** List holding the constraints */
+	private final List<Constraint> constraints;
+	
+	/** List holding the objectives */
+	private final List<Objective> objectives;
+	
+	public LinearModel() {
+		lowerBounds = new ArrayList<Double>();
+		upperBounds = new ArrayList<Double>();
+		integers = new ArrayList<Boolean>();
+		constraints = new ArrayList<Constraint>();
+		objectives = new ArrayList<Objective>();
+	}
+	
+	/**
+	 * Adds a new binary variable to the model.
+	 * 
+	 * @return the index of the variable
+	 */
+	public int addBoolVar() {
+		return addVar(0, 1, true);
+	}
+	
+	/**
+	 * Adds a new continuous variable to the model.
+	 * 
+	 * @param lowerBound the lower bound of the variable
+	 * @param upperBound the upper bound of the variable (Double.POSITIVE_INFINITY if unbounded)
+	 * @return the index of the variable
+	 */
+	public int addNumVar(final double lowerBound, final double upperBound) {
+		return addVar(lowerBound, upperBound, false);
+	}
+	
+	/**
+	 * Adds a new variable to the model.
+	 * 
+	 * @param lowerBound the lower bound of the variable
+	 * @param upperBound the upper bound of the variable (Double.POSITIVE_INFINITY if unbounded)
+	 * @param integer whether the variable is integer
+	 * @return the index of the variable
+	 */
+	private int addVar(final double lowerBound, final double upperBound, final boolean integer) {
+		lowerBounds.add(lowerBound);
+		upperBounds.add(upperBound);
+		integers.add(integer);
+		return lowerBounds.size() - 1;
+	}
+	
+	/**
+	 * Adds the constraint expression <= value.
+	 * 
+	 * @param expression the expression
+	 * @param value the right hand side
+	 * @return the constraint (its expression is kept by reference, thus it can be updated later)
+	 */
+	public Constraint addLe(final LinearExpression expression, final double value) {
+		Constraint constraint = new Constraint(expression, LESS_EQUAL, value);
+		constraints.add(constraint);
+		return constraint;
+	}
+	
+	/**
+	 * Adds the constraint expression >= value.
+	 * 
+	 * @param expression the expression
+	 * @param value the right hand side
+	 * @return the constraint (its expression is kept by reference, thus it can be updated later)
+	 */
+	public Constraint addGe(final LinearExpression expression, final double value) {
+		Constraint constraint = new Constraint(expression, GREATER_EQUAL, value);
+		constraints.add(constraint);
+		return constraint;
+	}
+	
+	/**
+	 * Adds the constraint expression = value.
+	 * 
+	 * @param expression the expression
+	 * @param value the right hand side
+	 * @return the constraint (its expression is kept by reference, thus it can be updated later)
+	 */
+	public Constraint addEq(final LinearExpression expression, final double value) {
+		Constraint constraint = new Constraint(expression, EQUAL, value);
+		constraints.add(constraint);
+		return constraint;
+	}
+	
+	/**
+	 * Adds a new objective to be minimized.
+	 * 
+	 * @param expression the expression to be minimized
+	 * @param priority the priority of the objective (the higher, the sooner it is optimized)
+	 * @param weight the weight of the objective when it is blended with others with the same priority
+	 * @param absTol the absolute degradation allowed for the objective while optimizing the next ones
+	 * @param relTol the relative degradation allowed for the objective while optimizing the next ones
+	 */
+	public void addObjective(final LinearExpression expression, final int priority, final double weight,
+			final double absTol, final double relTol) {
+		objectives.add(new Objective(expression, priority, weight, absTol, relTol));
+	}
+	
+	/**
+	 * Gets the objectives to be minimized sorted by decreasing priority, the ones with the same priority being blended
+	 * in a single objective (the largest tolerances of them are kept).
+	 * 
+	 * @return the list of blended objectives
+	 */
+	public List<Objective> getLexicographicObjectives() {
+		List<Objective> sorted = new ArrayList<Objective>(objectives);
+		Collections.sort(sorted, new Comparator<Objective>() {
+			@Override
+			public int compare(Objective o1, Objective o2) {
+				return Integer.compare(o2.priority, o1.priority);
+			}
+		});
+		
+		List<Objective> blended = new ArrayList<Objective>();
+		for(Objective objective : sorted) {
+			Objective last = blended.isEmpty() ? null : blended.get(blended.size() - 1);
+			
+			if(last == null || last.priority != objective.priority) {
+				LinearExpression expression = new LinearExpression().add(objective.expression, objective.weight);
+				blended.add(new Objective(expression, objective.priority, 1, objective.absTol, objective.relTol));
+			}else {
+				last.expression.add(objective.expression, objective.weight);
+				last.absTol = Math.max(last.absTol, objective.absTol);
+				last.relTol = Math.max(last.relTol, objective.relTol);
+			}
+		}
+		
+		return blended;
+	}
+	
+	/**
+	 * Gets the number of variables of the model.
+	 * 
+	 * @return the number of variables
+	 */
+	public int getNumberOfVariables() {
+		return lowerBounds.size();
+	}
+	
+	/**
+	 * Gets the lower bound of a given variable.
+	 * 
+	 * @param variable the index of the variable
+	 * @return the lower bound
+	 */
+	public double getLowerBound(final int variable) {
+		return lowerBounds.get(variable);
+	}
+	
+	/**
+	 * Gets the upper bound of a given variable.
+	 * 
+	 * @param variable the index of the variable
+	 * @return the upper bound
+	 */
+	public double getUpperBound(final int variable) {
+		return upperBounds.get(variable);
+	}
+	
+	/**
+	 * Verifies whether a given variable is integer.
+	 * 
+	 * @param variable the index of the variable
+	 * @return true if it is integer, otherwise false
+	 */
+	public boolean isInteger(final int variable) {
+		return integers.get(variable);
+	}
+	
+	/**
+	 * Gets the constraints of the model.
+	 * 
+	 * @return the list of constraints
+	 */
+	public List<Constraint> getConstraints() {
+		return constraints;
+	}
+	
+	/**
+	 * Gets the objectives of the model (in the order in which they were added).
+	 * 
+	 * @return the list of objectives
+	 */
+	public List<Objective> getObjectives() {
+		return objectives;
+	}
+	
+	/**
+	 * Class representing a linear constraint.
+	 */
+	public static class Constraint {
+		/** Left hand side of the constraint */
+		private final LinearExpression expression;
+		
+		/** Type of the constraint (LESS_EQUAL, GREATER_EQUAL or EQUAL) */
+		private final int type;
+		
+		/** Right hand side of the constraint (the constant of the expression is part of the left hand side) */
+		private double value;
+		
+		Constraint(final LinearExpression expression, final int type, final double value) {
+			this.expression = expression;
+			this.type = type;
+			this.value = value;
+		}
+		
+		/**
+		 * Gets the left hand side of the constraint.
+		 * 
+		 * @return the expression
+		 */
+		public LinearExpression getExpression() {
+			return expression;
+		}
+		
+		/**
+		 * Gets the type of the constraint.
+		 * 
+		 * @return LESS_EQUAL, GREATER_EQUAL or EQUAL
+		 */
+		public int getType() {
+			return type;
+		}
+		
+		/**
+		 * Gets the right hand side of the constraint.
+		 * 
+		 * @return the right hand side
+		 */
+		public double getValue() {
+			return value;
+		}
+		
+		/**
+		 * Sets the right hand side of the constraint.
+		 * 
+		 * @param value the right hand side
+		 */
+		public void setValue(final double value) {
+			this.value = value;
+		}
+	}
+	
+	/**
+	 * Class representing an objective to be minimized.
+	 */
+	public static class Objective {
+		/** Expression to be minimized */
+		private final LinearExpression expression;
+		
+		/** Priority of the objective */
+		private final int priority;
+		
+		/** Weight of the objective */
+		private final double weight;
+		
+		/** Absolute degradation allowed for the objective while optimizing the next ones */
+		private double absTol;
+		
+		/** Relative degradation allowed for the objective while optimizing the next ones */
+		private double relTol;
+		
+		Objective(final LinearExpression expression, final int priority, final double weight, final double absTol,
+				final double relTol) {
+			this.expression = expression;
+			this.priority = priority;
+			this.weight = weight;
+			this.absTol = absTol;
+			this.relTol = relTol;
+		}
+		
+		/**
+		 * Gets the expression to be minimized.
+		 * 
+		 * @return the expression
+		 */
+		public LinearExpression getExpression() {
+			return expression;
+		}
+		
+		/**
+		 * Gets the priority of the objective.
+		 * 
+		 * @return the priority
+		 */
+		public int getPriority() {
+			return priority;
+		}
+		
+		/**
+		 * Gets the weight of the objective.
+		 * 
+		 * @return the weight
+		 */
+		public double getWeight() {
+			return weight;
+		}
+		
+		/**
+		 * Gets the absolute degradation allowed for the objective.
+		 * 
+		 * @return the absolute tolerance
+		 */
+		public double getAbsTol() {
+			return absTol;
+		}
+		
+		/**
+		 * Gets the relative degradation allowed for the objective.
+		 * 
+		 * @return the relative tolerance
+		 */
+		public double getRelTol() {
+			return relTol;
+		}
+		
+		/**
+		 * Gets the maximum value allowed for the objective while optimizing the next ones.
+		 * 
+		 * @param optimum the optimal value of the objective
+		 * @return the maximum value allowed
+		 */
+		public double getDegradedValue(final double optimum) {
+			return optimum + Math.max(absTol, relTol*Math.abs(optimum));
+		}
+	}
+	
+}
@@ -1,7 +1,7 @@
 package org.fog.placement.algorithm.lp;
 
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,13 +13,18 @@ import org.fog.entities.Actuator;
 import org.fog.entities.FogDevice;
 import org.fog.entities.Sensor;
 import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Budget;
 import org.fog.placement.algorithm.Solution;
 
-import ilog.concert.*;
-import ilog.cplex.*;
-
 /**
- * Class in which defines and executes the multiple objective linear programming.
+ * Class in which defines and executes the multiple objective linear programming. The model (see LinearModel) is
+ * independent of the solver, thus it can be solved either by the built-in branch-and-bound solver or by CPLEX. The
+ * non-linear terms of the original formulation (the minimum of two binary variables and the number of applications
+ * whose loops miss their deadlines) are linearized through auxiliary variables, thus both solvers receive the same model.
+ * 
+ * The model is kept between executions. Its structure (variables and constraints) is only rebuilt when the edges of the
+ * network, the possible deployment of the modules or the first optimization state change; otherwise, only the coefficients
+ * which depend on the links characteristics and on the current placement are updated.
  * 
  * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST)
  * @since  July, 2019
@@ -34,544 +39,667 @@ public class LinearProgramming extends Algorithm {
 	/** Time at the end of the execution of the algorithm */
 	private long finish;
 	
-	/** Map storing each edge (source, destination, latency and bandwidth) */
-	Map<Map<Integer, Integer>, Map<Double, Double>> edgesMap;
+	/** Time spent building (or updating) the model in the last execution */
+	private long modelBuildTime;
+	
+	/** Time spent solving the model in the last execution */
+	private long solveTime;
+	
+	/** Name of the class of the CPLEX solver (it is loaded by name, thus the project can be built without CPLEX) */
+	private static final String CPLEX_SOLVER = "org.fog.placement.algorithm.lp.cplex.CplexSolver";
+	
+	/** Vector holding the source node of each edge */
+	private int[] edgeSource;
+	
+	/** Vector holding the destination node of each edge */
+	private int[] edgeDestination;
+	
+	/** Vector holding the latency of each edge */
+	private double[] edgeLatency;
+	
+	/** Vector holding the bandwidth of each edge */
+	private double[] edgeBandwidth;
+	
+	/** Model kept between executions */
+	private LinearModel model;
+	
+	/** Whether the model was built for the first optimization (i.e., without migrations) */
+	private boolean modelFirstOptimization;
+	
+	/** Matrix holding the possible deployment for which the model was built */
+	private boolean[][] modelPossibleDeployment;
+	
+	/** Map storing the auxiliary variable which represents the minimum of each pair of binary variables */
+	private Map<Long, Integer> minVariables;
+	
+	/** Matrix which represents the next module placement (binary) */
+	private int[][] placementVar;
+	
+	/** Matrix which contains the routing for each module pair dependency (binary) */
+	private int[][] tupleRoutingVar;
+	
+	/** Matrix which contains the routing for each module migration (binary) */
+	private int[][] migrationRoutingVar;
+	
+	/** Vector holding the variable which is set if each loop exceeds its deadline; -1 if the deadline is infinite */
+	private int[] loopVar;
+	
+	/** Vector holding the variable which is set if any loop of each application exceeds its deadline; -1 if none can */
+	private int[] appVar;
+	
+	/** Quality of Service cost */
+	private LinearExpression qsObjective;
+	
+	/** Power cost */
+	private LinearExpression pwObjective;
+	
+	/** Processing cost */
+	private LinearExpression prObjective;
+	
+	/** Bandwidth cost */
+	private LinearExpression bwObjective;
+	
+	/** Migration cost */
+	private LinearExpression mgObjective;
+	
+	/** Number of hops (it avoids loops within the routes) */
+	private LinearExpression hpObjective;
+	
+	/** Vector which represents the worst case scenario latency for each loop */
+	private LinearExpression[] latency;
+	
+	/** Vector which represents the worst case scenario latency for each migration */
+	private LinearExpression[] migLatency;
+	
+	/** Vector holding the bandwidth constraint of each edge */
+	private LinearModel.Constraint[] bandwidthConstraints;
+	
+	/** Matrix holding the migration routing constraint of each module in each node; null in the first optimization */
+	private LinearModel.Constraint[][] migrationConstraints;
+	
+	/** Vector holding the constraint which sets the variable of each loop which exceeds its deadline */
+	private LinearModel.Constraint[] deadlineConstraints;
 	
 	public LinearProgramming(final List<FogDevice> fogDevices, final List<Application> applications,
 			final List<Sensor> sensors, final List<Actuator> actuators) {
 		super(fogDevices, applications, sensors, actuators);
 	}
 	
+	public LinearProgramming(final Algorithm problem, final int[] modules) {
+		super(problem, modules);
+	}
+	
 	/**
-	 * Executes the brute force algorithm in order to find the best solution (the solution with the lower cost which respects all constraints).
+	 * Executes the linear programming in order to find the best solution (the solution with the lower cost which respects all constraints).
 	 * 
+	 * @param budget the budget of the execution (only the wall time is taken into account)
 	 * @return the best solution; can be null
 	 */
 	@Override
-	public Solution execute() {
+	public Solution execute(Budget budget) {
 		bestSolution = null;
-		getValueIterMap().clear();
-		if(edgesMap != null) edgesMap.clear();
+		startBudget(budget);
 		
 		// Time at the beginning of the execution of the algorithm
 		start = System.currentTimeMillis();
 		
-		computeEdgesMap();
+		// The structure of the model is only rebuilt if it has changed
+		boolean edgesChanged = computeEdges();
+		if(model == null || edgesChanged || modelFirstOptimization != isFirstOptimization() || !isSamePossibleDeployment())
+			buildModel();
+		
+		updateModel();
+		modelBuildTime = System.currentTimeMillis() - start;
 		
 		// Solve the problem
 		bestSolution = solve();
 		
 		// Time at the end of the execution of the algorithm
 		finish = System.currentTimeMillis();
+		solveTime = finish - start - modelBuildTime;
 		
 		setElapsedTime(finish - start);
 		
 		return bestSolution;
 	}
 	
-	@SuppressWarnings("unchecked")
-	public Solution solve() {
-		try {
-			// Define model
-			IloCplex cplex = new IloCplex();
-			/*cplex.setParam(IloCplex.Param.MIP.Tolerances.MIPGap, 0.05);
-			cplex.setParam(IloCplex.Param.MIP.Strategy.HeuristicFreq, -1);
-			cplex.setParam(IloCplex.Param.MIP.Strategy.Probe, 3);
-			cplex.setParam(IloCplex.Param.TimeLimit, 5);*/
-			
-			int nrNodes = getNumberOfNodes();
-			int nrApplications = getNumberOfApplications();
-			int nrModules = getNumberOfModules();
-			int nrDependencies = getNumberOfDependencies();
-			int nrLoops = getNumberOfLoops();
-			int nrEdges = edgesMap.size();
-			
-			// Define variables
-			IloNumVar[][] placementVar = new IloNumVar[nrNodes][nrModules];
-			IloNumVar[][] tupleRoutingVar = new IloNumVar[nrDependencies][nrEdges];
-			IloNumVar[][] migrationRoutingVar = new IloNumVar[nrModules][nrEdges];
-			
-			// Define objectives
-			IloNumExpr qsObjective = cplex.numExpr();
-			IloNumExpr pwObjective = cplex.numExpr();
-			IloNumExpr prObjective = cplex.numExpr();
-			IloNumExpr bwObjective = cplex.numExpr();
-			IloNumExpr mgObjective = cplex.numExpr();
-			IloNumExpr hpObjective = cplex.numExpr();
-			
-			IloNumExpr[] latency = new IloNumExpr[nrLoops];
-			IloNumExpr[] migLatency = new IloNumExpr[nrModules];
-			
-			for(int i = 0; i < nrNodes; i++) {
-				for(int j = 0; j < nrModules; j++) {
-					placementVar[i][j] = cplex.boolVar();//cplex.intVar(0, 1);
-					
-					double pr = getmMips()[j]/(getfMips()[i]*Config.MIPS_PERCENTAGE_UTIL);
-					double pw = (getfBusyPw()[i]-getfIdlePw()[i])*pr;
-					
-					pwObjective = cplex.sum(pwObjective, cplex.prod(placementVar[i][j], pw*getfIsFogDevice()[i]));			// Power cost
-					prObjective = cplex.sum(prObjective, cplex.prod(placementVar[i][j], pr*getfIsFogDevice()[i]));			// Processing cost	
-				}
+	/**
+	 * Solves the model and converts its variables into a solution.
+	 * 
+	 * @return the best solution; can be null
+	 */
+	private Solution solve() {
+		int nrNodes = getNumberOfNodes();
+		int nrModules = getNumberOfModules();
+		int nrDependencies = getNumberOfDependencies();
+		int nrLoops = getNumberOfLoops();
+		int nrEdges = edgeSource.length;
+		
+		// The solver stops once the wall time of the budget is exhausted (returning the best solution found so far)
+		long timeLimit = Long.MAX_VALUE;
+		if(getBudget().getMaxTime() != Long.MAX_VALUE)
+			timeLimit = Math.max(0, getBudget().getMaxTime() - getBudget().getElapsedTime());
+		
+		// Solve
+		double[] values = createSolver().solve(model, timeLimit);
+		
+		if(values == null) {
+			System.out.println("Model not solved");
+			return null;
+		}
+		
+		int[][] modulePlacementMap = new int[nrNodes][nrModules];
+		int[][][] tupleRoutingMap = new int[nrDependencies][nrNodes][nrNodes];
+		int[][][] migrationRoutingMap = new int[nrModules][nrNodes][nrNodes];
+		
+		for(int i = 0; i < nrNodes; i++) {
+			for(int j = 0; j < nrModules; j++) {
+				modulePlacementMap[i][j] = (int) Math.round(values[placementVar[i][j]]);
 			}
-			
-			for(int i = 0; i < nrDependencies; i++) {
-				double bandwidth = getmBandwidthMap()[getStartModDependency(i)][getFinalModDependency(i)];
-				
-				for(int j = 0; j < nrEdges; j++) {
-					tupleRoutingVar[i][j] = cplex.boolVar();//cplex.intVar(0, 1);
-					Map<Integer, Integer> edge = (Map<Integer, Integer>) edgesMap.keySet().toArray()[j];
-					Map<Double, Double> communication = (Map<Double, Double>) edgesMap.get(edge);
-					int src = edge.entrySet().iterator().next().getKey();
-					
-					double bw = bandwidth/(communication.entrySet().iterator().next().getValue()*Config.BW_PERCENTAGE_UTIL);
-					double pw = bw*getfTxPw()[src];
-					
-					bwObjective = cplex.sum(bwObjective, cplex.prod(tupleRoutingVar[i][j], bw*getfIsFogDevice()[src]));		// Bandwidth cost
-					pwObjective = cplex.sum(pwObjective, cplex.prod(tupleRoutingVar[i][j], pw*getfIsFogDevice()[src]));		// Power cost
-					hpObjective = cplex.sum(hpObjective, tupleRoutingVar[i][j]);
-				}
+		}
+		
+		for(int i = 0; i < nrDependencies; i++) {
+			for(int j = 0; j < nrEdges; j++) {
+				if((int) Math.round(values[tupleRoutingVar[i][j]]) == 1)
+					tupleRoutingMap[i][edgeSource[j]][edgeDestination[j]] = 1;
 			}
-			
-			for(int i = 0; i < nrModules; i++) {
-				double size = getmStrg()[i] + getmRam()[i];
-				
-				for(int j = 0; j < nrEdges; j++) {
-					migrationRoutingVar[i][j] = cplex.boolVar();//cplex.intVar(0, 1);
-					Map<Integer, Integer> edge = (Map<Integer, Integer>) edgesMap.keySet().toArray()[j];
-					Map<Double, Double> communication = (Map<Double, Double>) edgesMap.get(edge);
-					int src = edge.entrySet().iterator().next().getKey();
-					
-					double bw = communication.entrySet().iterator().next().getValue()*(1-Config.BW_PERCENTAGE_UTIL);
-					double mg = size/bw;
-					
-					mgObjective = cplex.sum(mgObjective, cplex.prod(migrationRoutingVar[i][j], mg*getfIsFogDevice()[src]));	// Migration cost
-					hpObjective = cplex.sum(hpObjective, migrationRoutingVar[i][j]);
-				}
+		}
+		
+		for(int i = 0; i < nrModules; i++) {
+			for(int j = 0; j < nrEdges; j++) {
+				if((int) Math.round(values[migrationRoutingVar[i][j]]) == 1)
+					migrationRoutingMap[i][edgeSource[j]][edgeDestination[j]] = 1;
 			}
-			
-			defineConstraints(cplex, placementVar, tupleRoutingVar, migrationRoutingVar, latency, migLatency);
-			
-			IloNumExpr[] ensureLoops = new IloNumExpr[nrNodes];
-			for(int i = 0; i < nrLoops; i++) {
-				ensureLoops[i] = cplex.numExpr();
-				
-				latency[i] = cplex.diff(latency[i], getLoopsDeadline()[i]);
-				ensureLoops[i] = cplex.max(latency[i], 0);
-				ensureLoops[i] = cplex.prod(ensureLoops[i], Integer.MAX_VALUE);
-				ensureLoops[i] = cplex.min(ensureLoops[i], 1);
-				
-				//qsObjective = cplex.sum(qsObjective, ensureLoops[i]);														// Quality of Service cost
+		}
+		
+		Solution solution = new Solution(this, modulePlacementMap, tupleRoutingMap, migrationRoutingMap);
+		solution.setDetailedCost(Config.QOS_COST, (int) Math.round(qsObjective.evaluate(values)));
+		solution.setDetailedCost(Config.POWER_COST, pwObjective.evaluate(values));
+		solution.setDetailedCost(Config.PROCESSING_COST, prObjective.evaluate(values));
+		solution.setDetailedCost(Config.BANDWIDTH_COST, bwObjective.evaluate(values));
+		solution.setDetailedCost(Config.MIGRATION_COST, mgObjective.evaluate(values));
+		
+		for(int i = 0; i < nrLoops; i++)
+			solution.setLoopDeadline(i, latency[i].evaluate(values));
+		
+		for(int i = 0; i < nrModules; i++)
+			solution.setMigrationDeadline(i, migLatency[i].evaluate(values));
+		
+		return solution;
+	}
+	
+	/**
+	 * Creates the solver of the model.
+	 * 
+	 * @return either the CPLEX solver or the built-in branch-and-bound solver (see Config)
+	 */
+	private static LinearSolver createSolver() {
+		if(!Config.CPLEX_LP)
+			return new BranchAndBoundSolver(Config.NR_THREADS_LP);
+		
+		try {
+			return (LinearSolver) Class.forName(CPLEX_SOLVER).getDeclaredConstructor().newInstance();
+		}catch (ReflectiveOperationException | LinkageError e) {
+			FogComputingSim.err("CPLEX is not available (" + e + ")");
+			return null;
+		}
+	}
+	
+	/**
+	 * Builds the structure of the model, i.e., its variables, constraints and objectives. The coefficients which depend on
+	 * the links characteristics and on the current placement are left to be filled by updateModel.
+	 */
+	private void buildModel() {
+		model = new LinearModel();
+		minVariables = new HashMap<Long, Integer>();
+		modelFirstOptimization = isFirstOptimization();
+		
+		int nrNodes = getNumberOfNodes();
+		int nrModules = getNumberOfModules();
+		int nrDependencies = getNumberOfDependencies();
+		int nrEdges = edgeSource.length;
+		
+		modelPossibleDeployment = new boolean[nrNodes][nrModules];
+		for(int i = 0; i < nrNodes; i++) {
+			for(int j = 0; j < nrModules; j++) {
+				modelPossibleDeployment[i][j] = isPossibleDeployment(i, j);
 			}
-			
-			IloNumExpr[] ensureApps = new IloNumExpr[nrApplications];
-			for(int i = 0; i < nrApplications; i++) {
-				ensureApps[i] = cplex.numExpr();
-				
-				for(int j = 0; j < nrLoops; j++) {
-					if(getLoopsApplication()[j] == i) {
-						ensureApps[i] = cplex.sum(ensureApps[i], ensureLoops[j]);
-					}
-				}
-				
-				ensureApps[i] = cplex.min(ensureApps[i], 1);
-				qsObjective = cplex.sum(qsObjective, ensureApps[i]);
+		}
+		
+		// Define variables
+		placementVar = new int[nrNodes][nrModules];
+		tupleRoutingVar = new int[nrDependencies][nrEdges];
+		migrationRoutingVar = new int[nrModules][nrEdges];
+		
+		for(int i = 0; i < nrNodes; i++) {
+			for(int j = 0; j < nrModules; j++) {
+				placementVar[i][j] = model.addBoolVar();
 			}
-			
-			IloObjective qsCost = cplex.minimize(qsObjective);
-			IloObjective pwCost = cplex.minimize(pwObjective);
-			IloObjective prCost = cplex.minimize(prObjective);
-			IloObjective bwCost = cplex.minimize(bwObjective);
-			IloObjective mgCost = cplex.minimize(mgObjective);
-			IloObjective hpCost = cplex.minimize(hpObjective);
-			
-			IloNumExpr[] objArray = new IloNumExpr[Config.NR_OBJECTIVES+1];
-			objArray[Config.QOS_COST] = qsCost.getExpr();
-			objArray[Config.POWER_COST] = pwCost.getExpr();
-			objArray[Config.PROCESSING_COST] = prCost.getExpr();
-			objArray[Config.BANDWIDTH_COST] = bwCost.getExpr();
-			objArray[Config.MIGRATION_COST] = mgCost.getExpr();
-			objArray[Config.NR_OBJECTIVES] = hpCost.getExpr();
-			
-			double[] weights = new double[Config.weights.length+1];
-			int[] priorities = new int[Config.priorities.length+1];
-			double[] absTols = new double[Config.absTols.length+1];
-			double[] relTols = new double[Config.relTols.length+1];
-			
-			for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
-				weights[i] = Config.weights[i];
-				priorities[i] = Config.priorities[i] + 1;
-				absTols[i] = Config.absTols[i];
-				relTols[i] = Config.relTols[i];
+		}
+		
+		for(int i = 0; i < nrDependencies; i++) {
+			for(int j = 0; j < nrEdges; j++) {
+				tupleRoutingVar[i][j] = model.addBoolVar();
 			}
-			
-			weights[Config.NR_OBJECTIVES] = 1;
-			priorities[Config.NR_OBJECTIVES] = 1;
-			absTols[Config.NR_OBJECTIVES] = 0;
-			relTols[Config.NR_OBJECTIVES] = 0;
-			
-			cplex.add(cplex.minimize(cplex.staticLex(objArray, weights, priorities, absTols, relTols, null)));
-			
-			// Display option
-			if(Config.PRINT_DETAILS)
-				cplex.setParam(IloCplex.Param.Simplex.Display, 0);
-			else
-				cplex.setOut(null);
-			
-			// Solve
-			if (cplex.solve()) {
-				int[][] modulePlacementMap = new int[nrNodes][nrModules];
-				int[][][] tupleRoutingMap = new int[nrDependencies][nrNodes][nrNodes];
-				int[][][] migrationRoutingMap = new int[nrModules][nrNodes][nrNodes];
-				
-				for(int i = 0; i < nrNodes; i++) {
-					for(int j = 0; j < nrModules; j++) {
-						modulePlacementMap[i][j] = (int) Math.round(cplex.getValue(placementVar[i][j]));
-					}
-				}
-				
-				for(int i = 0; i < nrDependencies; i++) {
-					for(int j = 0; j < nrEdges; j++) {
-						if((int) Math.round(cplex.getValue(tupleRoutingVar[i][j])) == 1) {
-							Map<Integer, Integer> edge = (Map<Integer, Integer>) edgesMap.keySet().toArray()[j];
-							int src = edge.entrySet().iterator().next().getKey();
-							int dst = edge.entrySet().iterator().next().getValue();
-							
-							tupleRoutingMap[i][src][dst] = 1;
-						}
-					}
-				}
-				
-				
-				for(int i = 0; i < nrModules; i++) {
-					for(int j = 0; j < nrEdges; j++) {
-						if((int) Math.round(cplex.getValue(migrationRoutingVar[i][j])) == 1) {
-							Map<Integer, Integer> edge = (Map<Integer, Integer>) edgesMap.keySet().toArray()[j];
-							int src = edge.entrySet().iterator().next().getKey();
-							int dst = edge.entrySet().iterator().next().getValue();
-							
-							migrationRoutingMap[i][src][dst] = 1;
-						}
-					}
-				}
-				
-				Solution solution = new Solution(this, modulePlacementMap, tupleRoutingMap, migrationRoutingMap);
-				solution.setDetailedCost(Config.QOS_COST, (int) Math.round(cplex.getValue(qsObjective)));
-				solution.setDetailedCost(Config.POWER_COST, cplex.getValue(pwObjective));
-				solution.setDetailedCost(Config.PROCESSING_COST, cplex.getValue(prObjective));
-				solution.setDetailedCost(Config.BANDWIDTH_COST, cplex.getValue(bwObjective));
-				solution.setDetailedCost(Config.MIGRATION_COST, cplex.getValue(mgObjective));
-				
-				for(int i = 0; i < nrLoops; i++)
-					solution.setLoopDeadline(i, cplex.getValue(latency[i]) + getLoopsDeadline()[i]);
-				
-				for(int i = 0; i < nrModules; i++)
-					solution.setMigrationDeadline(i, cplex.getValue(migLatency[i]));
-				
-				cplex.end();
-				return solution;
+		}
+		
+		for(int i = 0; i < nrModules; i++) {
+			for(int j = 0; j < nrEdges; j++) {
+				migrationRoutingVar[i][j] = model.addBoolVar();
 			}
-			
-			System.out.println("Model not solved");
-			cplex.end();
-			return null;
 		}
-		catch (IloException exc) {
-			exc.printStackTrace();
-			return null;
+		
+		// Define constraints
+		defineResourcesExceeded();
+		definePossiblePlacement();
+		defineSinglePlacement();
+		defineBandwidth();
+		defineDependencies();
+		defineMigration();
+		defineDeadlines();
+		defineMigrationDeadlines();
+		
+		// Define objectives
+		qsObjective = new LinearExpression();
+		pwObjective = new LinearExpression();
+		prObjective = new LinearExpression();
+		bwObjective = new LinearExpression();
+		mgObjective = new LinearExpression();
+		hpObjective = new LinearExpression();
+		
+		LinearExpression[] objArray = new LinearExpression[Config.NR_OBJECTIVES+1];
+		objArray[Config.QOS_COST] = qsObjective;
+		objArray[Config.POWER_COST] = pwObjective;
+		objArray[Config.PROCESSING_COST] = prObjective;
+		objArray[Config.BANDWIDTH_COST] = bwObjective;
+		objArray[Config.MIGRATION_COST] = mgObjective;
+		objArray[Config.NR_OBJECTIVES] = hpObjective;
+		
+		// The number of hops is the last objective (it avoids loops within the routes)
+		for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
+			model.addObjective(objArray[i], Config.priorities[i] + 1, Config.weights[i], Config.absTols[i], Config.relTols[i]);
 		}
+		model.addObjective(objArray[Config.NR_OBJECTIVES], 1, 1, 0, 0);
+	}
+	
+	/**
+	 * Updates the coefficients of the model which depend on the links characteristics and on the current placement.
+	 */
+	private void updateModel() {
+		updateObjectives();
+		updateBandwidth();
+		updateMigration();
+		updateDeadlines();
+		updateMigrationDeadlines();
 	}
 	
 	/**
-	 * Defines all constraints.
+	 * Checks whether the possible deployment of the modules is the same as the one for which the model was built.
 	 * 
-	 * @param cplex the model
-	 * @param placementVar the matrix which represents the next module placement (binary)
-	 * @param routingVar the matrix which contains the routing for each module pair dependency (binary)
-	 * @param migrationRoutingVar the matrix which contains the routing for each module migration (binary)
-	 * @param latency the vector which represents the worst case scenario latency for each loop
+	 * @return true if it is, otherwise false
 	 */
-	private void defineConstraints(IloCplex cplex, final IloNumVar[][] placementVar, final IloNumVar[][] tupleRoutingVar,
-			final IloNumVar[][] migrationRoutingVar, IloNumExpr[] latency, IloNumExpr[] migLatency) {
-		defineResourcesExceeded(cplex, placementVar);
-		definePossiblePlacement(cplex, placementVar);
-		defineSinglePlacement(cplex, placementVar);
-		defineBandwidth(cplex, tupleRoutingVar);
-		defineDependencies(cplex, placementVar, tupleRoutingVar);
-		defineMigration(cplex, placementVar, migrationRoutingVar);
-		defineDeadlines(cplex, placementVar, tupleRoutingVar, latency);
-		defineMigrationDeadlines(cplex, placementVar, migrationRoutingVar, migLatency);
+	private boolean isSamePossibleDeployment() {
+		for(int i = 0; i < getNumberOfNodes(); i++) {
+			for(int j = 0; j < getNumberOfModules(); j++) {
+				if(modelPossibleDeployment[i][j] != isPossibleDeployment(i, j))
+					return false;
+			}
+		}
+		
+		return true;
 	}
 	
 	/**
-	 * Solutions cannot exceed the machines' resources.
+	 * Gets the auxiliary variable which represents the minimum of two binary variables (i.e., whether both are set). The
+	 * variable is created the first time (being bounded by both variables and by their sum minus one).
 	 * 
-	 * @param cplex the model
-	 * @param placementVar the matrix which represents the next module placement
+	 * @param variable1 the first binary variable
+	 * @param variable2 the second binary variable
+	 * @return the auxiliary variable
 	 */
-	private void defineResourcesExceeded(IloCplex cplex, final IloNumVar[][] placementVar) {
+	private int min(final int variable1, final int variable2) {
+		if(variable1 == variable2) return variable1;
+		
+		long key = (long) Math.min(variable1, variable2) * Integer.MAX_VALUE + Math.max(variable1, variable2);
+		Integer variable = minVariables.get(key);
+		if(variable != null) return variable;
+		
+		variable = model.addNumVar(0, 1);
+		model.addLe(new LinearExpression().addTerm(variable, 1).addTerm(variable1, -1), 0);
+		model.addLe(new LinearExpression().addTerm(variable, 1).addTerm(variable2, -1), 0);
+		model.addGe(new LinearExpression().addTerm(variable, 1).addTerm(variable1, -1).addTerm(variable2, -1), -1);
+		
+		minVariables.put(key, variable);
+		return variable;
+	}
+	
+	/**
+	 * Updates the objectives.
+	 */
+	private void updateObjectives() {
 		int nrNodes = getNumberOfNodes();
 		int nrModules = getNumberOfModules();
+		int nrDependencies = getNumberOfDependencies();
+		int nrEdges = edgeSource.length;
 		
-		try {
-			// Define constraints
-			IloLinearNumExpr[] usedMipsCapacity = new IloLinearNumExpr[nrNodes];
-			IloLinearNumExpr[] usedRamCapacity = new IloLinearNumExpr[nrNodes];
-			IloLinearNumExpr[] usedStrgCapacity = new IloLinearNumExpr[nrNodes];
+		qsObjective.clear();
+		pwObjective.clear();
+		prObjective.clear();
+		bwObjective.clear();
+		mgObjective.clear();
+		hpObjective.clear();
+		
+		for(int i = 0; i < nrNodes; i++) {
+			for(int j = 0; j < nrModules; j++) {
+				double pr = getmMips()[j]/(getfMips()[i]*Config.MIPS_PERCENTAGE_UTIL);
+				double pw = (getfBusyPw()[i]-getfIdlePw()[i])*pr;
+				
+				pwObjective.addTerm(placementVar[i][j], pw*getfIsFogDevice()[i]);			// Power cost
+				prObjective.addTerm(placementVar[i][j], pr*getfIsFogDevice()[i]);			// Processing cost
+			}
+		}
+		
+		for(int i = 0; i < nrDependencies; i++) {
+			double bandwidth = getdBandwidth()[i];
+			
+			for(int j = 0; j < nrEdges; j++) {
+				int src = edgeSource[j];
+				
+				double bw = bandwidth/(edgeBandwidth[j]*Config.BW_PERCENTAGE_UTIL);
+				double pw = bw*getfTxPw()[src];
+				
+				bwObjective.addTerm(tupleRoutingVar[i][j], bw*getfIsFogDevice()[src]);		// Bandwidth cost
+				pwObjective.addTerm(tupleRoutingVar[i][j], pw*getfIsFogDevice()[src]);		// Power cost
+				hpObjective.addTerm(tupleRoutingVar[i][j], 1);
+			}
+		}
+		
+		for(int i = 0; i < nrModules; i++) {
+			double size = getmStrg()[i] + getmRam()[i];
 			
-			for (int i = 0; i < nrNodes; i++) {
-				usedMipsCapacity[i] = cplex.linearNumExpr();
-				usedRamCapacity[i] = cplex.linearNumExpr();
-				usedStrgCapacity[i] = cplex.linearNumExpr();
+			for(int j = 0; j < nrEdges; j++) {
+				int src = edgeSource[j];
+				
+				double bw = edgeBandwidth[j]*(1-Config.BW_PERCENTAGE_UTIL);
+				double mg = size/bw;
 				
-	    		for (int j = 0; j < nrModules; j++) {
-	    			usedMipsCapacity[i].addTerm(placementVar[i][j], getmMips()[j]);
-	    			usedRamCapacity[i].addTerm(placementVar[i][j], getmRam()[j]);
-	    			usedStrgCapacity[i].addTerm(placementVar[i][j], getmStrg()[j]);
-	    		}
-	    		
-	    		cplex.addLe(usedMipsCapacity[i], getfMips()[i]*Config.MIPS_PERCENTAGE_UTIL);
-	    		cplex.addLe(usedRamCapacity[i], getfRam()[i]*Config.MEM_PERCENTAGE_UTIL);
-	    		cplex.addLe(usedStrgCapacity[i], getfStrg()[i]*Config.STRG_PERCENTAGE_UTIL);
+				mgObjective.addTerm(migrationRoutingVar[i][j], mg*getfIsFogDevice()[src]);	// Migration cost
+				hpObjective.addTerm(migrationRoutingVar[i][j], 1);
 			}
-		}catch (IloException e) {
-			e.printStackTrace();
+		}
+		
+		// Quality of Service cost
+		for(int i = 0; i < getNumberOfApplications(); i++) {
+			if(appVar[i] != -1)
+				qsObjective.addTerm(appVar[i], 1);
+		}
+	}
+	
+	/**
+	 * Solutions cannot exceed the machines' resources.
+	 */
+	private void defineResourcesExceeded() {
+		int nrNodes = getNumberOfNodes();
+		int nrModules = getNumberOfModules();
+		
+		// Define constraints
+		LinearExpression[] usedMipsCapacity = new LinearExpression[nrNodes];
+		LinearExpression[] usedRamCapacity = new LinearExpression[nrNodes];
+		LinearExpression[] usedStrgCapacity = new LinearExpression[nrNodes];
+		
+		for (int i = 0; i < nrNodes; i++) {
+			usedMipsCapacity[i] = new LinearExpression();
+			usedRamCapacity[i] = new LinearExpression();
+			usedStrgCapacity[i] = new LinearExpression();
+    		
+    		for (int j = 0; j < nrModules; j++) {
+    			usedMipsCapacity[i].addTerm(placementVar[i][j], getmMips()[j]);
+    			usedRamCapacity[i].addTerm(placementVar[i][j], getmRam()[j]);
+    			usedStrgCapacity[i].addTerm(placementVar[i][j], getmStrg()[j]);
+    		}
+    		
+    		model.addLe(usedMipsCapacity[i], getfMips()[i]*Config.MIPS_PERCENTAGE_UTIL);
+    		model.addLe(usedRamCapacity[i], getfRam()[i]*Config.MEM_PERCENTAGE_UTIL);
+    		model.addLe(usedStrgCapacity[i], getfStrg()[i]*Config.STRG_PERCENTAGE_UTIL);
 		}
 	}
 	
 	/**
 	 * Defines the possible module deployment.
-	 * 
-	 * @param cplex the model
-	 * @param placementVar the matrix which represents the next module placement
 	 */
-	private void definePossiblePlacement(IloCplex cplex, final IloNumVar[][] placementVar) {
+	private void definePossiblePlacement() {
 		int nrNodes = getNumberOfNodes();
 		int nrModules = getNumberOfModules();
 		
-		try {
-			for(int i = 0; i < nrNodes; i++) {
-				for(int j = 0; j < nrModules; j++) {
-					cplex.addLe(placementVar[i][j], getPossibleDeployment()[i][j]);
-				}
+		for(int i = 0; i < nrNodes; i++) {
+			for(int j = 0; j < nrModules; j++) {
+				model.addLe(new LinearExpression().addTerm(placementVar[i][j], 1), modelPossibleDeployment[i][j] ? 1 : 0);
 			}
-		}catch (IloException e) {
-			e.printStackTrace();
 		}
 	}
 	
 	/**
 	 * Defines that each module can only be placed within one machine.
-	 * 
-	 * @param cplex the model
-	 * @param placementVar the matrix which represents the next module placement
 	 */
-	private void defineSinglePlacement(IloCplex cplex, final IloNumVar[][] placementVar) {
+	private void defineSinglePlacement() {
 		int nrNodes = getNumberOfNodes();
 		int nrModules = getNumberOfModules();
 		
-		try {
-			IloNumVar[][] transposeP = new IloNumVar[nrModules][nrNodes];
-			for(int i = 0; i < nrNodes; i++) {
-				for(int j = 0; j < nrModules; j++) {
-					transposeP[j][i] = placementVar[i][j];
-				}
+		// One an only one placement
+		for(int i = 0; i < nrModules; i++) {
+			LinearExpression placements = new LinearExpression();
+			for(int j = 0; j < nrNodes; j++) {
+				placements.addTerm(placementVar[j][i], 1);
 			}
 			
-			// One an only one placement
-			for(int i = 0; i < nrModules; i++) {
-				cplex.addEq(cplex.sum(transposeP[i]), 1.0);
-			}
-		}catch (IloException e) {
-			e.printStackTrace();
+			model.addEq(placements, 1.0);
 		}
 	}
 	
 	/**
-	 * Defines that the links bandwidth must not be exceeded.
-	 * 
-	 * @param cplex the model
-	 * @param tupleRoutingVar the routingVar matrix which contains the routing for each module pair dependency
+	 * Defines that the links bandwidth must not be exceeded (the bandwidth of each link is set by updateBandwidth).
 	 */
-	@SuppressWarnings("unchecked")
-	private void defineBandwidth(IloCplex cplex, final IloNumVar[][] tupleRoutingVar) {
+	private void defineBandwidth() {
 		int nrDependencies = getNumberOfDependencies();
-		int nrEdges = edgesMap.size();
+		int nrEdges = edgeSource.length;
 		
-		try {
-			IloLinearNumExpr[] bwUsage = new IloLinearNumExpr[nrEdges];
+		bandwidthConstraints = new LinearModel.Constraint[nrEdges];
+		
+		// Bandwidth usage in each link can not be exceeded
+		for(int i = 0; i < nrEdges; i++) {
+			LinearExpression bwUsage = new LinearExpression();
 			
-			// Bandwidth usage in each link can not be exceeded
-			for(int i = 0; i < nrEdges; i++) {
-				bwUsage[i] = cplex.linearNumExpr();
-				
-				for(int z = 0; z < nrDependencies; z++) {
-					double bwNeeded = getmBandwidthMap()[getStartModDependency(z)][getFinalModDependency(z)];
-					bwUsage[i].addTerm(tupleRoutingVar[z][i], bwNeeded);
-				}
-				
-				Map<Integer, Integer> edge = (Map<Integer, Integer>) edgesMap.keySet().toArray()[i];
-				Map<Double, Double> communication = (Map<Double, Double>) edgesMap.get(edge);
-				double bw = communication.entrySet().iterator().next().getValue();
-				
-				cplex.addLe(bwUsage[i],bw*Config.BW_PERCENTAGE_UTIL);
+			for(int z = 0; z < nrDependencies; z++) {
+				double bwNeeded = getdBandwidth()[z];
+				bwUsage.addTerm(tupleRoutingVar[z][i], bwNeeded);
 			}
-		}catch (IloException e) {
-			e.printStackTrace();
+			
+			bandwidthConstraints[i] = model.addLe(bwUsage, 0);
+		}
+	}
+	
+	/**
+	 * Updates the bandwidth of each link.
+	 */
+	private void updateBandwidth() {
+		for(int i = 0; i < edgeSource.length; i++) {
+			bandwidthConstraints[i].setValue(edgeBandwidth[i]*Config.BW_PERCENTAGE_UTIL);
 		}
 	}
 	
 	/**
 	 * Defines that each dependency must be accomplished and well routed.
-	 * 
-	 * @param cplex the model
-	 * @param placementVar the matrix which represents the next module placement
-	 * @param tupleRoutingVar the routingVar matrix which contains the routing for each module pair dependency
 	 */
-	@SuppressWarnings("unchecked")
-	private void defineDependencies(IloCplex cplex, final IloNumVar[][] placementVar, final IloNumVar[][] tupleRoutingVar) {
+	private void defineDependencies() {
 		int nrDependencies = getNumberOfDependencies();
-		int nrEdges = edgesMap.size();
+		int nrEdges = edgeSource.length;
 		int nrNodes = getNumberOfNodes();
 		
-		try {
-			for(int i = 0; i < nrDependencies; i++) {
-				for(int j = 0; j < nrNodes; j++) {
-					IloNumExpr out = cplex.numExpr();
-					IloNumExpr in = cplex.numExpr();
-					
-					for(int z = 0; z < nrEdges; z++) {
-						Map<Integer, Integer> edge = (Map<Integer, Integer>) edgesMap.keySet().toArray()[z];
-						int src = edge.entrySet().iterator().next().getKey();
-						int dst = edge.entrySet().iterator().next().getValue();
-						
-						if(src == j)
-							out = cplex.sum(out, tupleRoutingVar[i][z]);
-						
-						if(dst == j)
-							in = cplex.sum(in, tupleRoutingVar[i][z]);
-					}
-					
-					cplex.addEq(cplex.diff(out, in), cplex.diff(placementVar[j][getStartModDependency(i)], placementVar[j][getFinalModDependency(i)]));
-				}
+		for(int i = 0; i < nrDependencies; i++) {
+			// out - in - start + final = 0
+			LinearExpression[] flow = new LinearExpression[nrNodes];
+			for(int j = 0; j < nrNodes; j++) {
+				flow[j] = new LinearExpression();
+			}
+			
+			for(int z = 0; z < nrEdges; z++) {
+				flow[edgeSource[z]].addTerm(tupleRoutingVar[i][z], 1);
+				flow[edgeDestination[z]].addTerm(tupleRoutingVar[i][z], -1);
+			}
+			
+			for(int j = 0; j < nrNodes; j++) {
+				flow[j].addTerm(placementVar[j][getStartModDependency(i)], -1);
+				flow[j].addTerm(placementVar[j][getFinalModDependency(i)], 1);
+				model.addEq(flow[j], 0);
 			}
-		}catch (IloException e) {
-			e.printStackTrace();
 		}
 	}
 	
 	/**
-	 * Defines that each migration must must be accomplished and well routed according to the current placement.
-	 * 
-	 * @param cplex the model
-	 * @param placementVar the matrix which represents the next module placement
-	 * @param migrationRoutingVar the matrix which contains the routing for each module migration
+	 * Defines that each migration must must be accomplished and well routed according to the current placement (which is
+	 * set by updateMigration).
 	 */
-	@SuppressWarnings("unchecked")
-	private void defineMigration(IloCplex cplex, final IloNumVar[][] placementVar, final IloNumVar[][] migrationRoutingVar) {
+	private void defineMigration() {
 		int nrModules = getNumberOfModules();
-		int nrEdges = edgesMap.size();
+		int nrEdges = edgeSource.length;
 		int nrNodes = getNumberOfNodes();
 		
+		migrationConstraints = null;
+		
 		// If its the first time, its not necessary to compute migration routing tables
-		if(isFirstOptimization()) return;
+		if(modelFirstOptimization) return;
 		
-		try {
-			for(int i = 0; i < nrModules; i++) {
-				for(int j = 0; j < nrNodes; j++) {
-					IloNumExpr out = cplex.numExpr();
-					IloNumExpr in = cplex.numExpr();
-					
-					for(int z = 0; z < nrEdges; z++) {
-						Map<Integer, Integer> edge = (Map<Integer, Integer>) edgesMap.keySet().toArray()[z];
-						int src = edge.entrySet().iterator().next().getKey();
-						int dst = edge.entrySet().iterator().next().getValue();
-						
-						if(src == j)
-							out = cplex.sum(out, migrationRoutingVar[i][z]);
-						
-						if(dst == j)
-							in = cplex.sum(in, migrationRoutingVar[i][z]);
-					}
-					
-					cplex.addEq(cplex.diff(out, in), cplex.diff(getCurrentPlacement()[j][i], placementVar[j][i]));
-				}
+		migrationConstraints = new LinearModel.Constraint[nrModules][nrNodes];
+		
+		for(int i = 0; i < nrModules; i++) {
+			// out - in + placement = (current placement == j)
+			LinearExpression[] flow = new LinearExpression[nrNodes];
+			for(int j = 0; j < nrNodes; j++) {
+				flow[j] = new LinearExpression();
+			}
+			
+			for(int z = 0; z < nrEdges; z++) {
+				flow[edgeSource[z]].addTerm(migrationRoutingVar[i][z], 1);
+				flow[edgeDestination[z]].addTerm(migrationRoutingVar[i][z], -1);
+			}
+			
+			for(int j = 0; j < nrNodes; j++) {
+				flow[j].addTerm(placementVar[j][i], 1);
+				migrationConstraints[i][j] = model.addEq(flow[j], 0);
 			}
-		}catch (IloException e) {
-			e.printStackTrace();
 		}
 	}
 	
 	/**
-	 * Defines that each loop, in the worst case scenario, must accomplish the defined deadline.
-	 * 
-	 * @param cplex the model
-	 * @param placementVar the matrix which represents the next module placement
-	 * @param tupleRoutingVar the routingVar matrix which contains the routing for each module pair dependency
-	 * @param latency the vector which represents the worst case scenario latency for each loop
+	 * Updates the current placement from which each migration starts.
 	 */
-	private void defineDeadlines(IloCplex cplex, final IloNumVar[][] placementVar, IloNumVar[][] tupleRoutingVar, IloNumExpr[] latency) {
-		try {
-			for(int i = 0; i < getNumberOfLoops(); i++) { // Loop index
-				latency[i] = cplex.numExpr();
+	private void updateMigration() {
+		if(migrationConstraints == null) return;
+		
+		for(int i = 0; i < getNumberOfModules(); i++) {
+			for(int j = 0; j < getNumberOfNodes(); j++) {
+				migrationConstraints[i][j].setValue(getCurrentPlacement(i) == j ? 1 : 0);
+			}
+		}
+	}
+	
+	/**
+	 * Defines the quality of service cost, i.e., the number of applications with some loop whose worst case scenario
+	 * latency exceeds its deadline. Each loop has a binary variable which must be set if its latency exceeds the deadline
+	 * (see updateDeadlines) and each application has a variable which must be set if any of its loops is set.
+	 */
+	private void defineDeadlines() {
+		int nrLoops = getNumberOfLoops();
+		
+		latency = new LinearExpression[nrLoops];
+		loopVar = new int[nrLoops];
+		appVar = new int[getNumberOfApplications()];
+		deadlineConstraints = new LinearModel.Constraint[nrLoops];
+		Arrays.fill(appVar, -1);
+		
+		for(int i = 0; i < nrLoops; i++) {
+			latency[i] = new LinearExpression();
+			loopVar[i] = -1;
+			
+			if(getLoopsDeadline()[i] == Constants.INF) continue;
+			
+			int application = getLoopsApplication()[i];
+			if(appVar[application] == -1)
+				appVar[application] = model.addNumVar(0, 1);
+			
+			// latency - (maxLatency - deadline) * loopVar <= deadline
+			loopVar[i] = model.addBoolVar();
+			deadlineConstraints[i] = model.addLe(new LinearExpression(), getLoopsDeadline()[i]);
+			
+			// appVar >= loopVar
+			model.addLe(new LinearExpression().addTerm(loopVar[i], 1).addTerm(appVar[application], -1), 0);
+		}
+	}
+	
+	/**
+	 * Updates the worst case scenario latency of each loop and the constraints which set the variable of each loop which
+	 * exceeds its deadline.
+	 */
+	private void updateDeadlines() {
+		for(int i = 0; i < getNumberOfLoops(); i++) { // Loop index
+			latency[i].clear();
+			
+			for(int j = 0; j < getNumberOfModules() - 1; j++) {
+				if(getLoops()[i][j+1] == -1) break;
+				int startModuleIndex = getLoops()[i][j];
+				int finalModuleIndex = getLoops()[i][j+1];
 				
-				for(int j = 0; j < getNumberOfModules() - 1; j++) {
-					if(getLoops()[i][j+1] == -1) break;
-					int startModuleIndex = getLoops()[i][j];
-					int finalModuleIndex = getLoops()[i][j+1];
-					
-					processingLatency(cplex, placementVar, latency, i, startModuleIndex);
-					dependencyLatency(cplex, tupleRoutingVar, latency, i, startModuleIndex, finalModuleIndex);
-				}
+				processingLatency(i, startModuleIndex);
+				dependencyLatency(i, startModuleIndex, finalModuleIndex);
 			}
-		}catch (IloException e) {
-			e.printStackTrace();
+			
+			if(loopVar[i] == -1) continue;
+			
+			// Maximum latency of the loop (all variables are binary)
+			double maxLatency = latency[i].getConstant();
+			for(int j = 0; j < latency[i].size(); j++) {
+				maxLatency += Math.max(0, latency[i].getCoefficient(j));
+			}
+			
+			double bigM = Math.max(0, maxLatency - getLoopsDeadline()[i]);
+			deadlineConstraints[i].getExpression().clear().add(latency[i], 1).addTerm(loopVar[i], -bigM);
 		}
 	}
 	
 	/**
 	 * Computes the processing latency for the worst case scenario.
 	 * 
-	 * @param cplex the model
-	 * @param placementVar the matrix which represents the next module placement
-	 * @param latency the vector which represents the worst case scenario latency for each loop
 	 * @param loopIndex the loop index
 	 * @param modIndex the module index
 	 */
-	private void processingLatency(IloCplex cplex, final IloNumVar[][] placementVar, IloNumExpr[] latency, final int loopIndex, final int modIndex) {
+	private void processingLatency(final int loopIndex, final int modIndex) {
 		if(getmMips()[modIndex] == 0) return;
 		
-		try {
-			for(int i = 0; i < getNumberOfNodes(); i++) {
-				for(int j = 0; j < getNumberOfModules(); j++) {
-					for(int k = 0; k < getNumberOfModules(); k++) {
-						if(getmMips()[k] == 0) continue; // Sensor and actuator modules does not count
-						
-						double p = getmCPUMap()[j][k]/(getfMips()[i]*Config.MIPS_PERCENTAGE_UTIL);
-						latency[loopIndex] = cplex.sum(latency[loopIndex], cplex.prod(cplex.min(placementVar[i][modIndex], placementVar[i][k]), p));
-					}
-				}
+		for(int i = 0; i < getNumberOfNodes(); i++) {
+			// The module cannot be deployed in this node
+			if(!modelPossibleDeployment[i][modIndex]) continue;
+			
+			for(int k = 0; k < getNumberOfModules(); k++) {
+				if(getmMips()[k] == 0) continue; // Sensor and actuator modules does not count
+				if(!modelPossibleDeployment[i][k]) continue;
+				
+				double p = getmCPUIn()[k]/(getfMips()[i]*Config.MIPS_PERCENTAGE_UTIL);
+				latency[loopIndex].addTerm(min(placementVar[i][modIndex], placementVar[i][k]), p);
 			}
-		}catch (IloException e) {
-			e.printStackTrace();
 		}
 	}
 	
 	/**
 	 * Computes the transmission tuple latency for the worst case scenario between a pair of modules.
 	 * 
-	 * @param cplex the model
-	 * @param tupleRoutingVar the routingVar matrix which contains the routing for each module pair dependency
-	 * @param latency the vector which represents the worst case scenario latency for each loop
 	 * @param loopIndex the loop index
 	 * @param moduleIndex1 the first module index
 	 * @param moduleIndex2 the second module index
 	 */
-	@SuppressWarnings("unchecked")
-	private void dependencyLatency(IloCplex cplex, final IloNumVar[][] tupleRoutingVar, IloNumExpr[] latency, final int loopIndex,
-			final int moduleIndex1, final int moduleIndex2) {
+	private void dependencyLatency(final int loopIndex, final int moduleIndex1, final int moduleIndex2) {
 		int depIndex = -1;
 		int nrDependencies = getNumberOfDependencies();
-		int nrEdges = edgesMap.size();
+		int nrEdges = edgeSource.length;
 		
 		// Find dependency index
 		for (int i = 0; i < nrDependencies; i++) {
@@ -584,71 +712,60 @@ public class LinearProgramming extends Algorithm {
 		if(depIndex == -1)
 			FogComputingSim.err("Should not happen (Linear programming constraints)");
 		
-		try {
-			// For each Link, in the tuple routing map sum the total latency
-			for (int i = 0; i < nrEdges; i++) {
-				Map<Integer, Integer> edge = (Map<Integer, Integer>) edgesMap.keySet().toArray()[i];
-				Map<Double, Double> communication = (Map<Double, Double>) edgesMap.get(edge);
-				double lat = communication.entrySet().iterator().next().getKey();
-				
-				latency[loopIndex] = cplex.sum(latency[loopIndex], cplex.prod(tupleRoutingVar[depIndex][i], lat));
-			}
+		// For each Link, in the tuple routing map sum the total latency
+		for (int i = 0; i < nrEdges; i++) {
+			latency[loopIndex].addTerm(tupleRoutingVar[depIndex][i], edgeLatency[i]);
+		}
+		
+		for (int i = 0; i < nrDependencies; i++) {
+			double size = getdNW()[i];
 			
-			for (int i = 0; i < nrDependencies; i++) {
-				double size = getmNWMap()[getStartModDependency(i)][getFinalModDependency(i)];
-				
-				for (int j = 0; j < nrEdges; j++) {
-					Map<Integer, Integer> edge = (Map<Integer, Integer>) edgesMap.keySet().toArray()[j];
-					Map<Double, Double> communication = (Map<Double, Double>) edgesMap.get(edge);
-					double bw = communication.entrySet().iterator().next().getValue()*Config.BW_PERCENTAGE_UTIL;
-					
-					latency[loopIndex] = cplex.sum(latency[loopIndex], cplex.prod(cplex.min(tupleRoutingVar[depIndex][j], tupleRoutingVar[i][j]), size/bw));
-				}
+			for (int j = 0; j < nrEdges; j++) {
+				double bw = edgeBandwidth[j]*Config.BW_PERCENTAGE_UTIL;
+				latency[loopIndex].addTerm(min(tupleRoutingVar[depIndex][j], tupleRoutingVar[i][j]), size/bw);
 			}
-		}catch (IloException e) {
-			e.printStackTrace();
 		}
 	}
 	
 	/**
-	 * Defines the maximum migration time in each migration.
-	 * 
-	 * @param cplex the model
-	 * @param placementVar the matrix which represents the next module placement
-	 * @param migrationRoutingVar the matrix which contains the routing for each module migration
-	 * @param migLatency the vector which represents the worst case scenario latency for each migration
+	 * Defines the maximum migration time in each migration (the latency of each migration is set by updateMigrationDeadlines).
 	 */
-	@SuppressWarnings("unchecked")
-	private void defineMigrationDeadlines(IloCplex cplex, final IloNumVar[][] placementVar, final IloNumVar[][] migrationRoutingVar,
-			IloNumExpr[] migLatency) {
+	private void defineMigrationDeadlines() {
 		int nrModules = getNumberOfModules();
-		int nrEdges = edgesMap.size();		
 		
-		try {
-			for(int i = 0; i < nrModules; i++) { // Loop index
-				migLatency[i] = cplex.numExpr();
-				double vmSize = getmStrg()[i] + getmRam()[i];
-				
-				for (int j = 0; j < nrEdges; j++) {
-					Map<Integer, Integer> edge = (Map<Integer, Integer>) edgesMap.keySet().toArray()[j];
-					Map<Double, Double> communication = (Map<Double, Double>) edgesMap.get(edge);
-					double lat = communication.entrySet().iterator().next().getKey();
-					double bw = communication.entrySet().iterator().next().getValue()*(1-Config.BW_PERCENTAGE_UTIL);
-					
-					migLatency[i] = cplex.sum(migLatency[i], cplex.prod(migrationRoutingVar[i][j], lat + vmSize/bw));
-				}
-				
-				if(!isFirstOptimization()) {
-					int prevNodeIndex = Solution.findModulePlacement(getCurrentPositionInt(), i);
-					
-					// If the virtual machine was migrated, then sum a given setup time
-					migLatency[i] = cplex.sum(migLatency[i], cplex.prod(cplex.diff(1, placementVar[prevNodeIndex][i]), Config.SETUP_VM_TIME));
-				}
+		migLatency = new LinearExpression[nrModules];
+		
+		for(int i = 0; i < nrModules; i++) {
+			migLatency[i] = new LinearExpression();
+			
+			// The deadline is only a constraint if it is finite
+			if(getmMigD()[i] != Constants.INF)
+				model.addLe(migLatency[i], getmMigD()[i]);
+		}
+	}
+	
+	/**
+	 * Updates the worst case scenario latency of each migration.
+	 */
+	private void updateMigrationDeadlines() {
+		int nrModules = getNumberOfModules();
+		int nrEdges = edgeSource.length;
+		
+		for(int i = 0; i < nrModules; i++) { // Loop index
+			migLatency[i].clear();
+			double vmSize = getmStrg()[i] + getmRam()[i];
+			
+			for (int j = 0; j < nrEdges; j++) {
+				double bw = edgeBandwidth[j]*(1-Config.BW_PERCENTAGE_UTIL);
+				migLatency[i].addTerm(migrationRoutingVar[i][j], edgeLatency[j] + vmSize/bw);
+			}
+			
+			if(!modelFirstOptimization) {
+				int prevNodeIndex = getCurrentPlacement(i);
 				
-				cplex.addLe(migLatency[i], getmMigD()[i]);
+				// If the virtual machine was migrated, then sum a given setup time
+				migLatency[i].addConstant(Config.SETUP_VM_TIME).addTerm(placementVar[prevNodeIndex][i], -Config.SETUP_VM_TIME);
 			}
-		}catch (IloException e) {
-			e.printStackTrace();
 		}
 	}
 	
@@ -656,24 +773,57 @@ public class LinearProgramming extends Algorithm {
 	 * Transforms both routing problem variables from A x N x N into A x E
 	 * where:
 	 * 	- A: number of dependencies or number of modules
-	 * 	- E: number of edges 
+	 * 	- E: number of edges
+	 * 
+	 * @return true if the edges (source and destination) have changed since the last execution, otherwise false
 	 */
-	private void computeEdgesMap() {
-		edgesMap = new LinkedHashMap<Map<Integer,Integer>, Map<Double,Double>>();
-		 
+	private boolean computeEdges() {
+		int nrEdges = 0;
 		for(int i = 0; i < getNumberOfNodes(); i++) {
-			for(int j = 0; j < getNumberOfNodes(); j++) {
-				if(getfLatencyMap()[i][j] == 0 || getfLatencyMap()[i][j] == Constants.INF) continue;
-				
-				Map<Integer, Integer> edge = new HashMap<Integer, Integer>();
-				edge.put(i, j);
-				
-				Map<Double, Double> communication = new HashMap<Double, Double>();
-				communication.put(getfLatencyMap()[i][j], getfBandwidthMap()[i][j]);
+			for(int k = 0; k < getfNeighbors()[i].length; k++) {
+				if(getfNeighborLatency()[i][k] != 0) nrEdges++;
+			}
+		}
+		
+		int[] source = new int[nrEdges];
+		int[] destination = new int[nrEdges];
+		edgeLatency = new double[nrEdges];
+		edgeBandwidth = new double[nrEdges];
+		
+		int edge = 0;
+		for(int i = 0; i < getNumberOfNodes(); i++) {
+			for(int k = 0; k < getfNeighbors()[i].length; k++) {
+				if(getfNeighborLatency()[i][k] == 0) continue;
 				
-				edgesMap.put(edge, communication);
+				source[edge] = i;
+				destination[edge] = getfNeighbors()[i][k];
+				edgeLatency[edge] = getfNeighborLatency()[i][k];
+				edgeBandwidth[edge++] = getfNeighborBandwidth()[i][k];
 			}
 		}
+		
+		boolean changed = !Arrays.equals(source, edgeSource) || !Arrays.equals(destination, edgeDestination);
+		edgeSource = source;
+		edgeDestination = destination;
+		return changed;
+	}
+	
+	/**
+	 * Gets the time spent building (or updating) the model in the last execution.
+	 * 
+	 * @return the time spent building the model (in milliseconds)
+	 */
+	public long getModelBuildTime() {
+		return modelBuildTime;
+	}
+	
+	/**
+	 * Gets the time spent solving the model in the last execution.
+	 * 
+	 * @return the time spent solving the model (in milliseconds)
+	 */
+	public long getSolveTime() {
+		return solveTime;
 	}
 	
 }
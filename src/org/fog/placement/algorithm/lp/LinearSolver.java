@@ -0,0 +1,20 @@
+package org.fog.placement.algorithm.lp;
+
+/**
+ * Interface of the solvers of mixed integer linear programming models (see LinearModel).
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public interface LinearSolver {
+	
+	/**
+	 * Solves a given model, minimizing its objectives in lexicographic order.
+	 * 
+	 * @param model the model
+	 * @param timeLimit the maximum wall time (in milliseconds); Long.MAX_VALUE if unlimited
+	 * @return the value of each variable in the best solution found; null if no solution was found
+	 */
+	double[] solve(LinearModel model, long timeLimit);
+	
+}
@@ -0,0 +1,136 @@
+package org.fog.placement.algorithm.lp.cplex;
+
+import java.util.List;
+
+import org.fog.core.Config;
+import org.fog.placement.algorithm.lp.LinearExpression;
+import org.fog.placement.algorithm.lp.LinearModel;
+import org.fog.placement.algorithm.lp.LinearSolver;
+
+import ilog.concert.*;
+import ilog.cplex.*;
+
+/**
+ * Class which solves mixed integer linear programming models through CPLEX from IBM. This is the only class which depends
+ * on CPLEX (it is loaded by name), thus the remaining project can be built without it by excluding this package.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class CplexSolver implements LinearSolver {
+	
+	/**
+	 * Solves a given model, minimizing its objectives in lexicographic order.
+	 * 
+	 * @param model the model
+	 * @param timeLimit the maximum wall time (in milliseconds); Long.MAX_VALUE if unlimited
+	 * @return the value of each variable in the best solution found; null if no solution was found
+	 */
+	@Override
+	public double[] solve(final LinearModel model, final long timeLimit) {
+		try {
+			// Define model
+			IloCplex cplex = new IloCplex();
+			
+			// Define variables
+			IloNumVar[] variables = new IloNumVar[model.getNumberOfVariables()];
+			for(int i = 0; i < variables.length; i++) {
+				double lowerBound = model.getLowerBound(i);
+				double upperBound = Math.min(model.getUpperBound(i), Double.MAX_VALUE);
+				
+				if(model.isInteger(i) && lowerBound == 0 && upperBound == 1)
+					variables[i] = cplex.boolVar();
+				else if(model.isInteger(i))
+					variables[i] = cplex.intVar((int) lowerBound, (int) Math.min(upperBound, Integer.MAX_VALUE));
+				else
+					variables[i] = cplex.numVar(lowerBound, upperBound);
+			}
+			
+			// Define constraints
+			for(LinearModel.Constraint constraint : model.getConstraints()) {
+				IloLinearNumExpr expression = toExpression(cplex, variables, constraint.getExpression());
+				double value = constraint.getValue() - constraint.getExpression().getConstant();
+				
+				switch (constraint.getType()) {
+					case LinearModel.LESS_EQUAL:
+						cplex.addLe(expression, value);
+						break;
+					case LinearModel.GREATER_EQUAL:
+						cplex.addGe(expression, value);
+						break;
+					default:
+						cplex.addEq(expression, value);
+						break;
+				}
+			}
+			
+			// Define objectives
+			List<LinearModel.Objective> objectives = model.getObjectives();
+			IloNumExpr[] objArray = new IloNumExpr[objectives.size()];
+			double[] weights = new double[objectives.size()];
+			int[] priorities = new int[objectives.size()];
+			double[] absTols = new double[objectives.size()];
+			double[] relTols = new double[objectives.size()];
+			
+			for(int i = 0; i < objectives.size(); i++) {
+				LinearModel.Objective objective = objectives.get(i);
+				objArray[i] = cplex.sum(toExpression(cplex, variables, objective.getExpression()),
+						objective.getExpression().getConstant());
+				weights[i] = objective.getWeight();
+				priorities[i] = objective.getPriority();
+				absTols[i] = objective.getAbsTol();
+				relTols[i] = objective.getRelTol();
+			}
+			
+			if(objectives.size() != 0)
+				cplex.add(cplex.minimize(cplex.staticLex(objArray, weights, priorities, absTols, relTols, null)));
+			
+			// Display option
+			if(Config.PRINT_DETAILS)
+				cplex.setParam(IloCplex.Param.Simplex.Display, 0);
+			else
+				cplex.setOut(null);
+			
+			// The solver stops once the wall time is exhausted (returning the best solution found so far)
+			if(timeLimit != Long.MAX_VALUE)
+				cplex.setParam(IloCplex.Param.TimeLimit, Math.max(0, timeLimit)/1000.0);
+			
+			// Solve
+			double[] values = null;
+			if(cplex.solve()) {
+				values = new double[variables.length];
+				for(int i = 0; i < variables.length; i++) {
+					values[i] = cplex.getValue(variables[i]);
+				}
+			}
+			
+			cplex.end();
+			return values;
+		}
+		catch (IloException exc) {
+			exc.printStackTrace();
+			return null;
+		}
+	}
+	
+	/**
+	 * Converts a linear expression of the model into a CPLEX expression (without its constant).
+	 * 
+	 * @param cplex the CPLEX model
+	 * @param variables the CPLEX variable of each variable of the model
+	 * @param expression the expression
+	 * @return the CPLEX expression
+	 * @throws IloException if the expression cannot be created
+	 */
+	private static IloLinearNumExpr toExpression(final IloCplex cplex, final IloNumVar[] variables,
+			final LinearExpression expression) throws IloException {
+		IloLinearNumExpr result = cplex.linearNumExpr();
+		
+		for(int i = 0; i < expression.size(); i++) {
+			result.addTerm(variables[expression.getVariable(i)], expression.getCoefficient(i));
+		}
+		
+		return result;
+	}
+	
+}
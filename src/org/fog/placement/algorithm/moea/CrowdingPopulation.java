@@ -0,0 +1,93 @@
+package org.fog.placement.algorithm.moea;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.moeaframework.core.NondominatedSorting;
+import org.moeaframework.core.NondominatedSortingPopulation;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.comparator.ObjectiveComparator;
+
+/**
+ * Class representing the population of the NSGA-II whose crowding distance is computed again after each nondominated
+ * sorting. The crowding distance computed by the MOEA Framework divides by the range of each objective within the
+ * front, which is zero whenever all solutions of the front have the same value in that objective (e.g., the migration
+ * cost in the first optimization). The distance then becomes NaN and the population can no longer be sorted. Here,
+ * objectives without range do not contribute to the distance.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+class CrowdingPopulation extends NondominatedSortingPopulation {
+	
+	@Override
+	public void update() {
+		super.update();
+		
+		Map<Object, List<Solution>> fronts = new HashMap<Object, List<Solution>>();
+		
+		for(Solution solution : this) {
+			Object rank = solution.getAttribute(NondominatedSorting.RANK_ATTRIBUTE);
+			List<Solution> front = fronts.get(rank);
+			
+			if(front == null) {
+				front = new ArrayList<Solution>();
+				fronts.put(rank, front);
+			}
+			
+			front.add(solution);
+		}
+		
+		for(List<Solution> front : fronts.values()) {
+			updateCrowdingDistance(front);
+		}
+	}
+	
+	/**
+	 * Computes the crowding distance of the solutions within a given front.
+	 * 
+	 * @param front the solutions within the front
+	 */
+	private static void updateCrowdingDistance(final List<Solution> front) {
+		int size = front.size();
+		double[] distance = new double[size];
+		
+		if(size < 3) {
+			for(Solution solution : front) {
+				solution.setAttribute(NondominatedSorting.CROWDING_ATTRIBUTE, Double.POSITIVE_INFINITY);
+			}
+			return;
+		}
+		
+		Map<Solution, Integer> position = new HashMap<Solution, Integer>();
+		for(int i = 0; i < size; i++) {
+			position.put(front.get(i), i);
+		}
+		
+		List<Solution> sorted = new ArrayList<Solution>(front);
+		
+		for(int k = 0; k < front.get(0).getNumberOfObjectives(); k++) {
+			Collections.sort(sorted, new ObjectiveComparator(k));
+			
+			double min = sorted.get(0).getObjective(k);
+			double max = sorted.get(size - 1).getObjective(k);
+			
+			distance[position.get(sorted.get(0))] = Double.POSITIVE_INFINITY;
+			distance[position.get(sorted.get(size - 1))] = Double.POSITIVE_INFINITY;
+			
+			if(max - min <= 0) continue;
+			
+			for(int i = 1; i < size - 1; i++) {
+				distance[position.get(sorted.get(i))] += (sorted.get(i + 1).getObjective(k) - sorted.get(i - 1).getObjective(k))/(max - min);
+			}
+		}
+		
+		for(int i = 0; i < size; i++) {
+			front.get(i).setAttribute(NondominatedSorting.CROWDING_ATTRIBUTE, distance[i]);
+		}
+	}
+	
+}
@@ -0,0 +1,182 @@
+package org.fog.placement.algorithm.moea;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.fog.application.Application;
+import org.fog.core.Config;
+import org.fog.entities.Actuator;
+import org.fog.entities.FogDevice;
+import org.fog.entities.Sensor;
+import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Budget;
+import org.fog.placement.algorithm.Solution;
+import org.moeaframework.algorithm.NSGAII;
+import org.moeaframework.core.Initialization;
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.Problem;
+import org.moeaframework.core.Variation;
+import org.moeaframework.core.comparator.ChainedComparator;
+import org.moeaframework.core.comparator.CrowdingComparator;
+import org.moeaframework.core.comparator.ParetoDominanceComparator;
+import org.moeaframework.core.operator.RandomInitialization;
+import org.moeaframework.core.operator.TournamentSelection;
+import org.moeaframework.core.spi.AlgorithmFactory;
+import org.moeaframework.core.spi.OperatorFactory;
+import org.moeaframework.util.distributed.DistributedProblem;
+
+/**
+ * Class in which defines and executes the multi-objective evolutionary algorithm (NSGA-II or NSGA-III, through the MOEA
+ * Framework). Instead of ranking the solutions by the priorities of the objectives, it finds the Pareto front of the
+ * problem in a single run. The solution which is returned is then chosen from the Pareto front using the priorities of
+ * the objectives, thus a different trade-off can be chosen from the same front without running the algorithm again.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class MultiObjectiveAlgorithm extends Algorithm {
+	/** Solutions of the Pareto front found in the last execution (sorted by the priorities of the objectives) */
+	private List<Solution> paretoFront;
+	
+	public MultiObjectiveAlgorithm(final List<FogDevice> fogDevices, final List<Application> applications,
+			final List<Sensor> sensors, final List<Actuator> actuators) {
+		super(fogDevices, applications, sensors, actuators);
+		paretoFront = new ArrayList<Solution>();
+	}
+	
+	public MultiObjectiveAlgorithm(final Algorithm problem, final int[] modules) {
+		super(problem, modules);
+		paretoFront = new ArrayList<Solution>();
+	}
+	
+	/**
+	 * Executes the multi-objective evolutionary algorithm in order to find the Pareto front. The individuals are evaluated
+	 * in parallel.
+	 * 
+	 * @param budget the budget of the execution (the target cost is not taken into account, as the whole Pareto front is searched)
+	 * @return the best solution of the Pareto front according to the priorities of the objectives; can be null
+	 */
+	@Override
+	public Solution execute(Budget budget) {
+		startBudget(budget);
+		
+		// Time at the beginning of the execution of the algorithm
+		long start = System.currentTimeMillis();
+		
+		// Both the routes and the validation of the hops are based on the shortest paths (only if the topology has changed)
+		getShortestPaths();
+		getPathCatalog();
+		
+		ExecutorService executor = null;
+		Problem problem = new PlacementProblem(this);
+		
+		// The individuals of each generation are evaluated in parallel
+		if(Config.NR_THREADS_MOEA > 1) {
+			executor = Executors.newFixedThreadPool(Config.NR_THREADS_MOEA);
+			problem = new DistributedProblem(problem, executor);
+		}
+		
+		NondominatedPopulation result;
+		int generation = 0;
+		
+		try {
+			org.moeaframework.core.Algorithm moea = createAlgorithm(problem);
+			
+			while(!moea.isTerminated() && moea.getNumberOfEvaluations() < Config.MAX_EVALUATIONS_MOEA && !budget.isExpired()) {
+				moea.step();
+				generation++;
+			}
+			
+			result = moea.getResult();
+		}finally {
+			if(executor != null)
+				executor.shutdown();
+		}
+		
+		Solution bestSolution = selectSolution(toSolutions(result), generation);
+		
+		// Time at the end of the execution of the algorithm
+		long finish = System.currentTimeMillis();
+		
+		setElapsedTime(finish - start);
+		
+		return bestSolution;
+	}
+	
+	/**
+	 * Creates the multi-objective evolutionary algorithm defined in the configuration. The NSGA-II is built here so that
+	 * its population computes the crowding distance of fronts with constant objectives; all other algorithms are created
+	 * by the MOEA Framework with its default operators.
+	 * 
+	 * @param problem the problem to be solved
+	 * @return the multi-objective evolutionary algorithm
+	 */
+	private static org.moeaframework.core.Algorithm createAlgorithm(final Problem problem) {
+		Properties properties = new Properties();
+		properties.setProperty("populationSize", Integer.toString(Config.POPULATION_SIZE_MOEA));
+		
+		if(!Config.ALGORITHM_MOEA.equalsIgnoreCase("NSGAII"))
+			return AlgorithmFactory.getInstance().getAlgorithm(Config.ALGORITHM_MOEA, properties, problem);
+		
+		TournamentSelection selection = new TournamentSelection(2,
+				new ChainedComparator(new ParetoDominanceComparator(), new CrowdingComparator()));
+		Variation variation = OperatorFactory.getInstance().getVariation(null, properties, problem);
+		Initialization initialization = new RandomInitialization(problem, Config.POPULATION_SIZE_MOEA);
+		
+		return new NSGAII(problem, new CrowdingPopulation(), null, selection, variation, initialization);
+	}
+	
+	/**
+	 * Converts the individuals of the Pareto front into solutions. The solutions which do not respect all constraints are
+	 * discarded.
+	 * 
+	 * @param population the Pareto front found by the MOEA Framework
+	 * @return the list of solutions
+	 */
+	private List<Solution> toSolutions(final NondominatedPopulation population) {
+		PlacementProblem problem = new PlacementProblem(this);
+		List<Solution> solutions = new ArrayList<Solution>();
+		
+		for(org.moeaframework.core.Solution individual : population) {
+			Solution solution = problem.decode(individual);
+			
+			if(solution.isValid())
+				solutions.add(solution);
+		}
+		
+		return solutions;
+	}
+	
+	/**
+	 * Sorts the Pareto front by the priorities of the objectives and chooses its best solution.
+	 * 
+	 * @param solutions the solutions of the Pareto front
+	 * @param generation the number of generations which were needed to find the Pareto front
+	 * @return the best solution; null if the front is empty
+	 */
+	private Solution selectSolution(final List<Solution> solutions, final int generation) {
+		paretoFront = solutions;
+		Collections.sort(paretoFront);
+		
+		Solution bestSolution = null;
+		for(int i = 0; i < paretoFront.size(); i++) {
+			bestSolution = Solution.checkBestSolution(this, paretoFront.get(i), bestSolution, generation);
+		}
+		
+		return bestSolution;
+	}
+	
+	/**
+	 * Gets the solutions of the Pareto front found in the last execution, sorted by the priorities of the objectives.
+	 * 
+	 * @return the solutions of the Pareto front
+	 */
+	public List<Solution> getParetoFront() {
+		return paretoFront;
+	}
+	
+}
@@ -0,0 +1,130 @@
+package org.fog.placement.algorithm.moea;
+
+import org.fog.core.Config;
+import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Solution;
+import org.fog.placement.algorithm.util.routing.PathCatalog;
+import org.moeaframework.core.variable.EncodingUtils;
+import org.moeaframework.problem.AbstractProblem;
+
+/**
+ * Class which exposes the module placement and routing problem to the MOEA Framework. Each individual holds one
+ * variable per module (the position of its node within the list of possible nodes), one variable per dependency and one
+ * variable per module migration (the position of the route within the catalog of the k shortest paths between both
+ * nodes). Each individual is evaluated through the cost function, whose five costs are the objectives and whose
+ * constraint violation is the only constraint. The evaluation does not change any shared state, thus individuals can
+ * be evaluated in parallel.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class PlacementProblem extends AbstractProblem {
+	/** Object which holds all the information needed to run the optimization algorithm */
+	private final Algorithm algorithm;
+	
+	/** Catalog holding the k shortest paths between each two fog nodes */
+	private final PathCatalog pathCatalog;
+	
+	/**
+	 * Creates the problem for the current topology.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 */
+	public PlacementProblem(final Algorithm algorithm) {
+		super(2*algorithm.getNumberOfModules() + algorithm.getNumberOfDependencies(), Config.NR_OBJECTIVES, 1);
+		this.algorithm = algorithm;
+		this.pathCatalog = algorithm.getPathCatalog();
+	}
+	
+	@Override
+	public void evaluate(org.moeaframework.core.Solution individual) {
+		Solution solution = decode(individual);
+		
+		for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
+			individual.setObjective(i, solution.getDetailedCost(i));
+		}
+		
+		individual.setConstraint(0, solution.getConstraint());
+	}
+	
+	@Override
+	public org.moeaframework.core.Solution newSolution() {
+		org.moeaframework.core.Solution individual = new org.moeaframework.core.Solution(getNumberOfVariables(),
+				getNumberOfObjectives(), getNumberOfConstraints());
+		
+		int nrModules = algorithm.getNumberOfModules();
+		int nrRoutes = getNumberOfVariables() - nrModules;
+		
+		for(int i = 0; i < nrModules; i++) {
+			individual.setVariable(i, EncodingUtils.newInt(0, algorithm.getPossibleNodes(i).length - 1));
+		}
+		
+		for(int i = 0; i < nrRoutes; i++) {
+			individual.setVariable(nrModules + i, EncodingUtils.newInt(0, pathCatalog.getMaxPaths() - 1));
+		}
+		
+		return individual;
+	}
+	
+	/**
+	 * Converts an individual into the corresponding solution (which is evaluated through the cost function).
+	 * 
+	 * @param individual the individual of the MOEA Framework
+	 * @return the solution
+	 */
+	public Solution decode(org.moeaframework.core.Solution individual) {
+		int nrNodes = algorithm.getNumberOfNodes();
+		int nrModules = algorithm.getNumberOfModules();
+		int nrDependencies = algorithm.getNumberOfDependencies();
+		boolean firstOpt = algorithm.isFirstOptimization();
+		
+		int[] variables = EncodingUtils.getInt(individual);
+		int[] modulePlacement = new int[nrModules];
+		int[][] tupleRoutingMap = new int[nrDependencies][nrNodes];
+		int[][] migrationRoutingMap = new int[nrModules][nrNodes];
+		
+		for(int i = 0; i < nrModules; i++) {
+			modulePlacement[i] = algorithm.getPossibleNodes(i)[variables[i]];
+		}
+		
+		for(int i = 0; i < nrDependencies; i++) {
+			int from = modulePlacement[algorithm.getStartModDependency(i)];
+			int to = modulePlacement[algorithm.getFinalModDependency(i)];
+			fillRoute(tupleRoutingMap[i], from, to, variables[nrModules + i]);
+		}
+		
+		for(int i = 0; i < nrModules; i++) {
+			int from = firstOpt ? modulePlacement[i] : algorithm.getCurrentPlacement(i);
+			fillRoute(migrationRoutingMap[i], from, modulePlacement[i], variables[nrModules + nrDependencies + i]);
+		}
+		
+		return new Solution(algorithm, modulePlacement, tupleRoutingMap, migrationRoutingMap);
+	}
+	
+	/**
+	 * Fills a route with a given path of the catalog. If there are less paths than the given position, the position wraps
+	 * around. If there is no path at all, the route jumps straight to the last node (which violates the constraints).
+	 * 
+	 * @param route the route to be filled
+	 * @param from the index of the node where the route starts
+	 * @param to the index of the node where the route ends
+	 * @param position the position of the path within the catalog
+	 */
+	private void fillRoute(int[] route, final int from, final int to, final int position) {
+		int[][] paths = pathCatalog.getPaths(from, to);
+		
+		route[0] = from;
+		int length = 1;
+		
+		if(paths.length != 0) {
+			int[] path = paths[position % paths.length];
+			System.arraycopy(path, 0, route, 0, path.length);
+			length = path.length;
+		}
+		
+		for(int j = length; j < route.length; j++) {
+			route[j] = to;
+		}
+	}
+	
+}
@@ -0,0 +1,212 @@
+package org.fog.placement.algorithm.rand;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.fog.core.Config;
+import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Solution;
+
+/**
+ * Class which generates random solutions which respect both the resource and the bandwidth constraints whenever possible.
+ * The modules are deployed one at a time (in a random order), each one in a random possible node which still has enough
+ * MIPS, RAM and storage for it. Then, the tuples are routed hop by hop, each hop being a random link which still has
+ * enough bandwidth for the dependency. If there is no such node (or link), any possible one is used instead (thus, the
+ * solution is not valid). Each sampler holds its own buffers, thus it can only be used by a single thread.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+class FeasibleSampler {
+	/** Object which holds all the information needed to run the optimization algorithm */
+	private final Algorithm algorithm;
+	
+	/** Random number generator */
+	private final Random random;
+	
+	/** Vector holding the order in which the modules are deployed */
+	private final int[] order;
+	
+	/** Buffer used to hold the valid nodes (or neighbor positions) */
+	private final int[] candidates;
+	
+	/** Vector holding the sum of the MIPS of the modules deployed in each node */
+	private final double[] nodeMips;
+	
+	/** Vector holding the sum of the RAM of the modules deployed in each node */
+	private final double[] nodeRam;
+	
+	/** Vector holding the sum of the storage of the modules deployed in each node */
+	private final double[] nodeStrg;
+	
+	/** Adjacency lists holding the sum of the bandwidth of the dependencies which use each link */
+	private final double[][] linkBandwidth;
+	
+	FeasibleSampler(final Algorithm algorithm, final Random random) {
+		int nrNodes = algorithm.getNumberOfNodes();
+		
+		this.algorithm = algorithm;
+		this.random = random;
+		order = new int[algorithm.getNumberOfModules()];
+		candidates = new int[nrNodes];
+		nodeMips = new double[nrNodes];
+		nodeRam = new double[nrNodes];
+		nodeStrg = new double[nrNodes];
+		linkBandwidth = new double[nrNodes][];
+		
+		for(int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		
+		for(int i = 0; i < nrNodes; i++) {
+			linkBandwidth[i] = new double[algorithm.getfNeighbors()[i].length];
+		}
+	}
+	
+	/**
+	 * Generates a new random solution.
+	 * 
+	 * @return the random solution (already evaluated)
+	 */
+	Solution sample() {
+		int nrFogNodes = algorithm.getNumberOfNodes();
+		int nrModules = algorithm.getNumberOfModules();
+		int nrDependencies = algorithm.getNumberOfDependencies();
+		
+		int[] modulePlacement = new int[nrModules];
+		int[][] tupleRoutingMap = new int[nrDependencies][nrFogNodes];
+		int[][] migrationRoutingMap = new int[nrModules][nrFogNodes];
+		
+		Arrays.fill(nodeMips, 0);
+		Arrays.fill(nodeRam, 0);
+		Arrays.fill(nodeStrg, 0);
+		for(double[] bandwidth : linkBandwidth) {
+			Arrays.fill(bandwidth, 0);
+		}
+		
+		// Shuffle the order in which the modules are deployed (Fisher-Yates)
+		for(int i = nrModules - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+		
+		for(int module : order) {
+			modulePlacement[module] = placeModule(module);
+		}
+		
+		for(int i = 0; i < nrDependencies; i++) {
+			tupleRoutingMap[i][0] = modulePlacement[algorithm.getStartModDependency(i)];
+			tupleRoutingMap[i][nrFogNodes-1] = modulePlacement[algorithm.getFinalModDependency(i)];
+			routeTuple(tupleRoutingMap[i], algorithm.getdBandwidth()[i]);
+		}
+		
+		Solution.generateRandomMigrationRouting(algorithm, modulePlacement, migrationRoutingMap, candidates, random);
+		return new Solution(algorithm, modulePlacement, tupleRoutingMap, migrationRoutingMap);
+	}
+	
+	/**
+	 * Deploys a given module in a random possible node which still has enough resources for it.
+	 * 
+	 * @param module the module index
+	 * @return the index of the node
+	 */
+	private int placeModule(final int module) {
+		int[] validValues = algorithm.getPossibleNodes(module);
+		double mips = algorithm.getmMips()[module];
+		double ram = algorithm.getmRam()[module];
+		double strg = algorithm.getmStrg()[module];
+		int nrCandidates = 0;
+		
+		for(int node : validValues) {
+			if(nodeMips[node] + mips > algorithm.getfMips()[node] * Config.MIPS_PERCENTAGE_UTIL) continue;
+			if(nodeRam[node] + ram > algorithm.getfRam()[node] * Config.MEM_PERCENTAGE_UTIL) continue;
+			if(nodeStrg[node] + strg > algorithm.getfStrg()[node] * Config.STRG_PERCENTAGE_UTIL) continue;
+			candidates[nrCandidates++] = node;
+		}
+		
+		int node;
+		if(nrCandidates != 0)
+			node = candidates[random.nextInt(nrCandidates)];
+		else
+			node = validValues[random.nextInt(validValues.length)];
+		
+		nodeMips[node] += mips;
+		nodeRam[node] += ram;
+		nodeStrg[node] += strg;
+		return node;
+	}
+	
+	/**
+	 * Fills the intermediate hops of a tuple route whose first and last nodes are already defined. Each hop is a random
+	 * neighbor of the previous one from which the last node can still be reached within the remaining hops and whose link
+	 * still has enough bandwidth for the dependency.
+	 * 
+	 * @param route the route (both its first and last positions are already filled)
+	 * @param bandwidth the bandwidth needed by the dependency
+	 */
+	private void routeTuple(final int[] route, final double bandwidth) {
+		int nrFogNodes = route.length;
+		int finalNode = route[nrFogNodes-1];
+		
+		for(int j = 1; j < nrFogNodes - 1; j++) { // Routing hop index
+			int previousNode = route[j-1];
+			
+			// If its already the final node, then just fill the remain ones
+			if(previousNode == finalNode) {
+				Arrays.fill(route, j, nrFogNodes - 1, finalNode);
+				return;
+			}
+			
+			int nrCandidates = findNextHops(previousNode, finalNode, nrFogNodes - j, bandwidth);
+			
+			// If no link has enough bandwidth left, any one is used
+			if(nrCandidates == 0)
+				nrCandidates = findNextHops(previousNode, finalNode, nrFogNodes - j, -1);
+			
+			// If the last node cannot be reached at all, the route is left unfinished (thus, the sample is not valid)
+			if(nrCandidates == 0) {
+				Arrays.fill(route, j, nrFogNodes - 1, finalNode);
+				return;
+			}
+			
+			int k = candidates[random.nextInt(nrCandidates)];
+			route[j] = algorithm.getfNeighbors()[previousNode][k];
+			linkBandwidth[previousNode][k] += bandwidth;
+		}
+		
+		// The last hop
+		if(nrFogNodes > 1 && route[nrFogNodes-2] != finalNode) {
+			int k = algorithm.getNeighborPosition(route[nrFogNodes-2], finalNode);
+			if(k != -1) linkBandwidth[route[nrFogNodes-2]][k] += bandwidth;
+		}
+	}
+	
+	/**
+	 * Finds the valid next hops of a route (their positions in the adjacency list of the previous node).
+	 * 
+	 * @param previousNode the index of the previous node
+	 * @param finalNode the index of the last node of the route
+	 * @param maxDist the maximum number of hops left
+	 * @param bandwidth the bandwidth needed by the dependency; negative if the bandwidth of the links is not verified
+	 * @return the number of valid next hops
+	 */
+	private int findNextHops(final int previousNode, final int finalNode, final int maxDist, final double bandwidth) {
+		int[] neighbors = algorithm.getfNeighbors()[previousNode];
+		int nrCandidates = 0;
+		
+		for(int k = 0; k < neighbors.length; k++) { // Neighbor index
+			if(algorithm.getfNeighborLatency()[previousNode][k] == 0) continue;
+			if(!algorithm.isValidHop(neighbors[k], finalNode, maxDist)) continue;
+			
+			if(bandwidth >= 0 && linkBandwidth[previousNode][k] + bandwidth >
+					algorithm.getfNeighborBandwidth()[previousNode][k] * Config.BW_PERCENTAGE_UTIL) continue;
+			
+			candidates[nrCandidates++] = k;
+		}
+		
+		return nrCandidates;
+	}
+	
+}
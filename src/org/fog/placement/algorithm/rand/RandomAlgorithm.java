@@ -1,6 +1,14 @@
 package org.fog.placement.algorithm.rand;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.fog.application.Application;
 import org.fog.core.Config;
@@ -8,61 +16,86 @@ import org.fog.entities.Actuator;
 import org.fog.entities.FogDevice;
 import org.fog.entities.Sensor;
 import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Budget;
 import org.fog.placement.algorithm.Solution;
 
 /**
- * Class in which defines and executes the random algorithm.
+ * Class in which defines and executes the random algorithm. The solutions are sampled by several threads, each one
+ * keeping its own best solution (and convergence count), while the best solution among all threads is the result of the
+ * algorithm. Optionally, the solutions are sampled through the FeasibleSampler, which only deploys the modules in nodes
+ * with enough resources left and only routes the tuples through links with enough bandwidth left.
  * 
  * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST)
  * @since  July, 2019
  */
 public class RandomAlgorithm extends Algorithm {
-	private Solution bestSolution;
-	private int iteration;
-
+	/** Best solution found by the algorithm */
+	private volatile Solution bestSolution;
+	
+	/** Current iteration of the algorithm (number of solutions sampled by all threads) */
+	private final AtomicInteger iteration;
+	
+	/** Number of sampled solutions which respect all constraints */
+	private final AtomicLong nrFeasibleSamples;
+	
+	/** Maximum number of equal cost solutions in a row for a thread to stop */
+	private int maxConvergenceIter;
+	
+	/** Defines whether the budget of the execution is exhausted (in which case all threads stop) */
+	private volatile boolean stopped;
+	
 	public RandomAlgorithm(List<FogDevice> fogDevices, List<Application> applications,
 			List<Sensor> sensors, List<Actuator> actuators) throws IllegalArgumentException {
 		super(fogDevices, applications, sensors, actuators);
+		iteration = new AtomicInteger();
+		nrFeasibleSamples = new AtomicLong();
+	}
+	
+	public RandomAlgorithm(final Algorithm problem, final int[] modules) {
+		super(problem, modules);
+		iteration = new AtomicInteger();
+		nrFeasibleSamples = new AtomicLong();
 	}
 	
 	/**
 	 * Executes the random algorithm in order to find the best solution (the solution with the lower cost which respects all constraints).
 	 * 
+	 * @param budget the budget of the execution
 	 * @return the best solution; can be null
 	 */
 	@Override
-	public Solution execute() {
-		iteration = 0;
+	public Solution execute(Budget budget) {
+		iteration.set(0);
+		nrFeasibleSamples.set(0);
 		bestSolution = null;
-		getValueIterMap().clear();
+		stopped = false;
+		startBudget(budget);
 		
 		// Time at the beginning of the execution of the algorithm
 		long start = System.currentTimeMillis();
 		
-		// Generate the Dijkstra graph
-		generateDijkstraGraph();
+		// Compute the shortest paths between any two nodes (only if the topology has changed)
+		getShortestPaths();
 		
-		int convergenceIter = 0;
-		while (iteration <= Config.MAX_ITER_RANDOM) {
-			Solution solution = Solution.generateRandomSolution(this);
-			
-			Solution prevBestSolution = null;
-			if(bestSolution != null) prevBestSolution = new Solution(this, bestSolution);
-			
-			// Check whether the new solution is the new best solution
-			bestSolution = Solution.checkBestSolution(this, solution, bestSolution, iteration);
-			
-			// Check the convergence error
-			if(Solution.checkConvergence(prevBestSolution, bestSolution)) {
-				convergenceIter++;
-				// If it found the same (or similar) solution a given number of times in a row break the loop
-	    		if(convergenceIter == Config.MAX_ITER_CONVERGENCE_RANDOM) break;
-			}else
-    			convergenceIter = 0;
-			
-			iteration++;
+		// Build the catalog of the k shortest paths between any two nodes (only if the topology has changed)
+		if(Config.PATH_CATALOG_ROUTING)
+			getPathCatalog();
+		
+		maxConvergenceIter = Config.MAX_ITER_CONVERGENCE_RANDOM;
+		
+		// In a warm start, the previous solution (repaired for the current topology) is the initial best solution
+		if(getSeedSolution() != null) {
+			Solution seed = Solution.generateSeedSolution(this, getSeedSolution(), new Random());
+			bestSolution = Solution.checkBestSolution(this, seed, bestSolution, iteration.get());
+			maxConvergenceIter = Config.MAX_ITER_CONVERGENCE_WARM_RANDOM;
 		}
 		
+		// Solve the problem
+		if(Config.NR_THREADS_RANDOM > 1)
+			sampleInParallel(Config.NR_THREADS_RANDOM);
+		else
+			new Worker(bestSolution).run();
+		
 		// Time at the end of the execution of the algorithm
 		long finish = System.currentTimeMillis();
 		
@@ -70,5 +103,124 @@ public class RandomAlgorithm extends Algorithm {
 		
 		return bestSolution;
 	}
-
+	
+	/**
+	 * Samples the solutions using a given number of threads.
+	 * 
+	 * @param nrThreads the number of threads
+	 */
+	private void sampleInParallel(final int nrThreads) {
+		ExecutorService executor = Executors.newFixedThreadPool(nrThreads);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		
+		try {
+			for(int i = 0; i < nrThreads; i++) {
+				futures.add(executor.submit(new Worker(bestSolution)));
+			}
+			
+			for(Future<?> future : futures) {
+				future.get();
+			}
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Random sampling was interrupted", e);
+		}catch (ExecutionException e) {
+			throw new IllegalStateException("Random sampling has failed", e.getCause());
+		}finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Updates the best solution found among all threads.
+	 * 
+	 * @param solution the new solution
+	 * @param iteration the iteration in which the solution was sampled
+	 */
+	private synchronized void updateBestSolution(final Solution solution, final int iteration) {
+		bestSolution = Solution.checkBestSolution(this, solution, bestSolution, iteration);
+	}
+	
+	/**
+	 * Gets the number of solutions sampled in the last execution.
+	 * 
+	 * @return the number of sampled solutions
+	 */
+	public long getNrSamples() {
+		return Math.min(iteration.get(), Config.MAX_ITER_RANDOM + 1L);
+	}
+	
+	/**
+	 * Gets the number of sampled solutions which respect all constraints in the last execution.
+	 * 
+	 * @return the number of feasible sampled solutions
+	 */
+	public long getNrFeasibleSamples() {
+		return nrFeasibleSamples.get();
+	}
+	
+	/**
+	 * Gets the fraction of the sampled solutions which respect all constraints in the last execution.
+	 * 
+	 * @return the feasible sample rate (between 0 and 1)
+	 */
+	public double getFeasibleSampleRate() {
+		long nrSamples = getNrSamples();
+		return nrSamples == 0 ? 0 : (double) getNrFeasibleSamples() / nrSamples;
+	}
+	
+	/**
+	 * Class representing a thread which samples random solutions until either it converges or the budget (or the maximum
+	 * number of iterations) is exhausted.
+	 */
+	private class Worker implements Runnable {
+		/** Random number generator of the thread */
+		private final Random random;
+		
+		/** Sampler of the thread; null if the solutions are sampled through the original sampler */
+		private final FeasibleSampler sampler;
+		
+		/** Best solution found by the thread */
+		private Solution bestSolution;
+		
+		Worker(final Solution bestSolution) {
+			this.bestSolution = bestSolution;
+			random = new Random();
+			sampler = Config.FEASIBLE_SAMPLING_RANDOM ? new FeasibleSampler(RandomAlgorithm.this, random) : null;
+		}
+		
+		@Override
+		public void run() {
+			int convergenceIter = 0;
+			
+			while(!stopped) {
+				int iteration = RandomAlgorithm.this.iteration.getAndIncrement();
+				if(iteration > Config.MAX_ITER_RANDOM) break;
+				
+				Solution solution = sampler != null ? sampler.sample() : Solution.generateRandomSolution(RandomAlgorithm.this, random);
+				if(solution.isValid()) nrFeasibleSamples.incrementAndGet();
+				
+				Solution prevBestSolution = bestSolution;
+				
+				// Check whether the new solution is the new best solution of the thread (and of all threads)
+				if(Solution.isBetterSolution(solution, bestSolution)) {
+					bestSolution = solution;
+					updateBestSolution(solution, iteration);
+				}
+				
+				// Check the convergence error
+				if(Solution.checkConvergence(prevBestSolution, bestSolution)) {
+					convergenceIter++;
+					// If it found the same (or similar) solution a given number of times in a row break the loop
+		    		if(convergenceIter == maxConvergenceIter) break;
+				}else
+	    			convergenceIter = 0;
+				
+				// Check whether the budget is exhausted
+				if(getBudget().isExhausted(RandomAlgorithm.this.bestSolution))
+					stopped = true;
+			}
+		}
+	}
+	
 }
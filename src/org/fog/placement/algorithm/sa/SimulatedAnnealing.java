@@ -0,0 +1,690 @@
+package org.fog.placement.algorithm.sa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fog.application.Application;
+import org.fog.core.Config;
+import org.fog.entities.Actuator;
+import org.fog.entities.FogDevice;
+import org.fog.entities.Sensor;
+import org.fog.placement.algorithm.Algorithm;
+import org.fog.placement.algorithm.Budget;
+import org.fog.placement.algorithm.Solution;
+import org.fog.placement.algorithm.SolutionEvaluator;
+import org.fog.placement.algorithm.util.routing.PathCatalog;
+
+/**
+ * Class in which defines and executes the simulated annealing algorithm. Each thread runs its own chain of moves over a
+ * single solution, which is evaluated incrementally (see SolutionEvaluator). There are four types of moves: relocate a
+ * module (its dependencies and migration are then routed over the best paths of the path catalog), swap the nodes of two
+ * modules, re-route a dependency and re-route a migration (over a random path of the catalog).
+ * 
+ * As the objectives are ranked by their priorities, a move is compared with the current solution at the first level
+ * (the constraint value and then each cost function, by decreasing priority) where they differ. A move which worsens
+ * that level by d is accepted with probability exp(-d/(T*s)), where T is the temperature and s is the average worsening
+ * observed at that level (thus the temperature does not depend on the scale of each cost function). The reverse of each
+ * accepted move is tabu for a few moves, unless it leads to the best solution of the chain. Once the temperature is too
+ * low or the chain does not improve for a while, the thread restarts either from the best solution or from a random one.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class SimulatedAnnealing extends Algorithm {
+	/** Move which deploys a module in another node */
+	private static final int RELOCATE = 0;
+	
+	/** Move which swaps the nodes of two modules */
+	private static final int SWAP = 1;
+	
+	/** Move which changes the route of a dependency */
+	private static final int REROUTE_DEPENDENCY = 2;
+	
+	/** Move which changes the route of a migration */
+	private static final int REROUTE_MIGRATION = 3;
+	
+	/** Number of move types */
+	private static final int NR_MOVES = 4;
+	
+	/** Maximum relative difference between two values of the same level which are considered equal (rounding errors) */
+	private static final double LEVEL_TOLERANCE = 1E-9;
+	
+	/** Best solution found by the algorithm */
+	private volatile Solution bestSolution;
+	
+	/** Current iteration of the algorithm (number of moves of all threads) */
+	private final AtomicInteger iteration;
+	
+	/** Defines whether the budget of the execution is exhausted (in which case all threads stop) */
+	private volatile boolean stopped;
+	
+	/** Index of each cost function sorted by decreasing priority */
+	private int[] order;
+	
+	/** Dependencies in which each module is the source or the destination */
+	private int[][] moduleDependencies;
+	
+	public SimulatedAnnealing(final List<FogDevice> fogDevices, final List<Application> applications,
+			final List<Sensor> sensors, final List<Actuator> actuators) {
+		super(fogDevices, applications, sensors, actuators);
+		iteration = new AtomicInteger();
+	}
+	
+	public SimulatedAnnealing(final Algorithm problem, final int[] modules) {
+		super(problem, modules);
+		iteration = new AtomicInteger();
+	}
+	
+	/**
+	 * Executes the simulated annealing algorithm in order to find the best solution (the solution with the lower cost which respects all constraints).
+	 * 
+	 * @param budget the budget of the execution (each move counts as one evaluation of the cost function)
+	 * @return the best solution; can be null
+	 */
+	@Override
+	public Solution execute(Budget budget) {
+		iteration.set(0);
+		bestSolution = null;
+		stopped = false;
+		startBudget(budget);
+		
+		// Time at the beginning of the execution of the algorithm
+		long start = System.currentTimeMillis();
+		
+		// Compute the shortest paths between any two nodes (only if the topology has changed), so that the workers do not
+		// share the single Dijkstra instance while generating random solutions
+		getShortestPaths();
+		
+		// Build the catalog of the k shortest paths between any two nodes (only if the topology has changed)
+		getPathCatalog();
+		
+		order = computeOrder();
+		moduleDependencies = computeModuleDependencies();
+		
+		// In a warm start, the previous solution (repaired for the current topology) is the initial best solution
+		if(getSeedSolution() != null) {
+			Solution seed = Solution.generateSeedSolution(this, getSeedSolution(), new Random());
+			bestSolution = Solution.checkBestSolution(this, seed, bestSolution, iteration.get());
+		}
+		
+		// Solve the problem
+		if(Config.NR_THREADS_SA > 1)
+			searchInParallel(Config.NR_THREADS_SA);
+		else
+			new Worker().run();
+		
+		// Time at the end of the execution of the algorithm
+		long finish = System.currentTimeMillis();
+		
+		setElapsedTime(finish - start);
+		
+		return bestSolution;
+	}
+	
+	/**
+	 * Runs the chains using a given number of threads.
+	 * 
+	 * @param nrThreads the number of threads
+	 */
+	private void searchInParallel(final int nrThreads) {
+		ExecutorService executor = Executors.newFixedThreadPool(nrThreads);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		
+		try {
+			for(int i = 0; i < nrThreads; i++) {
+				futures.add(executor.submit(new Worker()));
+			}
+			
+			for(Future<?> future : futures) {
+				future.get();
+			}
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Simulated annealing was interrupted", e);
+		}catch (ExecutionException e) {
+			throw new IllegalStateException("Simulated annealing has failed", e.getCause());
+		}finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Evaluates again a solution built by the incremental evaluator, so that the comparison with the best solution (and the
+	 * returned costs) do not carry the rounding errors accumulated by the incremental updates.
+	 * 
+	 * @param solution the solution built by the incremental evaluator
+	 * @return the same solution fully evaluated
+	 */
+	private Solution evaluate(final Solution solution) {
+		return new Solution(this, solution.getModulePlacement(), solution.getTupleRoutingMap(), solution.getMigrationRoutingMap());
+	}
+	
+	/**
+	 * Updates the best solution found among all threads.
+	 * 
+	 * @param solution the new solution
+	 * @param iteration the iteration in which the solution was found
+	 * @return true if the solution is the new best solution, otherwise false
+	 */
+	private synchronized boolean updateBestSolution(final Solution solution, final int iteration) {
+		if(!Solution.isBetterSolution(solution, bestSolution)) return false;
+		
+		bestSolution = Solution.checkBestSolution(this, solution, bestSolution, iteration);
+		return true;
+	}
+	
+	/**
+	 * Computes the index of each cost function sorted by decreasing priority (the ones with the same priority are sorted
+	 * by index).
+	 * 
+	 * @return the sorted indexes
+	 */
+	private static int[] computeOrder() {
+		int[] result = new int[Config.NR_OBJECTIVES];
+		boolean[] used = new boolean[Config.NR_OBJECTIVES];
+		
+		for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
+			int best = -1;
+			
+			for(int j = 0; j < Config.NR_OBJECTIVES; j++) {
+				if(used[j]) continue;
+				if(best == -1 || Config.priorities[j] > Config.priorities[best])
+					best = j;
+			}
+			
+			used[best] = true;
+			result[i] = best;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Computes the dependencies in which each module is the source or the destination.
+	 * 
+	 * @return the dependencies of each module
+	 */
+	private int[][] computeModuleDependencies() {
+		int nrModules = getNumberOfModules();
+		int[] count = new int[nrModules];
+		
+		for(int i = 0; i < getNumberOfDependencies(); i++) {
+			count[getStartModDependency(i)]++;
+			if(getFinalModDependency(i) != getStartModDependency(i))
+				count[getFinalModDependency(i)]++;
+		}
+		
+		int[][] result = new int[nrModules][];
+		for(int i = 0; i < nrModules; i++) {
+			result[i] = new int[count[i]];
+			count[i] = 0;
+		}
+		
+		for(int i = 0; i < getNumberOfDependencies(); i++) {
+			int start = getStartModDependency(i);
+			int end = getFinalModDependency(i);
+			result[start][count[start]++] = i;
+			if(end != start)
+				result[end][count[end]++] = i;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Gets the number of moves of the last execution.
+	 * 
+	 * @return the number of moves
+	 */
+	public long getNrMoves() {
+		return Math.min(iteration.get(), Config.MAX_ITER_SA + 1L);
+	}
+	
+	/**
+	 * Class representing a thread which runs a chain of moves (restarting it whenever it gets stuck) until either it does
+	 * not improve the best solution after several restarts or the budget (or the maximum number of iterations) is exhausted.
+	 */
+	private class Worker implements Runnable {
+		/** Random number generator of the thread */
+		private final Random random;
+		
+		/** Catalog of the paths between any two nodes */
+		private final PathCatalog catalog;
+		
+		/** Evaluator of the current solution of the chain */
+		private SolutionEvaluator evaluator;
+		
+		/** Levels (constraint value and costs by decreasing priority) of the current solution before the move */
+		private final double[] before;
+		
+		/** Levels of the current solution after the move */
+		private final double[] after;
+		
+		/** Levels of the best solution of the chain (since its last restart) */
+		private final double[] chainBest;
+		
+		/** Average worsening observed at each level; 0 if none was observed yet */
+		private final double[] scale;
+		
+		/** Number of the move (of this thread) until which each placement (module * number of nodes + node) is tabu */
+		private final long[] placementTabu;
+		
+		/** Number of the move (of this thread) until which each dependency and each migration cannot be re-routed */
+		private final long[] dependencyTabu, migrationTabu;
+		
+		/** Number of moves of this thread */
+		private long nrMoves;
+		
+		/** Type of the last move; -1 if no move was done */
+		private int moveType;
+		
+		/** Modules and nodes (before the move) of the last move */
+		private int moveModule1, moveModule2, moveNode1, moveNode2;
+		
+		/** Dependencies re-routed by the last move and their number */
+		private final int[] movedDependencies;
+		private int nrMovedDependencies;
+		
+		/** Routes of the dependencies and migrations before the last move */
+		private final int[][] previousDependencyRoutes, previousMigrationRoutes;
+		
+		/** Auxiliary vectors used to mark the dependencies re-routed by the current move */
+		private final int[] dependencyMark;
+		private int stamp;
+		
+		/** Route buffer */
+		private final int[] route;
+		
+		Worker() {
+			int nrNodes = getNumberOfNodes();
+			int nrModules = getNumberOfModules();
+			int nrDependencies = getNumberOfDependencies();
+			
+			random = new Random();
+			catalog = getPathCatalog();
+			before = new double[Config.NR_OBJECTIVES + 1];
+			after = new double[Config.NR_OBJECTIVES + 1];
+			chainBest = new double[Config.NR_OBJECTIVES + 1];
+			scale = new double[Config.NR_OBJECTIVES + 1];
+			placementTabu = new long[nrModules * nrNodes];
+			dependencyTabu = new long[nrDependencies];
+			migrationTabu = new long[nrModules];
+			movedDependencies = new int[nrDependencies];
+			previousDependencyRoutes = new int[nrDependencies][nrNodes];
+			previousMigrationRoutes = new int[2][nrNodes];
+			dependencyMark = new int[nrDependencies];
+			route = new int[nrNodes];
+		}
+		
+		@Override
+		public void run() {
+			int restartsWithoutImprovement = 0;
+			boolean improved = restart();
+			double temperature = Config.INITIAL_TEMPERATURE_SA;
+			int convergenceIter = 0;
+			
+			while(!stopped) {
+				int iteration = SimulatedAnnealing.this.iteration.getAndIncrement();
+				if(iteration > Config.MAX_ITER_SA) break;
+				
+				getBudget().countEvaluation();
+				nrMoves++;
+				
+				levels(before);
+				boolean tabu = move();
+				
+				if(moveType != -1) {
+					levels(after);
+					int level = firstDifferentLevel(after, before);
+					boolean newChainBest = firstDifferentLevel(after, chainBest) != -1 && isLower(after, chainBest);
+					
+					if((tabu && !newChainBest) || !accept(level, temperature)) {
+						undo();
+					}else {
+						setTabu();
+						
+						if(newChainBest) {
+							System.arraycopy(after, 0, chainBest, 0, after.length);
+							convergenceIter = 0;
+							
+							if(evaluator.getConstraint() == 0 && updateBestSolution(evaluate(evaluator.toSolution()), iteration))
+								improved = true;
+						}
+					}
+				}
+				
+				// The chain restarts once it is too cold or it does not improve for a while
+				temperature *= Config.COOLING_RATE_SA;
+				if(++convergenceIter >= Config.MAX_ITER_CONVERGENCE_SA || temperature < Config.MIN_TEMPERATURE_SA) {
+					restartsWithoutImprovement = improved ? 0 : restartsWithoutImprovement + 1;
+					if(restartsWithoutImprovement >= Config.MAX_RESTARTS_SA) break;
+					
+					improved = restart();
+					temperature = Config.INITIAL_TEMPERATURE_SA;
+					convergenceIter = 0;
+				}
+				
+				// Check whether the budget is exhausted
+				if(getBudget().isExhausted(bestSolution))
+					stopped = true;
+			}
+		}
+		
+		/**
+		 * Restarts the chain either from the best solution found so far or from a random solution.
+		 * 
+		 * @return true if the initial solution of the chain is the new best solution, otherwise false
+		 */
+		private boolean restart() {
+			Solution best = bestSolution;
+			Solution initial = best != null && random.nextBoolean() ? best : Solution.generateRandomSolution(SimulatedAnnealing.this, random);
+			
+			evaluator = new SolutionEvaluator(SimulatedAnnealing.this, initial);
+			levels(chainBest);
+			return initial.isValid() && updateBestSolution(initial, iteration.get());
+		}
+		
+		/**
+		 * Gets the levels of the current solution (the constraint value and then the costs by decreasing priority).
+		 * 
+		 * @param levels the vector to be filled
+		 */
+		private void levels(final double[] levels) {
+			levels[0] = evaluator.getConstraint();
+			
+			for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
+				levels[i + 1] = evaluator.getDetailedCost(order[i]);
+			}
+		}
+		
+		/**
+		 * Gets the first level where two solutions differ (more than the rounding errors).
+		 * 
+		 * @param levels1 the levels of the first solution
+		 * @param levels2 the levels of the second solution
+		 * @return the index of the level; -1 if they are equal
+		 */
+		private int firstDifferentLevel(final double[] levels1, final double[] levels2) {
+			for(int i = 0; i < levels1.length; i++) {
+				double tolerance = LEVEL_TOLERANCE * Math.max(1, Math.max(Math.abs(levels1[i]), Math.abs(levels2[i])));
+				if(Math.abs(levels1[i] - levels2[i]) > tolerance) return i;
+			}
+			
+			return -1;
+		}
+		
+		/**
+		 * Verifies whether the first solution is lower than the second one at the first level where they differ.
+		 * 
+		 * @param levels1 the levels of the first solution
+		 * @param levels2 the levels of the second solution
+		 * @return true if it is, otherwise false (also if they are equal)
+		 */
+		private boolean isLower(final double[] levels1, final double[] levels2) {
+			int level = firstDifferentLevel(levels1, levels2);
+			return level != -1 && levels1[level] < levels2[level];
+		}
+		
+		/**
+		 * Decides whether the last move is accepted. Moves which do not worsen the first level where they differ are always
+		 * accepted; the other ones are accepted with probability exp(-d/(T*s)).
+		 * 
+		 * @param level the first level where the solution differs from the one before the move; -1 if they are equal
+		 * @param temperature the current temperature
+		 * @return true if the move is accepted, otherwise false
+		 */
+		private boolean accept(final int level, final double temperature) {
+			if(level == -1 || after[level] < before[level]) return true;
+			
+			double worsening = after[level] - before[level];
+			scale[level] = scale[level] == 0 ? worsening : 0.9*scale[level] + 0.1*worsening;
+			
+			return random.nextDouble() < Math.exp(-worsening/(temperature*scale[level]));
+		}
+		
+		/**
+		 * Applies a random move to the current solution.
+		 * 
+		 * @return true if the move is tabu, otherwise false
+		 */
+		private boolean move() {
+			moveType = -1;
+			nrMovedDependencies = 0;
+			stamp++;
+			
+			switch (random.nextInt(NR_MOVES)) {
+				case RELOCATE:
+					return relocate();
+				case SWAP:
+					return swap();
+				case REROUTE_DEPENDENCY:
+					return rerouteDependency();
+				default:
+					return rerouteMigration();
+			}
+		}
+		
+		/**
+		 * Deploys a random module in another possible node, routing its dependencies and migration over the best paths.
+		 * 
+		 * @return true if the move is tabu, otherwise false
+		 */
+		private boolean relocate() {
+			int module = random.nextInt(getNumberOfModules());
+			int[] possibleNodes = getPossibleNodes(module);
+			if(possibleNodes.length < 2) return false;
+			
+			int node = possibleNodes[random.nextInt(possibleNodes.length)];
+			int oldNode = evaluator.getModuleNode(module);
+			if(node == oldNode) return false;
+			
+			moveType = RELOCATE;
+			moveModule1 = module;
+			moveNode1 = oldNode;
+			
+			saveMigration(module, 0);
+			evaluator.moveModule(module, node);
+			routeModule(module);
+			
+			return placementTabu[module * getNumberOfNodes() + node] > nrMoves;
+		}
+		
+		/**
+		 * Swaps the nodes of two random modules (if both can be deployed in the node of the other one), routing their
+		 * dependencies and migrations over the best paths.
+		 * 
+		 * @return true if the move is tabu, otherwise false
+		 */
+		private boolean swap() {
+			int module1 = random.nextInt(getNumberOfModules());
+			int module2 = random.nextInt(getNumberOfModules());
+			int node1 = evaluator.getModuleNode(module1);
+			int node2 = evaluator.getModuleNode(module2);
+			
+			if(node1 == node2 || !isPossibleDeployment(node2, module1) || !isPossibleDeployment(node1, module2))
+				return false;
+			
+			moveType = SWAP;
+			moveModule1 = module1;
+			moveModule2 = module2;
+			moveNode1 = node1;
+			moveNode2 = node2;
+			
+			saveMigration(module1, 0);
+			saveMigration(module2, 1);
+			evaluator.moveModule(module1, node2);
+			evaluator.moveModule(module2, node1);
+			routeModule(module1);
+			routeModule(module2);
+			
+			int nrNodes = getNumberOfNodes();
+			return placementTabu[module1 * nrNodes + node2] > nrMoves || placementTabu[module2 * nrNodes + node1] > nrMoves;
+		}
+		
+		/**
+		 * Routes a random dependency over a random path between the nodes of its modules.
+		 * 
+		 * @return true if the move is tabu, otherwise false
+		 */
+		private boolean rerouteDependency() {
+			if(getNumberOfDependencies() == 0) return false;
+			
+			int dependency = random.nextInt(getNumberOfDependencies());
+			int from = evaluator.getModuleNode(getStartModDependency(dependency));
+			int to = evaluator.getModuleNode(getFinalModDependency(dependency));
+			
+			if(!fillPath(from, to, random.nextInt(catalog.getMaxPaths()))) return false;
+			if(Arrays.equals(route, evaluator.getRoute(dependency))) return false;
+			
+			moveType = REROUTE_DEPENDENCY;
+			saveDependency(dependency);
+			evaluator.reroute(dependency, route);
+			
+			return dependencyTabu[dependency] > nrMoves;
+		}
+		
+		/**
+		 * Routes the migration of a random module over a random path between its current node and its new node.
+		 * 
+		 * @return true if the move is tabu, otherwise false
+		 */
+		private boolean rerouteMigration() {
+			if(isFirstOptimization()) return false;
+			
+			int module = random.nextInt(getNumberOfModules());
+			int from = getCurrentPlacement(module);
+			int to = evaluator.getModuleNode(module);
+			
+			if(!fillPath(from, to, random.nextInt(catalog.getMaxPaths()))) return false;
+			if(Arrays.equals(route, evaluator.getMigrationRoute(module))) return false;
+			
+			moveType = REROUTE_MIGRATION;
+			moveModule1 = module;
+			saveMigration(module, 0);
+			evaluator.rerouteMigration(module, route);
+			
+			return migrationTabu[module] > nrMoves;
+		}
+		
+		/**
+		 * Routes the dependencies and the migration of a module which was deployed in another node over the best paths.
+		 * 
+		 * @param module the index of the module
+		 */
+		private void routeModule(final int module) {
+			for(int dependency : moduleDependencies[module]) {
+				if(dependencyMark[dependency] == stamp) continue;
+				
+				int from = evaluator.getModuleNode(getStartModDependency(dependency));
+				int to = evaluator.getModuleNode(getFinalModDependency(dependency));
+				
+				saveDependency(dependency);
+				if(fillPath(from, to, 0))
+					evaluator.reroute(dependency, route);
+			}
+			
+			int from = isFirstOptimization() ? evaluator.getModuleNode(module) : getCurrentPlacement(module);
+			if(fillPath(from, evaluator.getModuleNode(module), 0))
+				evaluator.rerouteMigration(module, route);
+		}
+		
+		/**
+		 * Fills the route buffer with a given path of the catalog between two nodes (or the last one, if there are fewer
+		 * paths). The positions after the end of the path are filled with the last node.
+		 * 
+		 * @param from the index of the node where the path starts
+		 * @param to the index of the node where the path ends
+		 * @param index the rank of the path
+		 * @return true if the route was filled, otherwise false (i.e., there is no path between both nodes)
+		 */
+		private boolean fillPath(final int from, final int to, final int index) {
+			int[][] paths = catalog.getPaths(from, to);
+			if(paths.length == 0) return false;
+			
+			int[] path = paths[Math.min(index, paths.length - 1)];
+			System.arraycopy(path, 0, route, 0, path.length);
+			
+			for(int j = path.length; j < route.length; j++) {
+				route[j] = to;
+			}
+			
+			return true;
+		}
+		
+		/**
+		 * Saves the route of a dependency before it is changed by the current move.
+		 * 
+		 * @param dependency the index of the dependency
+		 */
+		private void saveDependency(final int dependency) {
+			dependencyMark[dependency] = stamp;
+			System.arraycopy(evaluator.getRoute(dependency), 0, previousDependencyRoutes[dependency], 0, route.length);
+			movedDependencies[nrMovedDependencies++] = dependency;
+		}
+		
+		/**
+		 * Saves the route of a migration before it is changed by the current move.
+		 * 
+		 * @param module the index of the module
+		 * @param slot the slot where the route is saved (0 for the first module of the move and 1 for the second one)
+		 */
+		private void saveMigration(final int module, final int slot) {
+			System.arraycopy(evaluator.getMigrationRoute(module), 0, previousMigrationRoutes[slot], 0, route.length);
+		}
+		
+		/**
+		 * Undoes the last move.
+		 */
+		private void undo() {
+			if(moveType == RELOCATE) {
+				evaluator.moveModule(moveModule1, moveNode1);
+			}else if(moveType == SWAP) {
+				evaluator.moveModule(moveModule1, moveNode1);
+				evaluator.moveModule(moveModule2, moveNode2);
+			}
+			
+			for(int i = 0; i < nrMovedDependencies; i++) {
+				int dependency = movedDependencies[i];
+				evaluator.reroute(dependency, previousDependencyRoutes[dependency]);
+			}
+			
+			if(moveType == RELOCATE || moveType == SWAP || moveType == REROUTE_MIGRATION)
+				evaluator.rerouteMigration(moveModule1, previousMigrationRoutes[0]);
+			
+			if(moveType == SWAP)
+				evaluator.rerouteMigration(moveModule2, previousMigrationRoutes[1]);
+		}
+		
+		/**
+		 * Makes the reverse of the last move tabu.
+		 */
+		private void setTabu() {
+			long until = nrMoves + Config.TABU_TENURE_SA;
+			int nrNodes = getNumberOfNodes();
+			
+			switch (moveType) {
+				case RELOCATE:
+					placementTabu[moveModule1 * nrNodes + moveNode1] = until;
+					break;
+				case SWAP:
+					placementTabu[moveModule1 * nrNodes + moveNode1] = until;
+					placementTabu[moveModule2 * nrNodes + moveNode2] = until;
+					break;
+				case REROUTE_DEPENDENCY:
+					dependencyTabu[movedDependencies[0]] = until;
+					break;
+				default:
+					migrationTabu[moveModule1] = until;
+					break;
+			}
+		}
+	}
+	
+}
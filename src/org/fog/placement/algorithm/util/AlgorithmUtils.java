@@ -361,7 +361,7 @@ public class AlgorithmUtils {
 	 * @param solution the final solution
 	 */
 	public static void printSolution(final Algorithm al, final Solution solution, int iteration) {
-		int[][] modulePlacementMap = solution.getModulePlacementMap();
+		int[] modulePlacement = solution.getModulePlacement();
 		int[][] routingMap = solution.getTupleRoutingMap();
 		int[][] migrationMap = solution.getMigrationRoutingMap();
 		
@@ -381,8 +381,8 @@ public class AlgorithmUtils {
 		for (int i = 0; i < al.getNumberOfNodes(); i++) {
 			System.out.format(Util.centerString(20, al.getfName()[i]));
 			for (int j = 0; j < al.getNumberOfModules(); j++) {
-				if(modulePlacementMap[i][j] != 0)
-					System.out.format(Util.centerString(20, Integer.toString(modulePlacementMap[i][j])));
+				if(modulePlacement[j] == i)
+					System.out.format(Util.centerString(20, "1"));
 				else
 					System.out.format(Util.centerString(20, "-"));
 			}
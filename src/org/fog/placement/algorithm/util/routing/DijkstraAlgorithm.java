@@ -1,133 +1,473 @@
 package org.fog.placement.algorithm.util.routing;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.Arrays;
+
+import org.fog.core.Constants;
 
 /**
- * Class which defines and executes the Dijkstra Algorithm.
+ * Class which defines and executes the Dijkstra Algorithm. The graph is stored in compressed sparse row (CSR) arrays and
+ * the unsettled nodes are kept in an indexed binary heap, thus each execution takes O((V + E) log V). Besides the full
+ * execution, it supports an execution which stops as soon as a given set of targets is settled (optionally ignoring
+ * some nodes and edges) and a breadth-first search bounded by a maximum number of hops. The edge weights can be changed
+ * between executions. An instance keeps the state of its last execution, thus it must not be shared between threads.
  * 
  * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
- * @see    https://www.vogella.com/tutorials/JavaAlgorithmsDijkstra/article.html
  * @since  July, 2019
  */
 public class DijkstraAlgorithm {
-    private final List<Edge> edges;
-    private final List<Vertex> nodes;
-    
-    private Set<Vertex> settledNodes;
-    private Set<Vertex> unSettledNodes;
-    private Map<Vertex, Vertex> predecessors;
-    private Map<Vertex, Double> distance;
-
-    public DijkstraAlgorithm(Graph graph) {
-    	this.nodes = new ArrayList<Vertex>(graph.getVertexes());
-        this.edges = new ArrayList<Edge>(graph.getEdges());
-    }
-
-    public void execute(Vertex source) {
-        settledNodes = new HashSet<Vertex>();
-        unSettledNodes = new HashSet<Vertex>();
-        distance = new HashMap<Vertex, Double>();
-        predecessors = new HashMap<Vertex, Vertex>();
-        distance.put(source, 0.0);
-        unSettledNodes.add(source);
-        
-        while (unSettledNodes.size() > 0) {
-            Vertex node = getMinimum(unSettledNodes);
-            settledNodes.add(node);
-            unSettledNodes.remove(node);
-            findMinimalDistances(node);
-        }
-    }
-
-    private void findMinimalDistances(Vertex node) {
-        List<Vertex> adjacentNodes = getNeighbors(node);
-        
-        for (Vertex target : adjacentNodes) {
-            if (getShortestDistance(target) > getShortestDistance(node)
-                    + getDistance(node, target)) {
-                distance.put(target, getShortestDistance(node) + getDistance(node, target));
-                predecessors.put(target, node);
-                unSettledNodes.add(target);
-            }
-        }
-
-    }
-
-    private double getDistance(Vertex node, Vertex target) {
-        for (Edge edge : edges)
-            if (edge.getSource().equals(node) && edge.getDestination().equals(target))
-                return edge.getWeight();
-        
-        throw new RuntimeException("Should not happen (DijkstraAlgorithm)");
-    }
-
-    private List<Vertex> getNeighbors(Vertex node) {
-        List<Vertex> neighbors = new ArrayList<Vertex>();
-        
-        for (Edge edge : edges)
-            if (edge.getSource().equals(node) && !isSettled(edge.getDestination()))
-                neighbors.add(edge.getDestination());
-        
-        return neighbors;
-    }
-
-    private Vertex getMinimum(Set<Vertex> vertexes) {
-        Vertex minimum = null;
-        
-        for (Vertex vertex : vertexes) {
-            if (minimum == null)
-                minimum = vertex;
-            else  if (getShortestDistance(vertex) < getShortestDistance(minimum))
-                    minimum = vertex;
-        }
-        return minimum;
-    }
-
-    private boolean isSettled(Vertex vertex) {
-        return settledNodes.contains(vertex);
-    }
-
-    private double getShortestDistance(Vertex destination) {
-        Double d = distance.get(destination);
-        
-        if (d == null)
-            return Integer.MAX_VALUE;
-        else
-            return d;
-    }
-
-    /*
-     * This method returns the path from the source to the selected target and
-     * NULL if no path exists
-     */
-    public LinkedList<Vertex> getPath(Vertex target) {
-        LinkedList<Vertex> path = new LinkedList<Vertex>();
-        Vertex step = target;
-        
-        // check if a path exists
-        if (predecessors.get(step) == null)
-            return null;
-        
-        path.add(step);
-        while (predecessors.get(step) != null) {
-            step = predecessors.get(step);
-            path.add(step);
-        }
-        
-        // Put it into the correct order
-        Collections.reverse(path);
-        return path;
-    }
-    
-    public List<Vertex> getNodes() {
-    	return nodes;
-    }
-
+	/** Hop count or predecessor of nodes which are not connected to the source node */
+	public static final int UNREACHABLE = -1;
+	
+	/** Number of nodes within the graph */
+	private final int NR_NODES;
+	
+	/** Vector holding the position of the first edge of each node (edges of node i are within [offset[i], offset[i+1])) */
+	private final int[] offset;
+	
+	/** Vector holding the destination node of each edge */
+	private final int[] target;
+	
+	/** Vector holding the weight of each edge */
+	private final double[] weight;
+	
+	/** Vector holding the shortest distance from the source node to each node */
+	private final double[] distance;
+	
+	/** Vector holding the predecessor of each node in the shortest path from the source node */
+	private final int[] predecessor;
+	
+	/** Vector holding whether each node has already been settled */
+	private final boolean[] settled;
+	
+	/** Binary heap holding the unsettled nodes which have already been reached, ordered by distance */
+	private final int[] heap;
+	
+	/** Vector holding the position of each node within the heap; -1 if it is not in the heap */
+	private final int[] heapPosition;
+	
+	/** Number of nodes within the heap */
+	private int heapSize;
+	
+	/** Vector holding the nodes whose state was changed by the last execution (used to reset it) */
+	private final int[] touched;
+	
+	/** Number of nodes whose state was changed by the last execution */
+	private int nrTouched;
+	
+	/** Index of the source node of the last execution; -1 if it was never executed */
+	private int source;
+	
+	/**
+	 * Creates a new instance of the Dijkstra Algorithm for a given graph represented by adjacency lists.
+	 * 
+	 * @param neighbors the adjacency lists holding the indexes of the neighbors of each node
+	 * @param weights the adjacency lists holding the weight of each edge; if null, all edges have weight 1
+	 */
+	public DijkstraAlgorithm(final int[][] neighbors, final double[][] weights) {
+		NR_NODES = neighbors.length;
+		
+		offset = new int[NR_NODES + 1];
+		for(int i = 0; i < NR_NODES; i++) {
+			offset[i + 1] = offset[i] + neighbors[i].length;
+		}
+		
+		target = new int[offset[NR_NODES]];
+		weight = new double[offset[NR_NODES]];
+		
+		for(int i = 0; i < NR_NODES; i++) {
+			System.arraycopy(neighbors[i], 0, target, offset[i], neighbors[i].length);
+			
+			if(weights != null)
+				System.arraycopy(weights[i], 0, weight, offset[i], neighbors[i].length);
+			else
+				Arrays.fill(weight, offset[i], offset[i + 1], 1.0);
+		}
+		
+		distance = new double[NR_NODES];
+		predecessor = new int[NR_NODES];
+		settled = new boolean[NR_NODES];
+		heap = new int[NR_NODES];
+		heapPosition = new int[NR_NODES];
+		touched = new int[NR_NODES];
+		
+		Arrays.fill(distance, Constants.INF);
+		Arrays.fill(predecessor, UNREACHABLE);
+		Arrays.fill(heapPosition, -1);
+		source = -1;
+	}
+	
+	/**
+	 * Computes the shortest paths from a given source node towards all other nodes.
+	 * 
+	 * @param source the index of the source node
+	 */
+	public void execute(final int source) {
+		execute(source, null);
+	}
+	
+	/**
+	 * Computes the shortest paths from a given source node, stopping as soon as all the given targets are settled. Only
+	 * the distances and paths of settled nodes are guaranteed to be the shortest ones.
+	 * 
+	 * @param source the index of the source node
+	 * @param targets the indexes of the target nodes; if null, all nodes are settled
+	 */
+	public void execute(final int source, final int[] targets) {
+		execute(source, targets, null, null);
+	}
+	
+	/**
+	 * Computes the shortest paths from a given source node, ignoring some nodes and edges, and stopping as soon as all the
+	 * given targets are settled (used to compute alternative paths).
+	 * 
+	 * @param source the index of the source node
+	 * @param targets the indexes of the target nodes; if null, all nodes are settled
+	 * @param removedNodes the vector defining the nodes which cannot be used; can be null
+	 * @param removedEdges the vector defining the edges which cannot be used (see getEdgeIndex); can be null
+	 */
+	public void execute(final int source, final int[] targets, final boolean[] removedNodes, final boolean[] removedEdges) {
+		reset();
+		this.source = source;
+		
+		int remaining = targets != null ? targets.length : NR_NODES;
+		
+		distance[source] = 0;
+		touch(source);
+		push(source);
+		
+		while(heapSize > 0) {
+			int node = pop();
+			settled[node] = true;
+			
+			if(targets != null && (remaining -= countTarget(node, targets)) <= 0)
+				break;
+			
+			for(int e = offset[node]; e < offset[node + 1]; e++) {
+				int neighbor = target[e];
+				if(settled[neighbor]) continue;
+				if(removedEdges != null && removedEdges[e]) continue;
+				if(removedNodes != null && removedNodes[neighbor]) continue;
+				
+				double newDistance = distance[node] + weight[e];
+				if(newDistance >= distance[neighbor]) continue;
+				
+				if(distance[neighbor] == Constants.INF)
+					touch(neighbor);
+				
+				distance[neighbor] = newDistance;
+				predecessor[neighbor] = node;
+				
+				if(heapPosition[neighbor] == -1)
+					push(neighbor);
+				else
+					siftUp(heapPosition[neighbor]);
+			}
+		}
+	}
+	
+	/**
+	 * Computes the minimum number of hops between two nodes, exploring at most a given number of hops (breadth-first search).
+	 * It does not change the state of the last Dijkstra execution.
+	 * 
+	 * @param source the index of the source node
+	 * @param destination the index of the destination node
+	 * @param maxHops the maximum number of hops to be explored
+	 * @return the minimum number of hops if it is lower or equal to maxHops; maxHops + 1 if there is a longer path; and
+	 * UNREACHABLE if there is no path between both nodes
+	 */
+	public int getHopCount(final int source, final int destination, final int maxHops) {
+		if(source == destination) return 0;
+		
+		// The heap vector is used as the BFS queue and the heap positions as the visited marks
+		int head = 0;
+		int tail = 0;
+		int depthEnd = 1;
+		int depth = 0;
+		boolean truncated = false;
+		int result = UNREACHABLE;
+		
+		heap[tail++] = source;
+		heapPosition[source] = 0;
+		
+		search:
+		while(head < tail) {
+			if(head == depthEnd) {
+				depth++;
+				depthEnd = tail;
+			}
+			
+			int node = heap[head++];
+			
+			for(int e = offset[node]; e < offset[node + 1]; e++) {
+				int neighbor = target[e];
+				if(heapPosition[neighbor] != -1) continue;
+				
+				if(neighbor == destination) {
+					result = depth + 1;
+					break search;
+				}
+				
+				// Nodes beyond the maximum number of hops are not explored
+				if(depth + 1 >= maxHops) {
+					truncated = true;
+					continue;
+				}
+				
+				heapPosition[neighbor] = 0;
+				heap[tail++] = neighbor;
+			}
+		}
+		
+		for(int i = 0; i < tail; i++) {
+			heapPosition[heap[i]] = -1;
+		}
+		
+		if(result != UNREACHABLE)
+			return result <= maxHops ? result : maxHops + 1;
+		
+		return truncated ? maxHops + 1 : UNREACHABLE;
+	}
+	
+	/**
+	 * Gets the shortest distance from the source node of the last execution to a given node.
+	 * 
+	 * @param node the index of the node
+	 * @return the shortest distance; Constants.INF if the node was not reached
+	 */
+	public double getDistance(final int node) {
+		return distance[node];
+	}
+	
+	/**
+	 * Gets the predecessor of a given node in the shortest path from the source node of the last execution.
+	 * 
+	 * @param node the index of the node
+	 * @return the index of the predecessor; UNREACHABLE if the node is the source node or if it was not reached
+	 */
+	public int getPredecessor(final int node) {
+		return predecessor[node];
+	}
+	
+	/**
+	 * Checks whether a given node was settled by the last execution (i.e., its shortest path is known).
+	 * 
+	 * @param node the index of the node
+	 * @return true if it was settled, otherwise false
+	 */
+	public boolean isSettled(final int node) {
+		return settled[node];
+	}
+	
+	/**
+	 * Gets the first hop in the shortest path from the source node of the last execution to a given node.
+	 * 
+	 * @param node the index of the node
+	 * @return the index of the first hop; UNREACHABLE if the node is the source node or if it was not reached
+	 */
+	public int getNextHop(final int node) {
+		if(node == source || predecessor[node] == UNREACHABLE) return UNREACHABLE;
+		
+		int step = node;
+		while(predecessor[step] != source) {
+			step = predecessor[step];
+		}
+		
+		return step;
+	}
+	
+	/**
+	 * Gets the shortest path from the source node of the last execution to a given node.
+	 * 
+	 * @param node the index of the node
+	 * @return the vector of node indexes (both the source and the given node are included); null if the node is the source
+	 * node or if no path exists
+	 */
+	public int[] getPath(final int node) {
+		if(node == source || predecessor[node] == UNREACHABLE) return null;
+		
+		int length = 1;
+		for(int step = node; step != source; step = predecessor[step]) {
+			length++;
+		}
+		
+		int[] path = new int[length];
+		for(int step = node, i = length - 1; i >= 0; step = predecessor[step], i--) {
+			path[i] = step;
+			if(step == source) break;
+		}
+		
+		return path;
+	}
+	
+	/**
+	 * Gets the index of the edge between two nodes.
+	 * 
+	 * @param from the index of the node where the edge starts
+	 * @param to the index of the node where the edge ends
+	 * @return the index of the edge; -1 if there is no such edge
+	 */
+	public int getEdgeIndex(final int from, final int to) {
+		for(int e = offset[from]; e < offset[from + 1]; e++) {
+			if(target[e] == to)
+				return e;
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Gets the index of the first edge of a given node. The edges of each node have consecutive indexes and follow the
+	 * order of its adjacency list.
+	 * 
+	 * @param node the index of the node
+	 * @return the index of the first edge of the node
+	 */
+	public int getFirstEdge(final int node) {
+		return offset[node];
+	}
+	
+	/**
+	 * Changes the weight of a given edge (used in the next executions).
+	 * 
+	 * @param edge the index of the edge
+	 * @param weight the new weight of the edge
+	 */
+	public void setWeight(final int edge, final double weight) {
+		this.weight[edge] = weight;
+	}
+	
+	/**
+	 * Gets the number of edges within the graph.
+	 * 
+	 * @return the number of edges within the graph
+	 */
+	public int getNumberOfEdges() {
+		return target.length;
+	}
+	
+	/**
+	 * Gets the number of nodes within the graph.
+	 * 
+	 * @return the number of nodes within the graph
+	 */
+	public int getNumberOfNodes() {
+		return NR_NODES;
+	}
+	
+	/**
+	 * Counts the number of times a given node appears within the targets.
+	 * 
+	 * @param node the index of the node
+	 * @param targets the indexes of the target nodes
+	 * @return the number of occurrences
+	 */
+	private static int countTarget(final int node, final int[] targets) {
+		int count = 0;
+		for(int t : targets)
+			if(t == node)
+				count++;
+		return count;
+	}
+	
+	/**
+	 * Resets the state changed by the last execution.
+	 */
+	private void reset() {
+		for(int i = 0; i < nrTouched; i++) {
+			int node = touched[i];
+			distance[node] = Constants.INF;
+			predecessor[node] = UNREACHABLE;
+			settled[node] = false;
+			heapPosition[node] = -1;
+		}
+		
+		nrTouched = 0;
+		heapSize = 0;
+	}
+	
+	/**
+	 * Registers a node whose state is going to be changed.
+	 * 
+	 * @param node the index of the node
+	 */
+	private void touch(final int node) {
+		touched[nrTouched++] = node;
+	}
+	
+	/**
+	 * Inserts a node in the heap.
+	 * 
+	 * @param node the index of the node
+	 */
+	private void push(final int node) {
+		heap[heapSize] = node;
+		heapPosition[node] = heapSize;
+		siftUp(heapSize++);
+	}
+	
+	/**
+	 * Removes the node with the lowest distance from the heap.
+	 * 
+	 * @return the index of the node
+	 */
+	private int pop() {
+		int node = heap[0];
+		heapPosition[node] = -1;
+		
+		if(--heapSize > 0) {
+			heap[0] = heap[heapSize];
+			heapPosition[heap[0]] = 0;
+			siftDown(0);
+		}
+		
+		return node;
+	}
+	
+	/**
+	 * Moves a heap entry up until the heap order is restored.
+	 * 
+	 * @param pos the position of the entry
+	 */
+	private void siftUp(int pos) {
+		int node = heap[pos];
+		
+		while(pos > 0) {
+			int parent = (pos - 1) >>> 1;
+			if(distance[heap[parent]] <= distance[node]) break;
+			
+			heap[pos] = heap[parent];
+			heapPosition[heap[pos]] = pos;
+			pos = parent;
+		}
+		
+		heap[pos] = node;
+		heapPosition[node] = pos;
+	}
+	
+	/**
+	 * Moves a heap entry down until the heap order is restored.
+	 * 
+	 * @param pos the position of the entry
+	 */
+	private void siftDown(int pos) {
+		int node = heap[pos];
+		
+		while(true) {
+			int child = 2 * pos + 1;
+			if(child >= heapSize) break;
+			
+			if(child + 1 < heapSize && distance[heap[child + 1]] < distance[heap[child]])
+				child++;
+			
+			if(distance[node] <= distance[heap[child]]) break;
+			
+			heap[pos] = heap[child];
+			heapPosition[heap[pos]] = pos;
+			pos = child;
+		}
+		
+		heap[pos] = node;
+		heapPosition[node] = pos;
+	}
+	
 }
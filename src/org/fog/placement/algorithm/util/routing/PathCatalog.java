@@ -0,0 +1,282 @@
+package org.fog.placement.algorithm.util.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.fog.core.Constants;
+
+/**
+ * Class which holds a bounded catalog of loop-free paths between pairs of fog nodes. For each pair, the k shortest paths
+ * are computed through the Yen's algorithm and ranked by latency (ties are broken by the highest bottleneck bandwidth
+ * and then by the lowest number of hops). The paths of each pair are only computed when they are first requested, and
+ * then kept until the topology changes (a new catalog must be created whenever the topology changes). It can be shared
+ * between threads.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class PathCatalog {
+	/** Number of fog nodes within the fog network */
+	private final int NR_NODES;
+	
+	/** Maximum number of paths between each pair of nodes */
+	private final int maxPaths;
+	
+	/** Adjacency lists holding the indexes of the neighbors of each fog node */
+	private final int[][] neighbors;
+	
+	/** Adjacency lists holding the link latency between each fog node and each one of its neighbors */
+	private final double[][] neighborLatency;
+	
+	/** Adjacency lists holding the link bandwidth between each fog node and each one of its neighbors */
+	private final double[][] neighborBandwidth;
+	
+	/** Paths already computed (key is from * number of nodes + to) */
+	private final ConcurrentMap<Long, int[][]> paths;
+	
+	/**
+	 * Creates an empty path catalog for a given topology.
+	 * 
+	 * @param neighbors the adjacency lists holding the indexes of the neighbors of each fog node
+	 * @param neighborLatency the adjacency lists holding the link latency between each fog node and each one of its neighbors
+	 * @param neighborBandwidth the adjacency lists holding the link bandwidth between each fog node and each one of its neighbors
+	 * @param maxPaths the maximum number of paths between each pair of nodes
+	 */
+	public PathCatalog(final int[][] neighbors, final double[][] neighborLatency, final double[][] neighborBandwidth,
+			final int maxPaths) {
+		this.NR_NODES = neighbors.length;
+		this.neighbors = neighbors;
+		this.neighborLatency = neighborLatency;
+		this.neighborBandwidth = neighborBandwidth;
+		this.maxPaths = Math.max(1, maxPaths);
+		this.paths = new ConcurrentHashMap<Long, int[][]>();
+	}
+	
+	/**
+	 * Gets the paths between two nodes, ranked from the best to the worst one. Each path holds both the first and the last
+	 * node. If both nodes are the same, the only path holds that node alone.
+	 * 
+	 * @param from the index of the node where the paths start
+	 * @param to the index of the node where the paths end
+	 * @return the paths between both nodes; empty if there is no path between them
+	 */
+	public int[][] getPaths(final int from, final int to) {
+		Long key = (long) from * NR_NODES + to;
+		
+		int[][] result = paths.get(key);
+		if(result != null) return result;
+		
+		// Concurrent requests of the same pair compute the same paths, thus any of them can be kept
+		result = computePaths(from, to);
+		int[][] previous = paths.putIfAbsent(key, result);
+		return previous != null ? previous : result;
+	}
+	
+	/**
+	 * Gets the number of paths between two nodes.
+	 * 
+	 * @param from the index of the node where the paths start
+	 * @param to the index of the node where the paths end
+	 * @return the number of paths between both nodes
+	 */
+	public int getNumberOfPaths(final int from, final int to) {
+		return getPaths(from, to).length;
+	}
+	
+	/**
+	 * Gets a given path between two nodes.
+	 * 
+	 * @param from the index of the node where the path starts
+	 * @param to the index of the node where the path ends
+	 * @param index the rank of the path (0 is the best one)
+	 * @return the path (both the first and the last node are included)
+	 */
+	public int[] getPath(final int from, final int to, final int index) {
+		return getPaths(from, to)[index];
+	}
+	
+	/**
+	 * Fills a route with a random path of the catalog between its first and last nodes. The positions after the end of
+	 * the path are filled with the last node.
+	 * 
+	 * @param route the route (both its first and last positions are already filled)
+	 * @param random the random number generator
+	 * @return true if the route was filled, otherwise false (i.e., there is no path between both nodes)
+	 */
+	public boolean fillRandomPath(int[] route, final Random random) {
+		int to = route[route.length - 1];
+		int[][] candidates = getPaths(route[0], to);
+		if(candidates.length == 0) return false;
+		
+		int[] path = candidates[random.nextInt(candidates.length)];
+		System.arraycopy(path, 0, route, 0, path.length);
+		
+		for(int j = path.length; j < route.length - 1; j++) {
+			route[j] = to;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Gets the maximum number of paths between each pair of nodes.
+	 * 
+	 * @return the maximum number of paths between each pair of nodes
+	 */
+	public int getMaxPaths() {
+		return maxPaths;
+	}
+	
+	/**
+	 * Computes the k shortest loop-free paths between two nodes through the Yen's algorithm.
+	 * 
+	 * @param from the index of the node where the paths start
+	 * @param to the index of the node where the paths end
+	 * @return the ranked paths between both nodes
+	 */
+	private int[][] computePaths(final int from, final int to) {
+		if(from == to) return new int[][] {{from}};
+		
+		DijkstraAlgorithm dijkstra = new DijkstraAlgorithm(neighbors, neighborLatency);
+		int[] targets = new int[] {to};
+		
+		dijkstra.execute(from, targets);
+		if(!dijkstra.isSettled(to)) return new int[0][];
+		
+		List<Path> shortest = new ArrayList<Path>();
+		List<Path> candidates = new ArrayList<Path>();
+		shortest.add(new Path(dijkstra.getPath(to)));
+		
+		boolean[] removedNodes = new boolean[NR_NODES];
+		boolean[] removedEdges = new boolean[dijkstra.getNumberOfEdges()];
+		
+		while(shortest.size() < maxPaths) {
+			int[] previous = shortest.get(shortest.size() - 1).nodes;
+			
+			// Each node of the previous path (except the last one) is used as the spur node
+			for(int i = 0; i < previous.length - 1; i++) {
+				int spurNode = previous[i];
+				
+				// Remove the edges which leave the root path towards the already known paths sharing the same root
+				for(Path path : shortest) {
+					if(path.nodes.length > i + 1 && samePrefix(path.nodes, previous, i + 1))
+						removedEdges[dijkstra.getEdgeIndex(spurNode, path.nodes[i + 1])] = true;
+				}
+				
+				// Remove the nodes of the root path (except the spur node) so that the new path is loop-free
+				for(int j = 0; j < i; j++) {
+					removedNodes[previous[j]] = true;
+				}
+				
+				dijkstra.execute(spurNode, targets, removedNodes, removedEdges);
+				
+				if(dijkstra.isSettled(to)) {
+					int[] spurPath = dijkstra.getPath(to);
+					int[] nodes = new int[i + spurPath.length];
+					
+					System.arraycopy(previous, 0, nodes, 0, i);
+					System.arraycopy(spurPath, 0, nodes, i, spurPath.length);
+					
+					Path candidate = new Path(nodes);
+					if(!candidates.contains(candidate) && !shortest.contains(candidate))
+						candidates.add(candidate);
+				}
+				
+				Arrays.fill(removedNodes, false);
+				Arrays.fill(removedEdges, false);
+			}
+			
+			if(candidates.isEmpty()) break;
+			
+			// The best candidate is the next shortest path
+			Path best = candidates.get(0);
+			for(Path candidate : candidates) {
+				if(candidate.compareTo(best) < 0)
+					best = candidate;
+			}
+			
+			candidates.remove(best);
+			shortest.add(best);
+		}
+		
+		// Yen's algorithm finds the paths by latency, thus the ties are ranked at the end
+		Path[] ranked = shortest.toArray(new Path[shortest.size()]);
+		Arrays.sort(ranked);
+		
+		int[][] result = new int[ranked.length][];
+		for(int i = 0; i < ranked.length; i++) {
+			result[i] = ranked[i].nodes;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Checks whether two paths have the same first nodes.
+	 * 
+	 * @param path1 the first path
+	 * @param path2 the second path
+	 * @param length the number of nodes to compare
+	 * @return true if both paths have the same first nodes, otherwise false
+	 */
+	private static boolean samePrefix(final int[] path1, final int[] path2, final int length) {
+		for(int i = 0; i < length; i++) {
+			if(path1[i] != path2[i])
+				return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Class representing a path together with the values used to rank it.
+	 */
+	private class Path implements Comparable<Path> {
+		/** Nodes of the path (both the first and the last node are included) */
+		private final int[] nodes;
+		
+		/** Sum of the latency of the links of the path */
+		private final double latency;
+		
+		/** Lowest bandwidth among the links of the path */
+		private final double bandwidth;
+		
+		Path(final int[] nodes) {
+			this.nodes = nodes;
+			
+			double latency = 0;
+			double bandwidth = Constants.INF;
+			
+			for(int i = 0; i < nodes.length - 1; i++) {
+				int pos = Arrays.binarySearch(neighbors[nodes[i]], nodes[i + 1]);
+				latency += neighborLatency[nodes[i]][pos];
+				bandwidth = Math.min(bandwidth, neighborBandwidth[nodes[i]][pos]);
+			}
+			
+			this.latency = latency;
+			this.bandwidth = bandwidth;
+		}
+		
+		@Override
+		public int compareTo(Path path) {
+			if(latency != path.latency) return latency < path.latency ? -1 : 1;
+			if(bandwidth != path.bandwidth) return bandwidth > path.bandwidth ? -1 : 1;
+			return nodes.length - path.nodes.length;
+		}
+		
+		@Override
+		public boolean equals(Object object) {
+			return object instanceof Path && Arrays.equals(nodes, ((Path) object).nodes);
+		}
+		
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(nodes);
+		}
+	}
+	
+}
@@ -0,0 +1,215 @@
+package org.fog.placement.algorithm.util.routing;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.fog.core.Config;
+import org.fog.core.Constants;
+import org.fog.placement.algorithm.Algorithm;
+
+/**
+ * Class which solves both the tuple and virtual machine migration routing maps of a given module placement through a
+ * deterministic heuristic. The dependencies are routed one at a time (the ones which need more bandwidth first) over
+ * the shortest path where each link costs its latency plus the time needed to send the tuple after all the tuples
+ * already routed through it, and where the links without enough residual bandwidth are ignored. Each migration is
+ * routed over the path with the lowest migration latency (i.e., the sum of the link latency plus the time needed to send
+ * the module over the bandwidth left for migrations). An instance holds its own buffers, thus it must not be shared
+ * between threads.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class RoutingHeuristic {
+	/** Object which holds all the information needed to run the optimization algorithm */
+	private final Algorithm algorithm;
+	
+	/** Object responsible for running the Dijkstra Algorithm (its weights are changed for each route) */
+	private final DijkstraAlgorithm dijkstra;
+	
+	/** Vector holding the indexes of the dependencies in the order in which they are routed */
+	private final int[] dependencyOrder;
+	
+	/** Vector holding the bandwidth available for the dependencies in each link */
+	private final double[] capacity;
+	
+	/** Vector holding the sum of the bandwidth of the dependencies already routed through each link */
+	private final double[] usedBandwidth;
+	
+	/** Vector holding the sum of the tuple network size of the dependencies already routed through each link */
+	private final double[] traffic;
+	
+	/** Vector defining the links which do not have enough residual bandwidth for the current dependency */
+	private final boolean[] removedEdges;
+	
+	/** Vector holding the target of the current route */
+	private final int[] targets;
+	
+	/**
+	 * Creates a new routing heuristic for the current topology.
+	 * 
+	 * @param algorithm the object which holds all the information needed to run the optimization algorithm
+	 */
+	public RoutingHeuristic(final Algorithm algorithm) {
+		this.algorithm = algorithm;
+		
+		int[][] neighbors = algorithm.getfNeighbors();
+		dijkstra = new DijkstraAlgorithm(neighbors, algorithm.getfNeighborLatency());
+		
+		int nrEdges = dijkstra.getNumberOfEdges();
+		capacity = new double[nrEdges];
+		usedBandwidth = new double[nrEdges];
+		traffic = new double[nrEdges];
+		removedEdges = new boolean[nrEdges];
+		targets = new int[1];
+		
+		for(int i = 0; i < neighbors.length; i++) {
+			int first = dijkstra.getFirstEdge(i);
+			
+			for(int j = 0; j < neighbors[i].length; j++) {
+				capacity[first + j] = algorithm.getfNeighborBandwidth()[i][j] * Config.BW_PERCENTAGE_UTIL;
+			}
+		}
+		
+		// The dependencies which need more bandwidth are routed first (ties keep the original order)
+		final double[] bandwidth = algorithm.getdBandwidth();
+		Integer[] order = new Integer[algorithm.getNumberOfDependencies()];
+		for(int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer d1, Integer d2) {
+				return Double.compare(bandwidth[d2], bandwidth[d1]);
+			}
+		});
+		
+		dependencyOrder = new int[order.length];
+		for(int i = 0; i < order.length; i++) {
+			dependencyOrder[i] = order[i];
+		}
+	}
+	
+	/**
+	 * Fills both the tuple and virtual machine migration routing maps for a given module placement.
+	 * 
+	 * @param modulePlacement the vector holding the index of the node where each module is deployed
+	 * @param tupleRoutingMap the matrix to be filled with the routing of each dependency
+	 * @param migrationRoutingMap the matrix to be filled with the routing of each module migration
+	 * @return true if all dependencies were routed within the available bandwidth, otherwise false (in which case the
+	 * routing maps are not complete)
+	 */
+	public boolean solve(final int[] modulePlacement, int[][] tupleRoutingMap, int[][] migrationRoutingMap) {
+		return solveTupleRouting(modulePlacement, tupleRoutingMap) && solveMigrationRouting(modulePlacement, migrationRoutingMap);
+	}
+	
+	/**
+	 * Fills the tuple routing map for a given module placement.
+	 * 
+	 * @param modulePlacement the vector holding the index of the node where each module is deployed
+	 * @param tupleRoutingMap the matrix to be filled with the routing of each dependency
+	 * @return true if all dependencies were routed within the available bandwidth, otherwise false
+	 */
+	private boolean solveTupleRouting(final int[] modulePlacement, int[][] tupleRoutingMap) {
+		int[][] neighbors = algorithm.getfNeighbors();
+		double[][] latency = algorithm.getfNeighborLatency();
+		
+		Arrays.fill(usedBandwidth, 0);
+		Arrays.fill(traffic, 0);
+		
+		for(int dependency : dependencyOrder) {
+			double nw = algorithm.getdNW()[dependency];
+			double bandwidth = algorithm.getdBandwidth()[dependency];
+			
+			// Each link costs its latency plus the time needed to send the tuple after all the others which use it
+			for(int i = 0; i < neighbors.length; i++) {
+				int first = dijkstra.getFirstEdge(i);
+				
+				for(int j = 0; j < neighbors[i].length; j++) {
+					int e = first + j;
+					dijkstra.setWeight(e, latency[i][j] + (traffic[e] + nw)/(capacity[e] + Constants.EPSILON));
+					removedEdges[e] = usedBandwidth[e] + bandwidth > capacity[e];
+				}
+			}
+			
+			int from = modulePlacement[algorithm.getStartModDependency(dependency)];
+			int to = modulePlacement[algorithm.getFinalModDependency(dependency)];
+			
+			int[] path = findPath(from, to, tupleRoutingMap[dependency]);
+			if(path == null) return false;
+			
+			for(int z = 0; z < path.length - 1; z++) {
+				int e = dijkstra.getEdgeIndex(path[z], path[z+1]);
+				usedBandwidth[e] += bandwidth;
+				traffic[e] += nw;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Fills the virtual machine migration routing map for a given module placement.
+	 * 
+	 * @param modulePlacement the vector holding the index of the node where each module is deployed
+	 * @param migrationRoutingMap the matrix to be filled with the routing of each module migration
+	 * @return true if all migrations were routed, otherwise false
+	 */
+	private boolean solveMigrationRouting(final int[] modulePlacement, int[][] migrationRoutingMap) {
+		int[][] neighbors = algorithm.getfNeighbors();
+		double[][] latency = algorithm.getfNeighborLatency();
+		boolean firstOpt = algorithm.isFirstOptimization();
+		
+		Arrays.fill(removedEdges, false);
+		
+		for(int i = 0; i < migrationRoutingMap.length; i++) { // Module index
+			int from = firstOpt ? modulePlacement[i] : algorithm.getCurrentPlacement(i);
+			int to = modulePlacement[i];
+			
+			if(from != to) {
+				double size = algorithm.getmStrg()[i] + algorithm.getmRam()[i];
+				
+				// Each link costs the time needed to send the module over the bandwidth left for migrations
+				for(int j = 0; j < neighbors.length; j++) {
+					int first = dijkstra.getFirstEdge(j);
+					
+					for(int k = 0; k < neighbors[j].length; k++) {
+						double bw = algorithm.getfNeighborBandwidth()[j][k]*(1-Config.BW_PERCENTAGE_UTIL) + Constants.EPSILON;
+						dijkstra.setWeight(first + k, latency[j][k] + size/bw);
+					}
+				}
+			}
+			
+			if(findPath(from, to, migrationRoutingMap[i]) == null) return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Computes the shortest path between two nodes using the current weights and writes it into a route. The positions
+	 * after the end of the path are filled with the last node.
+	 * 
+	 * @param from the index of the node where the route starts
+	 * @param to the index of the node where the route ends
+	 * @param route the route to be filled
+	 * @return the path (both the first and the last node are included); null if there is no path
+	 */
+	private int[] findPath(final int from, final int to, int[] route) {
+		int[] path;
+		
+		if(from == to) {
+			path = new int[] {from};
+		}else {
+			targets[0] = to;
+			dijkstra.execute(from, targets, null, removedEdges);
+			if(!dijkstra.isSettled(to)) return null;
+			path = dijkstra.getPath(to);
+		}
+		
+		System.arraycopy(path, 0, route, 0, path.length);
+		Arrays.fill(route, path.length, route.length, to);
+		return path;
+	}
+	
+}
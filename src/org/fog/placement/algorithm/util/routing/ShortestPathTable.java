@@ -0,0 +1,216 @@
+package org.fog.placement.algorithm.util.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class which holds the shortest paths between each two fog nodes, both in number of hops and in latency. The tables are
+ * computed once (one BFS and one Dijkstra execution per source node, spread across the available cores) so that any
+ * query is a simple table lookup. A new table must be created whenever the topology changes.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class ShortestPathTable {
+	/** Hop count between two nodes which are not connected by any path */
+	public static final int UNREACHABLE = -1;
+	
+	/** Minimum number of nodes for the table to be computed in parallel */
+	private static final int PARALLEL_THRESHOLD = 64;
+	
+	/** Number of fog nodes within the fog network */
+	private final int NR_NODES;
+	
+	/** Adjacency lists holding the indexes of the neighbors of each fog node */
+	private final int[][] neighbors;
+	
+	/** Adjacency lists holding the link latency between each fog node and each one of its neighbors */
+	private final double[][] neighborLatency;
+	
+	/** Matrix holding the minimum number of hops between each two nodes */
+	private final int[][] hopCount;
+	
+	/** Matrix holding the minimum latency between each two nodes */
+	private final double[][] latency;
+	
+	/** Matrix holding the next hop in the minimum latency path between each two nodes */
+	private final int[][] nextHop;
+	
+	/**
+	 * Creates and computes the shortest path tables for a given topology.
+	 * 
+	 * @param neighbors the adjacency lists holding the indexes of the neighbors of each fog node
+	 * @param neighborLatency the adjacency lists holding the link latency between each fog node and each one of its neighbors
+	 */
+	public ShortestPathTable(final int[][] neighbors, final double[][] neighborLatency) {
+		this.NR_NODES = neighbors.length;
+		this.neighbors = neighbors;
+		this.neighborLatency = neighborLatency;
+		
+		hopCount = new int[NR_NODES][];
+		latency = new double[NR_NODES][];
+		nextHop = new int[NR_NODES][];
+		
+		int nrThreads = Runtime.getRuntime().availableProcessors();
+		
+		if(NR_NODES < PARALLEL_THRESHOLD || nrThreads == 1) {
+			computeSources(0, NR_NODES);
+		}else {
+			computeSourcesInParallel(nrThreads);
+		}
+	}
+	
+	/**
+	 * Computes the table rows of all source nodes, splitting them among a given number of threads.
+	 * 
+	 * @param nrThreads the number of threads
+	 */
+	private void computeSourcesInParallel(final int nrThreads) {
+		ExecutorService executor = Executors.newFixedThreadPool(nrThreads);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		int chunk = (NR_NODES + nrThreads - 1) / nrThreads;
+		
+		try {
+			for(int i = 0; i < NR_NODES; i += chunk) {
+				final int from = i;
+				final int to = Math.min(NR_NODES, i + chunk);
+				
+				futures.add(executor.submit(new Runnable() {
+					@Override
+					public void run() {
+						computeSources(from, to);
+					}
+				}));
+			}
+			
+			for(Future<?> future : futures) {
+				future.get();
+			}
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Shortest path computation was interrupted", e);
+		}catch (ExecutionException e) {
+			throw new IllegalStateException("Shortest path computation has failed", e.getCause());
+		}finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Computes the table rows of a given range of source nodes. Each row is only written by a single thread.
+	 * 
+	 * @param from the index of the first source node
+	 * @param to the index after the last source node
+	 */
+	private void computeSources(final int from, final int to) {
+		int[] queue = new int[NR_NODES];
+		DijkstraAlgorithm dijkstra = new DijkstraAlgorithm(neighbors, neighborLatency);
+		
+		for(int source = from; source < to; source++) {
+			hopCount[source] = computeHopCount(source, queue);
+			computeLatency(source, dijkstra);
+		}
+	}
+	
+	/**
+	 * Computes the minimum number of hops from a given source node towards all other nodes (BFS).
+	 * 
+	 * @param source the index of the source node
+	 * @param queue the auxiliary vector used as the BFS queue
+	 * @return the vector holding the minimum number of hops towards each node
+	 */
+	private int[] computeHopCount(final int source, final int[] queue) {
+		int[] hops = new int[NR_NODES];
+		Arrays.fill(hops, UNREACHABLE);
+		
+		int head = 0;
+		int tail = 0;
+		
+		hops[source] = 0;
+		queue[tail++] = source;
+		
+		while(head < tail) {
+			int node = queue[head++];
+			
+			for(int neighbor : neighbors[node]) {
+				if(hops[neighbor] != UNREACHABLE) continue;
+				
+				hops[neighbor] = hops[node] + 1;
+				queue[tail++] = neighbor;
+			}
+		}
+		
+		return hops;
+	}
+	
+	/**
+	 * Computes both the minimum latency and the corresponding next hop from a given source node towards all other nodes (Dijkstra).
+	 * 
+	 * @param source the index of the source node
+	 * @param dijkstra the Dijkstra instance owned by the current thread
+	 */
+	private void computeLatency(final int source, final DijkstraAlgorithm dijkstra) {
+		double[] distance = new double[NR_NODES];
+		int[] firstHop = new int[NR_NODES];
+		
+		dijkstra.execute(source);
+		
+		for(int node = 0; node < NR_NODES; node++) {
+			distance[node] = dijkstra.getDistance(node);
+			firstHop[node] = dijkstra.getNextHop(node);
+		}
+		
+		latency[source] = distance;
+		nextHop[source] = firstHop;
+	}
+	
+	/**
+	 * Gets the minimum number of hops between two nodes.
+	 * 
+	 * @param from the index of the source node
+	 * @param to the index of the destination node
+	 * @return the minimum number of hops; UNREACHABLE if there is no path between both nodes
+	 */
+	public int getHopCount(final int from, final int to) {
+		return hopCount[from][to];
+	}
+	
+	/**
+	 * Gets the minimum latency between two nodes.
+	 * 
+	 * @param from the index of the source node
+	 * @param to the index of the destination node
+	 * @return the minimum latency; Constants.INF if there is no path between both nodes
+	 */
+	public double getLatency(final int from, final int to) {
+		return latency[from][to];
+	}
+	
+	/**
+	 * Gets the next hop in the minimum latency path between two nodes.
+	 * 
+	 * @param from the index of the source node
+	 * @param to the index of the destination node
+	 * @return the index of the next hop; -1 if both are the same node or if there is no path between them
+	 */
+	public int getNextHop(final int from, final int to) {
+		return nextHop[from][to];
+	}
+	
+	/**
+	 * Verifies whether there is a path between two nodes.
+	 * 
+	 * @param from the index of the source node
+	 * @param to the index of the destination node
+	 * @return true if there is a path, otherwise false
+	 */
+	public boolean isReachable(final int from, final int to) {
+		return hopCount[from][to] != UNREACHABLE;
+	}
+	
+}
@@ -1,50 +0,0 @@
-package org.fog.placement.algorithm.util.routing;
-
-/**
- * Class which defines vertexes for the Dijkstra Algorithm.
- * 
- * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
- * @see    https://www.vogella.com/tutorials/JavaAlgorithmsDijkstra/article.html
- * @since  July, 2019
- */
-public class Vertex {
-    final private String name;
-
-    public Vertex(String name) {
-        this.name = name;
-    }
-
-    public String getName() {
-        return name;
-    }
-
-    @Override
-	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((name == null) ? 0 : name.hashCode());
-		return result;
-	}
-
-	@Override
-	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		Vertex other = (Vertex) obj;
-		if (name == null) {
-			if (other.name != null)
-				return false;
-		} else if (!name.equals(other.name))
-			return false;
-		return true;
-	}
-
-	@Override
-    public String toString() {
-        return name;
-    }
-}
\ No newline at end of file
@@ -188,13 +188,11 @@ public class Util {
 	 */
 	public static int[][] copy(final int[][] input) {
 		int r = input.length;
-		int c = input[0].length;
 		
-		int[][] output = new int[r][c];
+		int[][] output = new int[r][];
 		
 		for(int i = 0; i < r ;i++)
-			for(int j = 0; j < c ; j++)
-				output[i][j] = input[i][j];
+			output[i] = input[i].clone();
 				
 		return output;
 	}
@@ -0,0 +1,173 @@
+package org.fog.placement.algorithm;
+
+import static org.fog.placement.algorithm.TestTopologies.assertClose;
+import static org.fog.placement.algorithm.TestTopologies.assertSameCosts;
+
+import java.util.Random;
+
+import org.fog.core.Config;
+import org.fog.core.Topology;
+import org.fog.placement.algorithm.greedy.GreedyAlgorithm;
+import org.junit.Test;
+
+/**
+ * Class which checks that the incremental evaluation of the SolutionEvaluator matches a full re-evaluation of the
+ * solution (see CostFunction) along a sequence of random moves.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class SolutionEvaluatorTest {
+	private static final int NR_MOVES = 300;
+	private static final long SEED = 42;
+	private static final double REL_TOL = 1E-9;
+	
+	@Test
+	public void firstOptimization() {
+		for(String name : TestTopologies.VALIDATION_TOPOLOGIES) {
+			Algorithm algorithm = createAlgorithm(name);
+			checkRandomMoves(name, algorithm, new Random(SEED));
+		}
+	}
+	
+	@Test
+	public void reconfiguration() {
+		for(String name : TestTopologies.VALIDATION_TOPOLOGIES) {
+			Algorithm algorithm = createAlgorithm(name);
+			Random random = new Random(SEED);
+			
+			// Every module is already deployed, thus the migration costs and deadlines are also evaluated
+			int[] current = Solution.generateRandomPlacement(algorithm, algorithm.getNumberOfModules(), random);
+			for(int i = 0; i < current.length; i++) {
+				algorithm.setCurrentPlacement(i, current[i]);
+			}
+			
+			checkRandomMoves(name, algorithm, random);
+		}
+	}
+	
+	private static Algorithm createAlgorithm(String name) {
+		Topology topology = TestTopologies.create(name);
+		return new GreedyAlgorithm(topology.getFogDevices(), topology.getApplications(), topology.getSensors(),
+				topology.getActuators());
+	}
+	
+	/**
+	 * Applies a sequence of random moves (module relocations, tuple reroutes and migration reroutes) to the evaluator of a
+	 * random solution. The change predicted by each delta method must be equal to the actual change, and the costs of the
+	 * evaluator must be equal to the ones of a full re-evaluation after each move.
+	 */
+	private static void checkRandomMoves(String name, Algorithm algorithm, Random random) {
+		int nrNodes = algorithm.getNumberOfNodes();
+		int nrModules = algorithm.getNumberOfModules();
+		int nrDependencies = algorithm.getNumberOfDependencies();
+		
+		SolutionEvaluator evaluator = new SolutionEvaluator(algorithm, Solution.generateRandomSolution(algorithm, random));
+		checkFullEvaluation(name + " (initial)", algorithm, evaluator);
+		
+		for(int move = 0; move < NR_MOVES; move++) {
+			String message = name + " (move " + move + ")";
+			
+			switch(random.nextInt(3)) {
+				case 0:
+					int module = random.nextInt(nrModules);
+					int node = random.nextInt(nrNodes);
+					
+					double[] before = snapshot(evaluator);
+					double[] delta = evaluator.deltaMoveModule(module, node).clone();
+					evaluator.moveModule(module, node);
+					checkDelta(message + " move module", before, delta, evaluator);
+					
+					// The routes of the module need to start or finish in its new node
+					int[] placement = placement(evaluator, nrModules);
+					int[][] routing = Solution.generateRandomTupleRouting(algorithm, placement, nrNodes, nrDependencies, random);
+					int[][] migration = Solution.generateRandomMigrationRouting(algorithm, placement, nrNodes, nrModules, random);
+					
+					for(int i = 0; i < nrDependencies; i++) {
+						if(algorithm.getStartModDependency(i) == module || algorithm.getFinalModDependency(i) == module) {
+							reroute(message, evaluator, i, routing[i]);
+						}
+					}
+					rerouteMigration(message, evaluator, module, migration[module]);
+					break;
+				case 1:
+					int dependency = random.nextInt(nrDependencies);
+					routing = Solution.generateRandomTupleRouting(algorithm, placement(evaluator, nrModules), nrNodes,
+							nrDependencies, random);
+					reroute(message, evaluator, dependency, routing[dependency]);
+					break;
+				default:
+					module = random.nextInt(nrModules);
+					migration = Solution.generateRandomMigrationRouting(algorithm, placement(evaluator, nrModules), nrNodes,
+							nrModules, random);
+					rerouteMigration(message, evaluator, module, migration[module]);
+					break;
+			}
+			
+			checkFullEvaluation(message, algorithm, evaluator);
+		}
+	}
+	
+	private static void reroute(String message, SolutionEvaluator evaluator, int dependency, int[] route) {
+		double[] before = snapshot(evaluator);
+		double[] delta = evaluator.deltaReroute(dependency, route).clone();
+		evaluator.reroute(dependency, route);
+		checkDelta(message + " reroute dependency " + dependency, before, delta, evaluator);
+	}
+	
+	private static void rerouteMigration(String message, SolutionEvaluator evaluator, int module, int[] route) {
+		double[] before = snapshot(evaluator);
+		double[] delta = evaluator.deltaRerouteMigration(module, route).clone();
+		evaluator.rerouteMigration(module, route);
+		checkDelta(message + " reroute migration " + module, before, delta, evaluator);
+	}
+	
+	private static void checkDelta(String message, double[] before, double[] delta, SolutionEvaluator evaluator) {
+		double[] after = snapshot(evaluator);
+		for(int i = 0; i < after.length; i++) {
+			assertClose(message + ": delta " + i, after[i] - before[i], delta[i], REL_TOL);
+		}
+	}
+	
+	private static void checkFullEvaluation(String message, Algorithm algorithm, SolutionEvaluator evaluator) {
+		Solution incremental = evaluator.toSolution();
+		
+		int[][] routing = new int[algorithm.getNumberOfDependencies()][];
+		for(int i = 0; i < routing.length; i++) {
+			routing[i] = evaluator.getRoute(i).clone();
+		}
+		
+		int[][] migration = new int[algorithm.getNumberOfModules()][];
+		for(int i = 0; i < migration.length; i++) {
+			migration[i] = evaluator.getMigrationRoute(i).clone();
+		}
+		
+		Solution full = new Solution(algorithm, placement(evaluator, algorithm.getNumberOfModules()), routing, migration);
+		assertSameCosts(message, full, incremental, REL_TOL);
+		
+		for(int i = 0; i < algorithm.getNumberOfLoops(); i++) {
+			assertClose(message + ": loop " + i, full.getLoopDeadline(i), incremental.getLoopDeadline(i), REL_TOL);
+		}
+		for(int i = 0; i < algorithm.getNumberOfModules(); i++) {
+			assertClose(message + ": migration " + i, full.getMigrationDeadline(i), incremental.getMigrationDeadline(i), REL_TOL);
+		}
+	}
+	
+	private static double[] snapshot(SolutionEvaluator evaluator) {
+		double[] values = new double[Config.NR_OBJECTIVES + 1];
+		for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
+			values[i] = evaluator.getDetailedCost(i);
+		}
+		values[SolutionEvaluator.CONSTRAINT] = evaluator.getConstraint();
+		return values;
+	}
+	
+	private static int[] placement(SolutionEvaluator evaluator, int nrModules) {
+		int[] placement = new int[nrModules];
+		for(int i = 0; i < nrModules; i++) {
+			placement[i] = evaluator.getModuleNode(i);
+		}
+		return placement;
+	}
+	
+}
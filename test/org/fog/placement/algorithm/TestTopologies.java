@@ -0,0 +1,73 @@
+package org.fog.placement.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Calendar;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.fog.core.Config;
+import org.fog.core.Topology;
+
+/**
+ * Class which creates the topologies used by the tests of the optimization algorithms.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class TestTopologies {
+	/** Names of the validation topologies (they are small enough to be solved by the exact algorithms) */
+	public static final String[] VALIDATION_TOPOLOGIES = {"ValidationTest1", "ValidationTest2", "ValidationTest3"};
+	
+	private TestTopologies() { }
+	
+	/**
+	 * Creates a new topology, removing all the elements of the previously created ones.
+	 * 
+	 * @param name the name of the topology class (within the org.fog.test package)
+	 * @return the topology
+	 */
+	public static Topology create(String name) {
+		Log.disable();
+		CloudSim.init(Calendar.getInstance());
+		Config.PRINT_ALGORITHM_BEST_ITER = false;
+		Topology.clean();
+		
+		try {
+			return (Topology) Class.forName("org.fog.test." + name).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException("Unknown topology: " + name, e);
+		}
+	}
+	
+	/**
+	 * Asserts that two solutions have the same costs and constraint value (within a given relative tolerance).
+	 * 
+	 * @param message the message to be displayed if they are different
+	 * @param expected the expected solution
+	 * @param actual the actual solution
+	 * @param relTol the relative tolerance
+	 */
+	public static void assertSameCosts(String message, Solution expected, Solution actual, double relTol) {
+		assertNotNull(message + ": no solution", actual);
+		assertClose(message + ": constraint", expected.getConstraint(), actual.getConstraint(), relTol);
+		for(int i = 0; i < Config.NR_OBJECTIVES; i++) {
+			assertClose(message + ": cost " + i, expected.getDetailedCost(i), actual.getDetailedCost(i), relTol);
+		}
+	}
+	
+	/**
+	 * Asserts that two values are equal within a given relative tolerance.
+	 * 
+	 * @param message the message to be displayed if they are different
+	 * @param expected the expected value
+	 * @param actual the actual value
+	 * @param relTol the relative tolerance
+	 */
+	public static void assertClose(String message, double expected, double actual, double relTol) {
+		double tol = relTol * Math.max(1, Math.max(Math.abs(expected), Math.abs(actual)));
+		assertEquals(message, expected, actual, tol);
+	}
+	
+}
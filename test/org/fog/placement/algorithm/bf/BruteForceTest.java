@@ -0,0 +1,83 @@
+package org.fog.placement.algorithm.bf;
+
+import static org.fog.placement.algorithm.TestTopologies.assertSameCosts;
+
+import org.fog.core.Config;
+import org.fog.core.Topology;
+import org.fog.placement.algorithm.Solution;
+import org.fog.placement.algorithm.TestTopologies;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Class which checks that the brute force algorithm reaches the same optimum regardless of the number of threads and of
+ * the depth at which the search tree is split.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class BruteForceTest {
+	private static final int[] NR_THREADS = {1, 4};
+	private static final int[] SPLIT_DEPTHS = {1, 2, 3};
+	private static final double REL_TOL = 1E-9;
+	
+	private int nrThreads;
+	private int splitDepth;
+	
+	@Before
+	public void saveConfig() {
+		nrThreads = Config.NR_THREADS_BF;
+		splitDepth = Config.SPLIT_DEPTH_BF;
+	}
+	
+	@After
+	public void restoreConfig() {
+		Config.NR_THREADS_BF = nrThreads;
+		Config.SPLIT_DEPTH_BF = splitDepth;
+	}
+	
+	@Test
+	public void validationTest1() {
+		checkSameOptimum("ValidationTest1");
+	}
+	
+	@Test
+	public void validationTest2() {
+		checkSameOptimum("ValidationTest2");
+	}
+	
+	@Test
+	public void validationTest3() {
+		checkSameOptimum("ValidationTest3");
+	}
+	
+	private static void checkSameOptimum(String name) {
+		Solution reference = solve(name, 1, 1);
+		
+		for(int threads : NR_THREADS) {
+			for(int depth : SPLIT_DEPTHS) {
+				assertSameCosts(name + " (" + threads + " threads, split depth " + depth + ")", reference,
+						solve(name, threads, depth), REL_TOL);
+			}
+		}
+	}
+	
+	/**
+	 * Solves a given topology with the brute force algorithm.
+	 * 
+	 * @param name the name of the topology
+	 * @param threads the number of threads
+	 * @param depth the split depth of the search tree
+	 * @return the optimal solution
+	 */
+	public static Solution solve(String name, int threads, int depth) {
+		Config.NR_THREADS_BF = threads;
+		Config.SPLIT_DEPTH_BF = depth;
+		
+		Topology topology = TestTopologies.create(name);
+		return new BruteForce(topology.getFogDevices(), topology.getApplications(), topology.getSensors(),
+				topology.getActuators()).execute();
+	}
+	
+}
@@ -0,0 +1,54 @@
+package org.fog.placement.algorithm.lp;
+
+import static org.fog.placement.algorithm.TestTopologies.assertSameCosts;
+
+import org.fog.core.Config;
+import org.fog.core.Topology;
+import org.fog.placement.algorithm.Solution;
+import org.fog.placement.algorithm.TestTopologies;
+import org.fog.placement.algorithm.bf.BruteForceTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Class which checks that the linear programming solved by the built-in branch-and-bound solver reaches the same optimum
+ * as the brute force algorithm.
+ * 
+ * @author José Carlos Ribeiro Vieira @ Instituto Superior Técnico (IST), Lisbon-Portugal
+ * @since  July, 2019
+ */
+public class LinearProgrammingTest {
+	private static final double REL_TOL = 1E-6;
+	
+	private boolean cplex;
+	
+	@Before
+	public void saveConfig() {
+		cplex = Config.CPLEX_LP;
+		Config.CPLEX_LP = false;
+	}
+	
+	@After
+	public void restoreConfig() {
+		Config.CPLEX_LP = cplex;
+	}
+	
+	@Test
+	public void validationTest1() {
+		checkSameOptimum("ValidationTest1");
+	}
+	
+	// The other validation topologies are not checked since the built-in solver takes several minutes to prove their optimum
+	
+	private static void checkSameOptimum(String name) {
+		Solution reference = BruteForceTest.solve(name, 1, Config.SPLIT_DEPTH_BF);
+		
+		Topology topology = TestTopologies.create(name);
+		Solution solution = new LinearProgramming(topology.getFogDevices(), topology.getApplications(), topology.getSensors(),
+				topology.getActuators()).execute();
+		
+		assertSameCosts(name + " (linear programming)", reference, solution, REL_TOL);
+	}
+	
+}